@@ -0,0 +1,97 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.config;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.util.BoundedWaitTaskExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors used for work that must not run on the HTTP request thread
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Value("${notification.dispatch.core-pool-size:2}")
+    private int dispatchCorePoolSize;
+
+    @Value("${notification.dispatch.max-pool-size:4}")
+    private int dispatchMaxPoolSize;
+
+    @Value("${notification.dispatch.queue-capacity:5000}")
+    private int dispatchQueueCapacity;
+
+    @Value("${dashboard.parallel.max-concurrency:24}")
+    private int dashboardMaxConcurrency;
+
+    @Value("${dashboard.parallel.acquire-timeout-ms:500}")
+    private long dashboardAcquireTimeoutMs;
+
+    @Value("${jobs.max-concurrency:2}")
+    private int jobMaxConcurrency;
+
+    @Value("${jobs.queue-capacity:20}")
+    private int jobQueueCapacity;
+
+    /**
+     * Bounded pool delivering WebSocket notifications after the DB transaction commits.
+     * When the queue is full the submitting thread delivers the message itself,
+     * which slows the producer down instead of dropping notifications.
+     */
+    @Bean(name = "notificationDispatchExecutor")
+    public ThreadPoolTaskExecutor notificationDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(dispatchCorePoolSize);
+        executor.setMaxPoolSize(dispatchMaxPoolSize);
+        executor.setQueueCapacity(dispatchQueueCapacity);
+        executor.setThreadNamePrefix("notification-dispatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Virtual-thread executor for Server-Sent Events notification streams.
+     * Replays and pushes to slow mobile clients block cheaply here
+     * instead of occupying request or dispatch pool threads.
+     */
+    @Bean(name = "notificationStreamExecutor")
+    public SimpleAsyncTaskExecutor notificationStreamExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("notification-stream-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Virtual-thread executor for dashboard panels that query independent tables concurrently.
+     * The concurrency limit keeps simultaneous dashboard requests from draining the JDBC pool;
+     * it is sized for several page loads at once (a manager overview alone runs 8 sections).
+     * Panels over the limit wait briefly for a slot and are only rejected once that wait runs out.
+     */
+    @Bean(name = "dashboardExecutor")
+    public BoundedWaitTaskExecutor dashboardExecutor() {
+        return new BoundedWaitTaskExecutor("dashboard-", dashboardMaxConcurrency, dashboardAcquireTimeoutMs);
+    }
+
+    /**
+     * Bounded pool for background jobs such as form generation and Excel imports.
+     * When it is full new jobs stay QUEUED in the database and are picked up by the job poll.
+     * Jobs interrupted by shutdown resume from their checkpoint, so the pool does not wait for them.
+     */
+    @Bean(name = "backgroundJobExecutor")
+    public ThreadPoolTaskExecutor backgroundJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobMaxConcurrency);
+        executor.setMaxPoolSize(jobMaxConcurrency);
+        executor.setQueueCapacity(jobQueueCapacity);
+        executor.setThreadNamePrefix("background-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.config;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Serve a GET endpoint with a version-based ETag and answer matching If-None-Match
+ * requests with 304 Not Modified before the controller runs.
+ * Can be placed on a controller class or on individual handler methods.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalCache {
+
+    /**
+     * Resource whose version identifies the response
+     */
+    CachedResource value();
+
+    /**
+     * How long the browser may reuse the response without asking; 0 means revalidate every time
+     */
+    int maxAgeSeconds() default 0;
+}
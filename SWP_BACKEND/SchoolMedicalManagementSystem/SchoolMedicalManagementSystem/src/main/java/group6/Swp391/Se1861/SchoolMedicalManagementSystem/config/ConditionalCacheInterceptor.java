@@ -0,0 +1,90 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.config;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IResourceVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers conditional GET requests for {@link ConditionalCache} endpoints.
+ * The ETag is taken from in-memory resource versions before the controller runs, so an
+ * unchanged poll returns 304 without any database work. The version is read before the data
+ * so a write racing with the request can only make the ETag older than the body, never newer.
+ * Runs after authentication; a 304 only ever confirms a tag the caller already received.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalCacheInterceptor implements HandlerInterceptor {
+
+    static final String ETAG_ATTRIBUTE = ConditionalCacheInterceptor.class.getName() + ".etag";
+    static final String POLICY_ATTRIBUTE = ConditionalCacheInterceptor.class.getName() + ".policy";
+
+    private final IResourceVersionService resourceVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        ConditionalCache policy = findPolicy(handlerMethod);
+        if (policy == null) {
+            return true;
+        }
+
+        String etag = resourceVersionService.currentETag(policy.value());
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        request.setAttribute(POLICY_ATTRIBUTE, policy);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(policy));
+            return false;
+        }
+        return true;
+    }
+
+    static String cacheControl(ConditionalCache policy) {
+        // Responses depend on the caller's role, so only the browser may store them
+        CacheControl cacheControl = policy.maxAgeSeconds() > 0
+                ? CacheControl.maxAge(policy.maxAgeSeconds(), TimeUnit.SECONDS)
+                : CacheControl.noCache();
+        return cacheControl.cachePrivate().getHeaderValue();
+    }
+
+    private static ConditionalCache findPolicy(HandlerMethod handlerMethod) {
+        ConditionalCache policy = handlerMethod.getMethodAnnotation(ConditionalCache.class);
+        if (policy == null) {
+            policy = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), ConditionalCache.class);
+        }
+        return policy;
+    }
+
+    /**
+     * If-None-Match uses weak comparison: a W/ prefix is ignored, and * matches any tag
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
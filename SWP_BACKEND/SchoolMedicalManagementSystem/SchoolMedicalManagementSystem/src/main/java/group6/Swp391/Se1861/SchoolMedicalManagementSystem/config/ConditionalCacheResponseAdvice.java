@@ -0,0 +1,56 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Map;
+
+/**
+ * Adds the ETag captured by {@link ConditionalCacheInterceptor} to successful responses.
+ * Error responses and degraded dashboard results are marked no-store so that a partial
+ * answer is never revalidated as current.
+ */
+@ControllerAdvice
+public class ConditionalCacheResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(ConditionalCache.class)
+                || returnType.getContainingClass().isAnnotationPresent(ConditionalCache.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+        Object etag = servletRequest.getServletRequest().getAttribute(ConditionalCacheInterceptor.ETAG_ATTRIBUTE);
+        Object policy = servletRequest.getServletRequest().getAttribute(ConditionalCacheInterceptor.POLICY_ATTRIBUTE);
+        if (etag == null || policy == null) {
+            return body;
+        }
+
+        boolean degraded = body instanceof Map<?, ?> map && Boolean.TRUE.equals(map.get("degraded"));
+        if (servletResponse.getServletResponse().getStatus() != 200 || degraded) {
+            response.getHeaders().setCacheControl(CacheControl.noStore().getHeaderValue());
+            return body;
+        }
+
+        response.getHeaders().setETag((String) etag);
+        response.getHeaders().set(HttpHeaders.CACHE_CONTROL,
+                ConditionalCacheInterceptor.cacheControl((ConditionalCache) policy));
+        return body;
+    }
+}
@@ -0,0 +1,24 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ConditionalCacheInterceptor conditionalCacheInterceptor;
+
+    @Value("${http.conditional-cache.enabled:true}")
+    private boolean conditionalCacheEnabled;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (conditionalCacheEnabled) {
+            registry.addInterceptor(conditionalCacheInterceptor);
+        }
+    }
+}
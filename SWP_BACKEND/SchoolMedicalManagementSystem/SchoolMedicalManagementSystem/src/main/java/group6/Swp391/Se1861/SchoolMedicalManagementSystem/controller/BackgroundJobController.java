@@ -0,0 +1,37 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.controller;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.BackgroundJobDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Status polling and cancellation for background jobs.
+ * Progress is also pushed over WebSocket on /user/queue/jobs.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class BackgroundJobController {
+
+    private final IBackgroundJobService backgroundJobService;
+
+    /**
+     * Get status, progress and, once finished, the result of a job
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<BackgroundJobDTO> getJob(@PathVariable Long id, @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(backgroundJobService.getJob(id, user));
+    }
+
+    /**
+     * Cancel a job; a running job stops after the chunk it is processing
+     */
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<BackgroundJobDTO> cancelJob(@PathVariable Long id, @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(backgroundJobService.cancel(id, user));
+    }
+}
@@ -7,16 +7,21 @@ import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckForm;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Student;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CampaignStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IHealthCheckCampaignService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IHealthCheckFormService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IHealthCheckResultReportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -38,6 +43,8 @@ public class HealthCheckCampaignController {
 
     private final IHealthCheckCampaignService campaignService;
     private final IHealthCheckFormService healthCheckFormService;
+    private final IHealthCheckResultReportService resultReportService;
+    private final IBackgroundJobService backgroundJobService;
 
     /**
      * Create a new health check campaign
@@ -180,13 +187,15 @@ public class HealthCheckCampaignController {
     }
 
     /**
-     * Generate health check forms for eligible students
+     * Generate health check forms for eligible students.
+     * Runs as a background job; the response carries the job id to poll at /api/jobs/{jobId}.
      */
     @PostMapping("/{id}/generate-forms")
-    public ResponseEntity<Map<String, Object>> generateForms(@PathVariable Long id) {
+    public ResponseEntity<?> generateForms(@PathVariable Long id, @AuthenticationPrincipal User user) {
         try {
-            Map<String, Object> response = campaignService.generateHealthCheckForms(id);
-            return ResponseEntity.ok(response);
+            BackgroundJobDTO job = backgroundJobService.submit(
+                    JobType.HEALTH_CHECK_FORM_GENERATION, id, null, null, user);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
         } catch (RuntimeException e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -196,19 +205,26 @@ public class HealthCheckCampaignController {
     }
 
     /**
-     * Send notifications to parents for health check campaign
+     * Send notifications to parents for health check campaign.
+     * Runs as a background job; the response carries the job id to poll at /api/jobs/{jobId}.
      */
     @PostMapping("/{id}/send-notifications")
-    public ResponseEntity<Map<String, Object>> sendNotificationsToParents(
+    public ResponseEntity<?> sendNotificationsToParents(
             @PathVariable Long id,
-            @RequestBody(required = false) Map<String, String> requestBody) {
+            @RequestBody(required = false) Map<String, String> requestBody,
+            @AuthenticationPrincipal User user) {
         try {
-            String customMessage = null;
+            Map<String, Object> parameters = new HashMap<>();
             if (requestBody != null && requestBody.containsKey("message")) {
-                customMessage = requestBody.get("message");
+                parameters.put("message", requestBody.get("message"));
             }
-            Map<String, Object> response = campaignService.sendNotificationsToParents(id, customMessage);
-            return ResponseEntity.ok(response);
+            if (requestBody != null && requestBody.containsKey("digest")) {
+                // One notification per parent listing all of their children
+                parameters.put("digest", Boolean.parseBoolean(requestBody.get("digest")));
+            }
+            BackgroundJobDTO job = backgroundJobService.submit(
+                    JobType.HEALTH_CHECK_PARENT_NOTIFICATION, id, parameters, null, user);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
         } catch (RuntimeException e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -347,16 +363,19 @@ public class HealthCheckCampaignController {
     }
 
     /**
-     * Get health check results for a campaign
+     * Get health check results for a campaign.
+     * The JSON array is streamed to the client one student at a time.
      */
     @GetMapping("/{id}/results")
-    public ResponseEntity<List<Map<String, Object>>> getCampaignResults(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> getCampaignResults(@PathVariable Long id) {
         try {
-            List<Map<String, Object>> results = campaignService.getCampaignResults(id);
-            return ResponseEntity.ok(results);
+            // Reject unknown campaigns before the response is committed
+            campaignService.getCampaignModelById(id);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
+        StreamingResponseBody body = out -> resultReportService.writeCampaignResults(id, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
@@ -539,6 +558,7 @@ class HealthCheckCampaignManagerController {
 
     private final IHealthCheckCampaignService campaignService;
     private final IHealthCheckFormService healthCheckFormService;
+    private final IHealthCheckResultReportService resultReportService;
 
     /**
      * Get campaigns by status for manager review
@@ -601,16 +621,19 @@ class HealthCheckCampaignManagerController {
     }
 
     /**
-     * Get health check results for a campaign
+     * Get health check results for a campaign.
+     * The JSON array is streamed to the client one student at a time.
      */
     @GetMapping("/{id}/results")
-    public ResponseEntity<List<Map<String, Object>>> getCampaignResults(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> getCampaignResults(@PathVariable Long id) {
         try {
-            List<Map<String, Object>> results = campaignService.getCampaignResults(id);
-            return ResponseEntity.ok(results);
+            // Reject unknown campaigns before the response is committed
+            campaignService.getCampaignModelById(id);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
+        StreamingResponseBody body = out -> resultReportService.writeCampaignResults(id, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/{id}/forms")
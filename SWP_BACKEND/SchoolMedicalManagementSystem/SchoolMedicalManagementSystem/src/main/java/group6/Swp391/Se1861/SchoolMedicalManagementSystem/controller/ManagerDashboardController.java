@@ -1,21 +1,23 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.config.ConditionalCache;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.*;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.*;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.*;
-import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CampaignStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.TimeBucket;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.Month;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,40 +26,39 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasRole('MANAGER')")
 public class ManagerDashboardController {
 
-    private final IVaccinationCampaignService vaccinationCampaignService;
-    private final IHealthCheckCampaignService healthCheckCampaignService;
     private final IMedicalEventService medicalEventService;
-    private final IMedicalSupplyService medicalSupplyService;
-    private final IRestockRequestService restockRequestService;
     private final IUserService userService;
+    private final IManagerDashboardStatisticsService dashboardStatisticsService;
+    private final ITimeBucketAggregationService timeBucketAggregationService;
+    private final IDashboardCompositionService dashboardCompositionService;
 
     /**
      * Get comprehensive dashboard statistics
      */
+    @ConditionalCache(CachedResource.MANAGER_DASHBOARD)
     @GetMapping("/statistics")
     public ResponseEntity<Map<String, Object>> getDashboardStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        
         try {
-            // Vaccination Campaign Statistics
-            Map<String, Object> vaccinationStats = getVaccinationStatistics();
-            
-            // Health Check Statistics
-            Map<String, Object> healthCheckStats = getHealthCheckStatistics();
-            
-            // Medical Event Statistics
-            Map<String, Object> medicalEventStats = getMedicalEventStatistics();
-            
-            // Inventory Statistics
-            Map<String, Object> inventoryStats = getInventoryStatistics();
-            
-            stats.put("vaccination", vaccinationStats);
-            stats.put("healthCheck", healthCheckStats);
-            stats.put("medicalEvents", medicalEventStats);
-            stats.put("inventory", inventoryStats);
+            // Sections read disjoint tables, so they are computed concurrently
+            Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+            sections.put("vaccination", dashboardStatisticsService::getVaccinationStatistics);
+            sections.put("healthCheck", dashboardStatisticsService::getHealthCheckStatistics);
+            sections.put("medicalEvents", dashboardStatisticsService::getMedicalEventStatistics);
+            sections.put("inventory", dashboardStatisticsService::getInventoryStatistics);
+            
+            DashboardCompositionResult result = dashboardCompositionService.compose(sections);
+            Map<String, Object> stats = new HashMap<>(result.getSections());
+            
+            // Overall system health indicators, only when every input section is available
+            Map<String, Object> vaccinationStats = section(result, "vaccination");
+            Map<String, Object> healthCheckStats = section(result, "healthCheck");
+            Map<String, Object> medicalEventStats = section(result, "medicalEvents");
+            if (vaccinationStats != null && healthCheckStats != null && medicalEventStats != null) {
+                stats.put("systemHealth", calculateSystemHealth(vaccinationStats, healthCheckStats, medicalEventStats));
+            }
             
-            // Overall system health indicators
-            stats.put("systemHealth", calculateSystemHealth(vaccinationStats, healthCheckStats, medicalEventStats));
+            stats.put("degraded", result.isDegraded());
+            stats.put("degradedSections", result.getDegradedSections());
             
             return ResponseEntity.ok(stats);
             
@@ -72,30 +73,23 @@ public class ManagerDashboardController {
     /**
      * Get monthly trends for charts
      */
+    @ConditionalCache(CachedResource.MANAGER_DASHBOARD)
     @GetMapping("/monthly-trends")
     public ResponseEntity<Map<String, Object>> getMonthlyTrends(@RequestParam(defaultValue = "2024") int year) {
         Map<String, Object> trends = new HashMap<>();
         
         try {
-            List<Map<String, Object>> monthlyData = new ArrayList<>();
+            LocalDate from = LocalDate.of(year, 1, 1);
+            List<TrendBucketDTO> buckets = timeBucketAggregationService.getTrends(from, from.plusYears(1), TimeBucket.MONTH);
             
-            for (int month = 1; month <= 12; month++) {
+            List<Map<String, Object>> monthlyData = new ArrayList<>();
+            for (TrendBucketDTO bucket : buckets) {
                 Map<String, Object> monthData = new HashMap<>();
-                monthData.put("month", month);
-                monthData.put("monthName", Month.of(month).name());
-                
-                // Get vaccination campaigns created in this month
-                long vaccinationCampaigns = getVaccinationCampaignsCountByMonth(year, month);
-                monthData.put("vaccinationCampaigns", vaccinationCampaigns);
-                
-                // Get health check campaigns created in this month
-                long healthCheckCampaigns = getHealthCheckCampaignsCountByMonth(year, month);
-                monthData.put("healthCheckCampaigns", healthCheckCampaigns);
-                
-                // Get medical events count
-                long medicalEvents = getMedicalEventsCountByMonth(year, month);
-                monthData.put("medicalEvents", medicalEvents);
-                
+                monthData.put("month", bucket.getBucketStart().getMonthValue());
+                monthData.put("monthName", bucket.getBucketStart().getMonth().name());
+                monthData.put("vaccinationCampaigns", bucket.getVaccinationCampaigns());
+                monthData.put("healthCheckCampaigns", bucket.getHealthCheckCampaigns());
+                monthData.put("medicalEvents", bucket.getMedicalEvents());
                 monthlyData.add(monthData);
             }
             
@@ -112,28 +106,54 @@ public class ManagerDashboardController {
         }
     }
 
+    /**
+     * Get activity counts per day, week or month for a date range (to is exclusive)
+     */
+    @GetMapping("/trends")
+    public ResponseEntity<Map<String, Object>> getTrends(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") TimeBucket bucket) {
+        try {
+            Map<String, Object> trends = new HashMap<>();
+            trends.put("bucket", bucket);
+            trends.put("from", from);
+            trends.put("to", to);
+            trends.put("data", timeBucketAggregationService.getTrends(from, to, bucket));
+            return ResponseEntity.ok(trends);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error retrieving trends: " + e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Get system overview with key metrics
      */
+    @ConditionalCache(CachedResource.MANAGER_DASHBOARD)
     @GetMapping("/system-overview")
     public ResponseEntity<Map<String, Object>> getSystemOverview() {
-        Map<String, Object> overview = new HashMap<>();
-        
         try {
+            Map<String, Supplier<?>> sections = new LinkedHashMap<>();
             // Total active campaigns
-            long totalVaccinationCampaigns = getTotalVaccinationCampaigns();
-            long totalHealthCheckCampaigns = getTotalHealthCheckCampaigns();
-            
+            sections.put("totalVaccinationCampaigns", dashboardStatisticsService::getTotalVaccinationCampaigns);
+            sections.put("totalHealthCheckCampaigns", dashboardStatisticsService::getTotalHealthCheckCampaigns);
             // Recent activity (last 30 days)
-            Map<String, Object> recentActivity = getRecentActivity();
-            
+            sections.put("recentActivity", this::getRecentActivity);
             // Urgent items requiring attention
-            Map<String, Object> urgentItems = getUrgentItems();
+            sections.put("urgentItems", dashboardStatisticsService::getUrgentItems);
             
-            overview.put("totalVaccinationCampaigns", totalVaccinationCampaigns);
-            overview.put("totalHealthCheckCampaigns", totalHealthCheckCampaigns);
-            overview.put("recentActivity", recentActivity);
-            overview.put("urgentItems", urgentItems);
+            DashboardCompositionResult result = dashboardCompositionService.compose(sections);
+            Map<String, Object> overview = new HashMap<>(result.getSections());
+            overview.put("degraded", result.isDegraded());
+            overview.put("degradedSections", result.getDegradedSections());
             
             return ResponseEntity.ok(overview);
             
@@ -281,141 +301,9 @@ public class ManagerDashboardController {
         }
     }
     // Helper methods
-    private Map<String, Object> getVaccinationStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        try {
-            Page<VaccinationCampaignDTO> pending = vaccinationCampaignService.getCampaignsByStatus(
-                    VaccinationCampaign.CampaignStatus.PENDING, PageRequest.of(0, Integer.MAX_VALUE));
-            Page<VaccinationCampaignDTO> approved = vaccinationCampaignService.getCampaignsByStatus(
-                    VaccinationCampaign.CampaignStatus.APPROVED, PageRequest.of(0, Integer.MAX_VALUE));
-            Page<VaccinationCampaignDTO> rejected = vaccinationCampaignService.getCampaignsByStatus(
-                    VaccinationCampaign.CampaignStatus.REJECTED, PageRequest.of(0, Integer.MAX_VALUE));
-            Page<VaccinationCampaignDTO> completed = vaccinationCampaignService.getCampaignsByStatus(
-                    VaccinationCampaign.CampaignStatus.COMPLETED, PageRequest.of(0, Integer.MAX_VALUE));
-            Page<VaccinationCampaignDTO> inProgress = vaccinationCampaignService.getCampaignsByStatus(
-                    VaccinationCampaign.CampaignStatus.IN_PROGRESS, PageRequest.of(0, Integer.MAX_VALUE));
-            
-            stats.put("pending", pending.getTotalElements());
-            stats.put("approved", approved.getTotalElements());
-            stats.put("rejected", rejected.getTotalElements());
-            stats.put("completed", completed.getTotalElements());
-            stats.put("inProgress", inProgress.getTotalElements());
-            stats.put("total", pending.getTotalElements() + approved.getTotalElements() + 
-                     rejected.getTotalElements() + completed.getTotalElements() + inProgress.getTotalElements());
-            
-        } catch (Exception e) {
-            // Fallback if service is not available
-            stats.put("pending", 0);
-            stats.put("approved", 0);
-            stats.put("rejected", 0);
-            stats.put("completed", 0);
-            stats.put("inProgress", 0);
-            stats.put("total", 0);
-        }
-        
-        return stats;
-    }
-
-    private Map<String, Object> getHealthCheckStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        try {
-            // Get actual counts from health check campaign service
-            Page<HealthCheckCampaignDTO> pending = healthCheckCampaignService.getCampaignsByStatus(
-                    CampaignStatus.PENDING, PageRequest.of(0, Integer.MAX_VALUE));
-            Page<HealthCheckCampaignDTO> approved = healthCheckCampaignService.getCampaignsByStatus(
-                    CampaignStatus.APPROVED, PageRequest.of(0, Integer.MAX_VALUE));
-            Page<HealthCheckCampaignDTO> inProgress = healthCheckCampaignService.getCampaignsByStatus(
-                    CampaignStatus.IN_PROGRESS, PageRequest.of(0, Integer.MAX_VALUE));
-            Page<HealthCheckCampaignDTO> completed = healthCheckCampaignService.getCampaignsByStatus(
-                    CampaignStatus.COMPLETED, PageRequest.of(0, Integer.MAX_VALUE));
-            Page<HealthCheckCampaignDTO> cancelled = healthCheckCampaignService.getCampaignsByStatus(
-                    CampaignStatus.CANCELED, PageRequest.of(0, Integer.MAX_VALUE));
-            
-            long pendingCount = pending.getTotalElements();
-            long approvedCount = approved.getTotalElements();
-            long inProgressCount = inProgress.getTotalElements();
-            long completedCount = completed.getTotalElements();
-            long cancelledCount = cancelled.getTotalElements();
-            
-            stats.put("pending", pendingCount);
-            stats.put("approved", approvedCount);
-            stats.put("inProgress", inProgressCount);
-            stats.put("completed", completedCount);
-            stats.put("cancelled", cancelledCount);
-            stats.put("total", pendingCount + approvedCount + inProgressCount + completedCount + cancelledCount);
-        } catch (Exception e) {
-            // Fallback if health check service is not available
-            stats.put("pending", 0);
-            stats.put("approved", 0);
-            stats.put("inProgress", 0);
-            stats.put("completed", 0);
-            stats.put("cancelled", 0);
-            stats.put("total", 0);
-        }
-        
-        return stats;
-    }
-
-    private Map<String, Object> getMedicalEventStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        try {
-            // Get all medical events and count by status
-            List<MedicalEventResponseDTO> allEvents = medicalEventService.getAllMedicalEvents();
-            List<MedicalEventResponseDTO> pendingEvents = medicalEventService.getPendingMedicalEvents();
-            
-            long totalEvents = allEvents.size();
-            long pendingCount = pendingEvents.size();
-            long resolvedCount = totalEvents - pendingCount;
-            
-            // Count emergency events (high severity)
-            long emergencyCount = allEvents.stream()
-                    .filter(event -> event.getSeverityLevel() != null && 
-                            ("HIGH".equalsIgnoreCase(event.getSeverityLevel().toString()) ||
-                             "CRITICAL".equalsIgnoreCase(event.getSeverityLevel().toString())))
-                    .count();
-            
-            stats.put("total", totalEvents);
-            stats.put("emergency", emergencyCount);
-            stats.put("resolved", resolvedCount);
-            stats.put("pending", pendingCount);
-        } catch (Exception e) {
-            // Fallback if medical event service is not available
-            stats.put("total", 0);
-            stats.put("emergency", 0);
-            stats.put("resolved", 0);
-            stats.put("pending", 0);
-        }
-        
-        return stats;
-    }
-
-    private Map<String, Object> getInventoryStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        try {
-            // Get actual inventory counts from medical supply service
-            List<MedicalSupplyDTO> allSupplies = medicalSupplyService.getEnabledMedicalSupplies();
-            List<MedicalSupplyDTO> lowStockItems = medicalSupplyService.getLowStockItems();
-            List<MedicalSupplyDTO> expiredItems = medicalSupplyService.getExpiredItems();
-            long pendingRestockRequests = restockRequestService.getPendingRequestsCount();
-            
-            stats.put("totalSupplies", allSupplies.size());
-            stats.put("lowStockItems", lowStockItems.size());
-            stats.put("outOfStockItems", expiredItems.size()); // Using expired items as "out of stock"
-            stats.put("pendingRestockRequests", pendingRestockRequests);
-            
-        } catch (Exception e) {
-            // Fallback if inventory service is not available
-            stats.put("totalSupplies", 0);
-            stats.put("lowStockItems", 0);
-            stats.put("outOfStockItems", 0);
-            stats.put("pendingRestockRequests", 0);
-        }
-        
-        return stats;
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> section(DashboardCompositionResult result, String name) {
+        return (Map<String, Object>) result.getSections().get(name);
     }
 
     private Map<String, Object> calculateSystemHealth(Map<String, Object> vaccination, 
@@ -469,145 +357,22 @@ public class ManagerDashboardController {
         return (double) resolved / total * 100;
     }
 
-    // Helper methods for monthly trends - get real data from database
-    private long getVaccinationCampaignsCountByMonth(int year, int month) {
-        try {
-            // Get the start and end of the month
-            LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0);
-            LocalDateTime endOfMonth = startOfMonth.withDayOfMonth(startOfMonth.toLocalDate().lengthOfMonth()).withHour(23).withMinute(59).withSecond(59);
-            
-            // Get all campaigns and filter by creation date
-            List<VaccinationCampaignDTO> allCampaigns = vaccinationCampaignService.getAllCampaigns();
-            
-            return allCampaigns.stream()
-                    .filter(campaign -> {
-                        LocalDateTime createdDate = campaign.getCreatedDate();
-                        return createdDate != null && 
-                               createdDate.isAfter(startOfMonth.minusSeconds(1)) && 
-                               createdDate.isBefore(endOfMonth.plusSeconds(1));
-                    })
-                    .count();
-        } catch (Exception e) {
-            // Fallback with sample data
-            int[] monthlyData = {2, 4, 1, 3, 2, 5, 3, 6, 4, 2, 3, 4};
-            return month <= monthlyData.length ? monthlyData[month - 1] : 0;
-        }
-    }
-
-    private long getHealthCheckCampaignsCountByMonth(int year, int month) {
-        try {
-            // Use the real service method to get actual count by month
-            return healthCheckCampaignService.getCampaignsCountByMonth(year, month);
-        } catch (Exception e) {
-            System.err.println("Error getting health check campaigns count by month: " + e.getMessage());
-            // Fallback with realistic sample data
-            int[] monthlyData = {1, 2, 1, 2, 3, 2, 1, 3, 2, 1, 2, 2};
-            return month <= monthlyData.length ? monthlyData[month - 1] : 0;
-        }
-    }
-
-    private long getMedicalEventsCountByMonth(int year, int month) {
-        try {
-            // Get the start and end of the month
-            LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0);
-            LocalDateTime endOfMonth = startOfMonth.withDayOfMonth(startOfMonth.toLocalDate().lengthOfMonth()).withHour(23).withMinute(59).withSecond(59);
-            
-            // Get medical events by date range
-            List<MedicalEventResponseDTO> monthlyEvents = medicalEventService.getMedicalEventsByDateRange(startOfMonth, endOfMonth);
-            
-            return monthlyEvents.size();
-        } catch (Exception e) {
-            // Fallback with sample data
-            int[] monthlyData = {8, 12, 7, 15, 11, 9, 13, 18, 10, 6, 9, 14};
-            return month <= monthlyData.length ? monthlyData[month - 1] : 0;
-        }
-    }
-
-    private long getTotalVaccinationCampaigns() {
-        try {
-            return vaccinationCampaignService.getAllCampaigns().size();
-        } catch (Exception e) {
-            return 0;
-        }
-    }
-
-    private long getTotalHealthCheckCampaigns() {
-        try {
-            // Get all campaigns across all statuses
-            long total = 0;
-            total += healthCheckCampaignService.getCampaignsByStatus(CampaignStatus.PENDING, PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-            total += healthCheckCampaignService.getCampaignsByStatus(CampaignStatus.APPROVED, PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-            total += healthCheckCampaignService.getCampaignsByStatus(CampaignStatus.IN_PROGRESS, PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-            total += healthCheckCampaignService.getCampaignsByStatus(CampaignStatus.COMPLETED, PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-            total += healthCheckCampaignService.getCampaignsByStatus(CampaignStatus.CANCELED, PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-            return total;
-        } catch (Exception e) {
-            return 0;
-        }
-    }
-
     private Map<String, Object> getRecentActivity() {
-        Map<String, Object> activity = new HashMap<>();
-        
-        try {
-            // Get activity from the last 30 days
-            LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-            LocalDateTime now = LocalDateTime.now();
-            
-            // Count vaccination campaigns created in the last 30 days
-            List<VaccinationCampaignDTO> allVaccinationCampaigns = vaccinationCampaignService.getAllCampaigns();
-            long recentVaccinationCampaigns = allVaccinationCampaigns.stream()
-                    .filter(campaign -> {
-                        LocalDateTime createdDate = campaign.getCreatedDate();
-                        return createdDate != null && createdDate.isAfter(thirtyDaysAgo);
-                    })
-                    .count();
-            
-            // For health check campaigns, we'll use an approximation since we don't have easy access to creation dates
-            long recentHealthCheckCampaigns = getTotalHealthCheckCampaigns() > 0 ? 
-                    Math.max(1, getTotalHealthCheckCampaigns() / 10) : 0; // Approximation
-            
-            // Count medical events in the last 30 days
-            List<MedicalEventResponseDTO> recentMedicalEvents = medicalEventService.getMedicalEventsByDateRange(thirtyDaysAgo, now);
-            
-            activity.put("vaccinationCampaigns", recentVaccinationCampaigns);
-            activity.put("healthCheckCampaigns", recentHealthCheckCampaigns);
-            activity.put("medicalEvents", recentMedicalEvents.size());
-        } catch (Exception e) {
-            // Fallback with sample recent activity data
-            activity.put("vaccinationCampaigns", 3);
-            activity.put("healthCheckCampaigns", 2);
-            activity.put("medicalEvents", 12);
+        // Activity from the last 30 days, as a single bucket per entity type
+        LocalDate today = LocalDate.now();
+        long vaccinationCampaigns = 0;
+        long healthCheckCampaigns = 0;
+        long medicalEvents = 0;
+        for (TrendBucketDTO bucket : timeBucketAggregationService.getTrends(today.minusDays(29), today.plusDays(1), TimeBucket.DAY)) {
+            vaccinationCampaigns += bucket.getVaccinationCampaigns();
+            healthCheckCampaigns += bucket.getHealthCheckCampaigns();
+            medicalEvents += bucket.getMedicalEvents();
         }
         
+        Map<String, Object> activity = new HashMap<>();
+        activity.put("vaccinationCampaigns", vaccinationCampaigns);
+        activity.put("healthCheckCampaigns", healthCheckCampaigns);
+        activity.put("medicalEvents", medicalEvents);
         return activity;
     }
-
-    private Map<String, Object> getUrgentItems() {
-        Map<String, Object> urgent = new HashMap<>();
-        
-        try {
-            // Get pending vaccination campaign approvals
-            Page<VaccinationCampaignDTO> pendingVaccination = vaccinationCampaignService.getCampaignsByStatus(
-                    VaccinationCampaign.CampaignStatus.PENDING, PageRequest.of(0, Integer.MAX_VALUE));
-            
-            // Get pending health check campaign approvals
-            Page<HealthCheckCampaignDTO> pendingHealthCheck = healthCheckCampaignService.getCampaignsByStatus(
-                    CampaignStatus.PENDING, PageRequest.of(0, Integer.MAX_VALUE));
-            
-            // Get pending restock requests
-            long pendingRestockRequests = restockRequestService.getPendingRequestsCount();
-            
-            urgent.put("pendingVaccinationApprovals", pendingVaccination.getTotalElements());
-            urgent.put("pendingHealthCheckApprovals", pendingHealthCheck.getTotalElements());
-            urgent.put("pendingRestockRequests", pendingRestockRequests);
-            
-        } catch (Exception e) {
-            urgent.put("pendingVaccinationApprovals", 0);
-            urgent.put("pendingHealthCheckApprovals", 0);
-            urgent.put("pendingRestockRequests", 0);
-        }
-        
-        return urgent;
-    }
-}
\ No newline at end of file
+}
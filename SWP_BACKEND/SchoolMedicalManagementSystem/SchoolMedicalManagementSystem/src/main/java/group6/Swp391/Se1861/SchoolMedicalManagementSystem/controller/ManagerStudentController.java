@@ -1,9 +1,13 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.controller;
 
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.BackgroundJobDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentFilterDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentWithParentsCreationDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentWithParentsCreationResponseDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IStudentService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IExcelService;
 import jakarta.validation.Valid;
@@ -13,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -34,6 +39,9 @@ public class ManagerStudentController {
     @Autowired
     private IExcelService excelService;
     
+    @Autowired
+    private IBackgroundJobService backgroundJobService;
+    
     /**
      * Tạo học sinh cùng với phụ huynh trong cùng một form
      * Manager có thể tạo cả học sinh và phụ huynh
@@ -172,15 +180,19 @@ public class ManagerStudentController {
     /**
      * Upload Excel file để tạo học sinh và phụ huynh hàng loạt
      * Manager có thể upload file Excel chứa thông tin nhiều học sinh và phụ huynh
+     * File được kiểm tra ngay, sau đó được import bằng background job (theo dõi tại /api/jobs/{jobId})
      * 
      * @param file File Excel (.xlsx hoặc .xls)
-     * @return Response chứa thông tin học sinh và phụ huynh đã được tạo
+     * @return Thông tin job import
      */
     @PostMapping("/import-excel")
-    public ResponseEntity<?> importStudentsFromExcel(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> importStudentsFromExcel(@RequestParam("file") MultipartFile file,
+                                                     @AuthenticationPrincipal User manager) {
         try {
-            StudentWithParentsCreationResponseDTO response = excelService.importStudentsFromExcel(file);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            excelService.validateExcelFile(file);
+            BackgroundJobDTO job = backgroundJobService.submit(
+                    JobType.STUDENT_EXCEL_IMPORT, null, null, file.getBytes(), manager);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
@@ -1,13 +1,19 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.controller;
 
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationInboxPageDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -16,7 +22,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class NotificationController {
 
-    private final INotificationService notificationService;    /**
+    private final INotificationService notificationService;
+    private final INotificationStreamService notificationStreamService;    /**
      * Get all notifications for the authenticated user
      */
     @GetMapping
@@ -29,6 +36,39 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getAllNotificationsForUser(user));
     }
 
+    /**
+     * Get one page of the inbox using cursor pagination
+     * Pass the nextCursor of the previous page as ?before= to continue
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<NotificationInboxPageDTO> getInbox(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(notificationService.getInboxPage(user, before, limit));
+    }
+
+    /**
+     * Stream notifications as Server-Sent Events
+     * On reconnect the client's Last-Event-ID header replays only the notifications it missed
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(
+            @AuthenticationPrincipal User user,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return notificationStreamService.subscribe(user, lastEventId);
+    }
+
+    /**
+     * Get the full details of one notification when it is opened
+     */
+    @GetMapping("/{notificationId}")
+    public ResponseEntity<NotificationDTO> getNotificationDetail(
+            @PathVariable Long notificationId,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(notificationService.getNotificationDetail(notificationId, user));
+    }
+
     /**
      * Get only unread notifications for the authenticated user
      */
@@ -60,8 +100,41 @@ public class NotificationController {
      * Mark all notifications as read for the authenticated user
      */
     @PutMapping("/read-all")
-    public ResponseEntity<Void> markAllNotificationsAsRead(@AuthenticationPrincipal User user) {
-        notificationService.markAllNotificationsAsRead(user);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Map<String, Integer>> markAllNotificationsAsRead(@AuthenticationPrincipal User user) {
+        int updated = notificationService.markAllNotificationsAsRead(user);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    /**
+     * Mark all notifications of one type as read for the authenticated user
+     */
+    @PutMapping("/types/{notificationType}/read")
+    public ResponseEntity<Map<String, Integer>> markNotificationsAsReadByType(
+            @PathVariable String notificationType,
+            @AuthenticationPrincipal User user) {
+        int updated = notificationService.markNotificationsAsReadByType(user, notificationType);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    /**
+     * Mark all notifications of a health check campaign as read for the authenticated user
+     */
+    @PutMapping("/campaigns/{campaignId}/read")
+    public ResponseEntity<Map<String, Integer>> markNotificationsAsReadByCampaign(
+            @PathVariable Long campaignId,
+            @AuthenticationPrincipal User user) {
+        int updated = notificationService.markNotificationsAsReadByCampaign(user, campaignId);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    /**
+     * Delete the authenticated user's notifications created before the given date (yyyy-MM-dd)
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Integer>> deleteNotificationsOlderThan(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate olderThan,
+            @AuthenticationPrincipal User user) {
+        int deleted = notificationService.deleteNotificationsOlderThan(user, olderThan);
+        return ResponseEntity.ok(Map.of("deleted", deleted));
     }
 }
@@ -1,10 +1,12 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.controller;
 
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.config.ConditionalCache;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.HealthProfileDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.VaccinationRuleDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IParentHealthProfileService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationRuleService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -110,6 +112,7 @@ public class ParentHealthProfileController {
      * @param user authenticated parent user
      * @return list of all vaccination rules
      */
+    @ConditionalCache(value = CachedResource.VACCINATION_RULES, maxAgeSeconds = 300)
     @GetMapping("/vaccination-rules")
     public ResponseEntity<List<VaccinationRuleDTO>> getVaccinationRules(
             @AuthenticationPrincipal User user) {
@@ -1,8 +1,10 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.controller;
 
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.config.ConditionalCache;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IStudentService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -153,6 +155,7 @@ public class SchoolNurseStudentController {
     /**
      * Get available class names for health check campaign forms
      */
+    @ConditionalCache(value = CachedResource.STUDENT_CLASSES, maxAgeSeconds = 60)
     @GetMapping("/available-classes")
     @PreAuthorize("hasRole('SCHOOLNURSE')")
     public ResponseEntity<List<String>> getAvailableClassNames() {
@@ -1,8 +1,10 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.controller;
 
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.config.ConditionalCache;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.VaccinationRuleDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationRuleService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -43,6 +45,7 @@ public class SchoolNurseVaccinationController {
      *
      * @return list of all vaccination rules
      */
+    @ConditionalCache(value = CachedResource.VACCINATION_RULES, maxAgeSeconds = 300)
     @GetMapping
     public ResponseEntity<List<VaccinationRuleDTO>> getAllVaccinationRules() {
         List<VaccinationRuleDTO> rules = vaccinationRuleService.getAllVaccinationRules();
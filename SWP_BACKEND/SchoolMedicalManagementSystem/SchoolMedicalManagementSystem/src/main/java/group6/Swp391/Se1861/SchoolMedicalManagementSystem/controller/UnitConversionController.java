@@ -1,7 +1,9 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.controller;
 
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.config.ConditionalCache;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.UnitConversionDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IUnitConversionService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +34,7 @@ public class UnitConversionController {
         }
     }
     
+    @ConditionalCache(value = CachedResource.UNIT_CONVERSIONS, maxAgeSeconds = 300)
     @GetMapping("/enabled")
     @PreAuthorize("hasRole('SCHOOLNURSE') or hasRole('MANAGER')")
     public ResponseEntity<List<UnitConversionDTO>> getEnabledUnitConversions() {
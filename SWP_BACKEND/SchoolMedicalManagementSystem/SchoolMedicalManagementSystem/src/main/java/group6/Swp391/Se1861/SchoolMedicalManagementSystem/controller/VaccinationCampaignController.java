@@ -3,6 +3,8 @@ package group6.Swp391.Se1861.SchoolMedicalManagementSystem.controller;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.*;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationCampaignService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -26,6 +28,7 @@ import java.util.HashMap;
 public class VaccinationCampaignController {
 
     private final IVaccinationCampaignService campaignService;
+    private final IBackgroundJobService backgroundJobService;
 
     /**
      * Create a new vaccination campaign
@@ -210,22 +213,25 @@ public class VaccinationCampaignController {
     }
 
     /**
-     * Generate vaccination forms for eligible students
+     * Generate vaccination forms for eligible students.
+     * Runs as a background job; the response carries the job id to poll at /api/jobs/{jobId}.
      */
     @PostMapping("/{id}/generate-forms")
-    public ResponseEntity<List<VaccinationFormDTO>> generateForms(
+    public ResponseEntity<BackgroundJobDTO> generateForms(
             @PathVariable Long id,
             @AuthenticationPrincipal User nurse) {
         try {
-            List<VaccinationFormDTO> forms = campaignService.generateVaccinationForms(id, nurse);
-            return ResponseEntity.ok(forms);
+            BackgroundJobDTO job = backgroundJobService.submit(
+                    JobType.VACCINATION_FORM_GENERATION, id, null, null, nurse);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
     }
 
     /**
-     * Send forms to parents with optional custom message
+     * Send forms to parents with optional custom message.
+     * Runs as a background job; the response carries the job id to poll at /api/jobs/{jobId}.
      */
     @PostMapping("/{id}/send-forms")
     public ResponseEntity<?> sendFormsToParents(
@@ -238,15 +244,14 @@ public class VaccinationCampaignController {
                 customMessage = request.getCustomMessage();
             }
             
-            List<VaccinationFormDTO> forms = campaignService.sendFormsToParents(id, nurse, customMessage);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("forms", forms);
-            response.put("message", "Forms sent successfully to parents" + 
-                (customMessage != null && !customMessage.trim().isEmpty() ? " with custom message" : " with default template"));
-            response.put("sentCount", forms.size());
+            Map<String, Object> parameters = new HashMap<>();
+            if (customMessage != null) {
+                parameters.put("customMessage", customMessage);
+            }
+            BackgroundJobDTO job = backgroundJobService.submit(
+                    JobType.VACCINATION_FORM_SENDING, id, parameters, null, nurse);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
         } catch (IllegalArgumentException e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -0,0 +1,32 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status and progress of a background job, returned by /api/jobs and pushed on /user/queue/jobs
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackgroundJobDTO {
+    private Long jobId;
+    private JobType jobType;
+    private JobStatus status;
+    private Long targetId;
+    private int totalItems;
+    private int processedItems;
+    private int progressPercent;
+    private boolean cancelRequested;
+    // Same shape as the response of the former synchronous endpoint, set once the job completes
+    private Object result;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,24 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard sections computed concurrently. Sections that failed or timed out are
+ * missing from sections and listed in degradedSections.
+ */
+@Data
+@NoArgsConstructor
+public class DashboardCompositionResult {
+    private Map<String, Object> sections = new LinkedHashMap<>();
+    private List<String> degradedSections = new ArrayList<>();
+
+    public boolean isDegraded() {
+        return !degradedSections.isEmpty();
+    }
+}
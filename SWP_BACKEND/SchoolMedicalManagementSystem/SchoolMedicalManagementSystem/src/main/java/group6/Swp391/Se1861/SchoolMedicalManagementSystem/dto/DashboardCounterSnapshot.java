@@ -0,0 +1,49 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DashboardMetric;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dashboard counter totals per metric and dimension value for one date range
+ */
+public class DashboardCounterSnapshot {
+
+    private final Map<DashboardMetric, Map<String, Long>> counts = new EnumMap<>(DashboardMetric.class);
+
+    public void add(DashboardMetric metric, String dimension, long count) {
+        counts.computeIfAbsent(metric, m -> new HashMap<>()).merge(dimension, count, Long::sum);
+    }
+
+    public long count(DashboardMetric metric, String dimension) {
+        return dimensions(metric).getOrDefault(dimension, 0L);
+    }
+
+    /**
+     * Sum of every dimension value starting with the prefix, e.g. "true:" for processed medical events
+     */
+    public long countStartingWith(DashboardMetric metric, String prefix) {
+        long sum = 0;
+        for (Map.Entry<String, Long> entry : dimensions(metric).entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                sum += entry.getValue();
+            }
+        }
+        return sum;
+    }
+
+    public long total(DashboardMetric metric) {
+        long sum = 0;
+        for (long value : dimensions(metric).values()) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private Map<String, Long> dimensions(DashboardMetric metric) {
+        return counts.getOrDefault(metric, Collections.emptyMap());
+    }
+}
@@ -0,0 +1,12 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identifies one scheduled deadline. The due time is part of the key, so a deadline that
+ * has been moved since it was loaded no longer matches its row and is not fired.
+ */
+public record DeadlineKey(DeadlineType type, Long targetId, LocalDateTime dueAt) {
+}
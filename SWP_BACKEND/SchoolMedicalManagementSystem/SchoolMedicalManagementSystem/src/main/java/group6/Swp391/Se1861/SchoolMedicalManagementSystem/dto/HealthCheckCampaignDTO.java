@@ -1,6 +1,7 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
 
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CampaignStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.FormStatus;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.HealthCheckCategory;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.TimeSlot;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Set;
 
 @Data
@@ -44,4 +46,5 @@ public class HealthCheckCampaignDTO {
     private TimeSlot timeSlot;
     private String scheduleNotes;
     private Integer confirmedCount; // Number of students confirmed by parents
+    private Map<FormStatus, Long> formStatusCounts; // Number of forms per status
 }
@@ -1,6 +1,7 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
 
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.FormStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.TimeSlot;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,6 +22,8 @@ public class HealthCheckFormDTO {
     private String parentNote;
     private LocalDateTime appointmentTime;
     private String appointmentLocation;
+    private Integer examOrder;
+    private TimeSlot examSlot;
     private boolean reminderSent;
     private boolean isCheckedIn;
     private LocalDateTime checkedInAt;
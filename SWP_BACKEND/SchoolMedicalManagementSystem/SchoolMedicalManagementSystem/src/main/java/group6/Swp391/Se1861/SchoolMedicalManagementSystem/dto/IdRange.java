@@ -0,0 +1,7 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+/**
+ * Contiguous id range, fromId to toId inclusive, handed to one partition of a partitioned scheduled task
+ */
+public record IdRange(int partition, int partitions, long fromId, long toId) {
+}
@@ -0,0 +1,69 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counters and lists a background job collects across chunks.
+ * Stored as JSON on the job after every chunk, so values must stay plain numbers, strings, lists and maps.
+ */
+public class JobState {
+
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    @JsonAnyGetter
+    public Map<String, Object> getValues() {
+        return values;
+    }
+
+    @JsonAnySetter
+    public void set(String key, Object value) {
+        values.put(key, value);
+    }
+
+    public int increment(String key, int delta) {
+        int value = getInt(key) + delta;
+        values.put(key, value);
+        return value;
+    }
+
+    public int getInt(String key) {
+        Object value = values.get(key);
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    public String getString(String key) {
+        Object value = values.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    public void append(String key, Object value) {
+        list(key).add(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Object> list(String key) {
+        return (List<Object>) values.computeIfAbsent(key, k -> new ArrayList<>());
+    }
+
+    /**
+     * Add delta to one entry of a map value, e.g. notifications per parent
+     */
+    @SuppressWarnings("unchecked")
+    public void incrementEntry(String key, Object entryKey, int delta) {
+        Map<String, Object> map = (Map<String, Object>) values.computeIfAbsent(key, k -> new LinkedHashMap<>());
+        Object current = map.get(entryKey.toString());
+        int value = (current instanceof Number number ? number.intValue() : 0) + delta;
+        map.put(entryKey.toString(), value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> map(String key) {
+        return (Map<String, Object>) values.computeIfAbsent(key, k -> new LinkedHashMap<>());
+    }
+}
@@ -0,0 +1,9 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scheduler lease held by this node
+ */
+public record LeaseToken(String name, String owner, long fencingToken, LocalDateTime acquiredAt) {
+}
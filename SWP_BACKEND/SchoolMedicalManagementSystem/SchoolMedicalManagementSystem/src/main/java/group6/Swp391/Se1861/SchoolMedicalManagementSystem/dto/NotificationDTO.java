@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -25,5 +26,7 @@ public class NotificationDTO {
     private Long healthCheckFormId;
     private Long healthCheckCampaignId;
     private Long campaignCompletionRequestId;
+    private List<Long> healthCheckFormIds;
+    private Long replacesNotificationId;
 
 }
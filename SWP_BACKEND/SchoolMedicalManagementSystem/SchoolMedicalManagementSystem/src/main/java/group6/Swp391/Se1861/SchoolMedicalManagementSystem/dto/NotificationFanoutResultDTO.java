@@ -0,0 +1,20 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk notification fan-out, including the insert throughput achieved
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFanoutResultDTO {
+    private int notificationsCreated;
+    private int batchCount;
+    private int batchSize;
+    private long insertMillis;
+    private double rowsPerSecond;
+    private int deliveriesQueued;
+}
@@ -0,0 +1,20 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the notification inbox.
+ * nextCursor has the form "createdAt,id" and is passed back as ?before= to load the next page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationInboxPageDTO {
+    private List<NotificationSummaryDTO> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
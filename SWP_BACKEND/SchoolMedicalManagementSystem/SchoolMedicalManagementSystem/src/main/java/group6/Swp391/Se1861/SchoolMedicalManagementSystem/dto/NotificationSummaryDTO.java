@@ -0,0 +1,31 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Slim inbox row: no message body and only the ids of linked entities.
+ * The full notification is loaded separately when the user opens it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationSummaryDTO {
+    private Long id;
+    private String title;
+    private String notificationType;
+    private LocalDateTime createdAt;
+    private boolean isRead;
+    private Boolean confirm;
+    private Long medicationRequestId;
+    private Long medicationScheduleId;
+    private Long medicalEventId;
+    private Long vaccinationFormId;
+    private Long restockRequestId;
+    private Long healthCheckFormId;
+    private Long healthCheckCampaignId;
+    private Long campaignCompletionRequestId;
+}
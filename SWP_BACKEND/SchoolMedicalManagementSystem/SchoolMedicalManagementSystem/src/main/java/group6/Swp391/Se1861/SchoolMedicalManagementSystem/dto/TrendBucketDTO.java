@@ -0,0 +1,20 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Activity counts for one day, week or month bucket of a dashboard chart
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendBucketDTO {
+    private LocalDate bucketStart;
+    private long vaccinationCampaigns;
+    private long healthCheckCampaigns;
+    private long medicalEvents;
+}
@@ -0,0 +1,36 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Student;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationHistory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Students evaluated against one vaccination rule, split into eligible and ineligible
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VaccinationEligibilityResult {
+    private List<StudentEligibility> eligible;
+    private List<StudentEligibility> ineligible;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class StudentEligibility {
+        private Student student;
+        private Integer ageInMonths;
+        // null when the student is eligible
+        private String ineligibilityReason;
+        // Doses of the rule's vaccine, most recent first
+        private List<VaccinationHistory> histories;
+
+        public boolean isEligible() {
+            return ineligibilityReason == null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Long-running operation processed in chunks off the request thread.
+ * After every chunk the last processed item key (checkpoint) and the accumulated
+ * state are committed together with the chunk's own writes, so a job interrupted
+ * by a restart resumes after the last committed chunk.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"inputData", "state", "result"})
+@Table(name = "background_job", indexes = {
+        @Index(name = "idx_background_job_status_heartbeat", columnList = "status, heartbeatAt")
+})
+public class BackgroundJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 48)
+    private JobType jobType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobStatus status = JobStatus.QUEUED;
+
+    // Campaign the job works on, if any
+    private Long targetId;
+
+    @Column(nullable = false)
+    private String requestedBy;
+
+    // JSON object of job-specific options
+    @Column(columnDefinition = "TEXT")
+    private String parameters;
+
+    // Uploaded file for import jobs, cleared when the job finishes
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] inputData;
+
+    @Column(nullable = false)
+    private int totalItems = 0;
+
+    @Column(nullable = false)
+    private int processedItems = 0;
+
+    // Key of the last item whose chunk has committed
+    private Long checkpoint;
+
+    // JSON of the counters and lists collected so far
+    @Column(columnDefinition = "LONGTEXT")
+    private String state;
+
+    @Column(columnDefinition = "LONGTEXT")
+    private String result;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private boolean cancelRequested = false;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    // Worker that holds the job; together with attempts it guards every progress write
+    @Column(length = 128)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime startedAt;
+
+    // Refreshed by the worker's heartbeat timer; a RUNNING job with an old heartbeat has lost its worker
+    private LocalDateTime heartbeatAt;
+
+    private LocalDateTime finishedAt;
+}
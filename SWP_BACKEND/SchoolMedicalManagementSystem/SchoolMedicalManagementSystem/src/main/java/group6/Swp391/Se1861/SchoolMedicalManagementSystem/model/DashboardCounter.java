@@ -0,0 +1,58 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DashboardMetric;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated row count for one metric, dimension value (usually a status) and day.
+ * Rows are kept up to date by DashboardCounterEventListener and corrected by the
+ * nightly reconciliation, so dashboards can sum a handful of rows instead of counting tables.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Table(name = "DashboardCounter")
+public class DashboardCounter {
+
+    /**
+     * Bucket date used for metrics that have no date, and for rows whose date is null
+     */
+    public static final LocalDate UNDATED = LocalDate.of(1970, 1, 1);
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private long counterValue;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class Key implements Serializable {
+
+        // Plain varchar rather than a MySQL ENUM, so adding a metric needs no column change
+        @Enumerated(EnumType.STRING)
+        @JdbcTypeCode(SqlTypes.VARCHAR)
+        @Column(nullable = false, length = 32)
+        private DashboardMetric metric;
+
+        @Column(nullable = false, length = 64)
+        private String dimension;
+
+        @Column(nullable = false)
+        private LocalDate bucketDate;
+    }
+}
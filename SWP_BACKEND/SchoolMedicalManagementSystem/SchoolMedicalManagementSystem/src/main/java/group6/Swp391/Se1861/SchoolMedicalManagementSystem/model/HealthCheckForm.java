@@ -1,6 +1,7 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model;
 
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.FormStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.TimeSlot;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -53,6 +54,15 @@ public class HealthCheckForm {
     @Column(name = "appointmentLocation", nullable = true)
     private String appointmentLocation;
 
+    // Position in the campaign's exam queue, set when the campaign is scheduled
+    @Column(name = "examOrder", nullable = true)
+    private Integer examOrder;
+
+    // Session of the appointment (MORNING or AFTERNOON)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "examSlot", nullable = true)
+    private TimeSlot examSlot;
+
     @Column(name = "reminderSent", nullable = false)
     private boolean reminderSent = false;
 
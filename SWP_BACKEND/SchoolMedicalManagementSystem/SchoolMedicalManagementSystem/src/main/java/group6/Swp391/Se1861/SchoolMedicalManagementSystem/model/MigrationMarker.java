@@ -0,0 +1,27 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that a one-time data migration run at startup has completed, so later boots skip it.
+ * Delete the row to run the migration again.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Table(name = "migration_marker")
+public class MigrationMarker {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+}
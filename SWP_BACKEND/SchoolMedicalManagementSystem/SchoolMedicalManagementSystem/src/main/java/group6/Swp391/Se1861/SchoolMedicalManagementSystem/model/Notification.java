@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString
-@Table(name = "Notification")
+@Table(name = "Notification", indexes = {
+        @Index(name = "idx_notification_recipient_created", columnList = "recipientId, createdAt, id"),
+        @Index(name = "idx_notification_read_created", columnList = "isRead, createdAt")
+})
 public class Notification {
 
     @Id
@@ -24,6 +27,14 @@ public class Notification {
     @Lob
     private String message;
 
+    // Set when the message is rendered on read from NotificationTemplateRegistry; message is then empty
+    @Column(length = 64)
+    private String templateId;
+
+    // Compact JSON map of template parameters
+    @Column(length = 2000)
+    private String templateParams;
+
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -69,6 +80,13 @@ public class Notification {
     @JoinColumn(name = "healthCheckFormId")
     private HealthCheckForm healthCheckForm;
 
+    // Comma-separated ids of every form a per-parent digest covers; healthCheckForm is the first of them
+    @Column(length = 2000)
+    private String healthCheckFormIds;
+
+    // Id of the notification this digest merge replaced, so clients can drop the older copy
+    private Long replacesNotificationId;
+
     @ManyToOne
     @JoinColumn(name = "healthCheckCampaignId")
     private HealthCheckCampaign healthCheckCampaign;
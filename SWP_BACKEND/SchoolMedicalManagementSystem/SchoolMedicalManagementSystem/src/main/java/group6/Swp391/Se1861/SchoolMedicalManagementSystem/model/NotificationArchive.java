@@ -0,0 +1,73 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold storage for read notifications past the retention window.
+ * Rows keep their original id so inbox cursors stay valid across both tables.
+ * Linked records are kept as plain ids so archived rows never block deleting them.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Table(name = "NotificationArchive", indexes = {
+        @Index(name = "idx_notification_archive_recipient_created", columnList = "recipientId, createdAt, id")
+})
+public class NotificationArchive {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 4000)
+    @Lob
+    private String message;
+
+    @Column(length = 64)
+    private String templateId;
+
+    @Column(length = 2000)
+    private String templateParams;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private String notificationType;
+
+    @Column
+    private Boolean confirm;
+
+    @Column(nullable = false)
+    private Long recipientId;
+
+    private Long medicationRequestId;
+
+    private Long medicationScheduleId;
+
+    private Long medicalEventId;
+
+    private Long vaccinationFormId;
+
+    private Long restockRequestId;
+
+    private Long healthCheckFormId;
+
+    @Column(length = 2000)
+    private String healthCheckFormIds;
+
+    private Long healthCheckCampaignId;
+
+    private Long campaignCompletionRequestId;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,49 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending real-time delivery of a notification, written in the same transaction as the notification.
+ * Rows are removed once the WebSocket push succeeds.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Table(name = "NotificationOutbox", indexes = {
+        @Index(name = "idx_notification_outbox_status_next", columnList = "status, nextAttemptAt, id")
+})
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long notificationId;
+
+    @Column(nullable = false)
+    private String recipientUsername;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(length = 500)
+    private String lastError;
+}
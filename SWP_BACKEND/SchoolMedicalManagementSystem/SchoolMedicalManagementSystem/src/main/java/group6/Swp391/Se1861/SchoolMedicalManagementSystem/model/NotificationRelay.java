@@ -0,0 +1,39 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rendered notification push shared by all application instances.
+ * The instance that drains an outbox batch writes one row per recipient, and every instance
+ * pushes new rows to the WebSocket sessions and SSE streams connected to it.
+ * Rows are deleted once they are older than the relay retention.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Table(name = "NotificationRelay", indexes = {
+        @Index(name = "idx_notification_relay_created", columnList = "createdAt, id")
+})
+public class NotificationRelay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipientUsername;
+
+    // JSON array of NotificationDTO
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,27 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Change counter of a cached read resource, incremented in the same transaction as any write
+ * to the tables behind it. Shared between application instances.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Table(name = "ResourceVersion")
+public class ResourceVersion {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 64)
+    private CachedResource resource;
+
+    @Column(nullable = false)
+    private long currentVersion;
+}
@@ -0,0 +1,42 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending time-based transition of a form or campaign, such as a reminder or an auto-reject.
+ * There is at most one row per type and target. The row is deleted in the transaction
+ * that applies the transition.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Table(name = "scheduled_deadline",
+        uniqueConstraints = @UniqueConstraint(name = "uk_scheduled_deadline_type_target", columnNames = {"deadlineType", "targetId"}),
+        indexes = @Index(name = "idx_scheduled_deadline_due_at", columnList = "dueAt"))
+public class ScheduledDeadline {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 48)
+    private DeadlineType deadlineType;
+
+    // Id of the form or campaign the transition applies to
+    @Column(nullable = false)
+    private Long targetId;
+
+    @Column(nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
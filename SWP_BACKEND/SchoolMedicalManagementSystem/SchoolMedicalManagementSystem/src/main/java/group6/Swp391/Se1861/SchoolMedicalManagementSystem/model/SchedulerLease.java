@@ -0,0 +1,44 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide lease for a scheduled task.
+ * A node may run the task only while it holds the lease. Every acquisition increments
+ * the fencing token, so work committed under an older token can be detected and rolled back.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Table(name = "scheduler_lease")
+public class SchedulerLease {
+
+    // Task name
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    // Node currently or last holding the lease
+    @Column(length = 150)
+    private String owner;
+
+    @Column(nullable = false)
+    private long fencingToken = 0;
+
+    // Other nodes may take the lease once the database clock has passed this time
+    @Column(nullable = false)
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime acquiredAt;
+
+    private LocalDateTime heartbeatAt;
+
+    // Last id committed in the range of a partitioned task, cleared when the range is finished
+    private Long checkpointId;
+}
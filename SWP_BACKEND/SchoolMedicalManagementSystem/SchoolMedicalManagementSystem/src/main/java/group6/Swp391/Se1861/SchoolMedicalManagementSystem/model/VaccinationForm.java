@@ -11,7 +11,9 @@ import java.time.LocalDateTime;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "vaccination_form")
+@Table(name = "vaccination_form", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vaccination_form_campaign_student", columnNames = {"campaign_id", "student_id"})
+})
 public class VaccinationForm {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,23 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums;
+
+/**
+ * Read endpoints served with version-based ETags.
+ * Date-sensitive resources also change when the day changes (expiry, "last 30 days"),
+ * so their ETag includes the current date.
+ */
+public enum CachedResource {
+    MANAGER_DASHBOARD(true),
+    STUDENT_CLASSES(false),
+    VACCINATION_RULES(false),
+    UNIT_CONVERSIONS(false);
+
+    private final boolean dateSensitive;
+
+    CachedResource(boolean dateSensitive) {
+        this.dateSensitive = dateSensitive;
+    }
+
+    public boolean isDateSensitive() {
+        return dateSensitive;
+    }
+}
@@ -0,0 +1,14 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums;
+
+public enum DashboardMetric {
+    MEDICATION_REQUEST,     // dimension: status, bucket: requestDate
+    MEDICATION_SCHEDULE,    // dimension: status, bucket: scheduledDate
+    MEDICAL_EVENT,          // dimension: processed:severityLevel, bucket: createdAt
+    RESTOCK_REQUEST,        // dimension: status, bucket: requestDate
+    VACCINATION_CAMPAIGN,   // dimension: status, bucket: createdDate
+    HEALTH_CHECK_CAMPAIGN,  // dimension: status, bucket: createdAt
+    HEALTH_PROFILE,         // dimension: status, bucket: createdAt
+    MEDICAL_SUPPLY,         // dimension: enabled, no date bucket
+    HEALTH_CHECK_FORM,      // dimension: status, bucket: createdAt
+    VACCINATION_FORM        // dimension: confirmationStatus, bucket: createdDate
+}
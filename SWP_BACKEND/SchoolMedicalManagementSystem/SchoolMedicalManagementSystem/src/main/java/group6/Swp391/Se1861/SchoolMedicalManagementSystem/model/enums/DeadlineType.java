@@ -0,0 +1,13 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums;
+
+/**
+ * Time-based transitions fired by the deadline dispatcher
+ */
+public enum DeadlineType {
+    VACCINATION_FORM_REMINDER,
+    VACCINATION_FORM_EXPIRY,
+    VACCINATION_CAMPAIGN_REMINDER,
+    VACCINATION_CAMPAIGN_AUTO_REJECT,
+    HEALTH_CHECK_CAMPAIGN_REMINDER,
+    HEALTH_CHECK_CAMPAIGN_AUTO_REJECT
+}
@@ -0,0 +1,13 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
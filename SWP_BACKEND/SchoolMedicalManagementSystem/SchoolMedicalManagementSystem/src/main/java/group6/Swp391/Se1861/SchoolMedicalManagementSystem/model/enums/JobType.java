@@ -0,0 +1,12 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums;
+
+/**
+ * Long-running operations that run as background jobs
+ */
+public enum JobType {
+    HEALTH_CHECK_FORM_GENERATION,
+    HEALTH_CHECK_PARENT_NOTIFICATION,
+    VACCINATION_FORM_GENERATION,
+    VACCINATION_FORM_SENDING,
+    STUDENT_EXCEL_IMPORT
+}
@@ -0,0 +1,6 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums;
+
+public enum TimeBucket {
+    DAY,
+    WEEK,   // ISO week starting on Monday
+    MONTH
+}
@@ -0,0 +1,105 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.BackgroundJob;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJob, Long> {
+
+    /**
+     * Take ownership of a queued job, or of a running job whose worker stopped sending heartbeats
+     * @return 1 if this caller now owns the job
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BackgroundJob j SET j.status = :running, j.heartbeatAt = :now, j.attempts = j.attempts + 1, " +
+           "j.owner = :owner, j.startedAt = COALESCE(j.startedAt, :now) " +
+           "WHERE j.id = :id AND (j.status = :queued OR (j.status = :running AND j.heartbeatAt < :staleBefore))")
+    int claim(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("queued") JobStatus queued,
+              @Param("running") JobStatus running,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    // Attempt number written by the claim; read in the claiming transaction while the row is locked
+    @Query("SELECT j.attempts FROM BackgroundJob j WHERE j.id = :id")
+    int findAttempts(@Param("id") Long id);
+
+    /**
+     * Keep a running job owned by the given worker and attempt
+     * @return 0 if another worker has reclaimed the job
+     */
+    @Modifying
+    @Query("UPDATE BackgroundJob j SET j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.owner = :owner AND j.attempts = :attempt AND j.status = :running")
+    int heartbeat(@Param("id") Long id,
+                  @Param("owner") String owner,
+                  @Param("attempt") int attempt,
+                  @Param("running") JobStatus running,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Jobs waiting for a worker: queued, or running without a recent heartbeat
+     */
+    @Query("SELECT j.id FROM BackgroundJob j WHERE j.status = :queued " +
+           "OR (j.status = :running AND j.heartbeatAt < :staleBefore) ORDER BY j.id")
+    List<Long> findRunnableIds(@Param("queued") JobStatus queued,
+                               @Param("running") JobStatus running,
+                               @Param("staleBefore") LocalDateTime staleBefore,
+                               Pageable pageable);
+
+    // Progress and finish writes only apply for the owner and attempt that claimed the job
+
+    @Modifying
+    @Query("UPDATE BackgroundJob j SET j.totalItems = :totalItems, j.processedItems = :processedItems, " +
+           "j.checkpoint = :checkpoint, j.state = :state, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.owner = :owner AND j.attempts = :attempt")
+    int saveProgress(@Param("id") Long id,
+                     @Param("owner") String owner,
+                     @Param("attempt") int attempt,
+                     @Param("totalItems") int totalItems,
+                     @Param("processedItems") int processedItems,
+                     @Param("checkpoint") Long checkpoint,
+                     @Param("state") String state,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE BackgroundJob j SET j.status = :status, j.result = :result, j.errorMessage = :errorMessage, " +
+           "j.finishedAt = :now, j.heartbeatAt = :now, j.inputData = null " +
+           "WHERE j.id = :id AND j.owner = :owner AND j.attempts = :attempt")
+    int finish(@Param("id") Long id,
+               @Param("owner") String owner,
+               @Param("attempt") int attempt,
+               @Param("status") JobStatus status,
+               @Param("result") String result,
+               @Param("errorMessage") String errorMessage,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Cancel a job no worker has picked up yet
+     * @return 1 if the job was still queued
+     */
+    @Modifying
+    @Query("UPDATE BackgroundJob j SET j.status = :cancelled, j.cancelRequested = true, j.finishedAt = :now, " +
+           "j.inputData = null WHERE j.id = :id AND j.status = :queued")
+    int cancelQueued(@Param("id") Long id,
+                     @Param("queued") JobStatus queued,
+                     @Param("cancelled") JobStatus cancelled,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE BackgroundJob j SET j.cancelRequested = true WHERE j.id = :id")
+    int requestCancel(@Param("id") Long id);
+
+    @Query("SELECT j.cancelRequested FROM BackgroundJob j WHERE j.id = :id")
+    boolean isCancelRequested(@Param("id") Long id);
+}
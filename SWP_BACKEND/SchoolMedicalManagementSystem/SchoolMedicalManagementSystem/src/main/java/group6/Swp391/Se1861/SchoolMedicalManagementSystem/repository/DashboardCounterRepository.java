@@ -0,0 +1,39 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.DashboardCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DashboardCounterRepository extends JpaRepository<DashboardCounter, DashboardCounter.Key> {
+
+    /**
+     * Counter totals per metric and dimension over all days: rows of [metric, dimension, sum]
+     */
+    @Query("SELECT c.id.metric, c.id.dimension, SUM(c.counterValue) FROM DashboardCounter c " +
+           "GROUP BY c.id.metric, c.id.dimension")
+    List<Object[]> sumByMetricAndDimension();
+
+    /**
+     * Counter totals per metric and dimension for the days from..to inclusive: rows of [metric, dimension, sum]
+     */
+    @Query("SELECT c.id.metric, c.id.dimension, SUM(c.counterValue) FROM DashboardCounter c " +
+           "WHERE c.id.bucketDate >= :from AND c.id.bucketDate <= :to " +
+           "GROUP BY c.id.metric, c.id.dimension")
+    List<Object[]> sumByMetricAndDimension(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Lock every counter row, and the gaps between them, until the transaction ends.
+     * Listener deltas wait for the lock, so their changes cannot commit while counters are recounted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM DashboardCounter c")
+    List<DashboardCounter> findAllForUpdate();
+}
@@ -53,6 +53,22 @@ public interface HealthCheckCampaignRepository extends JpaRepository<HealthCheck
     
     @Query("SELECT COUNT(hcc) FROM HealthCheckCampaign hcc WHERE hcc.status = :status")
     long countByStatus(@Param("status") CampaignStatus status);
+
+    // Campaign count per status in one query: rows of [status, count]
+    @Query("SELECT hcc.status, COUNT(hcc) FROM HealthCheckCampaign hcc GROUP BY hcc.status")
+    List<Object[]> countGroupByStatus();
+
+    // Campaigns created per month in [from, to): rows of [year, month, count]
+    @Query("SELECT YEAR(hcc.createdAt), MONTH(hcc.createdAt), COUNT(hcc) FROM HealthCheckCampaign hcc " +
+           "WHERE hcc.createdAt >= :from AND hcc.createdAt < :to " +
+           "GROUP BY YEAR(hcc.createdAt), MONTH(hcc.createdAt)")
+    List<Object[]> countGroupByMonth(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Campaigns created per day in [from, to): rows of [year, month, day, count]
+    @Query("SELECT YEAR(hcc.createdAt), MONTH(hcc.createdAt), DAY(hcc.createdAt), COUNT(hcc) FROM HealthCheckCampaign hcc " +
+           "WHERE hcc.createdAt >= :from AND hcc.createdAt < :to " +
+           "GROUP BY YEAR(hcc.createdAt), MONTH(hcc.createdAt), DAY(hcc.createdAt)")
+    List<Object[]> countGroupByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
     
     /**
      * Count health check campaigns created between two dates
@@ -61,4 +77,14 @@ public interface HealthCheckCampaignRepository extends JpaRepository<HealthCheck
 
     // Dashboard statistics methods
     long countByStatusAndCreatedAtBetween(CampaignStatus status, LocalDateTime start, LocalDateTime end);
+
+    // One row of [total, canceled, approved, inProgress, completed, pending] for campaigns created from..to
+    @Query("SELECT COUNT(hcc), " +
+           "SUM(CASE WHEN hcc.status = 'CANCELED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN hcc.status = 'APPROVED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN hcc.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN hcc.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN hcc.status = 'PENDING' THEN 1 ELSE 0 END) " +
+           "FROM HealthCheckCampaign hcc WHERE hcc.createdAt BETWEEN :from AND :to")
+    List<Object[]> countStatusesByCreatedAtBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -13,11 +13,19 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface HealthCheckFormRepository extends JpaRepository<HealthCheckForm, Long> {
+
+    // Everything a parent notification touches: the recipient and its role, and the student with the
+    // eager mother, father and health profile associations that would otherwise load one row at a time
+    String NOTIFICATION_FETCH = "SELECT hcf FROM HealthCheckForm hcf " +
+           "JOIN FETCH hcf.parent p LEFT JOIN FETCH p.role " +
+           "JOIN FETCH hcf.student s LEFT JOIN FETCH s.mother m LEFT JOIN FETCH m.role " +
+           "LEFT JOIN FETCH s.father f LEFT JOIN FETCH f.role LEFT JOIN FETCH s.healthProfile ";
     
     List<HealthCheckForm> findByStatus(FormStatus status);
     
@@ -68,6 +76,8 @@ public interface HealthCheckFormRepository extends JpaRepository<HealthCheckForm
     
     @Query("SELECT COUNT(hcf) FROM HealthCheckForm hcf WHERE hcf.campaign = :campaign")
     long countByCampaign(@Param("campaign") HealthCheckCampaign campaign);
+
+    long countByStatus(FormStatus status);
     
     @Query("SELECT hcf FROM HealthCheckForm hcf WHERE " +
            "hcf.status = :status AND hcf.reminderSent = false AND " +
@@ -98,4 +108,33 @@ public interface HealthCheckFormRepository extends JpaRepository<HealthCheckForm
     List<HealthCheckForm> findByCampaignIdAndStatus(Long campaignId, FormStatus status);
     
     Optional<HealthCheckForm> findByCampaignIdAndStudentStudentID(Long campaignId, Long studentId);
+
+    // Parents to notify for a campaign, ascending, used to split notification jobs into chunks
+    @Query("SELECT DISTINCT hcf.parent.id FROM HealthCheckForm hcf WHERE hcf.campaign.id = :campaignId ORDER BY hcf.parent.id")
+    List<Long> findParentIdsByCampaignId(@Param("campaignId") Long campaignId);
+
+    @Query(NOTIFICATION_FETCH +
+           "WHERE hcf.campaign = :campaign AND p.id IN :parentIds ORDER BY hcf.id")
+    List<HealthCheckForm> findByCampaignAndParentIds(@Param("campaign") HealthCheckCampaign campaign,
+                                                     @Param("parentIds") List<Long> parentIds);
+
+    @Query(NOTIFICATION_FETCH +
+           "WHERE hcf.campaign = :campaign AND hcf.status = :status ORDER BY hcf.id")
+    List<HealthCheckForm> findForNotificationByCampaignAndStatus(@Param("campaign") HealthCheckCampaign campaign,
+                                                                 @Param("status") FormStatus status);
+
+    @Query("SELECT hcf FROM HealthCheckForm hcf JOIN FETCH hcf.student " +
+           "WHERE hcf.campaign = :campaign AND hcf.status IN :statuses")
+    List<HealthCheckForm> findWithStudentByCampaignAndStatusIn(@Param("campaign") HealthCheckCampaign campaign,
+                                                               @Param("statuses") List<FormStatus> statuses);
+
+    // Student shown for each form: rows of [formId, firstName, lastName, className]
+    @Query("SELECT hcf.id, s.firstName, s.lastName, s.className FROM HealthCheckForm hcf JOIN hcf.student s " +
+           "WHERE hcf.id IN :ids")
+    List<Object[]> findStudentNamesByIds(@Param("ids") Collection<Long> ids);
+
+    // Form count per campaign and status in one query: rows of [campaignId, status, count]
+    @Query("SELECT hcf.campaign.id, hcf.status, COUNT(hcf) FROM HealthCheckForm hcf " +
+           "WHERE hcf.campaign.id IN :campaignIds GROUP BY hcf.campaign.id, hcf.status")
+    List<Object[]> countByCampaignIdsGroupByStatus(@Param("campaignIds") Collection<Long> campaignIds);
 }
@@ -5,14 +5,20 @@ import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckForm;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckResult;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Student;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.FormStatus;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.HealthCheckCategory;
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.Tuple;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface HealthCheckResultRepository extends JpaRepository<HealthCheckResult, Long> {
@@ -47,4 +53,46 @@ public interface HealthCheckResultRepository extends JpaRepository<HealthCheckRe
      */
     @Query("SELECT r FROM HealthCheckResult r WHERE r.id = :resultId AND (r.student.mother = :parent OR r.student.father = :parent)")
     Optional<HealthCheckResult> findByIdAndParent(@Param("resultId") Long resultId, @Param("parent") User parent);
+
+    /**
+     * Results report rows of a campaign: one row per result of a confirmed form, with the student,
+     * the nurse and the category detail joined in. Rows are ordered by form so that a reader can
+     * assemble one student at a time, and the driver streams them instead of buffering the result set.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT f.id AS formId, f.respondedAt AS respondedAt, " +
+           "s.studentID AS studentId, s.firstName AS studentFirstName, s.lastName AS studentLastName, " +
+           "s.className AS className, s.schoolYear AS schoolYear, " +
+           "r.id AS resultId, r.category AS category, r.weight AS weight, r.height AS height, r.bmi AS bmi, " +
+           "r.status AS status, r.isAbnormal AS isAbnormal, r.resultNotes AS resultNotes, " +
+           "r.recommendations AS recommendations, r.performedAt AS performedAt, r.categoryResultId AS categoryResultId, " +
+           "n.id AS nurseId, n.firstName AS nurseFirstName, n.lastName AS nurseLastName, " +
+           "v.id AS visionId, v.visionLeft AS visionLeft, v.visionRight AS visionRight, " +
+           "v.visionLeftWithGlass AS visionLeftWithGlass, v.visionRightWithGlass AS visionRightWithGlass, " +
+           "v.visionDescription AS visionDescription, v.doctorName AS visionDoctorName, " +
+           "v.dateOfExamination AS visionDate, v.needsGlasses AS needsGlasses, v.isAbnormal AS visionAbnormal, " +
+           "v.recommendations AS visionRecommendations, " +
+           "h.id AS hearingId, h.leftEar AS leftEar, h.rightEar AS rightEar, h.description AS hearingDescription, " +
+           "h.doctorName AS hearingDoctorName, h.dateOfExamination AS hearingDate, h.isAbnormal AS hearingAbnormal, " +
+           "h.recommendations AS hearingRecommendations, " +
+           "o.id AS oralId, o.teethCondition AS teethCondition, o.gumsCondition AS gumsCondition, " +
+           "o.tongueCondition AS tongueCondition, o.description AS oralDescription, o.doctorName AS oralDoctorName, " +
+           "o.dateOfExamination AS oralDate, o.isAbnormal AS oralAbnormal, o.recommendations AS oralRecommendations, " +
+           "sk.id AS skinId, sk.skinColor AS skinColor, sk.rashes AS rashes, sk.lesions AS lesions, " +
+           "sk.dryness AS dryness, sk.eczema AS eczema, sk.psoriasis AS psoriasis, sk.skinInfection AS skinInfection, " +
+           "sk.allergies AS allergies, sk.description AS skinDescription, sk.treatment AS treatment, " +
+           "sk.doctorName AS skinDoctorName, sk.isAbnormal AS skinAbnormal, sk.recommendations AS skinRecommendations, " +
+           "sk.dateOfExamination AS skinDate, sk.followUpDate AS followUpDate, " +
+           "rs.id AS respiratoryId, rs.breathingRate AS breathingRate, rs.breathingSound AS breathingSound, " +
+           "rs.wheezing AS wheezing, rs.cough AS cough, rs.breathingDifficulty AS breathingDifficulty, " +
+           "rs.description AS respiratoryDescription, rs.doctorName AS respiratoryDoctorName, " +
+           "rs.isAbnormal AS respiratoryAbnormal, rs.recommendations AS respiratoryRecommendations, " +
+           "rs.dateOfExamination AS respiratoryDate " +
+           "FROM HealthCheckResult r JOIN r.form f JOIN f.student s LEFT JOIN r.nurse n " +
+           "LEFT JOIN r.vision v LEFT JOIN r.hearing h LEFT JOIN r.oral o LEFT JOIN r.skin sk LEFT JOIN r.respiratory rs " +
+           "WHERE f.campaign.id = :campaignId AND f.status = :formStatus " +
+           "ORDER BY f.id, r.id")
+    Stream<Tuple> streamCampaignResultRows(@Param("campaignId") Long campaignId,
+                                           @Param("formStatus") FormStatus formStatus);
 }
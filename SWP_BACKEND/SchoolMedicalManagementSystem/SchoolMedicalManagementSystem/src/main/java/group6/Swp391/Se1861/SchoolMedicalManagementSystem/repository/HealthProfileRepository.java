@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.time.LocalDate;
 
 @Repository
 public interface HealthProfileRepository extends JpaRepository<HealthProfile, Long> {
@@ -85,4 +86,11 @@ public interface HealthProfileRepository extends JpaRepository<HealthProfile, Lo
     
     @Query("SELECT COUNT(DISTINCT hp.student) FROM HealthProfile hp")
     long countDistinctStudents();
+
+    // One row of [pending, approved, rejected] for profiles created from..to
+    @Query("SELECT SUM(CASE WHEN hp.status = 'PENDING' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN hp.status = 'APPROVED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN hp.status = 'REJECTED' THEN 1 ELSE 0 END) " +
+           "FROM HealthProfile hp WHERE hp.createdAt BETWEEN :from AND :to")
+    List<Object[]> countStatusesByCreatedAtBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -8,6 +8,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -51,6 +52,28 @@ public interface MedicalEventRepository extends JpaRepository<MedicalEvent, Long
 
     // Dashboard statistics methods
     long countByProcessed(boolean processed);
+
+    // Event count per processed flag and severity for active students: rows of [processed, severityLevel, count]
+    @Query("SELECT me.processed, me.severityLevel, COUNT(me) FROM MedicalEvent me JOIN me.student s " +
+           "WHERE s.isDisabled = false GROUP BY me.processed, me.severityLevel")
+    List<Object[]> countGroupByProcessedAndSeverity();
+
+    // Events of active students per month of occurrence in [from, to): rows of [year, month, count]
+    @Query("SELECT YEAR(me.occurrenceTime), MONTH(me.occurrenceTime), COUNT(me) FROM MedicalEvent me JOIN me.student s " +
+           "WHERE me.occurrenceTime >= :from AND me.occurrenceTime < :to AND s.isDisabled = false " +
+           "GROUP BY YEAR(me.occurrenceTime), MONTH(me.occurrenceTime)")
+    List<Object[]> countGroupByMonth(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Events of active students per day of occurrence in [from, to): rows of [year, month, day, count]
+    @Query("SELECT YEAR(me.occurrenceTime), MONTH(me.occurrenceTime), DAY(me.occurrenceTime), COUNT(me) FROM MedicalEvent me JOIN me.student s " +
+           "WHERE me.occurrenceTime >= :from AND me.occurrenceTime < :to AND s.isDisabled = false " +
+           "GROUP BY YEAR(me.occurrenceTime), MONTH(me.occurrenceTime), DAY(me.occurrenceTime)")
+    List<Object[]> countGroupByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
     long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
     long countByProcessedAndCreatedAtBetween(boolean processed, LocalDateTime start, LocalDateTime end);
+
+    // One row of [total, processed] for events created from..to
+    @Query("SELECT COUNT(me), SUM(CASE WHEN me.processed = true THEN 1 ELSE 0 END) " +
+           "FROM MedicalEvent me WHERE me.createdAt BETWEEN :from AND :to")
+    List<Object[]> countProcessedByCreatedAtBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
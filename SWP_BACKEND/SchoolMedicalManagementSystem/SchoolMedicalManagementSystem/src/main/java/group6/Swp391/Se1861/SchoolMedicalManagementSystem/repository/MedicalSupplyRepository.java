@@ -33,6 +33,8 @@ public interface MedicalSupplyRepository extends JpaRepository<MedicalSupply, Lo
     List<MedicalSupply> findByLocationAndEnabled(@Param("location") String location);
     
     List<MedicalSupply> findByEnabled(Boolean enabled);
+
+    long countByEnabled(Boolean enabled);
     
     @Query("SELECT COUNT(m) FROM MedicalSupply m WHERE m.quantityInBaseUnit <= m.minStockLevelInBaseUnit AND m.enabled = true")
     long countLowStockItems();
@@ -42,4 +44,12 @@ public interface MedicalSupplyRepository extends JpaRepository<MedicalSupply, Lo
     
     @Query("SELECT COUNT(m) FROM MedicalSupply m WHERE m.expirationDate < CURRENT_DATE AND m.enabled = true")
     long countExpired();
+
+    // One row of [total, lowStock, expiringSoon, expired]; the last three only count enabled supplies
+    @Query("SELECT COUNT(m), " +
+           "SUM(CASE WHEN m.enabled = true AND m.quantityInBaseUnit <= m.minStockLevelInBaseUnit THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.enabled = true AND m.expirationDate <= :expiringBy THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.enabled = true AND m.expirationDate < CURRENT_DATE THEN 1 ELSE 0 END) " +
+           "FROM MedicalSupply m")
+    List<Object[]> countInventoryStatus(@Param("expiringBy") LocalDate expiringBy);
 }
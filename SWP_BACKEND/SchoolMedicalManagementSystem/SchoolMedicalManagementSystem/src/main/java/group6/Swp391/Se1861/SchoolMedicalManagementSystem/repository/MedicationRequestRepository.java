@@ -9,6 +9,8 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 @Repository
 public interface MedicationRequestRepository extends JpaRepository<MedicationRequest, Long> {
@@ -32,4 +34,12 @@ public interface MedicationRequestRepository extends JpaRepository<MedicationReq
     long countByStatus(String status);
     long countByRequestDateBetween(LocalDate start, LocalDate end);
     long countByStatusAndRequestDateBetween(String status, LocalDate start, LocalDate end);
+
+    // One row of [total, approved, rejected, pending] for requests dated from..to
+    @Query("SELECT COUNT(m), " +
+           "SUM(CASE WHEN m.status = 'APPROVED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.status = 'REJECTED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.status = 'PENDING' THEN 1 ELSE 0 END) " +
+           "FROM MedicationRequest m WHERE m.requestDate BETWEEN :from AND :to")
+    List<Object[]> countStatusesByRequestDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
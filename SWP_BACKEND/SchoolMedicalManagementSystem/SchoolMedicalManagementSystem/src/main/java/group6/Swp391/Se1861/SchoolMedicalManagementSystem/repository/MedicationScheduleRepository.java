@@ -4,6 +4,7 @@ import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.MedicationSchedu
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.MedicationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -25,20 +27,79 @@ public interface MedicationScheduleRepository extends JpaRepository<MedicationSc
     List<MedicationSchedule> findByStatusAndItemRequestMedicationRequestNurse(MedicationStatus status, User nurse);
     
     /**
-     * Find all PENDING schedules that are overdue (more than 30 minutes past scheduled time)
-     * Only considers schedules from APPROVED medication requests
+     * Ids of PENDING schedules of APPROVED requests that were due at or before overdueDate overdueTime
      */
-    @Query("SELECT ms FROM MedicationSchedule ms " +
+    @Query("SELECT ms.id FROM MedicationSchedule ms " +
            "WHERE ms.status = :status " +
-           "AND ((ms.scheduledDate < :currentDate) " +
-           "     OR (ms.scheduledDate = :currentDate AND ms.scheduledTime <= :overdueTime)) " +
+           "AND ((ms.scheduledDate < :overdueDate) " +
+           "     OR (ms.scheduledDate = :overdueDate AND ms.scheduledTime <= :overdueTime)) " +
            "AND ms.itemRequest.medicationRequest.status = 'APPROVED'")
-    List<MedicationSchedule> findOverdueSchedules(
+    List<Long> findOverdueScheduleIds(
         @Param("status") MedicationStatus status,
-        @Param("currentDate") LocalDate currentDate,
+        @Param("overdueDate") LocalDate overdueDate,
         @Param("overdueTime") LocalTime overdueTime
     );
 
+    /**
+     * Same as findOverdueScheduleIds, limited to the ids from fromId to toId
+     */
+    @Query("SELECT ms.id FROM MedicationSchedule ms " +
+           "WHERE ms.id BETWEEN :fromId AND :toId " +
+           "AND ms.status = :status " +
+           "AND ((ms.scheduledDate < :overdueDate) " +
+           "     OR (ms.scheduledDate = :overdueDate AND ms.scheduledTime <= :overdueTime)) " +
+           "AND ms.itemRequest.medicationRequest.status = 'APPROVED' " +
+           "ORDER BY ms.id")
+    List<Long> findOverdueScheduleIdsBetween(
+        @Param("status") MedicationStatus status,
+        @Param("overdueDate") LocalDate overdueDate,
+        @Param("overdueTime") LocalTime overdueTime,
+        @Param("fromId") long fromId,
+        @Param("toId") long toId
+    );
+
+    // Id bounds of the schedules in a status, for splitting a run into id ranges; null if there are none
+    @Query("SELECT MIN(ms.id) FROM MedicationSchedule ms WHERE ms.status = :status")
+    Long findMinIdByStatus(@Param("status") MedicationStatus status);
+
+    @Query("SELECT MAX(ms.id) FROM MedicationSchedule ms WHERE ms.status = :status")
+    Long findMaxIdByStatus(@Param("status") MedicationStatus status);
+
+    /**
+     * Move the given schedules from PENDING to SKIPPED in one statement.
+     * The status guard leaves rows that were updated in the meantime untouched.
+     * @return number of rows actually changed
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE MedicationSchedule ms SET ms.status = :skipped, ms.administeredTime = :administeredTime, " +
+           "ms.nurseNote = :nurseNote " +
+           "WHERE ms.id IN :ids AND ms.status = :pending")
+    int markSkippedIfPending(@Param("ids") Collection<Long> ids,
+                             @Param("pending") MedicationStatus pending,
+                             @Param("skipped") MedicationStatus skipped,
+                             @Param("administeredTime") LocalTime administeredTime,
+                             @Param("nurseNote") String nurseNote);
+
+    /**
+     * Ids among the given ones that carry the SKIPPED stamp written by markSkippedIfPending
+     */
+    @Query("SELECT ms.id FROM MedicationSchedule ms " +
+           "WHERE ms.id IN :ids AND ms.status = :skipped " +
+           "AND ms.administeredTime = :administeredTime AND ms.nurseNote = :nurseNote")
+    List<Long> findSkippedIds(@Param("ids") Collection<Long> ids,
+                              @Param("skipped") MedicationStatus skipped,
+                              @Param("administeredTime") LocalTime administeredTime,
+                              @Param("nurseNote") String nurseNote);
+
+    // Schedules with their request, student and nurse loaded, for notifications
+    @Query("SELECT ms FROM MedicationSchedule ms " +
+           "JOIN FETCH ms.itemRequest ir " +
+           "JOIN FETCH ir.medicationRequest mr " +
+           "JOIN FETCH mr.student " +
+           "LEFT JOIN FETCH mr.nurse " +
+           "WHERE ms.id IN :ids")
+    List<MedicationSchedule> findWithRequestByIdIn(@Param("ids") Collection<Long> ids);
+
     // Dashboard statistics methods
     long countByStatus(MedicationStatus status);
     
@@ -63,4 +124,11 @@ public interface MedicationScheduleRepository extends JpaRepository<MedicationSc
     
     // Simpler version that only considers dates (for daily/monthly/yearly filters)
     long countByStatusAndScheduledDateBetween(MedicationStatus status, LocalDate startDate, LocalDate endDate);
+
+    // One row of [skipped, taken, pending] for doses scheduled from..to
+    @Query("SELECT SUM(CASE WHEN ms.status = 'SKIPPED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN ms.status = 'TAKEN' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN ms.status = 'PENDING' THEN 1 ELSE 0 END) " +
+           "FROM MedicationSchedule ms WHERE ms.scheduledDate BETWEEN :from AND :to")
+    List<Object[]> countStatusesByScheduledDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -0,0 +1,9 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.MigrationMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MigrationMarkerRepository extends JpaRepository<MigrationMarker, String> {
+}
@@ -0,0 +1,47 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationSummaryDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.NotificationArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+
+    // Same shape and order as the hot inbox queries; archived notifications are always read
+    String INBOX_SUMMARY_SELECT = "SELECT new group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationSummaryDTO(" +
+           "a.id, a.title, a.notificationType, a.createdAt, true, a.confirm, " +
+           "a.medicationRequestId, a.medicationScheduleId, a.medicalEventId, a.vaccinationFormId, " +
+           "a.restockRequestId, a.healthCheckFormId, a.healthCheckCampaignId, a.campaignCompletionRequestId) " +
+           "FROM NotificationArchive a ";
+
+    @Query(INBOX_SUMMARY_SELECT +
+           "WHERE a.recipientId = :recipientId " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<NotificationSummaryDTO> findInboxFirstPage(@Param("recipientId") Long recipientId, Pageable pageable);
+
+    @Query(INBOX_SUMMARY_SELECT +
+           "WHERE a.recipientId = :recipientId " +
+           "AND (a.createdAt < :beforeCreatedAt OR (a.createdAt = :beforeCreatedAt AND a.id < :beforeId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<NotificationSummaryDTO> findInboxPageBefore(@Param("recipientId") Long recipientId,
+                                                     @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                                     @Param("beforeId") Long beforeId,
+                                                     Pageable pageable);
+
+    Optional<NotificationArchive> findByIdAndRecipientId(Long id, Long recipientId);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM NotificationArchive a WHERE a.recipientId = :recipientId AND a.createdAt < :olderThan")
+    int deleteByRecipientOlderThan(@Param("recipientId") Long recipientId, @Param("olderThan") LocalDateTime olderThan);
+}
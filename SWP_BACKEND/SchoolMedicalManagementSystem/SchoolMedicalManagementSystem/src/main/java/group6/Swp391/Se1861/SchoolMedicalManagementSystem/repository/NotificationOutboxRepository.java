@@ -0,0 +1,35 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.NotificationOutbox;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Lock outbox rows that are due for a delivery attempt, oldest first.
+     * Rows locked by another instance's drain are skipped, so each row is handled by one instance.
+     * Must run inside a transaction; the locks are held until it ends.
+     */
+    @Query(value = "SELECT * FROM notification_outbox WHERE status = :status AND next_attempt_at <= :now " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> claimDue(@Param("status") String status,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("limit") int limit);
+
+    /**
+     * Lock the given outbox rows if they are still pending and no other drain holds them
+     */
+    @Query(value = "SELECT * FROM notification_outbox WHERE id IN (:ids) AND status = :status " +
+                   "ORDER BY id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> lockByIds(@Param("ids") List<Long> ids, @Param("status") String status);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,27 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.NotificationRelay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationRelayRepository extends JpaRepository<NotificationRelay, Long> {
+
+    // Ids only, so each poll can compare the recent window with what it has already pushed
+    @Query("SELECT r.id FROM NotificationRelay r WHERE r.createdAt > :since ORDER BY r.id")
+    List<Long> findIdsCreatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT r FROM NotificationRelay r WHERE r.id IN :ids ORDER BY r.id")
+    List<NotificationRelay> findByIdInOrderById(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM NotificationRelay r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,13 +1,17 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
 
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationSummaryDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Notification;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,8 +52,17 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     long countByRecipientAndIsReadFalse(User recipient);
 
+    Optional<Notification> findFirstByRecipientAndNotificationTypeAndIsReadFalseAndCreatedAtAfterOrderByCreatedAtDesc(
+            User recipient, String notificationType, LocalDateTime createdAfter);
+
     List<Notification> findByNotificationType(String notificationType);
 
+    // Notifications created after the given id, used to replay what a stream client missed
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId AND n.id > :afterId ORDER BY n.id ASC")
+    List<Notification> findByRecipientAfterId(@Param("recipientId") Long recipientId,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
     @Query("SELECT n FROM Notification n " +
            "LEFT JOIN FETCH n.campaignCompletionRequest " +
            "LEFT JOIN FETCH n.medicationRequest " +
@@ -59,4 +72,50 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
            "LEFT JOIN FETCH n.restockRequest " +
            "WHERE n.id = :id")
     Optional<Notification> findByIdWithAssociations(@Param("id") Long id);
+
+    // Keyset-paginated inbox: no fetch joins so LIMIT is applied in SQL,
+    // served by the (recipientId, createdAt, id) index
+    String INBOX_SUMMARY_SELECT = "SELECT new group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationSummaryDTO(" +
+           "n.id, n.title, n.notificationType, n.createdAt, n.isRead, n.confirm, " +
+           "fk(n.medicationRequest), fk(n.medicationSchedule), fk(n.medicalEvent), fk(n.vaccinationForm), " +
+           "fk(n.restockRequest), fk(n.healthCheckForm), fk(n.healthCheckCampaign), fk(n.campaignCompletionRequest)) " +
+           "FROM Notification n ";
+
+    @Query(INBOX_SUMMARY_SELECT +
+           "WHERE n.recipient.id = :recipientId " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationSummaryDTO> findInboxFirstPage(@Param("recipientId") Long recipientId, Pageable pageable);
+
+    @Query(INBOX_SUMMARY_SELECT +
+           "WHERE n.recipient.id = :recipientId " +
+           "AND (n.createdAt < :beforeCreatedAt OR (n.createdAt = :beforeCreatedAt AND n.id < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationSummaryDTO> findInboxPageBefore(@Param("recipientId") Long recipientId,
+                                                     @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                                     @Param("beforeId") Long beforeId,
+                                                     Pageable pageable);
+
+    // Set-based bulk operations: one UPDATE/DELETE statement, returns affected rows
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient.id = :recipientId AND n.isRead = false")
+    int markAllAsRead(@Param("recipientId") Long recipientId);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true " +
+           "WHERE n.recipient.id = :recipientId AND n.notificationType = :notificationType AND n.isRead = false")
+    int markAsReadByType(@Param("recipientId") Long recipientId, @Param("notificationType") String notificationType);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true " +
+           "WHERE n.recipient.id = :recipientId AND n.healthCheckCampaign.id = :campaignId AND n.isRead = false")
+    int markAsReadByHealthCheckCampaign(@Param("recipientId") Long recipientId, @Param("campaignId") Long campaignId);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.recipient.id = :recipientId AND n.createdAt < :olderThan")
+    int deleteByRecipientOlderThan(@Param("recipientId") Long recipientId, @Param("olderThan") LocalDateTime olderThan);
 }
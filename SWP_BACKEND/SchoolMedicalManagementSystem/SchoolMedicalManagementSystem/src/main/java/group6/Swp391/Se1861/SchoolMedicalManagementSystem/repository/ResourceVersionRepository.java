@@ -0,0 +1,10 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.ResourceVersion;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ResourceVersionRepository extends JpaRepository<ResourceVersion, CachedResource> {
+}
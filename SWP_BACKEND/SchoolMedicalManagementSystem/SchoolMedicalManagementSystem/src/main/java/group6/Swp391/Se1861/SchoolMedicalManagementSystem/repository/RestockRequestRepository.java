@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.time.LocalDateTime;
 
 @Repository
 public interface RestockRequestRepository extends JpaRepository<RestockRequest, Long> {
@@ -38,4 +39,13 @@ public interface RestockRequestRepository extends JpaRepository<RestockRequest,
     // Dashboard statistics methods
     long countByRequestDateBetween(java.time.LocalDateTime start, java.time.LocalDateTime end);
     long countByStatusAndRequestDateBetween(RestockRequest.RestockStatus status, java.time.LocalDateTime start, java.time.LocalDateTime end);
+
+    // One row of [total, pending, approved, rejected, completed] for requests made from..to
+    @Query("SELECT COUNT(r), " +
+           "SUM(CASE WHEN r.status = 'PENDING' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.status = 'APPROVED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.status = 'REJECTED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.status = 'COMPLETED' THEN 1 ELSE 0 END) " +
+           "FROM RestockRequest r WHERE r.requestDate BETWEEN :from AND :to")
+    List<Object[]> countStatusesByRequestDateBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
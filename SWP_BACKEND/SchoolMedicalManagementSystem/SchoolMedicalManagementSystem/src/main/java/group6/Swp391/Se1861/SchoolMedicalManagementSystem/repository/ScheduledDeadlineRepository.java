@@ -0,0 +1,41 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.ScheduledDeadline;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ScheduledDeadlineRepository extends JpaRepository<ScheduledDeadline, Long> {
+
+    /**
+     * Deadlines due before the horizon, earliest first (range scan on the due_at index)
+     */
+    @Query("SELECT d FROM ScheduledDeadline d WHERE d.dueAt < :horizon ORDER BY d.dueAt, d.id")
+    List<ScheduledDeadline> findDueBefore(@Param("horizon") LocalDateTime horizon, Pageable pageable);
+
+    /**
+     * Take a deadline for firing by deleting its row
+     * @return 1 if this caller fires the deadline; 0 if another instance already did or it was moved
+     */
+    @Modifying
+    @Query("DELETE FROM ScheduledDeadline d WHERE d.deadlineType = :type AND d.targetId = :targetId AND d.dueAt = :dueAt")
+    int claim(@Param("type") DeadlineType type,
+              @Param("targetId") Long targetId,
+              @Param("dueAt") LocalDateTime dueAt);
+
+    @Modifying
+    @Query("UPDATE ScheduledDeadline d SET d.dueAt = :retryAt " +
+           "WHERE d.deadlineType = :type AND d.targetId = :targetId AND d.dueAt = :dueAt")
+    int postpone(@Param("type") DeadlineType type,
+                 @Param("targetId") Long targetId,
+                 @Param("dueAt") LocalDateTime dueAt,
+                 @Param("retryAt") LocalDateTime retryAt);
+}
@@ -0,0 +1,104 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Lease times are compared and computed with the database clock (CURRENT_TIMESTAMP(6)),
+ * so clock skew between nodes cannot make two of them hold the same lease.
+ */
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Create the lease row, already expired, if no node has created it yet
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO scheduler_lease (name, fencing_token, lease_until) " +
+                   "VALUES (:name, 0, '1970-01-01 00:00:00')",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+
+    /**
+     * Take the lease if it has expired, incrementing the fencing token
+     * @return 1 if this caller now holds the lease
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE scheduler_lease SET owner = :owner, fencing_token = fencing_token + 1, " +
+                   "lease_until = TIMESTAMPADD(MICROSECOND, :durationMs * 1000, CURRENT_TIMESTAMP(6)), " +
+                   "acquired_at = CURRENT_TIMESTAMP(6), heartbeat_at = CURRENT_TIMESTAMP(6) " +
+                   "WHERE name = :name AND lease_until < CURRENT_TIMESTAMP(6)",
+           nativeQuery = true)
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("durationMs") long durationMs);
+
+    /**
+     * Extend a lease that is still held under the given token
+     * @return 0 if another node has taken the lease since
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET heartbeat_at = CURRENT_TIMESTAMP(6), " +
+                   "lease_until = TIMESTAMPADD(MICROSECOND, :durationMs * 1000, CURRENT_TIMESTAMP(6)) " +
+                   "WHERE name = :name AND owner = :owner AND fencing_token = :token",
+           nativeQuery = true)
+    int heartbeat(@Param("name") String name,
+                  @Param("owner") String owner,
+                  @Param("token") long token,
+                  @Param("durationMs") long durationMs);
+
+    /**
+     * Let the lease expire minHoldMs after it was acquired, or now if that has already passed
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET heartbeat_at = CURRENT_TIMESTAMP(6), " +
+                   "lease_until = GREATEST(TIMESTAMPADD(MICROSECOND, :minHoldMs * 1000, acquired_at), CURRENT_TIMESTAMP(6)) " +
+                   "WHERE name = :name AND owner = :owner AND fencing_token = :token",
+           nativeQuery = true)
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("token") long token,
+                @Param("minHoldMs") long minHoldMs);
+
+    /**
+     * Fencing check: lock the lease row and confirm the token has not moved on.
+     * Run inside the transaction doing the work, so the check and the work commit together.
+     * @return 0 if another node has taken the lease since
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET heartbeat_at = CURRENT_TIMESTAMP(6) " +
+                   "WHERE name = :name AND owner = :owner AND fencing_token = :token",
+           nativeQuery = true)
+    int fence(@Param("name") String name,
+              @Param("owner") String owner,
+              @Param("token") long token);
+
+    /**
+     * Fencing check that also records the last id committed in a partitioned task's range.
+     * Run inside the transaction doing the work, like fence.
+     * @return 0 if another node has taken the lease since
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET heartbeat_at = CURRENT_TIMESTAMP(6), checkpoint_id = :lastId " +
+                   "WHERE name = :name AND owner = :owner AND fencing_token = :token",
+           nativeQuery = true)
+    int checkpoint(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("token") long token,
+                   @Param("lastId") long lastId);
+
+    /**
+     * Forget the checkpoint of a finished range, so the next run starts at the beginning of its range
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET checkpoint_id = NULL " +
+                   "WHERE name = :name AND owner = :owner AND fencing_token = :token",
+           nativeQuery = true)
+    int clearCheckpoint(@Param("name") String name,
+                        @Param("owner") String owner,
+                        @Param("token") long token);
+}
@@ -2,6 +2,7 @@ package group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository;
 
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Student;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -86,4 +87,19 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query("SELECT s FROM Student s WHERE s.isDisabled = false AND s.studentID NOT IN " +
            "(SELECT hp.student.studentID FROM HealthProfile hp WHERE hp.student.studentID IS NOT NULL)")
     List<Student> findStudentsWithoutHealthProfiles();
+
+    // Active students without a form for the vaccination campaign (anti-join), with father and mother loaded
+    @Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.father LEFT JOIN FETCH s.mother " +
+           "LEFT JOIN VaccinationForm vf ON vf.student = s AND vf.campaign = :campaign " +
+           "WHERE s.isDisabled = false AND vf.id IS NULL")
+    List<Student> findWithParentsWithoutVaccinationForm(@Param("campaign") VaccinationCampaign campaign);
+
+    // Roster index source: one row of [studentID, className, dob] per active student
+    @Query("SELECT s.studentID, s.className, s.dob FROM Student s WHERE s.isDisabled = false")
+    List<Object[]> findActiveRosterEntries();
+
+    // Students by id with father and mother loaded in the same query
+    @Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.father LEFT JOIN FETCH s.mother " +
+           "WHERE s.studentID IN :ids ORDER BY s.studentID")
+    List<Student> findWithParentsByStudentIDIn(@Param("ids") List<Long> ids);
 }
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,4 +47,38 @@ public interface VaccinationCampaignRepository extends JpaRepository<Vaccination
     long countByStatus(VaccinationCampaign.CampaignStatus status);
     long countByCreatedDateBetween(LocalDateTime start, LocalDateTime end);
     long countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus status, LocalDateTime start, LocalDateTime end);
+
+    // Campaign count per status in one query: rows of [status, count]
+    @Query("SELECT vc.status, COUNT(vc) FROM VaccinationCampaign vc GROUP BY vc.status")
+    List<Object[]> countGroupByStatus();
+
+    // Campaigns created per month in [from, to): rows of [year, month, count]
+    @Query("SELECT YEAR(vc.createdDate), MONTH(vc.createdDate), COUNT(vc) FROM VaccinationCampaign vc " +
+           "WHERE vc.createdDate >= :from AND vc.createdDate < :to " +
+           "GROUP BY YEAR(vc.createdDate), MONTH(vc.createdDate)")
+    List<Object[]> countGroupByMonth(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Campaigns created per day in [from, to): rows of [year, month, day, count]
+    @Query("SELECT YEAR(vc.createdDate), MONTH(vc.createdDate), DAY(vc.createdDate), COUNT(vc) FROM VaccinationCampaign vc " +
+           "WHERE vc.createdDate >= :from AND vc.createdDate < :to " +
+           "GROUP BY YEAR(vc.createdDate), MONTH(vc.createdDate), DAY(vc.createdDate)")
+    List<Object[]> countGroupByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // One row of [total, rejected, approved, inProgress, completed, pending] for campaigns created from..to
+    @Query("SELECT COUNT(vc), " +
+           "SUM(CASE WHEN vc.status = 'REJECTED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN vc.status = 'APPROVED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN vc.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN vc.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN vc.status = 'PENDING' THEN 1 ELSE 0 END) " +
+           "FROM VaccinationCampaign vc WHERE vc.createdDate BETWEEN :from AND :to")
+    List<Object[]> countStatusesByCreatedDateBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Campaign count per vaccination rule for the given statuses: rows of [ruleId, count]
+    @Query("SELECT vc.vaccinationRule.id, COUNT(vc) FROM VaccinationCampaign vc " +
+           "WHERE vc.vaccinationRule.id IN :ruleIds AND vc.status IN :statuses GROUP BY vc.vaccinationRule.id")
+    List<Object[]> countByRuleIdsAndStatusIn(@Param("ruleIds") Collection<Long> ruleIds,
+                                             @Param("statuses") Collection<VaccinationCampaign.CampaignStatus> statuses);
+
+    boolean existsByVaccinationRule(VaccinationRule vaccinationRule);
 }
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,9 +39,33 @@ public interface VaccinationFormRepository extends JpaRepository<VaccinationForm
     );
     
     boolean existsByCampaignAndStudent(VaccinationCampaign campaign, Student student);
+
+    // Forms written by one generation run, with everything convertFormToDTO reads
+    @Query("SELECT vf FROM VaccinationForm vf JOIN FETCH vf.campaign JOIN FETCH vf.student " +
+           "JOIN FETCH vf.parent JOIN FETCH vf.createdBy " +
+           "WHERE vf.campaign = :campaign AND vf.createdDate = :createdDate AND vf.createdBy = :createdBy " +
+           "ORDER BY vf.id")
+    List<VaccinationForm> findGeneratedForms(@Param("campaign") VaccinationCampaign campaign,
+                                             @Param("createdDate") LocalDateTime createdDate,
+                                             @Param("createdBy") User createdBy);
+
+    // Pending forms of a campaign, ascending, used to split form sending jobs into chunks
+    @Query("SELECT vf.id FROM VaccinationForm vf WHERE vf.campaign = :campaign AND vf.confirmationStatus = :status ORDER BY vf.id")
+    List<Long> findIdsByCampaignAndConfirmationStatus(@Param("campaign") VaccinationCampaign campaign,
+                                                      @Param("status") VaccinationForm.ConfirmationStatus status);
+
+    @Query("SELECT vf FROM VaccinationForm vf JOIN FETCH vf.student LEFT JOIN FETCH vf.parent WHERE vf.id IN :ids ORDER BY vf.id")
+    List<VaccinationForm> findWithStudentAndParentByIdIn(@Param("ids") List<Long> ids);
     
     @Query("SELECT COUNT(vf) FROM VaccinationForm vf WHERE vf.campaign = :campaign AND vf.confirmationStatus = 'CONFIRMED'")
     Long countConfirmedFormsByCampaign(@Param("campaign") VaccinationCampaign campaign);
+
+    long countByConfirmationStatus(VaccinationForm.ConfirmationStatus confirmationStatus);
     
     List<VaccinationForm> findByConfirmationStatusAndSentDateIsNotNull(VaccinationForm.ConfirmationStatus status);
+
+    // Deadline inputs of sent forms: rows of [formId, sentDate, reminderSent]
+    @Query("SELECT vf.id, vf.sentDate, vf.reminderSent FROM VaccinationForm vf " +
+           "WHERE vf.confirmationStatus = :status AND vf.sentDate IS NOT NULL")
+    List<Object[]> findSentDeadlineRowsByConfirmationStatus(@Param("status") VaccinationForm.ConfirmationStatus status);
 }
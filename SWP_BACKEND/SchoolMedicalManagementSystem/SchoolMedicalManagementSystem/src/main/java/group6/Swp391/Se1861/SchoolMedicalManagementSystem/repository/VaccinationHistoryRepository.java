@@ -30,4 +30,9 @@ public interface VaccinationHistoryRepository extends JpaRepository<VaccinationH
     
     @Query("SELECT vh FROM VaccinationHistory vh WHERE vh.healthProfile.student = :student ORDER BY vh.dateOfVaccination DESC")
     List<VaccinationHistory> findByStudent(@Param("student") Student student);
+
+    // Every dose of one vaccine as [studentID, history], most recent first, for batch eligibility checks
+    @Query("SELECT hp.student.studentID, vh FROM VaccinationHistory vh JOIN vh.healthProfile hp " +
+           "WHERE vh.vaccineName = :vaccineName ORDER BY vh.dateOfVaccination DESC")
+    List<Object[]> findWithStudentIdByVaccineName(@Param("vaccineName") String vaccineName);
 }
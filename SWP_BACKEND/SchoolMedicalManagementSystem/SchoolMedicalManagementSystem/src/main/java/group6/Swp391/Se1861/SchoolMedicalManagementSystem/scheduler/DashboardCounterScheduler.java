@@ -0,0 +1,51 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.scheduler;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDashboardCounterService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.ISchedulerLeaseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+public class DashboardCounterScheduler {
+
+    private final IDashboardCounterService dashboardCounterService;
+    private final ISchedulerLeaseService schedulerLeaseService;
+
+    /**
+     * Build the counters on startup, so a fresh or restored database is counted before dashboards read it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcileDashboardCounters();
+    }
+
+    /**
+     * Recount dashboard counters every night
+     * Runs at 03:00 by default
+     */
+    @Scheduled(cron = "${dashboard.counters.reconcile-cron:0 0 3 * * *}")
+    public void reconcileDashboardCounters() {
+        if (!dashboardCounterService.isEnabled()) {
+            return;
+        }
+        schedulerLeaseService.runExclusive("dashboard.counters.reconcile", Duration.ofHours(1),
+                lease -> reconcile());
+    }
+
+    private void reconcile() {
+        System.out.println("Running scheduled task: Reconcile dashboard counters");
+        try {
+            int corrected = dashboardCounterService.reconcile();
+            System.out.println("Completed scheduled task: Reconcile dashboard counters (" + corrected + " rows corrected)");
+        } catch (Exception e) {
+            System.err.println("Error in scheduled task reconcileDashboardCounters: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
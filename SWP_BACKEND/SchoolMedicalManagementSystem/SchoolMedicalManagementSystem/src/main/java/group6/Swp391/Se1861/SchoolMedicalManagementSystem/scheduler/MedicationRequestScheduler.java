@@ -1,15 +1,19 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.scheduler;
 
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.ISchedulerLeaseService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl.MedicationRequestService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @RequiredArgsConstructor
 public class MedicationRequestScheduler {
 
     private final MedicationRequestService medicationRequestService;
+    private final ISchedulerLeaseService schedulerLeaseService;
 
     /**
      * Auto-reject expired medication requests every hour
@@ -17,6 +21,11 @@ public class MedicationRequestScheduler {
      */
     @Scheduled(cron = "0 0 * * * *")
     public void autoRejectExpiredRequests() {
+        schedulerLeaseService.runExclusive("medication.auto-reject-requests", Duration.ofMinutes(50),
+                lease -> autoRejectExpired());
+    }
+
+    private void autoRejectExpired() {
         System.out.println("Running scheduled task: Auto-reject expired medication requests");
         try {
             medicationRequestService.autoRejectExpiredRequests();
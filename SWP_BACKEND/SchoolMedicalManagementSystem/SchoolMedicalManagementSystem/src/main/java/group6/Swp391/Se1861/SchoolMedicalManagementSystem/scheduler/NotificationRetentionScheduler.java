@@ -0,0 +1,40 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.scheduler;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.LeaseToken;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationRetentionService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.ISchedulerLeaseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+public class NotificationRetentionScheduler {
+
+    private final INotificationRetentionService notificationRetentionService;
+    private final ISchedulerLeaseService schedulerLeaseService;
+
+    /**
+     * Archive old read notifications every night
+     * Runs at 02:30 by default
+     */
+    @Scheduled(cron = "${notification.retention.cron:0 30 2 * * *}")
+    public void archiveReadNotifications() {
+        // Chunks commit separately, each fenced against the lease
+        schedulerLeaseService.runExclusiveChunked("notification.retention", Duration.ofHours(1),
+                this::archive);
+    }
+
+    private void archive(LeaseToken lease) {
+        System.out.println("Running scheduled task: Archive read notifications");
+        try {
+            int archived = notificationRetentionService.archiveReadNotifications(lease);
+            System.out.println("Completed scheduled task: Archive read notifications (" + archived + " archived)");
+        } catch (Exception e) {
+            System.err.println("Error in scheduled task archiveReadNotifications: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
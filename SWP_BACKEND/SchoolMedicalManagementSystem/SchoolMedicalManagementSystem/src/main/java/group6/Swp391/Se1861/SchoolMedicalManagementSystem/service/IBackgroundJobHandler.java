@@ -0,0 +1,39 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.JobState;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.BackgroundJob;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+
+import java.util.List;
+
+/**
+ * Work done by one type of background job.
+ * The job is split into items identified by ascending keys (student, parent or row ids).
+ * Items are processed in chunks; each chunk runs in the transaction that stores the checkpoint,
+ * so after a restart processing continues with the first key above the checkpoint.
+ */
+public interface IBackgroundJobHandler {
+
+    JobType getType();
+
+    /**
+     * Check the request when the job is submitted. Exceptions are returned to the caller.
+     */
+    void validate(BackgroundJob job);
+
+    /**
+     * Keys of every work item in ascending order.
+     * A resumed job gets the keys again, so they must not depend on the work already done.
+     */
+    List<Long> listItems(BackgroundJob job);
+
+    /**
+     * Process one chunk of items, recording counters and details in the state
+     */
+    void processChunk(BackgroundJob job, List<Long> items, JobState state);
+
+    /**
+     * Result of the finished job
+     */
+    Object buildResult(BackgroundJob job, JobState state);
+}
@@ -0,0 +1,30 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.BackgroundJobDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+
+import java.util.Map;
+
+public interface IBackgroundJobService {
+
+    /**
+     * Validate and queue a job; it starts once the current transaction commits
+     * @param targetId campaign the job works on, or null
+     * @param parameters job-specific options, stored as JSON
+     * @param inputData uploaded file content, or null
+     * @throws IllegalArgumentException or RuntimeException from the handler when the request is invalid
+     */
+    BackgroundJobDTO submit(JobType type, Long targetId, Map<String, Object> parameters,
+                            byte[] inputData, User requestedBy);
+
+    /**
+     * Current status of a job. Visible to the user who started it, managers and admins.
+     */
+    BackgroundJobDTO getJob(Long jobId, User user);
+
+    /**
+     * Ask a job to stop. A queued job is cancelled at once; a running job stops after its current chunk.
+     */
+    BackgroundJobDTO cancel(Long jobId, User user);
+}
@@ -0,0 +1,17 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.DashboardCompositionResult;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+public interface IDashboardCompositionService {
+
+    /**
+     * Compute every section concurrently on the dashboard executor, waiting at most the
+     * per-section timeout for each. Sections that fail or time out are reported as degraded
+     * instead of failing the whole dashboard.
+     * @param sections section name to the query that computes it, in response order
+     */
+    DashboardCompositionResult compose(Map<String, Supplier<?>> sections);
+}
@@ -0,0 +1,33 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.DashboardCounterSnapshot;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.DashboardCounter;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface IDashboardCounterService {
+
+    /**
+     * Whether dashboards should read the counter table instead of counting the source tables
+     */
+    boolean isEnabled();
+
+    /**
+     * Counter totals for the days from..to inclusive, or over all time when either bound is null
+     */
+    DashboardCounterSnapshot getSnapshot(LocalDate from, LocalDate to);
+
+    /**
+     * Add deltas to counter rows in the caller's transaction.
+     * Used by JPQL bulk updates, which the entity listener does not see.
+     */
+    void applyDeltas(Map<DashboardCounter.Key, Long> deltas);
+
+    /**
+     * Recount every tracked table with GROUP BY queries and correct counter rows that drifted,
+     * for example after bulk updates that bypass the entity listener
+     * @return number of counter rows that were inserted, changed or removed
+     */
+    int reconcile();
+}
@@ -0,0 +1,26 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
+
+import java.util.Set;
+
+/**
+ * Applies the transitions of some deadline types when they fall due
+ */
+public interface IDeadlineHandler {
+
+    Set<DeadlineType> getTypes();
+
+    /**
+     * Apply the transition. Runs in the transaction that claims the deadline, so an exception
+     * leaves the deadline in place to be retried. The target may have changed since the deadline
+     * was scheduled (e.g. a form already answered), so its state must be checked again.
+     */
+    void onDeadline(DeadlineType type, Long targetId);
+
+    /**
+     * Schedule deadlines for pending items that do not have one yet, e.g. items created before
+     * deadlines were tracked. Runs once at startup.
+     */
+    void registerPendingDeadlines();
+}
@@ -0,0 +1,20 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface IDeadlineService {
+
+    /**
+     * Schedule a transition for a form or campaign, replacing any earlier deadline of the same type for it.
+     * Written in the current transaction; the dispatcher picks it up after commit.
+     */
+    void schedule(DeadlineType type, Long targetId, LocalDateTime dueAt);
+
+    /**
+     * Same as schedule for many targets, written in JDBC batches
+     */
+    void scheduleAll(DeadlineType type, Map<Long, LocalDateTime> dueAtByTargetId);
+}
@@ -1,8 +1,10 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
 
-import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentWithParentsCreationResponseDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentWithParentsCreationDTO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 /**
  * Service interface for Excel file processing
  * Used for importing students and parents from Excel files
@@ -10,12 +12,13 @@ import org.springframework.web.multipart.MultipartFile;
 public interface IExcelService {
     
     /**
-     * Import students and parents from Excel file
-     * @param file Excel file (.xlsx or .xls)
-     * @return Response containing imported students and parents
+     * Read students and parents from an Excel file, grouped by family.
+     * The import job creates each group with IStudentService.createStudentWithParents.
+     * @param content Excel file content (.xlsx or .xls)
+     * @return One creation request per parent combination, in a stable order
      * @throws IllegalArgumentException if file format is invalid or contains errors
      */
-    StudentWithParentsCreationResponseDTO importStudentsFromExcel(MultipartFile file);
+    List<StudentWithParentsCreationDTO> parseStudentImport(byte[] content);
     
     /**
      * Generate Excel template for student import
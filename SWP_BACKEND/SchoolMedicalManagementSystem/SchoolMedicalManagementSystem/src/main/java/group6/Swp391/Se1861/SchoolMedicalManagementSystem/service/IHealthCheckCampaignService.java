@@ -2,6 +2,7 @@ package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
 
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.CreateHealthCheckCampaignRequest;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.HealthCheckCampaignDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.JobState;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.RecordHealthCheckResultRequest;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.ScheduleHealthCheckCampaignRequest;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentDTO;
@@ -50,11 +51,26 @@ public interface IHealthCheckCampaignService {
     
     List<Map<String, Object>> getEligibleStudentsWithFormStatus(Long campaignId);
     
-    Map<String, Object> generateHealthCheckForms(Long campaignId);
+    /**
+     * Create forms for one chunk of eligible students (form generation job)
+     */
+    void generateHealthCheckFormsForStudents(Long campaignId, List<Long> studentIds, JobState state);
+    
+    Map<String, Object> buildFormGenerationResult(Long campaignId, int totalEligibleStudents, JobState state);
+    
+    /**
+     * Ids of the parents that have forms in the campaign, ascending
+     */
+    List<Long> getNotificationParentIds(Long campaignId);
     
-    Map<String, Object> sendNotificationsToParents(Long campaignId);
+    boolean isParentDigestEnabled();
     
-    Map<String, Object> sendNotificationsToParents(Long campaignId, String customMessage);
+    /**
+     * Notify one chunk of parents about the campaign (parent notification job)
+     */
+    void sendNotificationsToParents(Long campaignId, List<Long> parentIds, String customMessage, boolean digest, JobState state);
+    
+    Map<String, Object> buildNotificationResult(Long campaignId, String customMessage, boolean digest, JobState state);
     
     void sendFormsToEligibleParents(HealthCheckCampaign campaign);
     
@@ -64,8 +80,6 @@ public interface IHealthCheckCampaignService {
     
     List<Map<String, Object>> getConfirmedStudents(Long campaignId);
     
-    List<Map<String, Object>> getCampaignResults(Long campaignId);
-    
     int calculateTargetCount(Integer minAge, Integer maxAge, Set<String> targetClasses);
     
     /**
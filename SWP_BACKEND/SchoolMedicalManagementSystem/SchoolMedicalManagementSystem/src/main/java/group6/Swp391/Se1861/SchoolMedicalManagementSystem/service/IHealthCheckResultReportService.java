@@ -0,0 +1,14 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface IHealthCheckResultReportService {
+
+    /**
+     * Write the results of a campaign's confirmed students as a JSON array.
+     * Students without results are left out. Rows are read from one streamed query
+     * and each student is written as soon as it is complete.
+     */
+    void writeCampaignResults(Long campaignId, OutputStream out) throws IOException;
+}
@@ -0,0 +1,35 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import java.util.Map;
+
+public interface IManagerDashboardStatisticsService {
+
+    /**
+     * Vaccination campaign counts per status plus total, from one GROUP BY query
+     */
+    Map<String, Object> getVaccinationStatistics();
+
+    /**
+     * Health check campaign counts per status plus total, from one GROUP BY query
+     */
+    Map<String, Object> getHealthCheckStatistics();
+
+    /**
+     * Medical event total, pending, resolved and emergency counts, from one GROUP BY query
+     */
+    Map<String, Object> getMedicalEventStatistics();
+
+    /**
+     * Supply and restock request counts
+     */
+    Map<String, Object> getInventoryStatistics();
+
+    /**
+     * Items waiting for a manager decision
+     */
+    Map<String, Object> getUrgentItems();
+
+    long getTotalVaccinationCampaigns();
+
+    long getTotalHealthCheckCampaigns();
+}
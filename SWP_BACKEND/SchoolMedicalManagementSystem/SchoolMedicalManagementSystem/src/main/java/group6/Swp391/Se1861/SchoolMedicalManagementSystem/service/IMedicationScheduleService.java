@@ -54,9 +54,17 @@ public interface IMedicationScheduleService {
     MedicationSchedule getMedicationScheduleById(Long scheduleId);
 
     /**
-     * Auto-mark medication schedules as SKIPPED if they are more than 30 minutes overdue
+     * Auto-mark medication schedules as SKIPPED if they are more than 30 minutes overdue.
+     * Returns 0 without doing anything while another run is in progress.
      * @return number of schedules marked as skipped
      */
     int autoMarkOverdueSchedulesAsSkipped();
 
+    /**
+     * Auto-mark the overdue schedules with ids from fromId to toId as SKIPPED and notify their nurses.
+     * Used by partitioned runs, where the lease on the id range keeps other runs away from these ids.
+     * @return number of schedules marked as skipped
+     */
+    int autoMarkOverdueSchedulesAsSkipped(long fromId, long toId);
+
 }
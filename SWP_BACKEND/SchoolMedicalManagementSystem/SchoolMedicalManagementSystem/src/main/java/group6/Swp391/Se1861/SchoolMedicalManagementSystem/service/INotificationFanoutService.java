@@ -0,0 +1,16 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationFanoutResultDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Notification;
+
+import java.util.List;
+
+public interface INotificationFanoutService {
+
+    /**
+     * Insert the given notifications in JDBC batches and queue their WebSocket
+     * delivery in the notification outbox within the same transaction.
+     * Generated ids are written back onto the notification entities.
+     */
+    NotificationFanoutResultDTO fanOut(List<Notification> notifications);
+}
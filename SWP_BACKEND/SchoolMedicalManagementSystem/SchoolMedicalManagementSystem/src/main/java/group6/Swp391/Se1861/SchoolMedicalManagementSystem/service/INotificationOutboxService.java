@@ -0,0 +1,25 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Notification;
+
+import java.util.List;
+
+public interface INotificationOutboxService {
+
+    /**
+     * Record a WebSocket delivery for a saved notification in the current transaction.
+     * The push is sent by the outbox dispatcher once the transaction commits.
+     */
+    void enqueue(String recipientUsername, Long notificationId);
+
+    /**
+     * Record deliveries for many saved notifications with one JDBC batch
+     * @return Number of deliveries queued
+     */
+    int enqueueAll(List<Notification> notifications);
+
+    /**
+     * Number of deliveries still waiting to be sent
+     */
+    long getBacklogDepth();
+}
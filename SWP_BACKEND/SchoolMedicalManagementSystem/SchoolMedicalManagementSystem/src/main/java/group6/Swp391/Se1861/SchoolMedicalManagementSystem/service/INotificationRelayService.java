@@ -0,0 +1,19 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationDTO;
+
+import java.util.List;
+
+public interface INotificationRelayService {
+
+    /**
+     * Record a push for a user in the current transaction.
+     * Every instance delivers it to the user's WebSocket sessions and SSE streams connected to it.
+     */
+    void relay(String username, List<NotificationDTO> notifications);
+
+    /**
+     * Push relayed rows this instance has not delivered yet to its local subscribers
+     */
+    void deliverPending();
+}
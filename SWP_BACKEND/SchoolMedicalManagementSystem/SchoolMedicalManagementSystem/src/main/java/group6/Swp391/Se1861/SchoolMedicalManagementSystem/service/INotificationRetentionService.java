@@ -0,0 +1,13 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.LeaseToken;
+
+public interface INotificationRetentionService {
+
+    /**
+     * Move read notifications older than the retention window to the archive table.
+     * Works in bounded chunks, each in its own transaction that is fenced against the given lease.
+     * @return Number of notifications archived
+     */
+    int archiveReadNotifications(LeaseToken lease);
+}
@@ -1,8 +1,10 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
 
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationInboxPageDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface INotificationService {
@@ -156,8 +158,27 @@ public interface INotificationService {
 
     /**
      * Mark all notifications as read for a user
+     * @return Number of notifications updated
      */
-    void markAllNotificationsAsRead(User user);
+    int markAllNotificationsAsRead(User user);
+
+    /**
+     * Mark all of the user's notifications of one type as read
+     * @return Number of notifications updated
+     */
+    int markNotificationsAsReadByType(User user, String notificationType);
+
+    /**
+     * Mark all of the user's notifications linked to a health check campaign as read
+     * @return Number of notifications updated
+     */
+    int markNotificationsAsReadByCampaign(User user, Long campaignId);
+
+    /**
+     * Delete the user's notifications created before the given date
+     * @return Number of notifications deleted
+     */
+    int deleteNotificationsOlderThan(User user, LocalDate olderThan);
 
     /**
      * Delete a notification
@@ -333,4 +354,17 @@ public interface INotificationService {
      */
     NotificationDTO sendHealthCheckResultToParent(User parent, Student student, HealthCheckCampaign campaign, String messageContent);
 
+    /**
+     * Get one page of the user's inbox using keyset pagination
+     * @param user The authenticated user
+     * @param before Cursor "createdAt,id" from the previous page, or null for the newest page
+     * @param limit Maximum number of items to return
+     */
+    NotificationInboxPageDTO getInboxPage(User user, String before, int limit);
+
+    /**
+     * Get the full notification (message body and links) when the user opens it
+     */
+    NotificationDTO getNotificationDetail(Long notificationId, User user);
+
 }
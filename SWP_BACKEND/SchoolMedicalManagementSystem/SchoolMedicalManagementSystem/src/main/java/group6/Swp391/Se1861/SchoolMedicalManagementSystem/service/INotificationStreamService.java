@@ -0,0 +1,22 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+public interface INotificationStreamService {
+
+    /**
+     * Open a Server-Sent Events stream of notifications for the user
+     * @param lastEventId Id of the last notification the client received, or null for a fresh stream.
+     *                    Notifications created after it are replayed before live events.
+     */
+    SseEmitter subscribe(User user, Long lastEventId);
+
+    /**
+     * Push delivered notifications to every open stream of the user
+     */
+    void publish(String username, List<NotificationDTO> notifications);
+}
@@ -0,0 +1,39 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+
+import java.util.Map;
+
+public interface INotificationUnreadCounterService {
+
+    /**
+     * Get the unread count for a user, loading it from the database on the first call
+     */
+    long getUnreadCount(User user);
+
+    /**
+     * Record that a new unread notification was created for the recipient
+     */
+    void onNotificationCreated(User recipient);
+
+    /**
+     * Record new unread notifications for many recipients at once
+     * @param createdPerRecipient Number of notifications created per recipient
+     */
+    void onNotificationsCreated(Map<User, Integer> createdPerRecipient);
+
+    /**
+     * Record that some of the user's notifications were marked as read
+     */
+    void onNotificationsRead(User recipient, long count);
+
+    /**
+     * Record that all of the user's notifications were marked as read
+     */
+    void onAllNotificationsRead(User recipient);
+
+    /**
+     * Drop the cached count so it is rebuilt from the database on the next read
+     */
+    void evict(User recipient);
+}
@@ -0,0 +1,28 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
+
+import java.util.Map;
+
+public interface IResourceVersionService {
+
+    /**
+     * Strong ETag for the current version of a resource, from memory without touching the database
+     */
+    String currentETag(CachedResource resource);
+
+    /**
+     * Current version of a resource as known to this instance
+     */
+    long currentVersion(CachedResource resource);
+
+    /**
+     * Record the versions a transaction committed on this instance wrote to the shared version rows
+     */
+    void onCommitted(Map<CachedResource, Long> committedVersions);
+
+    /**
+     * Pick up versions bumped by other application instances
+     */
+    void refresh();
+}
@@ -0,0 +1,52 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.IdRange;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.LeaseToken;
+
+import java.time.Duration;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public interface ISchedulerLeaseService {
+
+    /**
+     * Run a scheduled task on this node only if no other node holds its lease.
+     * The task runs in one transaction that is fenced with {@link #verify(LeaseToken)} before it commits,
+     * so the task's writes must join that transaction. The lease is kept alive by heartbeats while the
+     * task runs, and after it finishes it stays taken until minHold after acquisition, so nodes whose
+     * timers fire later in the same period skip it. Failures are logged.
+     * @return true if the task ran and committed here
+     */
+    boolean runExclusive(String taskName, Duration minHold, Consumer<LeaseToken> task);
+
+    /**
+     * Same as runExclusive for tasks that commit in several transactions of their own.
+     * No transaction is opened; the task must call {@link #verify(LeaseToken)} in each transaction that writes.
+     * @return true if the task ran here without failing
+     */
+    boolean runExclusiveChunked(String taskName, Duration minHold, Consumer<LeaseToken> task);
+
+    /**
+     * Split the ids from minId to maxId into scheduler.lease.partitions contiguous ranges and run the task
+     * on every range whose lease this node can take, so several nodes work through a large job side by side.
+     * Each range has its own lease (taskName#index), heartbeat and minHold, and nodes start at different
+     * ranges. No transaction is opened; the task must call {@link #checkpoint(LeaseToken, long)} in each
+     * transaction that writes. A node taking over a range whose holder stopped resumes after the last
+     * checkpoint, if it lies inside the range; the checkpoint is cleared once the range is finished.
+     * @return number of ranges that ran here without failing
+     */
+    int runPartitioned(String taskName, long minId, long maxId, Duration minHold, BiConsumer<LeaseToken, IdRange> task);
+
+    /**
+     * Fencing check for work done under a lease. Call it in the transaction that writes the results:
+     * if another node has taken the lease since, the transaction is marked rollback-only and
+     * an IllegalStateException is thrown.
+     */
+    void verify(LeaseToken lease);
+
+    /**
+     * Fencing check for a range of {@link #runPartitioned}, which also records lastId as the range's checkpoint.
+     * Call it in the transaction that commits the work up to lastId; it fails the same way as verify.
+     */
+    void checkpoint(LeaseToken lease, long lastId);
+}
@@ -0,0 +1,20 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public interface IStudentRosterIndex {
+
+    /**
+     * Number of active students in the given classes born between bornFrom and bornTo inclusive.
+     * @param classNames classes to include, or null for the whole school
+     * @param bornFrom earliest birth date, or null for no age filter
+     * @param bornTo latest birth date, or null for no age filter
+     */
+    int countEligible(Set<String> classNames, LocalDate bornFrom, LocalDate bornTo);
+
+    /**
+     * Ids of the same students as countEligible, in ascending order
+     */
+    long[] eligibleIds(Set<String> classNames, LocalDate bornFrom, LocalDate bornTo);
+}
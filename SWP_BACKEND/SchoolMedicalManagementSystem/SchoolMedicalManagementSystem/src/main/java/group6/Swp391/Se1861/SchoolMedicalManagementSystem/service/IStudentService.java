@@ -92,6 +92,15 @@ public interface IStudentService {
      * @return list of eligible students
      */
     List<StudentDTO> getEligibleStudentsForClasses(Set<String> classNames, Integer minAge, Integer maxAge);
+
+    /**
+     * Count the students getEligibleStudentsForClasses would return, without loading them
+     * @param classNames set of class names (can include "toàn trường")
+     * @param minAge minimum age (nullable)
+     * @param maxAge maximum age (nullable)
+     * @return number of eligible students
+     */
+    int countEligibleStudentsForClasses(Set<String> classNames, Integer minAge, Integer maxAge);
     
     /**
      * Filter students based on multiple criteria
@@ -0,0 +1,18 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.TrendBucketDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.TimeBucket;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ITimeBucketAggregationService {
+
+    /**
+     * Count vaccination campaigns, health check campaigns and medical events per bucket
+     * for the dates from (inclusive) to to (exclusive).
+     * One grouped query is issued per entity type and every bucket in the range is returned,
+     * including empty ones, in chronological order.
+     */
+    List<TrendBucketDTO> getTrends(LocalDate from, LocalDate to, TimeBucket bucket);
+}
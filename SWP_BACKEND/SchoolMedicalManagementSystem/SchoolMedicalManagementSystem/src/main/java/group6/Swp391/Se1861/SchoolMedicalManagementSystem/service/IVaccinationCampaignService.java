@@ -35,9 +35,16 @@ public interface IVaccinationCampaignService {
     
     int getEligibleStudentsCountByRule(Long ruleId);
     
-    List<VaccinationFormDTO> generateVaccinationForms(Long campaignId, User nurse);
+    // Form generation and sending run as background jobs in chunks of students / forms
+    void validateFormGeneration(Long campaignId, User nurse);
     
-    List<VaccinationFormDTO> sendFormsToParents(Long campaignId, User nurse, String customMessage);
+    List<Long> getStudentIdsForFormGeneration(Long campaignId);
+    
+    void generateVaccinationFormsForStudents(Long campaignId, List<Long> studentIds, String nurseUsername, JobState state);
+    
+    List<Long> getPendingFormIds(Long campaignId);
+    
+    void sendFormsToParents(List<Long> formIds, String customMessage, JobState state);
     
     // Form management
     List<VaccinationFormDTO> getCampaignForms(Long campaignId);
@@ -0,0 +1,19 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationForm;
+
+import java.util.List;
+
+public interface IVaccinationDeadlineService {
+
+    /**
+     * Schedule the reminder and expiry of forms that have just been sent to parents
+     */
+    void scheduleFormDeadlines(List<VaccinationForm> sentForms);
+
+    /**
+     * Schedule the manager reminder and the auto-reject of a campaign waiting for approval
+     */
+    void scheduleCampaignDeadlines(VaccinationCampaign campaign);
+}
@@ -0,0 +1,17 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.VaccinationEligibilityResult;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Student;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationRule;
+
+import java.util.List;
+
+public interface IVaccinationEligibilityService {
+
+    /**
+     * Evaluate age, previous dose, dose interval and existing dose rules for every student.
+     * Vaccination history is loaded once for the whole rule, not per student.
+     * Both partitions keep the order of the given students.
+     */
+    VaccinationEligibilityResult evaluate(VaccinationRule rule, List<Student> students);
+}
@@ -1,5 +1,6 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
 
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.DashboardCounterSnapshot;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.DashboardFilterDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.SchoolNurseStatsDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.*;
@@ -7,8 +8,9 @@ import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.RestockRequest;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckCampaign;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.*;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -19,12 +21,19 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class SchoolNurseDashboardService {
     
+    // Bounds used for all-time statistics; they fit MySQL DATE and DATETIME columns
+    private static final LocalDateTime ALL_TIME_START = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime ALL_TIME_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    
     private final MedicationRequestRepository medicationRequestRepository;
     private final MedicationScheduleRepository medicationScheduleRepository;
     private final MedicalEventRepository medicalEventRepository;
@@ -34,6 +43,32 @@ public class SchoolNurseDashboardService {
     private final HealthCheckCampaignRepository healthCheckCampaignRepository;
     private final HealthProfileRepository healthProfileRepository;
     private final StudentRepository studentRepository;
+    private final IDashboardCounterService dashboardCounterService;
+    private final Executor dashboardExecutor;
+    
+    public SchoolNurseDashboardService(MedicationRequestRepository medicationRequestRepository,
+                                       MedicationScheduleRepository medicationScheduleRepository,
+                                       MedicalEventRepository medicalEventRepository,
+                                       MedicalSupplyRepository medicalSupplyRepository,
+                                       RestockRequestRepository restockRequestRepository,
+                                       VaccinationCampaignRepository vaccinationCampaignRepository,
+                                       HealthCheckCampaignRepository healthCheckCampaignRepository,
+                                       HealthProfileRepository healthProfileRepository,
+                                       StudentRepository studentRepository,
+                                       IDashboardCounterService dashboardCounterService,
+                                       @Qualifier("dashboardExecutor") Executor dashboardExecutor) {
+        this.medicationRequestRepository = medicationRequestRepository;
+        this.medicationScheduleRepository = medicationScheduleRepository;
+        this.medicalEventRepository = medicalEventRepository;
+        this.medicalSupplyRepository = medicalSupplyRepository;
+        this.restockRequestRepository = restockRequestRepository;
+        this.vaccinationCampaignRepository = vaccinationCampaignRepository;
+        this.healthCheckCampaignRepository = healthCheckCampaignRepository;
+        this.healthProfileRepository = healthProfileRepository;
+        this.studentRepository = studentRepository;
+        this.dashboardCounterService = dashboardCounterService;
+        this.dashboardExecutor = dashboardExecutor;
+    }
     
     public SchoolNurseStatsDTO getDashboardStatistics(DashboardFilterDTO filter) {
         log.info("Generating dashboard statistics with filter: {}", filter);
@@ -50,203 +85,191 @@ public class SchoolNurseDashboardService {
         if (startDateTime != null) stats.setStartDate(startDateTime.toLocalDate());
         if (endDateTime != null) stats.setEndDate(endDateTime.toLocalDate());
         
-        // Generate all statistics
-        stats.setMedicationRequests(getMedicationRequestStats(startDateTime, endDateTime));
-        stats.setMedicationIntake(getMedicationIntakeStats(startDateTime, endDateTime));
-        stats.setMedicalEvents(getMedicalEventStats(startDateTime, endDateTime));
-        stats.setMedicalInventory(getMedicalInventoryStats());
-        stats.setSupplyRequests(getSupplyRequestStats(startDateTime, endDateTime));
-        stats.setVaccinationCampaigns(getVaccinationCampaignStats(startDateTime, endDateTime));
-        stats.setHealthCheckCampaigns(getHealthCheckCampaignStats(startDateTime, endDateTime));
-        stats.setHealthProfiles(getHealthProfileStats(startDateTime, endDateTime));
+        if (dashboardCounterService.isEnabled()) {
+            // Pre-aggregated counters: one grouped read instead of a COUNT per status
+            DashboardCounterSnapshot counters = dashboardCounterService.getSnapshot(
+                    startDateTime != null ? startDateTime.toLocalDate() : null,
+                    endDateTime != null ? endDateTime.toLocalDate() : null);
+            stats.setMedicationRequests(getMedicationRequestStats(counters));
+            stats.setMedicationIntake(getMedicationIntakeStats(counters));
+            stats.setMedicalEvents(getMedicalEventStats(counters));
+            stats.setMedicalInventory(getMedicalInventoryStats());
+            stats.setSupplyRequests(getSupplyRequestStats(counters));
+            stats.setVaccinationCampaigns(getVaccinationCampaignStats(counters));
+            stats.setHealthCheckCampaigns(getHealthCheckCampaignStats(counters));
+            stats.setHealthProfiles(getHealthProfileStats(counters));
+        } else {
+            // One conditional-aggregation query per panel, run concurrently; all-time uses the widest range
+            boolean ranged = startDateTime != null && endDateTime != null;
+            LocalDateTime from = ranged ? startDateTime : ALL_TIME_START;
+            LocalDateTime to = ranged ? endDateTime : ALL_TIME_END;
+            
+            CompletableFuture<SchoolNurseStatsDTO.MedicationRequestStats> medicationRequests = panel(() -> getMedicationRequestStats(from, to));
+            CompletableFuture<SchoolNurseStatsDTO.MedicationIntakeStats> medicationIntake = panel(() -> getMedicationIntakeStats(from, to));
+            CompletableFuture<SchoolNurseStatsDTO.MedicalEventStats> medicalEvents = panel(() -> getMedicalEventStats(from, to));
+            CompletableFuture<SchoolNurseStatsDTO.MedicalInventoryStats> medicalInventory = panel(this::getMedicalInventoryStats);
+            CompletableFuture<SchoolNurseStatsDTO.SupplyRequestStats> supplyRequests = panel(() -> getSupplyRequestStats(from, to));
+            CompletableFuture<SchoolNurseStatsDTO.VaccinationCampaignStats> vaccinationCampaigns = panel(() -> getVaccinationCampaignStats(from, to));
+            CompletableFuture<SchoolNurseStatsDTO.HealthCheckCampaignStats> healthCheckCampaigns = panel(() -> getHealthCheckCampaignStats(from, to));
+            CompletableFuture<SchoolNurseStatsDTO.HealthProfileStats> healthProfiles = panel(() -> getHealthProfileStats(from, to));
+            
+            stats.setMedicationRequests(join(medicationRequests));
+            stats.setMedicationIntake(join(medicationIntake));
+            stats.setMedicalEvents(join(medicalEvents));
+            stats.setMedicalInventory(join(medicalInventory));
+            stats.setSupplyRequests(join(supplyRequests));
+            stats.setVaccinationCampaigns(join(vaccinationCampaigns));
+            stats.setHealthCheckCampaigns(join(healthCheckCampaigns));
+            stats.setHealthProfiles(join(healthProfiles));
+        }
         
         log.info("Generated statistics: {}", stats);
         
         return stats;
     }
     
-    private SchoolNurseStatsDTO.MedicationRequestStats getMedicationRequestStats(LocalDateTime start, LocalDateTime end) {
-        Long total = countByDateRange(start, end, 
-            () -> medicationRequestRepository.count(),
-            () -> medicationRequestRepository.countByRequestDateBetween(start.toLocalDate(), end.toLocalDate()));
-            
-        Long approved = countByDateRange(start, end,
-            () -> medicationRequestRepository.countByStatus("APPROVED"),
-            () -> medicationRequestRepository.countByStatusAndRequestDateBetween("APPROVED", start.toLocalDate(), end.toLocalDate()));
-            
-        Long rejected = countByDateRange(start, end,
-            () -> medicationRequestRepository.countByStatus("REJECTED"),
-            () -> medicationRequestRepository.countByStatusAndRequestDateBetween("REJECTED", start.toLocalDate(), end.toLocalDate()));
-            
-        Long pending = countByDateRange(start, end,
-            () -> medicationRequestRepository.countByStatus("PENDING"),
-            () -> medicationRequestRepository.countByStatusAndRequestDateBetween("PENDING", start.toLocalDate(), end.toLocalDate()));
-        
-        return new SchoolNurseStatsDTO.MedicationRequestStats(total, approved, rejected, pending);
+    private SchoolNurseStatsDTO.MedicationRequestStats getMedicationRequestStats(DashboardCounterSnapshot counters) {
+        return new SchoolNurseStatsDTO.MedicationRequestStats(
+            counters.total(DashboardMetric.MEDICATION_REQUEST),
+            counters.count(DashboardMetric.MEDICATION_REQUEST, "APPROVED"),
+            counters.count(DashboardMetric.MEDICATION_REQUEST, "REJECTED"),
+            counters.count(DashboardMetric.MEDICATION_REQUEST, "PENDING"));
     }
     
-    private SchoolNurseStatsDTO.MedicationIntakeStats getMedicationIntakeStats(LocalDateTime start, LocalDateTime end) {
-        Long missed = countByDateRange(start, end,
-            () -> medicationScheduleRepository.countByStatus(MedicationStatus.SKIPPED),
-            () -> medicationScheduleRepository.countByStatusAndScheduledDateBetween(MedicationStatus.SKIPPED, start.toLocalDate(), end.toLocalDate()));
-            
-        Long taken = countByDateRange(start, end,
-            () -> medicationScheduleRepository.countByStatus(MedicationStatus.TAKEN),
-            () -> medicationScheduleRepository.countByStatusAndScheduledDateBetween(MedicationStatus.TAKEN, start.toLocalDate(), end.toLocalDate()));
-            
-        Long pending = countByDateRange(start, end,
-            () -> medicationScheduleRepository.countByStatus(MedicationStatus.PENDING),
-            () -> medicationScheduleRepository.countByStatusAndScheduledDateBetween(MedicationStatus.PENDING, start.toLocalDate(), end.toLocalDate()));
+    private SchoolNurseStatsDTO.MedicationIntakeStats getMedicationIntakeStats(DashboardCounterSnapshot counters) {
+        Long missed = counters.count(DashboardMetric.MEDICATION_SCHEDULE, MedicationStatus.SKIPPED.name());
+        Long taken = counters.count(DashboardMetric.MEDICATION_SCHEDULE, MedicationStatus.TAKEN.name());
+        Long pending = counters.count(DashboardMetric.MEDICATION_SCHEDULE, MedicationStatus.PENDING.name());
+        return new SchoolNurseStatsDTO.MedicationIntakeStats(missed, taken, pending, missed + taken + pending);
+    }
+    
+    private SchoolNurseStatsDTO.MedicalEventStats getMedicalEventStats(DashboardCounterSnapshot counters) {
+        // Medical event dimension is "processed:severity"
+        Long total = counters.total(DashboardMetric.MEDICAL_EVENT);
+        Long resolved = counters.countStartingWith(DashboardMetric.MEDICAL_EVENT, "true:");
+        return new SchoolNurseStatsDTO.MedicalEventStats(total, resolved, total - resolved);
+    }
+    
+    private SchoolNurseStatsDTO.SupplyRequestStats getSupplyRequestStats(DashboardCounterSnapshot counters) {
+        return new SchoolNurseStatsDTO.SupplyRequestStats(
+            counters.total(DashboardMetric.RESTOCK_REQUEST),
+            counters.count(DashboardMetric.RESTOCK_REQUEST, RestockRequest.RestockStatus.PENDING.name()),
+            counters.count(DashboardMetric.RESTOCK_REQUEST, RestockRequest.RestockStatus.APPROVED.name()),
+            counters.count(DashboardMetric.RESTOCK_REQUEST, RestockRequest.RestockStatus.REJECTED.name()),
+            counters.count(DashboardMetric.RESTOCK_REQUEST, RestockRequest.RestockStatus.COMPLETED.name()));
+    }
+    
+    private SchoolNurseStatsDTO.VaccinationCampaignStats getVaccinationCampaignStats(DashboardCounterSnapshot counters) {
+        return new SchoolNurseStatsDTO.VaccinationCampaignStats(
+            counters.total(DashboardMetric.VACCINATION_CAMPAIGN),
+            counters.count(DashboardMetric.VACCINATION_CAMPAIGN, VaccinationCampaign.CampaignStatus.REJECTED.name()),
+            counters.count(DashboardMetric.VACCINATION_CAMPAIGN, VaccinationCampaign.CampaignStatus.APPROVED.name()),
+            counters.count(DashboardMetric.VACCINATION_CAMPAIGN, VaccinationCampaign.CampaignStatus.IN_PROGRESS.name()),
+            counters.count(DashboardMetric.VACCINATION_CAMPAIGN, VaccinationCampaign.CampaignStatus.COMPLETED.name()),
+            counters.count(DashboardMetric.VACCINATION_CAMPAIGN, VaccinationCampaign.CampaignStatus.PENDING.name()));
+    }
+    
+    private SchoolNurseStatsDTO.HealthCheckCampaignStats getHealthCheckCampaignStats(DashboardCounterSnapshot counters) {
+        return new SchoolNurseStatsDTO.HealthCheckCampaignStats(
+            counters.total(DashboardMetric.HEALTH_CHECK_CAMPAIGN),
+            counters.count(DashboardMetric.HEALTH_CHECK_CAMPAIGN, CampaignStatus.CANCELED.name()),
+            counters.count(DashboardMetric.HEALTH_CHECK_CAMPAIGN, CampaignStatus.APPROVED.name()),
+            counters.count(DashboardMetric.HEALTH_CHECK_CAMPAIGN, CampaignStatus.IN_PROGRESS.name()),
+            counters.count(DashboardMetric.HEALTH_CHECK_CAMPAIGN, CampaignStatus.COMPLETED.name()),
+            counters.count(DashboardMetric.HEALTH_CHECK_CAMPAIGN, CampaignStatus.PENDING.name()));
+    }
+    
+    private SchoolNurseStatsDTO.HealthProfileStats getHealthProfileStats(DashboardCounterSnapshot counters) {
+        Long pending = counters.count(DashboardMetric.HEALTH_PROFILE, ProfileStatus.PENDING.name());
+        Long approved = counters.count(DashboardMetric.HEALTH_PROFILE, ProfileStatus.APPROVED.name());
+        Long rejected = counters.count(DashboardMetric.HEALTH_PROFILE, ProfileStatus.REJECTED.name());
         
-        Long total = missed + taken + pending;
+        // Students without health profiles (this is independent of date range)
+        Long studentsWithoutProfiles = studentRepository.count() - healthProfileRepository.countDistinctStudents();
         
-        return new SchoolNurseStatsDTO.MedicationIntakeStats(missed, taken, pending, total);
+        return new SchoolNurseStatsDTO.HealthProfileStats(pending, approved, rejected, studentsWithoutProfiles,
+            pending + approved + rejected);
+    }
+    
+    private SchoolNurseStatsDTO.MedicationRequestStats getMedicationRequestStats(LocalDateTime start, LocalDateTime end) {
+        long[] row = firstRow(medicationRequestRepository.countStatusesByRequestDateBetween(start.toLocalDate(), end.toLocalDate()), 4);
+        return new SchoolNurseStatsDTO.MedicationRequestStats(row[0], row[1], row[2], row[3]);
+    }
+    
+    private SchoolNurseStatsDTO.MedicationIntakeStats getMedicationIntakeStats(LocalDateTime start, LocalDateTime end) {
+        long[] row = firstRow(medicationScheduleRepository.countStatusesByScheduledDateBetween(start.toLocalDate(), end.toLocalDate()), 3);
+        return new SchoolNurseStatsDTO.MedicationIntakeStats(row[0], row[1], row[2], row[0] + row[1] + row[2]);
     }
     
     private SchoolNurseStatsDTO.MedicalEventStats getMedicalEventStats(LocalDateTime start, LocalDateTime end) {
-        Long total = countByDateRange(start, end,
-            () -> medicalEventRepository.count(),
-            () -> medicalEventRepository.countByCreatedAtBetween(start, end));
-            
-        Long resolved = countByDateRange(start, end,
-            () -> medicalEventRepository.countByProcessed(true),
-            () -> medicalEventRepository.countByProcessedAndCreatedAtBetween(true, start, end));
-            
-        Long pending = total - resolved;
-        
-        return new SchoolNurseStatsDTO.MedicalEventStats(total, resolved, pending);
+        long[] row = firstRow(medicalEventRepository.countProcessedByCreatedAtBetween(start, end), 2);
+        return new SchoolNurseStatsDTO.MedicalEventStats(row[0], row[1], row[0] - row[1]);
     }
     
     private SchoolNurseStatsDTO.MedicalInventoryStats getMedicalInventoryStats() {
-        Long total = medicalSupplyRepository.count();
-        Long lowStock = medicalSupplyRepository.countLowStockItems();
-        
-        LocalDate thirtyDaysFromNow = LocalDate.now().plusDays(30);
-        Long expiringSoon = medicalSupplyRepository.countExpiringSoon(thirtyDaysFromNow);
-        
-        LocalDate today = LocalDate.now();
-        Long expired = medicalSupplyRepository.countExpired();
-        
-        return new SchoolNurseStatsDTO.MedicalInventoryStats(total, lowStock, expiringSoon, expired);
+        long[] row = firstRow(medicalSupplyRepository.countInventoryStatus(LocalDate.now().plusDays(30)), 4);
+        return new SchoolNurseStatsDTO.MedicalInventoryStats(row[0], row[1], row[2], row[3]);
     }
     
     private SchoolNurseStatsDTO.SupplyRequestStats getSupplyRequestStats(LocalDateTime start, LocalDateTime end) {
-        Long total = countByDateRange(start, end,
-            () -> restockRequestRepository.count(),
-            () -> restockRequestRepository.countByRequestDateBetween(start, end));
-            
-        Long pending = countByDateRange(start, end,
-            () -> restockRequestRepository.countByStatus(RestockRequest.RestockStatus.PENDING),
-            () -> restockRequestRepository.countByStatusAndRequestDateBetween(RestockRequest.RestockStatus.PENDING, start, end));
-            
-        Long approved = countByDateRange(start, end,
-            () -> restockRequestRepository.countByStatus(RestockRequest.RestockStatus.APPROVED),
-            () -> restockRequestRepository.countByStatusAndRequestDateBetween(RestockRequest.RestockStatus.APPROVED, start, end));
-            
-        Long rejected = countByDateRange(start, end,
-            () -> restockRequestRepository.countByStatus(RestockRequest.RestockStatus.REJECTED),
-            () -> restockRequestRepository.countByStatusAndRequestDateBetween(RestockRequest.RestockStatus.REJECTED, start, end));
-            
-        Long completed = countByDateRange(start, end,
-            () -> restockRequestRepository.countByStatus(RestockRequest.RestockStatus.COMPLETED),
-            () -> restockRequestRepository.countByStatusAndRequestDateBetween(RestockRequest.RestockStatus.COMPLETED, start, end));
-        
-        return new SchoolNurseStatsDTO.SupplyRequestStats(total, pending, approved, rejected, completed);
+        long[] row = firstRow(restockRequestRepository.countStatusesByRequestDateBetween(start, end), 5);
+        return new SchoolNurseStatsDTO.SupplyRequestStats(row[0], row[1], row[2], row[3], row[4]);
     }
     
     private SchoolNurseStatsDTO.VaccinationCampaignStats getVaccinationCampaignStats(LocalDateTime start, LocalDateTime end) {
-        Long total = countByDateRange(start, end,
-            () -> vaccinationCampaignRepository.count(),
-            () -> vaccinationCampaignRepository.countByCreatedDateBetween(start, end));
-            
-        Long rejected = countByDateRange(start, end,
-            () -> vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.REJECTED),
-            () -> vaccinationCampaignRepository.countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus.REJECTED, start, end));
-            
-        Long approved = countByDateRange(start, end,
-            () -> vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.APPROVED),
-            () -> vaccinationCampaignRepository.countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus.APPROVED, start, end));
-            
-        Long inProgress = countByDateRange(start, end,
-            () -> vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.IN_PROGRESS),
-            () -> vaccinationCampaignRepository.countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus.IN_PROGRESS, start, end));
-            
-        Long completed = countByDateRange(start, end,
-            () -> vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.COMPLETED),
-            () -> vaccinationCampaignRepository.countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus.COMPLETED, start, end));
-            
-        Long pending = countByDateRange(start, end,
-            () -> vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.PENDING),
-            () -> vaccinationCampaignRepository.countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus.PENDING, start, end));
-        
-        return new SchoolNurseStatsDTO.VaccinationCampaignStats(total, rejected, approved, inProgress, completed, pending);
+        long[] row = firstRow(vaccinationCampaignRepository.countStatusesByCreatedDateBetween(start, end), 6);
+        return new SchoolNurseStatsDTO.VaccinationCampaignStats(row[0], row[1], row[2], row[3], row[4], row[5]);
     }
     
     private SchoolNurseStatsDTO.HealthCheckCampaignStats getHealthCheckCampaignStats(LocalDateTime start, LocalDateTime end) {
-        Long total = countByDateRange(start, end,
-            () -> healthCheckCampaignRepository.count(),
-            () -> healthCheckCampaignRepository.countByCreatedAtBetween(start, end));
-            
-        Long rejected = countByDateRange(start, end,
-            () -> healthCheckCampaignRepository.countByStatus(CampaignStatus.CANCELED),
-            () -> healthCheckCampaignRepository.countByStatusAndCreatedAtBetween(CampaignStatus.CANCELED, start, end));
-            
-        Long approved = countByDateRange(start, end,
-            () -> healthCheckCampaignRepository.countByStatus(CampaignStatus.APPROVED),
-            () -> healthCheckCampaignRepository.countByStatusAndCreatedAtBetween(CampaignStatus.APPROVED, start, end));
-            
-        Long inProgress = countByDateRange(start, end,
-            () -> healthCheckCampaignRepository.countByStatus(CampaignStatus.IN_PROGRESS),
-            () -> healthCheckCampaignRepository.countByStatusAndCreatedAtBetween(CampaignStatus.IN_PROGRESS, start, end));
-            
-        Long completed = countByDateRange(start, end,
-            () -> healthCheckCampaignRepository.countByStatus(CampaignStatus.COMPLETED),
-            () -> healthCheckCampaignRepository.countByStatusAndCreatedAtBetween(CampaignStatus.COMPLETED, start, end));
-            
-        Long pending = countByDateRange(start, end,
-            () -> healthCheckCampaignRepository.countByStatus(CampaignStatus.PENDING),
-            () -> healthCheckCampaignRepository.countByStatusAndCreatedAtBetween(CampaignStatus.PENDING, start, end));
-        
-        return new SchoolNurseStatsDTO.HealthCheckCampaignStats(total, rejected, approved, inProgress, completed, pending);
+        long[] row = firstRow(healthCheckCampaignRepository.countStatusesByCreatedAtBetween(start, end), 6);
+        return new SchoolNurseStatsDTO.HealthCheckCampaignStats(row[0], row[1], row[2], row[3], row[4], row[5]);
     }
     
     private SchoolNurseStatsDTO.HealthProfileStats getHealthProfileStats(LocalDateTime start, LocalDateTime end) {
-        Long pending = countByDateRange(start, end,
-            () -> healthProfileRepository.countByStatus(ProfileStatus.PENDING),
-            () -> healthProfileRepository.countByStatusAndCreatedAtBetween(ProfileStatus.PENDING, start.toLocalDate(), end.toLocalDate()));
-            
-        Long approved = countByDateRange(start, end,
-            () -> healthProfileRepository.countByStatus(ProfileStatus.APPROVED),
-            () -> healthProfileRepository.countByStatusAndCreatedAtBetween(ProfileStatus.APPROVED, start.toLocalDate(), end.toLocalDate()));
-            
-        Long rejected = countByDateRange(start, end,
-            () -> healthProfileRepository.countByStatus(ProfileStatus.REJECTED),
-            () -> healthProfileRepository.countByStatusAndCreatedAtBetween(ProfileStatus.REJECTED, start.toLocalDate(), end.toLocalDate()));
-        
-        Long totalProfiles = pending + approved + rejected;
+        long[] row = firstRow(healthProfileRepository.countStatusesByCreatedAtBetween(start.toLocalDate(), end.toLocalDate()), 3);
         
         // Students without health profiles (this is independent of date range)
-        Long totalStudents = studentRepository.count();
-        Long studentsWithProfiles = healthProfileRepository.countDistinctStudents();
-        Long studentsWithoutProfiles = totalStudents - studentsWithProfiles;
+        Long studentsWithoutProfiles = studentRepository.count() - healthProfileRepository.countDistinctStudents();
         
-        return new SchoolNurseStatsDTO.HealthProfileStats(pending, approved, rejected, studentsWithoutProfiles, totalProfiles);
+        return new SchoolNurseStatsDTO.HealthProfileStats(row[0], row[1], row[2], studentsWithoutProfiles,
+            row[0] + row[1] + row[2]);
     }
     
     // Utility methods
-    private Long countByDateRange(LocalDateTime start, LocalDateTime end, 
-                                 java.util.function.Supplier<Long> totalCountSupplier,
-                                 java.util.function.Supplier<Long> dateRangeCountSupplier) {
-        log.debug("countByDateRange called with start={}, end={}", start, end);
-        
-        if (start == null || end == null) {
-            Long totalCount = totalCountSupplier.get();
-            log.debug("Using total count (no date filter): {}", totalCount);
-            return totalCount;
-        } else {
-            Long dateRangeCount = dateRangeCountSupplier.get();
-            log.debug("Using date range count (start={}, end={}): {}", start, end, dateRangeCount);
-            return dateRangeCount;
+    
+    /**
+     * Values of a single-row aggregate query; SUM over no rows comes back as null and is read as 0
+     */
+    private static long[] firstRow(List<Object[]> rows, int columns) {
+        long[] values = new long[columns];
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return values;
+        }
+        Object[] row = rows.get(0);
+        for (int i = 0; i < columns; i++) {
+            values[i] = row[i] != null ? ((Number) row[i]).longValue() : 0L;
+        }
+        return values;
+    }
+    
+    private <T> CompletableFuture<T> panel(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, dashboardExecutor);
+        } catch (TaskRejectedException e) {
+            // No slot freed up within the acquire timeout: run the panel on the request thread
+            return CompletableFuture.supplyAsync(query, Runnable::run);
+        }
+    }
+    
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
     
@@ -0,0 +1,366 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.BackgroundJobDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.JobState;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.BackgroundJob;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.BackgroundJobRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobHandler;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs background jobs on the bounded job pool.
+ * A job is started after the transaction that submitted it commits, and a fixed poll picks up
+ * jobs the pool had no room for, plus RUNNING jobs whose heartbeat is older than the stale
+ * threshold (their worker died, e.g. in a restart). Ownership is taken with a conditional
+ * UPDATE that records the worker and attempt number, and the heartbeat is refreshed on its own
+ * timer so a slow chunk does not look abandoned. Each chunk commits together with its checkpoint,
+ * and that write only succeeds for the claiming worker and attempt; a worker whose job was
+ * reclaimed rolls back its chunk and stops. Progress is pushed to the requesting user on
+ * /user/queue/jobs after every chunk.
+ */
+@Component
+@Slf4j
+public class BackgroundJobRunner {
+
+    public static final String JOB_DESTINATION = "/queue/jobs";
+
+    private static final ObjectMapper JSON = new ObjectMapper().registerModule(new JavaTimeModule());
+    private static final TypeReference<Map<String, Object>> PARAMETERS_TYPE = new TypeReference<>() {};
+
+    private final BackgroundJobRepository jobRepository;
+    private final Map<JobType, IBackgroundJobHandler> handlers = new EnumMap<>(JobType.class);
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TaskExecutor jobExecutor;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ScheduledExecutorService heartbeatExecutor;
+    private final String workerId;
+
+    // Jobs this instance has handed to the pool and not finished yet
+    private final Set<Long> runningHere = ConcurrentHashMap.newKeySet();
+
+    @Value("${jobs.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${jobs.stale-after-ms:120000}")
+    private long staleAfterMs;
+
+    public BackgroundJobRunner(BackgroundJobRepository jobRepository,
+                               List<IBackgroundJobHandler> jobHandlers,
+                               SimpMessagingTemplate messagingTemplate,
+                               @Qualifier("backgroundJobExecutor") TaskExecutor jobExecutor,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${scheduler.lease.node-id:}") String configuredNodeId) {
+        this.jobRepository = jobRepository;
+        for (IBackgroundJobHandler handler : jobHandlers) {
+            handlers.put(handler.getType(), handler);
+        }
+        this.messagingTemplate = messagingTemplate;
+        this.jobExecutor = jobExecutor;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "background-job-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workerId = configuredNodeId.isBlank() ? SchedulerLeaseService.defaultNodeId() : configuredNodeId;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+    }
+
+    public IBackgroundJobHandler handlerFor(JobType type) {
+        IBackgroundJobHandler handler = handlers.get(type);
+        if (handler == null) {
+            throw new IllegalStateException("No handler registered for job type " + type);
+        }
+        return handler;
+    }
+
+    /**
+     * Start a job once the transaction that submitted it has committed
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobSubmitted(BackgroundJobService.JobSubmittedEvent event) {
+        dispatch(event.jobId());
+    }
+
+    /**
+     * Pick up queued jobs that did not fit in the pool and jobs abandoned by a stopped worker
+     */
+    @Scheduled(fixedDelayString = "${jobs.poll-interval-ms:10000}",
+            initialDelayString = "${jobs.poll-interval-ms:10000}")
+    public void pollJobs() {
+        try {
+            LocalDateTime staleBefore = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000);
+            List<Long> runnable = readOnlyTransaction.execute(status -> jobRepository.findRunnableIds(
+                    JobStatus.QUEUED, JobStatus.RUNNING, staleBefore, PageRequest.of(0, 20)));
+            if (runnable != null) {
+                runnable.forEach(this::dispatch);
+            }
+        } catch (Exception e) {
+            log.warn("Background job poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(Long jobId) {
+        if (!runningHere.add(jobId)) {
+            return;
+        }
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    runningHere.remove(jobId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Pool and queue are full; the job stays QUEUED until a later poll
+            runningHere.remove(jobId);
+            log.debug("Background job {} deferred, job pool is full", jobId);
+        }
+    }
+
+    private void run(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer attempt = transaction.execute(status -> jobRepository.claim(jobId, workerId,
+                JobStatus.QUEUED, JobStatus.RUNNING, now, now.minusNanos(staleAfterMs * 1_000_000)) == 0
+                ? null : jobRepository.findAttempts(jobId));
+        if (attempt == null) {
+            return;
+        }
+
+        BackgroundJob job = readOnlyTransaction.execute(status -> jobRepository.findById(jobId).orElse(null));
+        if (job == null) {
+            return;
+        }
+        Claim claim = new Claim(workerId, attempt, new AtomicBoolean());
+        ScheduledFuture<?> heartbeat = startHeartbeat(jobId, claim);
+        try {
+            run(job, claim);
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    private void run(BackgroundJob job, Claim claim) {
+        Long jobId = job.getId();
+        IBackgroundJobHandler handler = handlerFor(job.getJobType());
+        JobState state = readState(job.getState());
+        long start = System.nanoTime();
+
+        try {
+            List<Long> items = readOnlyTransaction.execute(status -> handler.listItems(job));
+            Long checkpoint = job.getCheckpoint();
+            List<Long> remaining = new ArrayList<>();
+            for (Long key : items != null ? items : Collections.<Long>emptyList()) {
+                if (checkpoint == null || key > checkpoint) {
+                    remaining.add(key);
+                }
+            }
+            if (checkpoint != null) {
+                log.info("Resuming background job {} ({}) after item {}: {} items left",
+                        jobId, job.getJobType(), checkpoint, remaining.size());
+            }
+
+            job.setTotalItems(job.getProcessedItems() + remaining.size());
+            publish(job);
+
+            for (int from = 0; from < remaining.size(); from += chunkSize) {
+                if (claim.lost().get()) {
+                    throw new OwnershipLostException(jobId);
+                }
+                if (Boolean.TRUE.equals(readOnlyTransaction.execute(status -> jobRepository.isCancelRequested(jobId)))) {
+                    complete(job, claim, handler, state, JobStatus.CANCELLED);
+                    return;
+                }
+
+                List<Long> chunk = remaining.subList(from, Math.min(from + chunkSize, remaining.size()));
+                int processed = job.getProcessedItems() + chunk.size();
+                Long last = chunk.get(chunk.size() - 1);
+                transaction.executeWithoutResult(status -> {
+                    handler.processChunk(job, chunk, state);
+                    // Rolls the chunk back if another worker has reclaimed the job meanwhile
+                    if (jobRepository.saveProgress(jobId, claim.owner(), claim.attempt(), job.getTotalItems(),
+                            processed, last, writeJson(state), LocalDateTime.now()) == 0) {
+                        throw new OwnershipLostException(jobId);
+                    }
+                });
+                job.setProcessedItems(processed);
+                job.setCheckpoint(last);
+                publish(job);
+            }
+
+            complete(job, claim, handler, state, JobStatus.COMPLETED);
+            log.info("Background job {} ({}) completed: {} items in {} ms",
+                    jobId, job.getJobType(), job.getProcessedItems(), (System.nanoTime() - start) / 1_000_000);
+        } catch (OwnershipLostException e) {
+            log.warn("Background job {} ({}) was reclaimed by another worker, stopping attempt {} here",
+                    jobId, job.getJobType(), claim.attempt());
+        } catch (Exception e) {
+            log.warn("Background job {} ({}) failed: {}", jobId, job.getJobType(), e.getMessage(), e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            finish(job, claim, JobStatus.FAILED, null, message.length() > 1000 ? message.substring(0, 1000) : message);
+        }
+    }
+
+    /**
+     * Finish with the handler's result; a cancelled job reports what it did before stopping
+     */
+    private void complete(BackgroundJob job, Claim claim, IBackgroundJobHandler handler, JobState state, JobStatus status) {
+        Object result = transaction.execute(tx -> handler.buildResult(job, state));
+        finish(job, claim, status, writeJson(result), null);
+    }
+
+    private void finish(BackgroundJob job, Claim claim, JobStatus status, String result, String errorMessage) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transaction.execute(tx -> jobRepository.finish(
+                job.getId(), claim.owner(), claim.attempt(), status, result, errorMessage, now));
+        if (updated == null || updated == 0) {
+            log.warn("Background job {} was reclaimed by another worker, attempt {} not recorded as {}",
+                    job.getId(), claim.attempt(), status);
+            return;
+        }
+        job.setStatus(status);
+        job.setResult(result);
+        job.setErrorMessage(errorMessage);
+        job.setFinishedAt(now);
+        job.setCancelRequested(job.isCancelRequested() || status == JobStatus.CANCELLED);
+        publish(job);
+    }
+
+    /**
+     * Refresh the heartbeat independently of chunk progress, so only a stopped worker goes stale
+     */
+    private ScheduledFuture<?> startHeartbeat(Long jobId, Claim claim) {
+        long interval = Math.max(staleAfterMs / 4, 1000);
+        return heartbeatExecutor.scheduleAtFixedRate(() -> {
+            try {
+                Integer held = transaction.execute(status -> jobRepository.heartbeat(
+                        jobId, claim.owner(), claim.attempt(), JobStatus.RUNNING, LocalDateTime.now()));
+                if (held == null || held == 0) {
+                    claim.lost().set(true);
+                    // Stops further heartbeats for this attempt
+                    throw new OwnershipLostException(jobId);
+                }
+            } catch (OwnershipLostException e) {
+                throw e;
+            } catch (Exception e) {
+                log.warn("Background job {} heartbeat failed: {}", jobId, e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Push the job's progress to the user who started it
+     */
+    void publish(BackgroundJob job) {
+        try {
+            messagingTemplate.convertAndSendToUser(job.getRequestedBy(), JOB_DESTINATION, toDTO(job));
+        } catch (Exception e) {
+            log.debug("Could not push progress of job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    BackgroundJobDTO toDTO(BackgroundJob job) {
+        int percent = job.getStatus() == JobStatus.COMPLETED ? 100
+                : job.getTotalItems() > 0 ? (int) (job.getProcessedItems() * 100L / job.getTotalItems()) : 0;
+        Object result = null;
+        if (job.getResult() != null) {
+            try {
+                result = JSON.readValue(job.getResult(), Object.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Unreadable result on background job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+        return new BackgroundJobDTO(job.getId(), job.getJobType(), job.getStatus(), job.getTargetId(),
+                job.getTotalItems(), job.getProcessedItems(), percent, job.isCancelRequested(), result,
+                job.getErrorMessage(), job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt());
+    }
+
+    /**
+     * Job-specific options given at submission
+     */
+    static Map<String, Object> readParameters(BackgroundJob job) {
+        if (job.getParameters() == null) {
+            return Collections.emptyMap();
+        }
+        try {
+            return JSON.readValue(job.getParameters(), PARAMETERS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid parameters on background job " + job.getId(), e);
+        }
+    }
+
+    static String writeJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize background job data", e);
+        }
+    }
+
+    /**
+     * Worker and attempt number written by the claim; lost is set once the heartbeat finds the job reclaimed
+     */
+    private record Claim(String owner, int attempt, AtomicBoolean lost) {
+    }
+
+    private static class OwnershipLostException extends RuntimeException {
+        OwnershipLostException(Long jobId) {
+            super("Background job " + jobId + " was reclaimed by another worker");
+        }
+    }
+
+    private static JobState readState(String json) {
+        if (json == null) {
+            return new JobState();
+        }
+        try {
+            return JSON.readValue(json, JobState.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid background job state", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.BackgroundJobDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.exception.ForbiddenAccessException;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.exception.ResourceNotFoundException;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.BackgroundJob;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.BackgroundJobRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class BackgroundJobService implements IBackgroundJobService {
+
+    private final BackgroundJobRepository jobRepository;
+    private final BackgroundJobRunner jobRunner;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Published when a job is queued; the runner starts it after commit
+     */
+    public record JobSubmittedEvent(Long jobId) {
+    }
+
+    @Override
+    @Transactional
+    public BackgroundJobDTO submit(JobType type, Long targetId, Map<String, Object> parameters,
+                                   byte[] inputData, User requestedBy) {
+        BackgroundJob job = new BackgroundJob();
+        job.setJobType(type);
+        job.setTargetId(targetId);
+        job.setRequestedBy(requestedBy.getUsername());
+        job.setParameters(parameters != null && !parameters.isEmpty() ? BackgroundJobRunner.writeJson(parameters) : null);
+        job.setInputData(inputData);
+
+        // Reject invalid requests up front instead of queueing a job that fails at once
+        jobRunner.handlerFor(type).validate(job);
+
+        job = jobRepository.save(job);
+        eventPublisher.publishEvent(new JobSubmittedEvent(job.getId()));
+        return jobRunner.toDTO(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BackgroundJobDTO getJob(Long jobId, User user) {
+        return jobRunner.toDTO(findAccessibleJob(jobId, user));
+    }
+
+    @Override
+    @Transactional
+    public BackgroundJobDTO cancel(Long jobId, User user) {
+        BackgroundJob job = findAccessibleJob(jobId, user);
+        if (job.getStatus().isFinished()) {
+            return jobRunner.toDTO(job);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (jobRepository.cancelQueued(jobId, JobStatus.QUEUED, JobStatus.CANCELLED, now) > 0) {
+            job.setStatus(JobStatus.CANCELLED);
+            job.setFinishedAt(now);
+            jobRunner.publish(job);
+        } else {
+            // Already running: the worker stops before its next chunk
+            jobRepository.requestCancel(jobId);
+        }
+        job.setCancelRequested(true);
+        return jobRunner.toDTO(job);
+    }
+
+    private BackgroundJob findAccessibleJob(Long jobId, User user) {
+        BackgroundJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Background job not found with ID: " + jobId));
+        String role = user.getRoleName();
+        if (!job.getRequestedBy().equals(user.getUsername()) && !"MANAGER".equals(role) && !"ADMIN".equals(role)) {
+            throw new ForbiddenAccessException("You do not have access to this job");
+        }
+        return job;
+    }
+}
@@ -0,0 +1,80 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.DashboardCompositionResult;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDashboardCompositionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Fans dashboard sections out on virtual threads so a dashboard takes as long as its
+ * slowest section rather than the sum of all of them. Every section has its own timeout;
+ * a slow or failing section is left out and flagged instead of replaced with made-up data.
+ * Sections run in a read-only transaction whose timeout is applied to their queries, so a
+ * section abandoned by the timeout also stops its SQL; sections the executor cannot find
+ * room for within its short acquire timeout are flagged instead of queueing indefinitely.
+ */
+@Service
+@Slf4j
+public class DashboardCompositionService implements IDashboardCompositionService {
+
+    private final Executor dashboardExecutor;
+    private final TransactionTemplate sectionTransaction;
+    private final long sectionTimeoutMs;
+
+    public DashboardCompositionService(@Qualifier("dashboardExecutor") Executor dashboardExecutor,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${dashboard.section-timeout-ms:3000}") long sectionTimeoutMs) {
+        this.dashboardExecutor = dashboardExecutor;
+        this.sectionTimeoutMs = sectionTimeoutMs;
+        this.sectionTransaction = new TransactionTemplate(transactionManager);
+        this.sectionTransaction.setReadOnly(true);
+        // Transaction timeouts are whole seconds; round up so queries are not cut before the section times out
+        this.sectionTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMs + 999)));
+    }
+
+    @Override
+    public DashboardCompositionResult compose(Map<String, Supplier<?>> sections) {
+        DashboardCompositionResult result = new DashboardCompositionResult();
+        Map<String, CompletableFuture<?>> futures = new LinkedHashMap<>();
+        sections.forEach((name, query) -> {
+            try {
+                futures.put(name, CompletableFuture
+                        .supplyAsync(() -> sectionTransaction.execute(status -> query.get()), dashboardExecutor)
+                        .orTimeout(sectionTimeoutMs, TimeUnit.MILLISECONDS));
+            } catch (TaskRejectedException e) {
+                futures.put(name, CompletableFuture.failedFuture(e));
+            }
+        });
+
+        futures.forEach((name, future) -> {
+            try {
+                result.getSections().put(name, future.join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    log.warn("Dashboard section {} timed out after {} ms", name, sectionTimeoutMs);
+                } else if (cause instanceof TaskRejectedException) {
+                    log.warn("Dashboard section {} rejected: no executor slot freed up in time", name);
+                } else {
+                    log.warn("Dashboard section {} failed: {}", name, cause.getMessage());
+                }
+                result.getDegradedSections().add(name);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.DashboardCounter;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckForm;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthProfile;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.MedicalEvent;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.MedicalSupply;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.MedicationRequest;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.MedicationSchedule;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.RestockRequest;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationForm;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DashboardMetric;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Which entities feed the dashboard counters, and how a row maps to a counter key.
+ * Shared by the entity listener (incremental updates) and the reconciliation job (full recount).
+ */
+final class DashboardCounterDefinitions {
+
+    static final List<Definition> ALL = List.of(
+            new Definition(DashboardMetric.MEDICATION_REQUEST, MedicationRequest.class, "requestDate", false, "status"),
+            new Definition(DashboardMetric.MEDICATION_SCHEDULE, MedicationSchedule.class, "scheduledDate", false, "status"),
+            new Definition(DashboardMetric.MEDICAL_EVENT, MedicalEvent.class, "createdAt", true, "processed", "severityLevel"),
+            new Definition(DashboardMetric.RESTOCK_REQUEST, RestockRequest.class, "requestDate", true, "status"),
+            new Definition(DashboardMetric.VACCINATION_CAMPAIGN, VaccinationCampaign.class, "createdDate", true, "status"),
+            new Definition(DashboardMetric.HEALTH_CHECK_CAMPAIGN, HealthCheckCampaign.class, "createdAt", true, "status"),
+            new Definition(DashboardMetric.HEALTH_PROFILE, HealthProfile.class, "createdAt", false, "status"),
+            new Definition(DashboardMetric.MEDICAL_SUPPLY, MedicalSupply.class, null, false, "enabled"),
+            new Definition(DashboardMetric.HEALTH_CHECK_FORM, HealthCheckForm.class, "createdAt", true, "status"),
+            new Definition(DashboardMetric.VACCINATION_FORM, VaccinationForm.class, "createdDate", true, "confirmationStatus"));
+
+    private static final Map<Class<?>, Definition> BY_ENTITY = ALL.stream()
+            .collect(Collectors.toMap(Definition::entityClass, Function.identity()));
+
+    /**
+     * Lock order for counter rows, so concurrent transactions update shared rows in the same order
+     */
+    static final Comparator<DashboardCounter.Key> KEY_ORDER = Comparator
+            .comparing(DashboardCounter.Key::getMetric)
+            .thenComparing(DashboardCounter.Key::getDimension)
+            .thenComparing(DashboardCounter.Key::getBucketDate);
+
+    private DashboardCounterDefinitions() {
+    }
+
+    static Definition find(Class<?> entityClass) {
+        return BY_ENTITY.get(entityClass);
+    }
+
+    static String dimension(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(':');
+            }
+            Object value = values[i];
+            sb.append(value == null ? "NONE" : value instanceof Enum<?> e ? e.name() : value.toString());
+        }
+        return sb.toString();
+    }
+
+    static LocalDate bucketDate(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        return DashboardCounter.UNDATED;
+    }
+
+    /**
+     * @param dateProperty property used as the day bucket, or null for metrics without a date
+     * @param dateTime whether the date property is a LocalDateTime that must be truncated to a day
+     * @param dimensionProperties properties joined with ':' to form the dimension value
+     */
+    record Definition(DashboardMetric metric, Class<?> entityClass, String dateProperty, boolean dateTime,
+                      String... dimensionProperties) {
+
+        /**
+         * JPQL that recounts this metric: rows of [dimension values..., day (if dated), count]
+         */
+        String recountQuery() {
+            List<String> columns = new ArrayList<>();
+            for (String property : dimensionProperties) {
+                columns.add("e." + property);
+            }
+            if (dateProperty != null) {
+                columns.add(dateTime ? "cast(e." + dateProperty + " as LocalDate)" : "e." + dateProperty);
+            }
+            String grouped = String.join(", ", columns);
+            return "SELECT " + grouped + ", COUNT(e) FROM " + entityClass.getSimpleName() + " e GROUP BY " + grouped;
+        }
+    }
+}
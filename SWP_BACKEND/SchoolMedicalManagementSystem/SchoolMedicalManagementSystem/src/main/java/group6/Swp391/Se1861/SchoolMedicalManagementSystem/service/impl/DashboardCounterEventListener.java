@@ -0,0 +1,187 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.DashboardCounter;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the dashboard counter table in step with inserts, status changes and deletes of the
+ * tracked entities. Deltas are collected per session and written with one batched upsert
+ * just before the transaction commits, so counters commit or roll back together with the change.
+ * JPQL bulk updates bypass this listener; the reconciliation job corrects those.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCounterEventListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String UPSERT_SQL =
+            "INSERT INTO dashboard_counter (metric, dimension, bucket_date, counter_value) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE counter_value = counter_value + VALUES(counter_value)";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${dashboard.counters.enabled:true}")
+    private boolean enabled;
+
+    private final Map<EventSource, Map<DashboardCounter.Key, Long>> pending = new ConcurrentHashMap<>();
+    private final Map<String, int[]> propertyIndexes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void register() {
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        DashboardCounterDefinitions.Definition definition = DashboardCounterDefinitions.find(event.getEntity().getClass());
+        if (definition != null) {
+            record(event.getSession(), key(definition, event.getPersister(), event.getState()), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        DashboardCounterDefinitions.Definition definition = DashboardCounterDefinitions.find(event.getEntity().getClass());
+        if (definition == null) {
+            return;
+        }
+        if (event.getOldState() == null) {
+            log.debug("No previous state for {} {}, counters left to reconciliation",
+                    definition.metric(), event.getId());
+            return;
+        }
+        DashboardCounter.Key before = key(definition, event.getPersister(), event.getOldState());
+        DashboardCounter.Key after = key(definition, event.getPersister(), event.getState());
+        if (!before.equals(after)) {
+            record(event.getSession(), before, -1);
+            record(event.getSession(), after, 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        DashboardCounterDefinitions.Definition definition = DashboardCounterDefinitions.find(event.getEntity().getClass());
+        if (definition != null && event.getDeletedState() != null) {
+            record(event.getSession(), key(definition, event.getPersister(), event.getDeletedState()), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, DashboardCounter.Key key, long delta) {
+        Map<DashboardCounter.Key, Long> deltas = pending.get(session);
+        if (deltas == null) {
+            deltas = new HashMap<>();
+            pending.put(session, deltas);
+            // Runs after the final flush, inside the same JDBC transaction
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s -> flush(session));
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) -> pending.remove(session));
+        }
+        deltas.merge(key, delta, Long::sum);
+    }
+
+    private void flush(EventSource session) {
+        Map<DashboardCounter.Key, Long> deltas = pending.remove(session);
+        if (deltas == null) {
+            return;
+        }
+        Map<DashboardCounter.Key, Long> ordered = new TreeMap<>(DashboardCounterDefinitions.KEY_ORDER);
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                ordered.put(key, delta);
+            }
+        });
+        if (ordered.isEmpty()) {
+            return;
+        }
+
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(UPSERT_SQL)) {
+                for (Map.Entry<DashboardCounter.Key, Long> entry : ordered.entrySet()) {
+                    ps.setString(1, entry.getKey().getMetric().name());
+                    ps.setString(2, entry.getKey().getDimension());
+                    ps.setDate(3, Date.valueOf(entry.getKey().getBucketDate()));
+                    ps.setLong(4, entry.getValue());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+
+    private DashboardCounter.Key key(DashboardCounterDefinitions.Definition definition,
+                                     EntityPersister persister, Object[] state) {
+        int[] indexes = propertyIndexes.computeIfAbsent(persister.getEntityName(),
+                name -> indexesOf(definition, persister.getPropertyNames()));
+
+        String[] dimensionProperties = definition.dimensionProperties();
+        Object[] values = new Object[dimensionProperties.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = state[indexes[i]];
+        }
+        Object date = definition.dateProperty() != null ? state[indexes[values.length]] : null;
+
+        return new DashboardCounter.Key(definition.metric(),
+                DashboardCounterDefinitions.dimension(values),
+                DashboardCounterDefinitions.bucketDate(date));
+    }
+
+    /**
+     * Positions of the dimension properties followed by the date property in the persister state array
+     */
+    private static int[] indexesOf(DashboardCounterDefinitions.Definition definition, String[] propertyNames) {
+        String[] dimensionProperties = definition.dimensionProperties();
+        int[] indexes = new int[dimensionProperties.length + 1];
+        for (int i = 0; i < dimensionProperties.length; i++) {
+            indexes[i] = indexOf(propertyNames, dimensionProperties[i]);
+        }
+        indexes[dimensionProperties.length] = definition.dateProperty() != null
+                ? indexOf(propertyNames, definition.dateProperty()) : -1;
+        return indexes;
+    }
+
+    private static int indexOf(String[] propertyNames, String property) {
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (propertyNames[i].equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Unknown property for dashboard counter: " + property);
+    }
+}
@@ -0,0 +1,150 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.DashboardCounterSnapshot;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.DashboardCounter;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DashboardMetric;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.DashboardCounterRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDashboardCounterService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Reads and reconciles the pre-aggregated dashboard counters.
+ * Incremental updates are done by {@link DashboardCounterEventListener}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCounterService implements IDashboardCounterService {
+
+    private static final String SET_SQL =
+            "INSERT INTO dashboard_counter (metric, dimension, bucket_date, counter_value) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE counter_value = VALUES(counter_value)";
+    private static final String DELETE_SQL =
+            "DELETE FROM dashboard_counter WHERE metric = ? AND dimension = ? AND bucket_date = ?";
+
+    private final DashboardCounterRepository dashboardCounterRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${dashboard.counters.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardCounterSnapshot getSnapshot(LocalDate from, LocalDate to) {
+        List<Object[]> rows = from == null || to == null
+                ? dashboardCounterRepository.sumByMetricAndDimension()
+                : dashboardCounterRepository.sumByMetricAndDimension(from, to);
+
+        DashboardCounterSnapshot snapshot = new DashboardCounterSnapshot();
+        for (Object[] row : rows) {
+            snapshot.add((DashboardMetric) row[0], (String) row[1], ((Number) row[2]).longValue());
+        }
+        return snapshot;
+    }
+
+    @Override
+    @Transactional
+    public void applyDeltas(Map<DashboardCounter.Key, Long> deltas) {
+        if (!enabled) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(DashboardCounterDefinitions.KEY_ORDER))
+                .forEach(entry -> args.add(new Object[]{entry.getKey().getMetric().name(),
+                        entry.getKey().getDimension(), Date.valueOf(entry.getKey().getBucketDate()), entry.getValue()}));
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(DashboardCounterEventListener.UPSERT_SQL, args);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int reconcile() {
+        // Lock the counters before recounting: a delta committed between the recount and the
+        // absolute SET below would otherwise be lost or counted twice. Deltas are written just
+        // before their transaction commits, so the changes they belong to stay invisible to the
+        // recount until this transaction ends.
+        Map<DashboardCounter.Key, Long> current = new HashMap<>();
+        for (DashboardCounter counter : dashboardCounterRepository.findAllForUpdate()) {
+            current.put(counter.getId(), counter.getCounterValue());
+        }
+
+        Map<DashboardCounter.Key, Long> expected = new HashMap<>();
+        for (DashboardCounterDefinitions.Definition definition : DashboardCounterDefinitions.ALL) {
+            recount(definition, expected);
+        }
+
+        Map<DashboardCounter.Key, Long> toSet = new TreeMap<>(DashboardCounterDefinitions.KEY_ORDER);
+        expected.forEach((key, count) -> {
+            if (!Objects.equals(current.get(key), count)) {
+                toSet.put(key, count);
+            }
+        });
+        List<Object[]> toDelete = new ArrayList<>();
+        current.keySet().stream()
+                .filter(key -> !expected.containsKey(key))
+                .sorted(DashboardCounterDefinitions.KEY_ORDER)
+                .forEach(key -> toDelete.add(new Object[]{key.getMetric().name(), key.getDimension(), Date.valueOf(key.getBucketDate())}));
+
+        if (!toSet.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(toSet.size());
+            toSet.forEach((key, count) -> args.add(new Object[]{
+                    key.getMetric().name(), key.getDimension(), Date.valueOf(key.getBucketDate()), count}));
+            jdbcTemplate.batchUpdate(SET_SQL, args);
+        }
+        if (!toDelete.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, toDelete);
+        }
+
+        int corrected = toSet.size() + toDelete.size();
+        if (corrected > 0) {
+            log.info("Dashboard counter reconciliation corrected {} rows ({} set, {} removed)",
+                    corrected, toSet.size(), toDelete.size());
+        }
+        return corrected;
+    }
+
+    private void recount(DashboardCounterDefinitions.Definition definition, Map<DashboardCounter.Key, Long> into) {
+        int dimensionCount = definition.dimensionProperties().length;
+        boolean dated = definition.dateProperty() != null;
+
+        List<Object[]> rows = entityManager.createQuery(definition.recountQuery(), Object[].class).getResultList();
+        for (Object[] row : rows) {
+            Object[] values = new Object[dimensionCount];
+            System.arraycopy(row, 0, values, 0, dimensionCount);
+            Object date = dated ? row[dimensionCount] : null;
+            long count = ((Number) row[row.length - 1]).longValue();
+
+            DashboardCounter.Key key = new DashboardCounter.Key(definition.metric(),
+                    DashboardCounterDefinitions.dimension(values),
+                    DashboardCounterDefinitions.bucketDate(date));
+            into.merge(key, count, Long::sum);
+        }
+    }
+}
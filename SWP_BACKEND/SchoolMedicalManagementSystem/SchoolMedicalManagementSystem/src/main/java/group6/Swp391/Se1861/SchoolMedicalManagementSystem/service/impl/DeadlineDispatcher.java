@@ -0,0 +1,251 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.DeadlineKey;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.MigrationMarker;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.ScheduledDeadline;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.MigrationMarkerRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.ScheduledDeadlineRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDeadlineHandler;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.ISchedulerLeaseService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.util.HierarchicalTimerWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires scheduled deadlines within about a second of their due time.
+ * Deadlines due within the next window are loaded from the scheduled_deadline table (an index
+ * range scan on due_at) into an in-memory hierarchical timer wheel, which a single thread advances
+ * every tick. New deadlines inside the loaded window are added after their transaction commits; the
+ * rest are picked up by the periodic load, and the wheel is rebuilt the same way after a restart.
+ * A deadline is fired by deleting its row in the transaction that applies the transition, so when
+ * several instances load the same deadline only one applies it. If the transition fails, the row is
+ * moved back by the retry delay.
+ */
+@Component
+@Slf4j
+public class DeadlineDispatcher {
+
+    private static final String BACKFILL_MARKER = "deadlines.backfill";
+
+    private final ScheduledDeadlineRepository deadlineRepository;
+    private final MigrationMarkerRepository migrationMarkerRepository;
+    private final Map<DeadlineType, IDeadlineHandler> handlers = new EnumMap<>(DeadlineType.class);
+    private final List<IDeadlineHandler> handlerList;
+    private final ISchedulerLeaseService schedulerLeaseService;
+    private final TransactionTemplate transaction;
+    private final ScheduledExecutorService ticker;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Deadlines currently waiting in the wheel
+    private final Set<DeadlineKey> loaded = ConcurrentHashMap.newKeySet();
+    private volatile HierarchicalTimerWheel<DeadlineKey> wheel;
+    // Every deadline due before this time is in the wheel or already fired
+    private volatile LocalDateTime loadedUntil = LocalDateTime.MIN;
+
+    @Value("${deadlines.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${deadlines.window-ms:300000}")
+    private long windowMs;
+
+    @Value("${deadlines.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    @Value("${deadlines.retry-delay-ms:300000}")
+    private long retryDelayMs;
+
+    @Value("${deadlines.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    public DeadlineDispatcher(ScheduledDeadlineRepository deadlineRepository,
+                              MigrationMarkerRepository migrationMarkerRepository,
+                              List<IDeadlineHandler> deadlineHandlers,
+                              ISchedulerLeaseService schedulerLeaseService,
+                              PlatformTransactionManager transactionManager) {
+        this.deadlineRepository = deadlineRepository;
+        this.migrationMarkerRepository = migrationMarkerRepository;
+        this.handlerList = deadlineHandlers;
+        for (IDeadlineHandler handler : deadlineHandlers) {
+            for (DeadlineType type : handler.getTypes()) {
+                handlers.put(type, handler);
+            }
+        }
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadline-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Register deadlines for items that predate them (once per database), then build the wheel
+     * from the table and start the clock
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (backfillOnStartup && !migrationMarkerRepository.existsById(BACKFILL_MARKER)) {
+            schedulerLeaseService.runExclusive(BACKFILL_MARKER, Duration.ofMinutes(10), lease -> {
+                // Another node may have finished it while this one waited for the lease
+                if (migrationMarkerRepository.existsById(BACKFILL_MARKER)) {
+                    return;
+                }
+                for (IDeadlineHandler handler : handlerList) {
+                    handler.registerPendingDeadlines();
+                }
+                migrationMarkerRepository.save(new MigrationMarker(BACKFILL_MARKER, LocalDateTime.now()));
+                log.info("Deadline backfill completed; later startups skip it");
+            });
+        }
+
+        // Two levels of 64 slots cover 64^2 ticks; the window must fit in them
+        wheel = new HierarchicalTimerWheel<>(tickMs, 2, System.currentTimeMillis());
+        loadDueDeadlines();
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Add new deadlines that fall inside the window already loaded
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDeadlinesScheduled(DeadlineService.DeadlinesScheduledEvent event) {
+        if (wheel == null) {
+            return;
+        }
+        LocalDateTime until = loadedUntil;
+        for (DeadlineKey deadline : event.deadlines()) {
+            if (deadline.dueAt().isBefore(until)) {
+                addToWheel(deadline);
+            }
+        }
+    }
+
+    /**
+     * Load the deadlines that come due in the next window
+     */
+    @Scheduled(fixedDelayString = "${deadlines.load-interval-ms:60000}",
+            initialDelayString = "${deadlines.load-interval-ms:60000}")
+    public void loadDueDeadlines() {
+        if (wheel == null) {
+            return;
+        }
+        try {
+            long windowEnd = Math.min(System.currentTimeMillis() + windowMs, wheel.rangeEndMillis());
+            LocalDateTime horizon = toLocalDateTime(windowEnd);
+            List<ScheduledDeadline> due = transaction.execute(status ->
+                    deadlineRepository.findDueBefore(horizon, PageRequest.of(0, loadBatchSize)));
+            if (due == null) {
+                return;
+            }
+
+            int added = 0;
+            for (ScheduledDeadline row : due) {
+                if (addToWheel(new DeadlineKey(row.getDeadlineType(), row.getTargetId(), row.getDueAt()))) {
+                    added++;
+                }
+            }
+            // A full batch may have left later rows behind: only count as loaded what was actually read
+            loadedUntil = due.size() < loadBatchSize ? horizon : due.get(due.size() - 1).getDueAt();
+
+            if (added > 0) {
+                log.debug("Loaded {} deadlines due before {} ({} waiting)", added, loadedUntil, wheel.size());
+            }
+        } catch (Exception e) {
+            log.warn("Loading due deadlines failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean addToWheel(DeadlineKey deadline) {
+        if (!loaded.add(deadline)) {
+            return false;
+        }
+        if (!wheel.add(toEpochMillis(deadline.dueAt()), deadline)) {
+            loaded.remove(deadline);
+            return false;
+        }
+        return true;
+    }
+
+    private void tick() {
+        try {
+            for (DeadlineKey deadline : wheel.advance(System.currentTimeMillis())) {
+                loaded.remove(deadline);
+                fire(deadline);
+            }
+        } catch (Exception e) {
+            log.warn("Deadline tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void fire(DeadlineKey deadline) {
+        IDeadlineHandler handler = handlers.get(deadline.type());
+        if (handler == null) {
+            log.warn("No handler registered for deadline type {}", deadline.type());
+            return;
+        }
+
+        try {
+            Boolean fired = transaction.execute(status -> {
+                if (deadlineRepository.claim(deadline.type(), deadline.targetId(), deadline.dueAt()) == 0) {
+                    return false;
+                }
+                handler.onDeadline(deadline.type(), deadline.targetId());
+                return true;
+            });
+            if (Boolean.TRUE.equals(fired)) {
+                long lateMs = System.currentTimeMillis() - toEpochMillis(deadline.dueAt());
+                log.info("Fired deadline {} for {} ({} ms after due time)", deadline.type(), deadline.targetId(), lateMs);
+            }
+        } catch (Exception e) {
+            log.warn("Deadline {} for {} failed, retrying in {} ms: {}",
+                    deadline.type(), deadline.targetId(), retryDelayMs, e.getMessage());
+            LocalDateTime retryAt = LocalDateTime.now().plusNanos(retryDelayMs * 1_000_000).truncatedTo(ChronoUnit.SECONDS);
+            try {
+                transaction.executeWithoutResult(status ->
+                        deadlineRepository.postpone(deadline.type(), deadline.targetId(), deadline.dueAt(), retryAt));
+            } catch (Exception postponeError) {
+                log.warn("Could not postpone deadline {} for {}: {}",
+                        deadline.type(), deadline.targetId(), postponeError.getMessage());
+            }
+        }
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+}
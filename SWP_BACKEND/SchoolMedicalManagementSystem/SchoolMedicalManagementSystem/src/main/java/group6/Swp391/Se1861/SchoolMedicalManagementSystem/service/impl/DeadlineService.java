@@ -0,0 +1,64 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.DeadlineKey;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDeadlineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class DeadlineService implements IDeadlineService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO scheduled_deadline (deadline_type, target_id, due_at, created_at) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE due_at = VALUES(due_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Published when deadlines are written; the dispatcher adds near ones to its timer wheel after commit
+     */
+    public record DeadlinesScheduledEvent(List<DeadlineKey> deadlines) {
+    }
+
+    @Override
+    @Transactional
+    public void schedule(DeadlineType type, Long targetId, LocalDateTime dueAt) {
+        scheduleAll(type, Map.of(targetId, dueAt));
+    }
+
+    @Override
+    @Transactional
+    public void scheduleAll(DeadlineType type, Map<Long, LocalDateTime> dueAtByTargetId) {
+        if (dueAtByTargetId.isEmpty()) {
+            return;
+        }
+
+        // Whole seconds, so the key read back from the column matches the one kept in memory
+        List<DeadlineKey> deadlines = new ArrayList<>(dueAtByTargetId.size());
+        dueAtByTargetId.forEach((targetId, dueAt) ->
+                deadlines.add(new DeadlineKey(type, targetId, dueAt.truncatedTo(ChronoUnit.SECONDS))));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, deadlines, 500, (ps, deadline) -> {
+            ps.setString(1, deadline.type().name());
+            ps.setLong(2, deadline.targetId());
+            ps.setTimestamp(3, Timestamp.valueOf(deadline.dueAt()));
+            ps.setTimestamp(4, now);
+        });
+
+        eventPublisher.publishEvent(new DeadlinesScheduledEvent(deadlines));
+    }
+}
@@ -10,6 +10,7 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -54,11 +55,9 @@ public class ExcelService implements IExcelService {
     private static final int COL_MOTHER_DOB = 22;
     private static final int COL_MOTHER_ENABLED = 23;
 
-      @Override
-    public StudentWithParentsCreationResponseDTO importStudentsFromExcel(MultipartFile file) {
-        validateExcelFile(file);
-        
-        try (InputStream inputStream = file.getInputStream();
+    @Override
+    public List<StudentWithParentsCreationDTO> parseStudentImport(byte[] content) {
+        try (InputStream inputStream = new ByteArrayInputStream(content);
              Workbook workbook = WorkbookFactory.create(inputStream)) {
             
             Sheet sheet = workbook.getSheetAt(0);
@@ -159,8 +158,8 @@ public class ExcelService implements IExcelService {
             System.out.println("DEBUG: Total unique mothers: " + uniqueMothers.size());
             System.out.println("DEBUG: Total student-parent mappings: " + studentParentMappings.size());
             
-            // Process in groups by parent combination to use existing service efficiently
-            return processStudentsByParentGroups(allStudents, uniqueFathers, uniqueMothers, studentParentMappings);
+            // Import in groups by parent combination to use existing service efficiently
+            return groupStudentsByParents(allStudents, uniqueFathers, uniqueMothers, studentParentMappings);
             
         } catch (IOException e) {
             throw new IllegalArgumentException("Không thể đọc file Excel: " + e.getMessage(), e);
@@ -168,31 +167,24 @@ public class ExcelService implements IExcelService {
     }
     
     /**
-     * Process students by grouping them by parent combinations
+     * Group students by parent combination, one creation request per family.
+     * Groups are ordered by parent phones so that the same file always gives the same order.
      */
-    private StudentWithParentsCreationResponseDTO processStudentsByParentGroups(
+    private List<StudentWithParentsCreationDTO> groupStudentsByParents(
             List<StudentCreationDTO> allStudents,
             Map<String, ParentCreationDTO> uniqueFathers,
             Map<String, ParentCreationDTO> uniqueMothers,
             List<StudentParentMapping> mappings) {
         
         // Group students by parent combination
-        Map<String, List<Integer>> parentGroupings = new HashMap<>();
+        Map<String, List<Integer>> parentGroupings = new TreeMap<>();
         for (StudentParentMapping mapping : mappings) {
             String groupKey = (mapping.fatherPhone != null ? mapping.fatherPhone : "null") 
                             + "|" + (mapping.motherPhone != null ? mapping.motherPhone : "null");
             parentGroupings.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(mapping.studentIndex);
         }
         
-        // Collect all responses
-        List<StudentDTO> allCreatedStudents = new ArrayList<>();
-        Set<String> processedParentPhones = new HashSet<>();
-        ParentDTO responseFather = null;
-        ParentDTO responseMother = null;
-        int totalStudents = 0;
-        int totalParents = 0;
-        
-        // Process each parent group
+        List<StudentWithParentsCreationDTO> requests = new ArrayList<>(parentGroupings.size());
         for (Map.Entry<String, List<Integer>> group : parentGroupings.entrySet()) {
             String[] phones = group.getKey().split("\\|");
             String fatherPhone = "null".equals(phones[0]) ? null : phones[0];
@@ -214,44 +206,9 @@ public class ExcelService implements IExcelService {
             if (motherPhone != null) {
                 request.setMother(uniqueMothers.get(motherPhone));
             }
-            
-            // Process this group
-            StudentWithParentsCreationResponseDTO groupResponse = studentService.createStudentWithParents(request);
-            
-            // Collect results
-            allCreatedStudents.addAll(groupResponse.getStudents());
-            totalStudents += groupResponse.getStudents().size();
-            
-            // Track parents (avoid duplicates in response)
-            if (groupResponse.getFather() != null && !processedParentPhones.contains(groupResponse.getFather().getPhone())) {
-                if (responseFather == null) {
-                    responseFather = groupResponse.getFather();
-                }
-                processedParentPhones.add(groupResponse.getFather().getPhone());
-                totalParents++;
-            }
-            
-            if (groupResponse.getMother() != null && !processedParentPhones.contains(groupResponse.getMother().getPhone())) {
-                if (responseMother == null) {
-                    responseMother = groupResponse.getMother();
-                }
-                processedParentPhones.add(groupResponse.getMother().getPhone());
-                totalParents++;
-            }
+            requests.add(request);
         }
-        
-        // Build final response
-        StudentWithParentsCreationResponseDTO finalResponse = new StudentWithParentsCreationResponseDTO();
-        finalResponse.setStudents(allCreatedStudents);
-        finalResponse.setFather(responseFather);
-        finalResponse.setMother(responseMother);
-        
-        // Create comprehensive message
-        String message = String.format("Import thành công từ Excel: %d học sinh, %d phụ huynh (%d nhóm gia đình)", 
-                                      totalStudents, totalParents, parentGroupings.size());
-        finalResponse.setMessage(message);
-        
-        return finalResponse;
+        return requests;
     }
     
     /**
@@ -3,30 +3,45 @@ package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckCampaign;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CampaignStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.HealthCheckCampaignRepository;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.UserRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDeadlineHandler;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDeadlineService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IHealthCheckCampaignService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IHealthCheckFormService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.ISchedulerLeaseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
-public class HealthCheckCampaignScheduledTasks {
+public class HealthCheckCampaignScheduledTasks implements IDeadlineHandler {
+
+    // How long a run keeps its lease, so instances whose timers fire later in the same period skip it
+    private static final Duration HOURLY_HOLD = Duration.ofMinutes(50);
+    private static final Duration DAILY_HOLD = Duration.ofHours(1);
 
     private final HealthCheckCampaignRepository campaignRepository;
     private final UserRepository userRepository;
     private final INotificationService notificationService;
     private final IHealthCheckFormService healthCheckFormService;
     private final IHealthCheckCampaignService healthCheckCampaignService;
+    private final ISchedulerLeaseService schedulerLeaseService;
+    private final IDeadlineService deadlineService;
 
     // Configuration properties for campaign auto-reject feature
     @Value("${healthcheck.campaign.auto-reject.enabled:true}")
@@ -44,6 +59,11 @@ public class HealthCheckCampaignScheduledTasks {
      */
     @Scheduled(fixedRate = 3600000) // Run every hour (3600000 milliseconds)
     public void checkForIncompleteExpiredCampaigns() {
+        schedulerLeaseService.runExclusive("healthcheck.incomplete-campaign-reminders", HOURLY_HOLD,
+                lease -> remindIncompleteExpiredCampaigns());
+    }
+
+    private void remindIncompleteExpiredCampaigns() {
         LocalDate yesterday = LocalDate.now().minusDays(1);
         LocalDateTime reminderThreshold = LocalDateTime.now().minusHours(reminderHours);
         
@@ -74,6 +94,11 @@ public class HealthCheckCampaignScheduledTasks {
      */
     @Scheduled(cron = "0 0 8 * * ?") // Run every day at 8:00 AM
     public void autoDeclineExpiredHealthCheckForms() {
+        schedulerLeaseService.runExclusive("healthcheck.auto-decline-forms", DAILY_HOLD,
+                lease -> autoDeclineExpiredForms());
+    }
+
+    private void autoDeclineExpiredForms() {
         System.out.println("Starting auto-decline check for expired health check forms at: " + 
                          LocalDateTime.now());
         
@@ -95,6 +120,11 @@ public class HealthCheckCampaignScheduledTasks {
      */
     @Scheduled(cron = "0 0 9 * * ?") // Run every day at 9:00 AM
     public void sendHealthCheckFormReminders() {
+        schedulerLeaseService.runExclusive("healthcheck.form-reminders", DAILY_HOLD,
+                lease -> sendFormReminders());
+    }
+
+    private void sendFormReminders() {
         System.out.println("Starting health check form reminder notifications at: " + 
                          LocalDateTime.now());
         
@@ -109,50 +139,52 @@ public class HealthCheckCampaignScheduledTasks {
         }
     }
 
+    @Override
+    public Set<DeadlineType> getTypes() {
+        return EnumSet.of(DeadlineType.HEALTH_CHECK_CAMPAIGN_REMINDER, DeadlineType.HEALTH_CHECK_CAMPAIGN_AUTO_REJECT);
+    }
+
     /**
-     * Check for pending campaigns and send manager reminders or auto-reject them
-     * Runs every hour to check for campaigns that need reminders (12 hours) or auto-rejection (24 hours)
+     * Send manager reminders (after 12 hours) or auto-reject (after 24 hours) a campaign still pending approval
      */
-    @Scheduled(fixedRate = 3600000) // Run every hour (3600000 milliseconds)
+    @Override
+    public void onDeadline(DeadlineType type, Long campaignId) {
+        HealthCheckCampaign campaign = campaignRepository.findById(campaignId).orElse(null);
+        if (campaign == null || campaign.getStatus() != CampaignStatus.PENDING) {
+            return;
+        }
+
+        if (type == DeadlineType.HEALTH_CHECK_CAMPAIGN_AUTO_REJECT) {
+            if (autoRejectEnabled) {
+                autoRejectCampaign(campaign);
+            }
+        } else {
+            sendManagerReminders(campaign, userRepository.findByRole_RoleName("MANAGER"));
+        }
+    }
+
+    /**
+     * Schedule deadlines for campaigns pending approval. Reminders already due are skipped,
+     * since the hourly check used before deadlines existed has sent them.
+     */
+    @Override
     @Transactional
-    public void checkPendingCampaignsForReminderAndAutoReject() {
+    public void registerPendingDeadlines() {
         LocalDateTime now = LocalDateTime.now();
-        
-        // Find all campaigns that are still pending approval
-        List<HealthCheckCampaign> pendingCampaigns = campaignRepository.findByStatus(CampaignStatus.PENDING);
-        
-        if (pendingCampaigns.isEmpty()) {
-            return; // No pending campaigns to process
-        }
-        
-        System.out.println("Checking " + pendingCampaigns.size() + " pending campaigns for reminders and auto-rejection at: " + now);
-        
-        // Get all managers for sending reminders
-        List<User> managers = userRepository.findByRole_RoleName("MANAGER");
-        
-        for (HealthCheckCampaign campaign : pendingCampaigns) {
-            LocalDateTime createdAt = campaign.getCreatedAt();
-            if (createdAt == null) {
-                continue; // Skip campaigns without creation timestamp
+        Map<Long, LocalDateTime> reminders = new HashMap<>();
+        Map<Long, LocalDateTime> rejections = new HashMap<>();
+        for (HealthCheckCampaign campaign : campaignRepository.findByStatus(CampaignStatus.PENDING)) {
+            if (campaign.getCreatedAt() == null) {
+                continue;
             }
-            
-            long hoursElapsed = java.time.Duration.between(createdAt, now).toHours();
-            
-            try {
-                // Check for auto-rejection first (24 hours)
-                if (autoRejectEnabled && hoursElapsed >= autoRejectHours) {
-                    autoRejectCampaign(campaign);
-                }
-                // Check for reminder (12 hours) if not auto-rejected
-                else if (hoursElapsed >= reminderHours) {
-                    sendManagerReminders(campaign, managers);
-                }
-            } catch (Exception e) {
-                System.err.println("Error processing campaign ID " + campaign.getId() + ": " + e.getMessage());
+            LocalDateTime remindAt = campaign.getCreatedAt().plusHours(reminderHours);
+            if (remindAt.isAfter(now)) {
+                reminders.put(campaign.getId(), remindAt);
             }
+            rejections.put(campaign.getId(), campaign.getCreatedAt().plusHours(autoRejectHours));
         }
-        
-        System.out.println("Completed checking pending campaigns at: " + now);
+        deadlineService.scheduleAll(DeadlineType.HEALTH_CHECK_CAMPAIGN_REMINDER, reminders);
+        deadlineService.scheduleAll(DeadlineType.HEALTH_CHECK_CAMPAIGN_AUTO_REJECT, rejections);
     }
 
     /**
@@ -3,21 +3,30 @@ package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.CreateHealthCheckCampaignRequest;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.HealthCheckCampaignDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.HealthCheckFormDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.JobState;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationFanoutResultDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.RecordHealthCheckResultRequest;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.ScheduleHealthCheckCampaignRequest;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.*;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CampaignStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.FormStatus;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.HealthCheckCategory;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.ResultStatus;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.TimeSlot;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.*;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDeadlineService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IHealthCheckCampaignService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IHealthCheckFormService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationFanoutService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationUnreadCounterService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IStudentService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.util.NotificationMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -31,10 +40,16 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class HealthCheckCampaignService implements IHealthCheckCampaignService {
 
     private final HealthCheckCampaignRepository campaignRepository;
     private final INotificationService notificationService;
+    private final INotificationFanoutService notificationFanoutService;
+    private final INotificationUnreadCounterService unreadCounterService;
+    private final NotificationTemplateRegistry notificationTemplateRegistry;
+    private final HealthCheckExamQueuePlanner examQueuePlanner;
+    private final IDeadlineService deadlineService;
     private final IStudentService studentService;
     private final IHealthCheckFormService healthCheckFormService;
     private final StudentRepository studentRepository;
@@ -47,6 +62,15 @@ public class HealthCheckCampaignService implements IHealthCheckCampaignService {
     private final SkinRepository skinRepository;
     private final RespiratoryRepository respiratoryRepository;
 
+    @Value("${notification.digest.parent-campaign-enabled:false}")
+    private boolean parentDigestEnabled;
+
+    @Value("${healthcheck.campaign.reminder-hours:12}")
+    private int reminderHours;
+
+    @Value("${healthcheck.campaign.auto-reject-hours:24}")
+    private int autoRejectHours;
+
     @Transactional
     public HealthCheckCampaign createCampaign(String name, String description, LocalDate startDate,
                                              LocalDate endDate, String location, Set<HealthCheckCategory> categories,
@@ -73,6 +97,12 @@ public class HealthCheckCampaignService implements IHealthCheckCampaignService {
 
         HealthCheckCampaign savedCampaign = campaignRepository.save(campaign);
 
+        // Manager reminder and auto-reject if the campaign is still pending approval
+        deadlineService.schedule(DeadlineType.HEALTH_CHECK_CAMPAIGN_REMINDER, savedCampaign.getId(),
+                savedCampaign.getCreatedAt().plusHours(reminderHours));
+        deadlineService.schedule(DeadlineType.HEALTH_CHECK_CAMPAIGN_AUTO_REJECT, savedCampaign.getId(),
+                savedCampaign.getCreatedAt().plusHours(autoRejectHours));
+
         // Notify managers about a new campaign pending approval
         int estimatedCount = savedCampaign.getTargetCount();
         notificationService.notifyManagersAboutHealthCheckCampaignApproval(savedCampaign, estimatedCount);
@@ -465,12 +495,12 @@ public class HealthCheckCampaignService implements IHealthCheckCampaignService {
 
     public Page<HealthCheckCampaignDTO> getCampaignsByNurse(User nurse, Pageable pageable) {
         Page<HealthCheckCampaign> campaigns = campaignRepository.findByCreatedByOrderByCreatedAtDesc(nurse, pageable);
-        return campaigns.map(this::convertToDTO);
+        return convertPageToDTO(campaigns);
     }
 
     public Page<HealthCheckCampaignDTO> getCampaignsByStatus(CampaignStatus status, Pageable pageable) {
         Page<HealthCheckCampaign> campaigns = campaignRepository.findByStatusOrderByCreatedAtDesc(status, pageable);
-        return campaigns.map(this::convertToDTO);
+        return convertPageToDTO(campaigns);
     }
 
     public HealthCheckCampaignDTO updateCampaign(Long id, User nurse, CreateHealthCheckCampaignRequest request) {
@@ -533,6 +563,39 @@ public class HealthCheckCampaignService implements IHealthCheckCampaignService {
     }
 
     public HealthCheckCampaignDTO convertToDTO(HealthCheckCampaign campaign) {
+        Map<FormStatus, Long> formCounts = countFormsByStatus(List.of(campaign.getId()))
+                .getOrDefault(campaign.getId(), Collections.emptyMap());
+        return convertToDTO(campaign, formCounts);
+    }
+
+    /**
+     * Convert a page of campaigns, loading the form counts of the whole page in one query
+     */
+    private Page<HealthCheckCampaignDTO> convertPageToDTO(Page<HealthCheckCampaign> campaigns) {
+        List<Long> campaignIds = campaigns.getContent().stream()
+                .map(HealthCheckCampaign::getId)
+                .collect(Collectors.toList());
+        Map<Long, Map<FormStatus, Long>> formCounts = countFormsByStatus(campaignIds);
+        return campaigns.map(campaign -> convertToDTO(campaign,
+                formCounts.getOrDefault(campaign.getId(), Collections.emptyMap())));
+    }
+
+    /**
+     * Form counts per campaign and status, without loading the forms themselves
+     */
+    private Map<Long, Map<FormStatus, Long>> countFormsByStatus(Collection<Long> campaignIds) {
+        Map<Long, Map<FormStatus, Long>> counts = new HashMap<>();
+        if (campaignIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : healthCheckFormRepository.countByCampaignIdsGroupByStatus(campaignIds)) {
+            counts.computeIfAbsent((Long) row[0], id -> new EnumMap<>(FormStatus.class))
+                    .put((FormStatus) row[1], ((Number) row[2]).longValue());
+        }
+        return counts;
+    }
+
+    private HealthCheckCampaignDTO convertToDTO(HealthCheckCampaign campaign, Map<FormStatus, Long> formCounts) {
         HealthCheckCampaignDTO dto = new HealthCheckCampaignDTO();
         
         dto.setId(campaign.getId());
@@ -568,15 +631,9 @@ public class HealthCheckCampaignService implements IHealthCheckCampaignService {
         dto.setTimeSlot(campaign.getTimeSlot());
         dto.setScheduleNotes(campaign.getScheduleNotes());
         
-        // Calculate confirmed count from health check forms
-        if (campaign.getForms() != null) {
-            long confirmedCount = campaign.getForms().stream()
-                    .filter(form -> form.getStatus() == FormStatus.CONFIRMED)
-                    .count();
-            dto.setConfirmedCount((int) confirmedCount);
-        } else {
-            dto.setConfirmedCount(0);
-        }
+        // Form counts come from a grouped count query, the forms collection is never loaded here
+        dto.setConfirmedCount(formCounts.getOrDefault(FormStatus.CONFIRMED, 0L).intValue());
+        dto.setFormStatusCounts(formCounts);
 
         return dto;
     }
@@ -611,14 +668,7 @@ public class HealthCheckCampaignService implements IHealthCheckCampaignService {
      */
     private int calculateTargetCountInternal(Integer minAge, Integer maxAge, Set<String> targetClasses) {
         try {
-            List<StudentDTO> eligibleStudents = 
-                studentService.getEligibleStudentsForClasses(targetClasses, minAge, maxAge);
-            
-            for (StudentDTO student : eligibleStudents) {
-                System.out.println("- Student: " + student.getFullName() + " (Class: " + student.getClassName() + ", Disabled: " + student.isDisabled() + ")");
-            }
-            
-            return eligibleStudents.size();
+            return studentService.countEligibleStudentsForClasses(targetClasses, minAge, maxAge);
         } catch (Exception e) {
             // If there's an error calculating, return 0 and log the error
             System.err.println("Error calculating target count: " + e.getMessage());
@@ -636,219 +686,239 @@ public class HealthCheckCampaignService implements IHealthCheckCampaignService {
     }
 
     /**
-     * Generate health check forms for eligible students
+     * Create health check forms for one chunk of eligible students.
+     * Outcomes are counted in the job state; students are looked up in one query per chunk.
      */
     @Override
     @Transactional
-    public Map<String, Object> generateHealthCheckForms(Long campaignId) {
-        // Get the campaign and validate it's approved
-        Optional<HealthCheckCampaign> optionalCampaign = campaignRepository.findById(campaignId);
-        if (optionalCampaign.isEmpty()) {
-            throw new RuntimeException("Campaign not found with id: " + campaignId);
-        }
-        
-        HealthCheckCampaign campaign = optionalCampaign.get();
-        if (campaign.getStatus() != CampaignStatus.APPROVED) {
-            throw new RuntimeException("Campaign must be APPROVED before generating forms");
-        }
-
-        // Get eligible students for this campaign
-        List<StudentDTO> eligibleStudents = studentService.getEligibleStudentsForClasses(
-            campaign.getTargetClasses(), 
-            campaign.getMinAge(), 
-            campaign.getMaxAge()
-        );
+    public void generateHealthCheckFormsForStudents(Long campaignId, List<Long> studentIds, JobState state) {
+        HealthCheckCampaign campaign = campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new RuntimeException("Campaign not found with id: " + campaignId));
 
-        int formsGenerated = 0;
-        int studentsWithValidParents = 0;
-        int studentsWithoutParents = 0;
-        int studentsWithInactiveParents = 0;
-        List<Long> createdFormIds = new ArrayList<>();
-        List<String> studentsWithoutValidParents = new ArrayList<>();
+        Map<Long, Student> students = new HashMap<>();
+        for (Student student : studentRepository.findAllById(studentIds)) {
+            students.put(student.getStudentID(), student);
+        }
 
-        // Create actual health check forms for each eligible student
-        for (StudentDTO studentDTO : eligibleStudents) {
+        for (Long studentId : studentIds) {
             try {
-                // Find the actual student entity
-                Optional<Student> studentOpt = studentRepository.findById(studentDTO.getStudentID());
-                if (studentOpt.isPresent()) {
-                    Student student = studentOpt.get();
-                    User parent = student.getParent();
-                    
-                    if (parent == null) {
-                        studentsWithoutParents++;
-                        studentsWithoutValidParents.add("Student " + student.getStudentID() + " - No parent assigned");
-                    } else if (!parent.isEnabled()) {
-                        studentsWithInactiveParents++;
-                        studentsWithoutValidParents.add("Student " + student.getStudentID() + " - Parent " + parent.getId() + " disabled");
-                    } else if (!parent.getRole().getRoleName().equals("PARENT")) {
-                        studentsWithInactiveParents++;
-                        studentsWithoutValidParents.add("Student " + student.getStudentID() + " - User " + parent.getId() + " not parent role");
-                    } else {
-                        // Valid parent found - create form
-                        studentsWithValidParents++;
-                        HealthCheckForm form = healthCheckFormService.createHealthCheckForm(campaign, student, parent);
-                        createdFormIds.add(form.getId());
-                        formsGenerated++;
-                    }
+                Student student = students.get(studentId);
+                if (student == null) {
+                    state.increment("studentsWithoutParents", 1);
+                    state.append("studentsWithoutValidParents", "Student " + studentId + " - Student entity not found");
+                    continue;
+                }
+
+                User parent = student.getParent();
+                if (parent == null) {
+                    state.increment("studentsWithoutParents", 1);
+                    state.append("studentsWithoutValidParents", "Student " + student.getStudentID() + " - No parent assigned");
+                } else if (!parent.isEnabled()) {
+                    state.increment("studentsWithInactiveParents", 1);
+                    state.append("studentsWithoutValidParents", "Student " + student.getStudentID() + " - Parent " + parent.getId() + " disabled");
+                } else if (!parent.getRole().getRoleName().equals("PARENT")) {
+                    state.increment("studentsWithInactiveParents", 1);
+                    state.append("studentsWithoutValidParents", "Student " + student.getStudentID() + " - User " + parent.getId() + " not parent role");
                 } else {
-                    studentsWithoutParents++;
-                    studentsWithoutValidParents.add("Student " + studentDTO.getStudentID() + " - Student entity not found");
-                    System.out.println("ERROR: Student entity not found for ID " + studentDTO.getStudentID());
+                    // Valid parent found - create form
+                    state.increment("studentsWithValidParents", 1);
+                    HealthCheckForm form = healthCheckFormService.createHealthCheckForm(campaign, student, parent);
+                    state.append("createdFormIds", form.getId());
+                    state.increment("formsGenerated", 1);
                 }
             } catch (Exception e) {
-                studentsWithoutParents++;
-                studentsWithoutValidParents.add("Student " + studentDTO.getStudentID() + ": " + e.getMessage());
+                state.increment("studentsWithoutParents", 1);
+                state.append("studentsWithoutValidParents", "Student " + studentId + ": " + e.getMessage());
                 System.err.println("ERROR: " + e.getMessage());
             }
         }
+    }
 
-        for (String detail : studentsWithoutValidParents) {
-            System.out.println("  - " + detail);
-        }
-
+    @Override
+    public Map<String, Object> buildFormGenerationResult(Long campaignId, int totalEligibleStudents, JobState state) {
         Map<String, Object> response = new HashMap<>();
-        response.put("formsGenerated", formsGenerated);
+        response.put("formsGenerated", state.getInt("formsGenerated"));
         response.put("campaignId", campaignId);
         response.put("message", "Health check forms generated successfully");
-        response.put("createdFormIds", createdFormIds);
-        response.put("totalEligibleStudents", eligibleStudents.size());
-        response.put("studentsWithValidParents", studentsWithValidParents);
-        response.put("studentsWithoutParents", studentsWithoutParents);
-        response.put("studentsWithInactiveParents", studentsWithInactiveParents);
-        response.put("studentsWithoutValidParents", studentsWithoutValidParents);
-        response.put("message", "Health check forms generated successfully");
-        response.put("createdFormIds", createdFormIds);
-
-        System.out.println("Forms generated: " + formsGenerated);
+        response.put("createdFormIds", state.list("createdFormIds"));
+        response.put("totalEligibleStudents", totalEligibleStudents);
+        response.put("studentsWithValidParents", state.getInt("studentsWithValidParents"));
+        response.put("studentsWithoutParents", state.getInt("studentsWithoutParents"));
+        response.put("studentsWithInactiveParents", state.getInt("studentsWithInactiveParents"));
+        response.put("studentsWithoutValidParents", state.list("studentsWithoutValidParents"));
+
+        log.info("Health check forms generated for campaign {}: {}", campaignId, state.getInt("formsGenerated"));
         return response;
     }
 
-    /**
-     * Send notifications to parents of eligible students for a health check campaign
-     */
     @Override
-    @Transactional
-    public Map<String, Object> sendNotificationsToParents(Long campaignId) {
-        // Delegate to the overloaded method with null custom message
-        return sendNotificationsToParents(campaignId, null);
+    @Transactional(readOnly = true)
+    public List<Long> getNotificationParentIds(Long campaignId) {
+        return healthCheckFormRepository.findParentIdsByCampaignId(campaignId);
+    }
+
+    @Override
+    public boolean isParentDigestEnabled() {
+        return parentDigestEnabled;
     }
 
     /**
-     * Send notifications to parents of eligible students for a health check campaign
+     * Send notifications for the forms of one chunk of parents in a health check campaign.
+     * Chunks are split by parent so that a digest always covers all of a parent's children.
+     * @param digest When true, each parent receives one notification listing all of their children
+     *               instead of one notification per child
      */
     @Override
     @Transactional
-    public Map<String, Object> sendNotificationsToParents(Long campaignId, String customMessage) {
-        // Get the campaign and validate it's approved
-        Optional<HealthCheckCampaign> optionalCampaign = campaignRepository.findById(campaignId);
-        if (optionalCampaign.isEmpty()) {
-            throw new RuntimeException("Campaign not found with id: " + campaignId);
-        }
-        
-        HealthCheckCampaign campaign = optionalCampaign.get();
-        if (campaign.getStatus() != CampaignStatus.APPROVED) {
-            throw new RuntimeException("Campaign must be APPROVED before sending notifications to parents");
-        }
+    public void sendNotificationsToParents(Long campaignId, List<Long> parentIds, String customMessage,
+                                           boolean digest, JobState state) {
+        HealthCheckCampaign campaign = campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new RuntimeException("Campaign not found with id: " + campaignId));
 
-        // Get all existing forms for this campaign instead of eligible students
-        List<HealthCheckFormDTO> campaignForms = healthCheckFormService.getFormsByCampaign(campaign);
-        
-        System.out.println("Total forms for this campaign: " + campaignForms.size());
+        // Load the forms of this chunk's parents in one query
+        List<HealthCheckForm> campaignForms = healthCheckFormRepository.findByCampaignAndParentIds(campaign, parentIds);
 
-        int notificationsSent = 0;
-        int formsProcessed = 0;
-        List<String> errors = new ArrayList<>();
-        Map<Long, Integer> parentNotificationCount = new HashMap<>();
+        List<Notification> notifications = new ArrayList<>(campaignForms.size());
+
+        boolean hasCustomMessage = customMessage != null && !customMessage.trim().isEmpty();
+        Map<Long, List<HealthCheckForm>> formsByParent = new LinkedHashMap<>();
 
-        // Send ONE NOTIFICATION PER FORM (per student), even if same parent has multiple children
-        for (HealthCheckFormDTO formDTO : campaignForms) {
+        // Build ONE NOTIFICATION PER FORM (per student), or collect forms per parent in digest mode
+        for (HealthCheckForm actualForm : campaignForms) {
             try {
-                formsProcessed++;
+                state.increment("totalForms", 1);
                 
-                // Find the actual HealthCheckForm entity by ID
-                HealthCheckForm actualForm = healthCheckFormRepository.findById(formDTO.getId())
-                    .orElse(null);
-                    
-                if (actualForm != null) {
-                    Student student = actualForm.getStudent();
-                    User parent = actualForm.getParent();
-                    
-                    if (parent != null && parent.isEnabled() && parent.getRole().getRoleName().equals("PARENT")) {
-                        // Create specific notification message for this student
-                        String studentName = student.getFirstName() + " " + student.getLastName();
-                        String customNotificationMessage;
-                        
-                        if (customMessage != null && !customMessage.trim().isEmpty()) {
-                            customNotificationMessage = customMessage.trim();
-                        } else {
-                            customNotificationMessage = String.format(
-                                "Thân gửi Quý phụ huynh,\n" +
-                                "Nhà trường thông báo về đợt khám sức khỏe \"%s\" sắp diễn ra.\n" +
-                                "Đợt khám sẽ được tổ chức tại trường. Đây là cơ hội để các em học sinh được kiểm tra sức khỏe định kỳ, phát hiện sớm các vấn đề sức khỏe và nhận tư vấn từ các chuyên gia y tế." + 
-                                "Kính đề nghị Quý phụ huynh xem xét và cho phép con em %s (lớp %s) tham gia đợt khám sức khỏe này để đảm bảo sức khỏe tốt nhất cho các em.\n" +
-                                "Vui lòng phản hồi qua hệ thống để xác nhận việc tham gia.\n" +
-                                "Trân trọng,\nBan Giám hiệu", 
-                                campaign.getName(), 
-                                studentName,
-                                student.getClassName() != null ? student.getClassName() : "Chưa có thông tin"
-                            );
-                        }
-
-                        // Create notification with proper form and campaign linking
-                        Notification notification = new Notification();
-                        notification.setTitle("THÔNG BÁO KHÁM SỨC KHỎE  - " + studentName.toUpperCase());
-                        notification.setMessage(customNotificationMessage);
-                        notification.setNotificationType("HEALTH_CHECK_CAMPAIGN");
-                        notification.setRecipient(parent);
-                        notification.setHealthCheckCampaign(campaign);
-                        notification.setHealthCheckForm(actualForm);
-                        
-                        // Save notification directly using repository
-                        notificationRepository.save(notification);
-                        
-                        notificationsSent++;
-                        
-                        // Track notifications per parent for statistics
-                        parentNotificationCount.put(parent.getId(), 
-                            parentNotificationCount.getOrDefault(parent.getId(), 0) + 1);
+                Student student = actualForm.getStudent();
+                User parent = actualForm.getParent();
+                
+                if (parent != null && parent.isEnabled() && parent.getRole().getRoleName().equals("PARENT")) {
+                    // Track notifications per parent for statistics
+                    state.incrementEntry("parentNotificationBreakdown", parent.getId(), 1);
+
+                    if (digest) {
+                        formsByParent.computeIfAbsent(parent.getId(), id -> new ArrayList<>()).add(actualForm);
+                        continue;
+                    }
+
+                    // Create specific notification message for this student
+                    String studentName = student.getFirstName() + " " + student.getLastName();
+
+                    // Create notification with proper form and campaign linking
+                    Notification notification = new Notification();
+                    notification.setTitle("THÔNG BÁO KHÁM SỨC KHỎE  - " + studentName.toUpperCase());
+                    if (hasCustomMessage) {
+                        notification.setMessage(customMessage.trim());
                     } else {
-                        String error = "Invalid parent for form " + formDTO.getId() + " - student " + student.getStudentID();
-                        errors.add(error);
-                        System.out.println("SKIP: " + error);
+                        // Default invitation is stored as template parameters and rendered on read
+                        Map<String, String> params = new LinkedHashMap<>();
+                        params.put("campaignName", campaign.getName());
+                        params.put("studentName", studentName);
+                        params.put("className", student.getClassName() != null ? student.getClassName() : "Chưa có thông tin");
+                        notificationTemplateRegistry.apply(notification,
+                                NotificationTemplateRegistry.HEALTH_CHECK_CAMPAIGN_INVITATION, params);
                     }
+                    notification.setNotificationType("HEALTH_CHECK_CAMPAIGN");
+                    notification.setRecipient(parent);
+                    notification.setHealthCheckCampaign(campaign);
+                    notification.setHealthCheckForm(actualForm);
+                    notifications.add(notification);
                 } else {
-                    String error = "Form entity not found for form ID " + formDTO.getId();
-                    errors.add(error);
-                    System.out.println("ERROR: " + error);
+                    String error = "Invalid parent for form " + actualForm.getId() + " - student " + student.getStudentID();
+                    state.append("errors", error);
+                    System.out.println("SKIP: " + error);
                 }
             } catch (Exception e) {
-                String error = "Error sending notification for form " + formDTO.getId() + ": " + e.getMessage();
-                errors.add(error);
+                String error = "Error sending notification for form " + actualForm.getId() + ": " + e.getMessage();
+                state.append("errors", error);
                 System.err.println("ERROR: " + error);
-                e.printStackTrace();
             }
         }
-        
-        // Log parent notification breakdown
-        for (Map.Entry<Long, Integer> entry : parentNotificationCount.entrySet()) {
-            System.out.println("Parent " + entry.getKey() + " received " + entry.getValue() + " notifications");
+
+        // Digest mode: ONE NOTIFICATION PER PARENT listing all of their children
+        for (List<HealthCheckForm> parentForms : formsByParent.values()) {
+            notifications.add(buildParentDigestNotification(campaign, parentForms, hasCustomMessage ? customMessage.trim() : null));
         }
+        
+        // Batch insert all notifications; WebSocket delivery happens after commit
+        NotificationFanoutResultDTO fanoutResult = notificationFanoutService.fanOut(notifications);
+        state.increment("notificationsSent", fanoutResult.getNotificationsCreated());
+        state.increment("fanoutBatches", fanoutResult.getBatchCount());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> buildNotificationResult(Long campaignId, String customMessage, boolean digest, JobState state) {
+        HealthCheckCampaign campaign = campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new RuntimeException("Campaign not found with id: " + campaignId));
+        Map<String, Object> parentNotificationCount = state.map("parentNotificationBreakdown");
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Thông báo đã được gửi đến phụ huynh thành công");
         response.put("campaignId", campaignId);
         response.put("campaignName", campaign.getName());
-        response.put("totalForms", formsProcessed);
-        response.put("notificationsSent", notificationsSent);
+        response.put("totalForms", state.getInt("totalForms"));
+        response.put("notificationsSent", state.getInt("notificationsSent"));
         response.put("uniqueParents", parentNotificationCount.size());
         response.put("parentNotificationBreakdown", parentNotificationCount);
-        response.put("errors", errors);
-        response.put("customMessage", (customMessage != null && !customMessage.trim().isEmpty()));
+        response.put("errors", state.list("errors"));
+        response.put("customMessage", customMessage != null && !customMessage.trim().isEmpty());
+        response.put("digest", digest);
+        response.put("fanoutBatches", state.getInt("fanoutBatches"));
         
         return response;
     }
 
+    /**
+     * Build one campaign notification for a parent covering all of their children's forms.
+     * The notification links every child's form; the default message stores only the form ids
+     * and lists the children when it is rendered.
+     */
+    private Notification buildParentDigestNotification(HealthCheckCampaign campaign, List<HealthCheckForm> parentForms,
+                                                       String customMessage) {
+        HealthCheckForm firstForm = parentForms.get(0);
+        List<Long> formIds = new ArrayList<>(parentForms.size());
+        List<String> childNames = new ArrayList<>(parentForms.size());
+        StringBuilder children = new StringBuilder();
+        for (HealthCheckForm form : parentForms) {
+            Student student = form.getStudent();
+            String studentName = student.getFirstName() + " " + student.getLastName();
+            formIds.add(form.getId());
+            childNames.add(studentName);
+            children.append("<li>").append(studentName).append(" - Lớp ")
+                    .append(student.getClassName() != null ? student.getClassName() : "Chưa có thông tin")
+                    .append("</li>");
+        }
+
+        Notification notification = new Notification();
+        notification.setTitle("THÔNG BÁO KHÁM SỨC KHỎE  - " + digestTitleNames(childNames).toUpperCase());
+        if (customMessage != null) {
+            notification.setMessage(customMessage + "<ul>" + children + "</ul>");
+        } else {
+            Map<String, String> params = new LinkedHashMap<>();
+            params.put("campaignName", campaign.getName());
+            params.put("childCount", String.valueOf(parentForms.size()));
+            notificationTemplateRegistry.apply(notification,
+                    NotificationTemplateRegistry.HEALTH_CHECK_CAMPAIGN_DIGEST, params);
+        }
+        notification.setNotificationType("HEALTH_CHECK_CAMPAIGN");
+        notification.setRecipient(firstForm.getParent());
+        notification.setHealthCheckCampaign(campaign);
+        notification.setHealthCheckForm(firstForm);
+        notification.setHealthCheckFormIds(NotificationMapper.formatIds(formIds));
+        return notification;
+    }
+
+    /**
+     * Children's names for a digest title, shortened to a count when they would not fit the title column
+     */
+    private static String digestTitleNames(List<String> childNames) {
+        String names = String.join(", ", childNames);
+        if (names.length() <= 200) {
+            return names;
+        }
+        return childNames.get(0) + " và " + (childNames.size() - 1) + " học sinh khác";
+    }
+
     /**
      * Helper method to find parents for a student
      */
@@ -1262,196 +1332,6 @@ public class HealthCheckCampaignService implements IHealthCheckCampaignService {
         return result;
     }
 
-    @Override
-    public List<Map<String, Object>> getCampaignResults(Long campaignId) {
-        System.out.println("DEBUG: Getting campaign results for campaign ID: " + campaignId);
-        
-        HealthCheckCampaign campaign = getCampaignModelById(campaignId);
-        List<Map<String, Object>> results = new ArrayList<>();
-        
-        // Get all confirmed health check forms for this campaign
-        List<HealthCheckForm> confirmedForms = healthCheckFormRepository
-            .findByCampaignAndStatus(campaign, FormStatus.CONFIRMED);
-        
-        System.out.println("DEBUG: Found " + confirmedForms.size() + " confirmed forms");
-        
-        for (HealthCheckForm form : confirmedForms) {
-            Map<String, Object> studentResult = new HashMap<>();
-            Student student = form.getStudent();
-            
-            studentResult.put("studentID", student.getStudentID());
-            studentResult.put("fullName", student.getFullName());
-            studentResult.put("className", student.getClassName());
-            studentResult.put("schoolYear", student.getSchoolYear());
-            studentResult.put("formId", form.getId());
-            studentResult.put("respondedAt", form.getRespondedAt());
-            
-            // Get health check results from HealthCheckResult table
-            List<HealthCheckResult> healthCheckResults = healthCheckResultRepository.findByForm(form);
-            System.out.println("DEBUG: Found " + healthCheckResults.size() + " health check results for student " + student.getStudentID() + " (form " + form.getId() + ")");
-            
-            // Only include students who have results
-            if (!healthCheckResults.isEmpty()) {
-                Map<String, Object> categoryResults = new HashMap<>();
-                Map<String, Object> overallResults = new HashMap<>();
-                
-                // Process each health check result
-                for (HealthCheckResult result : healthCheckResults) {
-                    HealthCheckCategory category = result.getCategory();
-                    
-                    // Create category-specific result data
-                    Map<String, Object> categoryData = getCategorySpecificData(result);
-                    
-                    // Add common fields from HealthCheckResult
-                    categoryData.put("healthCheckResultId", result.getId());
-                    categoryData.put("weight", result.getWeight());
-                    categoryData.put("height", result.getHeight());
-                    categoryData.put("bmi", result.getBmi());
-                    categoryData.put("status", result.getStatus());
-                    categoryData.put("isAbnormal", result.isAbnormal());
-                    categoryData.put("resultNotes", result.getResultNotes());
-                    categoryData.put("recommendations", result.getRecommendations());
-                    categoryData.put("performedAt", result.getPerformedAt());
-                    categoryData.put("nurseId", result.getNurse() != null ? result.getNurse().getId() : null);
-                    categoryData.put("nurseName", result.getNurse() != null ? result.getNurse().getFullName() : null);
-                    
-                    categoryResults.put(category.toString(), categoryData);
-                    
-                    // Store overall results (weight, height, BMI) - use the first one found
-                    if (overallResults.isEmpty()) {
-                        overallResults.put("weight", result.getWeight());
-                        overallResults.put("height", result.getHeight());
-                        overallResults.put("bmi", result.getBmi());
-                        overallResults.put("performedAt", result.getPerformedAt());
-                        overallResults.put("nurseId", result.getNurse() != null ? result.getNurse().getId() : null);
-                        overallResults.put("nurseName", result.getNurse() != null ? result.getNurse().getFullName() : null);
-                    }
-                }
-                
-                studentResult.put("results", categoryResults);
-                studentResult.put("overallResults", overallResults);
-                studentResult.put("hasResults", true);
-                results.add(studentResult);
-                
-                System.out.println("DEBUG: Added student " + student.getStudentID() + " with results to response");
-            } else {
-                System.out.println("DEBUG: Student " + student.getStudentID() + " has no health check results yet");
-            }
-        }
-        
-        System.out.println("DEBUG: Returning " + results.size() + " student results");
-        return results;
-    }
-    
-    private Map<String, Object> getCategorySpecificData(HealthCheckResult result) {
-        Map<String, Object> categoryData = new HashMap<>();
-        
-        if (result.getCategoryResultId() == null) {
-            System.out.println("WARNING: No category result ID found for result " + result.getId());
-            return categoryData;
-        }
-        
-        Long categoryResultId = result.getCategoryResultId();
-        HealthCheckCategory category = result.getCategory();
-        
-        try {
-            switch (category) {
-                case VISION:
-                    if (result.getVision() != null) {
-                        Vision vision = result.getVision();
-                        categoryData.put("id", vision.getId());
-                        categoryData.put("visionLeft", vision.getVisionLeft());
-                        categoryData.put("visionRight", vision.getVisionRight());
-                        categoryData.put("visionLeftWithGlass", vision.getVisionLeftWithGlass());
-                        categoryData.put("visionRightWithGlass", vision.getVisionRightWithGlass());
-                        categoryData.put("visionDescription", vision.getVisionDescription());
-                        categoryData.put("doctorName", vision.getDoctorName());
-                        categoryData.put("dateOfExamination", vision.getDateOfExamination());
-                        categoryData.put("needsGlasses", vision.isNeedsGlasses());
-                        categoryData.put("isAbnormal", vision.isAbnormal());
-                        categoryData.put("recommendations", vision.getRecommendations());
-                    }
-                    break;
-                    
-                case HEARING:
-                    if (result.getHearing() != null) {
-                        Hearing hearing = result.getHearing();
-                        categoryData.put("id", hearing.getId());
-                        categoryData.put("leftEar", hearing.getLeftEar());
-                        categoryData.put("rightEar", hearing.getRightEar());
-                        categoryData.put("description", hearing.getDescription());
-                        categoryData.put("doctorName", hearing.getDoctorName());
-                        categoryData.put("dateOfExamination", hearing.getDateOfExamination());
-                        categoryData.put("isAbnormal", hearing.isAbnormal());
-                        categoryData.put("recommendations", hearing.getRecommendations());
-                    }
-                    break;
-                    
-                case ORAL:
-                    if (result.getOral() != null) {
-                        Oral oral = result.getOral();
-                        categoryData.put("id", oral.getId());
-                        categoryData.put("teethCondition", oral.getTeethCondition());
-                        categoryData.put("gumsCondition", oral.getGumsCondition());
-                        categoryData.put("tongueCondition", oral.getTongueCondition());
-                        categoryData.put("description", oral.getDescription());
-                        categoryData.put("doctorName", oral.getDoctorName());
-                        categoryData.put("dateOfExamination", oral.getDateOfExamination());
-                        categoryData.put("isAbnormal", oral.isAbnormal());
-                        categoryData.put("recommendations", oral.getRecommendations());
-                    }
-                    break;
-                    
-                case SKIN:
-                    if (result.getSkin() != null) {
-                        Skin skin = result.getSkin();
-                        categoryData.put("id", skin.getId());
-                        categoryData.put("skinColor", skin.getSkinColor());
-                        categoryData.put("rashes", skin.isRashes());
-                        categoryData.put("lesions", skin.isLesions());
-                        categoryData.put("dryness", skin.isDryness());
-                        categoryData.put("eczema", skin.isEczema());
-                        categoryData.put("psoriasis", skin.isPsoriasis());
-                        categoryData.put("skinInfection", skin.isSkinInfection());
-                        categoryData.put("allergies", skin.isAllergies());
-                        categoryData.put("description", skin.getDescription());
-                        categoryData.put("treatment", skin.getTreatment());
-                        categoryData.put("doctorName", skin.getDoctorName());
-                        categoryData.put("isAbnormal", skin.isAbnormal());
-                        categoryData.put("recommendations", skin.getRecommendations());
-                        categoryData.put("dateOfExamination", skin.getDateOfExamination());
-                        categoryData.put("followUpDate", skin.getFollowUpDate());
-                    }
-                    break;
-                    
-                case RESPIRATORY:
-                    if (result.getRespiratory() != null) {
-                        Respiratory respiratory = result.getRespiratory();
-                        categoryData.put("id", respiratory.getId());
-                        categoryData.put("breathingRate", respiratory.getBreathingRate());
-                        categoryData.put("breathingSound", respiratory.getBreathingSound());
-                        categoryData.put("wheezing", respiratory.isWheezing());
-                        categoryData.put("cough", respiratory.isCough());
-                        categoryData.put("breathingDifficulty", respiratory.isBreathingDifficulty());
-                        categoryData.put("description", respiratory.getDescription());
-                        categoryData.put("doctorName", respiratory.getDoctorName());
-                        categoryData.put("isAbnormal", respiratory.isAbnormal());
-                        categoryData.put("recommendations", respiratory.getRecommendations());
-                        categoryData.put("dateOfExamination", respiratory.getDateOfExamination());
-                    }
-                    break;
-                    
-                default:
-                    System.out.println("WARNING: Unknown category: " + category);
-                    break;
-            }
-        } catch (Exception e) {
-            System.err.println("ERROR: Failed to fetch category-specific data for " + category + " with ID " + categoryResultId + ": " + e.getMessage());
-        }
-        
-        return categoryData;
-    }
-
     /**
      * Send health check result notifications to parents after campaign completion
      */
@@ -1512,6 +1392,7 @@ public class HealthCheckCampaignService implements IHealthCheckCampaignService {
                 notification.setHealthCheckForm(form);
 
                 notificationRepository.save(notification);
+                unreadCounterService.onNotificationCreated(parent);
                 notificationsSent++;
 
                 System.out.println("SENT: Health check result notification to parent of student " + student.getStudentID());
@@ -1627,39 +1508,17 @@ public class HealthCheckCampaignService implements IHealthCheckCampaignService {
     }
 
     /**
-     * Update appointment information for all health check forms associated with the campaign
-     * Sets the appointment location to the campaign location and appointment time based on the timeslot
+     * Plan the exam queue for the campaign and store each student's order and appointment on the form.
+     * Declined and canceled forms are left out of the queue.
      */
     private void updateAppointmentInfoForForms(HealthCheckCampaign campaign) {
-        // Find all health check forms for this campaign
-        List<HealthCheckForm> forms = healthCheckFormRepository.findByCampaign(campaign);
-        
-        // Calculate appointment date (use campaign start date)
-        LocalDateTime appointmentDate = campaign.getStartDate().atStartOfDay();
-        
-        // Determine the time based on the time slot
-        LocalDateTime appointmentTime;
-        if (campaign.getTimeSlot() == TimeSlot.MORNING) {
-            // Morning slot (8:00 AM)
-            appointmentTime = appointmentDate.withHour(8).withMinute(0);
-        } else if (campaign.getTimeSlot() == TimeSlot.AFTERNOON) {
-            // Afternoon slot (1:00 PM)
-            appointmentTime = appointmentDate.withHour(13).withMinute(0);
-        } else {
-            // Default to morning if not specified
-            appointmentTime = appointmentDate.withHour(8).withMinute(0);
-        }
-        
-        System.out.println("DEBUG: Updating appointment info for " + forms.size() + " forms");
-        System.out.println("DEBUG: Setting appointment location to: " + campaign.getLocation());
-        System.out.println("DEBUG: Setting appointment time to: " + appointmentTime);
-        
-        // Update all forms with the appointment information
-        for (HealthCheckForm form : forms) {
-            form.setAppointmentLocation(campaign.getLocation());
-            form.setAppointmentTime(appointmentTime);
-            healthCheckFormRepository.save(form);
-        }
+        List<HealthCheckForm> forms = healthCheckFormRepository.findWithStudentByCampaignAndStatusIn(
+                campaign, List.of(FormStatus.PENDING, FormStatus.CONFIRMED));
+
+        examQueuePlanner.plan(campaign, forms);
+        healthCheckFormRepository.saveAll(forms);
+
+        log.debug("Planned exam queue for {} forms of campaign {}", forms.size(), campaign.getId());
     }
 
     @Override
@@ -0,0 +1,139 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckForm;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Student;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.TimeSlot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plans the examination queue of a health check campaign.
+ * Students are sorted once (class, then name) and given consecutive exam numbers. They are then
+ * placed into the campaign's sessions in order: every school day from start to end date (weekends are
+ * skipped by default), morning and/or afternoon depending on the campaign time slot. Each session takes as many students as its
+ * length allows (one group of stations students every minutes-per-student minutes); when the
+ * campaign days are not enough for everyone, groups are enlarged so that all students still
+ * get a time within the campaign.
+ */
+@Component
+public class HealthCheckExamQueuePlanner {
+
+    private static final Comparator<HealthCheckForm> EXAM_ORDER = Comparator
+            .comparing((HealthCheckForm form) -> form.getStudent().getClassName(),
+                    Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(form -> form.getStudent().getFullName(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(form -> form.getStudent().getStudentID());
+
+    private final LocalTime morningStart;
+    private final LocalTime morningEnd;
+    private final LocalTime afternoonStart;
+    private final LocalTime afternoonEnd;
+    private final int minutesPerStudent;
+    private final int stations;
+    private final Set<DayOfWeek> nonSchoolDays;
+
+    public HealthCheckExamQueuePlanner(
+            @Value("${healthcheck.exam.morning-start:08:00}") String morningStart,
+            @Value("${healthcheck.exam.morning-end:11:30}") String morningEnd,
+            @Value("${healthcheck.exam.afternoon-start:13:30}") String afternoonStart,
+            @Value("${healthcheck.exam.afternoon-end:16:30}") String afternoonEnd,
+            @Value("${healthcheck.exam.minutes-per-student:5}") int minutesPerStudent,
+            @Value("${healthcheck.exam.stations:2}") int stations,
+            @Value("${healthcheck.exam.non-school-days:SATURDAY,SUNDAY}") Set<DayOfWeek> nonSchoolDays) {
+        this.morningStart = LocalTime.parse(morningStart);
+        this.morningEnd = LocalTime.parse(morningEnd);
+        this.afternoonStart = LocalTime.parse(afternoonStart);
+        this.afternoonEnd = LocalTime.parse(afternoonEnd);
+        this.minutesPerStudent = Math.max(1, minutesPerStudent);
+        this.stations = Math.max(1, stations);
+        this.nonSchoolDays = nonSchoolDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(nonSchoolDays);
+    }
+
+    /**
+     * Set exam order, session and appointment time on the given forms of one campaign.
+     * Runs in O(n log n) for the sort plus one pass over the forms.
+     */
+    public void plan(HealthCheckCampaign campaign, List<HealthCheckForm> forms) {
+        if (forms.isEmpty()) {
+            return;
+        }
+
+        List<HealthCheckForm> queue = new ArrayList<>(forms);
+        queue.sort(EXAM_ORDER);
+
+        List<Session> sessions = sessionsOf(campaign);
+        int totalIntervals = 0;
+        for (Session session : sessions) {
+            totalIntervals += session.intervals;
+        }
+        // Enlarge groups when the campaign days cannot fit everyone at the configured pace
+        int groupSize = Math.max(stations, (queue.size() + totalIntervals - 1) / totalIntervals);
+
+        int sessionIndex = 0;
+        int usedInSession = 0;
+        for (int i = 0; i < queue.size(); i++) {
+            Session session = sessions.get(sessionIndex);
+            if (usedInSession == session.intervals * groupSize && sessionIndex < sessions.size() - 1) {
+                session = sessions.get(++sessionIndex);
+                usedInSession = 0;
+            }
+
+            int interval = Math.min(usedInSession / groupSize, session.intervals - 1);
+            HealthCheckForm form = queue.get(i);
+            form.setExamOrder(i + 1);
+            form.setExamSlot(session.slot);
+            form.setAppointmentTime(session.start.plusMinutes((long) interval * minutesPerStudent));
+            form.setAppointmentLocation(campaign.getLocation());
+            usedInSession++;
+        }
+    }
+
+    private List<Session> sessionsOf(HealthCheckCampaign campaign) {
+        TimeSlot timeSlot = campaign.getTimeSlot() != null ? campaign.getTimeSlot() : TimeSlot.MORNING;
+        LocalDate first = campaign.getStartDate();
+        LocalDate last = campaign.getEndDate() != null && !campaign.getEndDate().isBefore(first)
+                ? campaign.getEndDate() : first;
+
+        List<Session> sessions = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            if (nonSchoolDays.contains(day.getDayOfWeek())) {
+                continue;
+            }
+            addSessions(sessions, timeSlot, day);
+        }
+        if (sessions.isEmpty()) {
+            // Campaign falls entirely on non-school days: keep its start date rather than leave students without a time
+            addSessions(sessions, timeSlot, first);
+        }
+        return sessions;
+    }
+
+    private void addSessions(List<Session> sessions, TimeSlot timeSlot, LocalDate day) {
+        if (timeSlot != TimeSlot.AFTERNOON) {
+            sessions.add(new Session(TimeSlot.MORNING, day.atTime(morningStart), intervals(morningStart, morningEnd)));
+        }
+        if (timeSlot != TimeSlot.MORNING) {
+            sessions.add(new Session(TimeSlot.AFTERNOON, day.atTime(afternoonStart), intervals(afternoonStart, afternoonEnd)));
+        }
+    }
+
+    private int intervals(LocalTime start, LocalTime end) {
+        long minutes = Duration.between(start, end).toMinutes();
+        return (int) Math.max(1, minutes / minutesPerStudent);
+    }
+
+    private record Session(TimeSlot slot, LocalDateTime start, int intervals) {
+    }
+}
@@ -0,0 +1,56 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.JobState;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.BackgroundJob;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CampaignStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobHandler;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IHealthCheckCampaignService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates health check forms for the eligible students of a campaign, one chunk of students at a time
+ */
+@Component
+@RequiredArgsConstructor
+public class HealthCheckFormGenerationJobHandler implements IBackgroundJobHandler {
+
+    private final IHealthCheckCampaignService campaignService;
+
+    @Override
+    public JobType getType() {
+        return JobType.HEALTH_CHECK_FORM_GENERATION;
+    }
+
+    @Override
+    public void validate(BackgroundJob job) {
+        HealthCheckCampaign campaign = campaignService.getCampaignModelById(job.getTargetId());
+        if (campaign.getStatus() != CampaignStatus.APPROVED) {
+            throw new RuntimeException("Campaign must be APPROVED before generating forms");
+        }
+    }
+
+    @Override
+    public List<Long> listItems(BackgroundJob job) {
+        HealthCheckCampaign campaign = campaignService.getCampaignModelById(job.getTargetId());
+        return campaignService.getEligibleStudents(campaign).stream()
+                .map(StudentDTO::getStudentID)
+                .sorted()
+                .toList();
+    }
+
+    @Override
+    public void processChunk(BackgroundJob job, List<Long> items, JobState state) {
+        campaignService.generateHealthCheckFormsForStudents(job.getTargetId(), items, state);
+    }
+
+    @Override
+    public Object buildResult(BackgroundJob job, JobState state) {
+        return campaignService.buildFormGenerationResult(job.getTargetId(), job.getTotalItems(), state);
+    }
+}
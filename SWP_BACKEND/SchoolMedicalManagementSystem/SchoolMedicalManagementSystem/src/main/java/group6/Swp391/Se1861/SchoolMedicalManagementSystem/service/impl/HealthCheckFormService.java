@@ -279,6 +279,8 @@ public class HealthCheckFormService implements IHealthCheckFormService {
         dto.setParentNote(form.getParentNote());
         dto.setAppointmentTime(form.getAppointmentTime());
         dto.setAppointmentLocation(form.getAppointmentLocation());
+        dto.setExamOrder(form.getExamOrder());
+        dto.setExamSlot(form.getExamSlot());
         dto.setReminderSent(form.isReminderSent());
         dto.setCheckedIn(form.isCheckedIn());
         dto.setCheckedInAt(form.getCheckedInAt());
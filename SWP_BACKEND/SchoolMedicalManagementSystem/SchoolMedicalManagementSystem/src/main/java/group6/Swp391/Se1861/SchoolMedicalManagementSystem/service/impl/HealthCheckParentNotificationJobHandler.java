@@ -0,0 +1,67 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.JobState;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.BackgroundJob;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CampaignStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobHandler;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IHealthCheckCampaignService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notifies the parents of a campaign's forms, one chunk of parents at a time.
+ * Parameters: "message" (optional custom text) and "digest" (one notification per parent).
+ */
+@Component
+@RequiredArgsConstructor
+public class HealthCheckParentNotificationJobHandler implements IBackgroundJobHandler {
+
+    private final IHealthCheckCampaignService campaignService;
+
+    @Override
+    public JobType getType() {
+        return JobType.HEALTH_CHECK_PARENT_NOTIFICATION;
+    }
+
+    @Override
+    public void validate(BackgroundJob job) {
+        HealthCheckCampaign campaign = campaignService.getCampaignModelById(job.getTargetId());
+        if (campaign.getStatus() != CampaignStatus.APPROVED) {
+            throw new RuntimeException("Campaign must be APPROVED before sending notifications to parents");
+        }
+    }
+
+    @Override
+    public List<Long> listItems(BackgroundJob job) {
+        return campaignService.getNotificationParentIds(job.getTargetId());
+    }
+
+    @Override
+    public void processChunk(BackgroundJob job, List<Long> items, JobState state) {
+        Map<String, Object> parameters = BackgroundJobRunner.readParameters(job);
+        campaignService.sendNotificationsToParents(job.getTargetId(), items,
+                customMessage(parameters), digest(parameters), state);
+    }
+
+    @Override
+    public Object buildResult(BackgroundJob job, JobState state) {
+        Map<String, Object> parameters = BackgroundJobRunner.readParameters(job);
+        return campaignService.buildNotificationResult(job.getTargetId(),
+                customMessage(parameters), digest(parameters), state);
+    }
+
+    private static String customMessage(Map<String, Object> parameters) {
+        Object message = parameters.get("message");
+        return message != null ? message.toString() : null;
+    }
+
+    private boolean digest(Map<String, Object> parameters) {
+        Object digest = parameters.get("digest");
+        return digest != null ? Boolean.parseBoolean(digest.toString()) : campaignService.isParentDigestEnabled();
+    }
+}
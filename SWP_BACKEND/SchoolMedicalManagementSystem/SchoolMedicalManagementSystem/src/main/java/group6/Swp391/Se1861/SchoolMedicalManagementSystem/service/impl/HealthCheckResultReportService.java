@@ -0,0 +1,219 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.FormStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.HealthCheckCategory;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.HealthCheckResultRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IHealthCheckResultReportService;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Campaign results report read from a single streamed query.
+ * The query returns one row per result with the category detail already joined, ordered by form;
+ * rows of the same form are collected into one student entry, which is written and dropped
+ * before the next student is read. The JSON shape is the same as the former in-memory report.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HealthCheckResultReportService implements IHealthCheckResultReportService {
+
+    private final HealthCheckResultRepository healthCheckResultRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeCampaignResults(Long campaignId, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        int students = 0;
+
+        try (Stream<Tuple> rows = healthCheckResultRepository.streamCampaignResultRows(campaignId, FormStatus.CONFIRMED);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+
+            Map<String, Object> student = null;
+            Long currentFormId = null;
+            Iterator<Tuple> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Tuple row = iterator.next();
+                Long formId = row.get("formId", Long.class);
+                if (!formId.equals(currentFormId)) {
+                    if (student != null) {
+                        generator.writeObject(student);
+                        students++;
+                    }
+                    student = newStudentEntry(row);
+                    currentFormId = formId;
+                }
+                addResult(student, row);
+            }
+            if (student != null) {
+                generator.writeObject(student);
+                students++;
+            }
+
+            generator.writeEndArray();
+        }
+
+        log.debug("Campaign {} results report: {} students in {} ms",
+                campaignId, students, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static Map<String, Object> newStudentEntry(Tuple row) {
+        Map<String, Object> student = new HashMap<>();
+        student.put("studentID", row.get("studentId"));
+        student.put("fullName", fullName(row.get("studentLastName"), row.get("studentFirstName")));
+        student.put("className", row.get("className"));
+        student.put("schoolYear", row.get("schoolYear"));
+        student.put("formId", row.get("formId"));
+        student.put("respondedAt", row.get("respondedAt"));
+        student.put("results", new HashMap<String, Object>());
+        student.put("overallResults", new HashMap<String, Object>());
+        student.put("hasResults", true);
+        return student;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addResult(Map<String, Object> student, Tuple row) {
+        HealthCheckCategory category = row.get("category", HealthCheckCategory.class);
+        Long nurseId = row.get("nurseId", Long.class);
+        String nurseName = nurseId != null ? fullName(row.get("nurseLastName"), row.get("nurseFirstName")) : null;
+
+        Map<String, Object> categoryData = categoryDetails(category, row);
+        categoryData.put("healthCheckResultId", row.get("resultId"));
+        categoryData.put("weight", row.get("weight"));
+        categoryData.put("height", row.get("height"));
+        categoryData.put("bmi", row.get("bmi"));
+        categoryData.put("status", row.get("status"));
+        categoryData.put("isAbnormal", row.get("isAbnormal"));
+        categoryData.put("resultNotes", row.get("resultNotes"));
+        categoryData.put("recommendations", row.get("recommendations"));
+        categoryData.put("performedAt", row.get("performedAt"));
+        categoryData.put("nurseId", nurseId);
+        categoryData.put("nurseName", nurseName);
+        ((Map<String, Object>) student.get("results")).put(category.toString(), categoryData);
+
+        // Overall results (weight, height, BMI) come from the first result of the student
+        Map<String, Object> overallResults = (Map<String, Object>) student.get("overallResults");
+        if (overallResults.isEmpty()) {
+            overallResults.put("weight", row.get("weight"));
+            overallResults.put("height", row.get("height"));
+            overallResults.put("bmi", row.get("bmi"));
+            overallResults.put("performedAt", row.get("performedAt"));
+            overallResults.put("nurseId", nurseId);
+            overallResults.put("nurseName", nurseName);
+        }
+    }
+
+    /**
+     * Detail fields of the result's category; empty when the result has no detail row
+     */
+    private static Map<String, Object> categoryDetails(HealthCheckCategory category, Tuple row) {
+        Map<String, Object> categoryData = new HashMap<>();
+        if (row.get("categoryResultId") == null) {
+            return categoryData;
+        }
+
+        switch (category) {
+            case VISION:
+                if (row.get("visionId") != null) {
+                    categoryData.put("id", row.get("visionId"));
+                    categoryData.put("visionLeft", row.get("visionLeft"));
+                    categoryData.put("visionRight", row.get("visionRight"));
+                    categoryData.put("visionLeftWithGlass", row.get("visionLeftWithGlass"));
+                    categoryData.put("visionRightWithGlass", row.get("visionRightWithGlass"));
+                    categoryData.put("visionDescription", row.get("visionDescription"));
+                    categoryData.put("doctorName", row.get("visionDoctorName"));
+                    categoryData.put("dateOfExamination", row.get("visionDate"));
+                    categoryData.put("needsGlasses", row.get("needsGlasses"));
+                    categoryData.put("isAbnormal", row.get("visionAbnormal"));
+                    categoryData.put("recommendations", row.get("visionRecommendations"));
+                }
+                break;
+
+            case HEARING:
+                if (row.get("hearingId") != null) {
+                    categoryData.put("id", row.get("hearingId"));
+                    categoryData.put("leftEar", row.get("leftEar"));
+                    categoryData.put("rightEar", row.get("rightEar"));
+                    categoryData.put("description", row.get("hearingDescription"));
+                    categoryData.put("doctorName", row.get("hearingDoctorName"));
+                    categoryData.put("dateOfExamination", row.get("hearingDate"));
+                    categoryData.put("isAbnormal", row.get("hearingAbnormal"));
+                    categoryData.put("recommendations", row.get("hearingRecommendations"));
+                }
+                break;
+
+            case ORAL:
+                if (row.get("oralId") != null) {
+                    categoryData.put("id", row.get("oralId"));
+                    categoryData.put("teethCondition", row.get("teethCondition"));
+                    categoryData.put("gumsCondition", row.get("gumsCondition"));
+                    categoryData.put("tongueCondition", row.get("tongueCondition"));
+                    categoryData.put("description", row.get("oralDescription"));
+                    categoryData.put("doctorName", row.get("oralDoctorName"));
+                    categoryData.put("dateOfExamination", row.get("oralDate"));
+                    categoryData.put("isAbnormal", row.get("oralAbnormal"));
+                    categoryData.put("recommendations", row.get("oralRecommendations"));
+                }
+                break;
+
+            case SKIN:
+                if (row.get("skinId") != null) {
+                    categoryData.put("id", row.get("skinId"));
+                    categoryData.put("skinColor", row.get("skinColor"));
+                    categoryData.put("rashes", row.get("rashes"));
+                    categoryData.put("lesions", row.get("lesions"));
+                    categoryData.put("dryness", row.get("dryness"));
+                    categoryData.put("eczema", row.get("eczema"));
+                    categoryData.put("psoriasis", row.get("psoriasis"));
+                    categoryData.put("skinInfection", row.get("skinInfection"));
+                    categoryData.put("allergies", row.get("allergies"));
+                    categoryData.put("description", row.get("skinDescription"));
+                    categoryData.put("treatment", row.get("treatment"));
+                    categoryData.put("doctorName", row.get("skinDoctorName"));
+                    categoryData.put("isAbnormal", row.get("skinAbnormal"));
+                    categoryData.put("recommendations", row.get("skinRecommendations"));
+                    categoryData.put("dateOfExamination", row.get("skinDate"));
+                    categoryData.put("followUpDate", row.get("followUpDate"));
+                }
+                break;
+
+            case RESPIRATORY:
+                if (row.get("respiratoryId") != null) {
+                    categoryData.put("id", row.get("respiratoryId"));
+                    categoryData.put("breathingRate", row.get("breathingRate"));
+                    categoryData.put("breathingSound", row.get("breathingSound"));
+                    categoryData.put("wheezing", row.get("wheezing"));
+                    categoryData.put("cough", row.get("cough"));
+                    categoryData.put("breathingDifficulty", row.get("breathingDifficulty"));
+                    categoryData.put("description", row.get("respiratoryDescription"));
+                    categoryData.put("doctorName", row.get("respiratoryDoctorName"));
+                    categoryData.put("isAbnormal", row.get("respiratoryAbnormal"));
+                    categoryData.put("recommendations", row.get("respiratoryRecommendations"));
+                    categoryData.put("dateOfExamination", row.get("respiratoryDate"));
+                }
+                break;
+
+            default:
+                break;
+        }
+        return categoryData;
+    }
+
+    private static String fullName(Object lastName, Object firstName) {
+        return lastName + " " + firstName;
+    }
+}
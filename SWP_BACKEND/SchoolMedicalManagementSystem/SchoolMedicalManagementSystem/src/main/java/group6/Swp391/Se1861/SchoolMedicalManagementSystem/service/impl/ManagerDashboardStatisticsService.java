@@ -0,0 +1,207 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.DashboardCounterSnapshot;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.RestockRequest;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationForm;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CampaignStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DashboardMetric;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.FormStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.SeverityLevel;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.HealthCheckCampaignRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.HealthCheckFormRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.MedicalEventRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.MedicalSupplyRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.RestockRequestRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.VaccinationCampaignRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.VaccinationFormRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDashboardCounterService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IManagerDashboardStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Manager dashboard panels computed from aggregate queries.
+ * Each panel is one GROUP BY or COUNT query instead of loading and converting
+ * every campaign or event just to count them. Campaign, form, restock and supply counts are read
+ * from the dashboard counter table when it is enabled; medical events keep their GROUP BY
+ * because the manager view excludes disabled students, which the counters do not track.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ManagerDashboardStatisticsService implements IManagerDashboardStatisticsService {
+
+    private final VaccinationCampaignRepository vaccinationCampaignRepository;
+    private final HealthCheckCampaignRepository healthCheckCampaignRepository;
+    private final MedicalEventRepository medicalEventRepository;
+    private final MedicalSupplyRepository medicalSupplyRepository;
+    private final RestockRequestRepository restockRequestRepository;
+    private final HealthCheckFormRepository healthCheckFormRepository;
+    private final VaccinationFormRepository vaccinationFormRepository;
+    private final IDashboardCounterService dashboardCounterService;
+
+    @Override
+    public Map<String, Object> getVaccinationStatistics() {
+        Map<VaccinationCampaign.CampaignStatus, Long> counts = vaccinationStatusCounts();
+
+        long pending = counts.getOrDefault(VaccinationCampaign.CampaignStatus.PENDING, 0L);
+        long approved = counts.getOrDefault(VaccinationCampaign.CampaignStatus.APPROVED, 0L);
+        long rejected = counts.getOrDefault(VaccinationCampaign.CampaignStatus.REJECTED, 0L);
+        long completed = counts.getOrDefault(VaccinationCampaign.CampaignStatus.COMPLETED, 0L);
+        long inProgress = counts.getOrDefault(VaccinationCampaign.CampaignStatus.IN_PROGRESS, 0L);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", pending);
+        stats.put("approved", approved);
+        stats.put("rejected", rejected);
+        stats.put("completed", completed);
+        stats.put("inProgress", inProgress);
+        stats.put("total", pending + approved + rejected + completed + inProgress);
+        return stats;
+    }
+
+    @Override
+    public Map<String, Object> getHealthCheckStatistics() {
+        Map<CampaignStatus, Long> counts = healthCheckStatusCounts();
+
+        long pending = counts.getOrDefault(CampaignStatus.PENDING, 0L);
+        long approved = counts.getOrDefault(CampaignStatus.APPROVED, 0L);
+        long inProgress = counts.getOrDefault(CampaignStatus.IN_PROGRESS, 0L);
+        long completed = counts.getOrDefault(CampaignStatus.COMPLETED, 0L);
+        long cancelled = counts.getOrDefault(CampaignStatus.CANCELED, 0L);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", pending);
+        stats.put("approved", approved);
+        stats.put("inProgress", inProgress);
+        stats.put("completed", completed);
+        stats.put("cancelled", cancelled);
+        stats.put("total", pending + approved + inProgress + completed + cancelled);
+        return stats;
+    }
+
+    @Override
+    public Map<String, Object> getMedicalEventStatistics() {
+        long total = 0;
+        long pending = 0;
+        long emergency = 0;
+        for (Object[] row : medicalEventRepository.countGroupByProcessedAndSeverity()) {
+            boolean processed = (Boolean) row[0];
+            SeverityLevel severity = (SeverityLevel) row[1];
+            long count = ((Number) row[2]).longValue();
+
+            total += count;
+            if (!processed) {
+                pending += count;
+            }
+            if (severity == SeverityLevel.SEVERE) {
+                emergency += count;
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("total", total);
+        stats.put("emergency", emergency);
+        stats.put("resolved", total - pending);
+        stats.put("pending", pending);
+        return stats;
+    }
+
+    @Override
+    public Map<String, Object> getInventoryStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        if (dashboardCounterService.isEnabled()) {
+            DashboardCounterSnapshot counters = dashboardCounterService.getSnapshot(null, null);
+            stats.put("totalSupplies", counters.count(DashboardMetric.MEDICAL_SUPPLY, "true"));
+            stats.put("pendingRestockRequests",
+                    counters.count(DashboardMetric.RESTOCK_REQUEST, RestockRequest.RestockStatus.PENDING.name()));
+        } else {
+            stats.put("totalSupplies", medicalSupplyRepository.countByEnabled(true));
+            stats.put("pendingRestockRequests", restockRequestRepository.countByStatus(RestockRequest.RestockStatus.PENDING));
+        }
+        // Stock level and expiry change with time and quantities, so they are always counted live
+        stats.put("lowStockItems", medicalSupplyRepository.countLowStockItems());
+        stats.put("outOfStockItems", medicalSupplyRepository.countExpired()); // Using expired items as "out of stock"
+        return stats;
+    }
+
+    @Override
+    public Map<String, Object> getUrgentItems() {
+        Map<String, Object> urgent = new HashMap<>();
+        if (dashboardCounterService.isEnabled()) {
+            DashboardCounterSnapshot counters = dashboardCounterService.getSnapshot(null, null);
+            urgent.put("pendingVaccinationApprovals",
+                    counters.count(DashboardMetric.VACCINATION_CAMPAIGN, VaccinationCampaign.CampaignStatus.PENDING.name()));
+            urgent.put("pendingHealthCheckApprovals",
+                    counters.count(DashboardMetric.HEALTH_CHECK_CAMPAIGN, CampaignStatus.PENDING.name()));
+            urgent.put("pendingRestockRequests",
+                    counters.count(DashboardMetric.RESTOCK_REQUEST, RestockRequest.RestockStatus.PENDING.name()));
+            urgent.put("pendingHealthCheckForms",
+                    counters.count(DashboardMetric.HEALTH_CHECK_FORM, FormStatus.PENDING.name()));
+            urgent.put("pendingVaccinationForms",
+                    counters.count(DashboardMetric.VACCINATION_FORM, VaccinationForm.ConfirmationStatus.PENDING.name()));
+            return urgent;
+        }
+        urgent.put("pendingVaccinationApprovals",
+                vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.PENDING));
+        urgent.put("pendingHealthCheckApprovals", healthCheckCampaignRepository.countByStatus(CampaignStatus.PENDING));
+        urgent.put("pendingRestockRequests", restockRequestRepository.countByStatus(RestockRequest.RestockStatus.PENDING));
+        urgent.put("pendingHealthCheckForms", healthCheckFormRepository.countByStatus(FormStatus.PENDING));
+        urgent.put("pendingVaccinationForms",
+                vaccinationFormRepository.countByConfirmationStatus(VaccinationForm.ConfirmationStatus.PENDING));
+        return urgent;
+    }
+
+    @Override
+    public long getTotalVaccinationCampaigns() {
+        if (dashboardCounterService.isEnabled()) {
+            return dashboardCounterService.getSnapshot(null, null).total(DashboardMetric.VACCINATION_CAMPAIGN);
+        }
+        return vaccinationCampaignRepository.count();
+    }
+
+    @Override
+    public long getTotalHealthCheckCampaigns() {
+        // Every status is part of the total
+        if (dashboardCounterService.isEnabled()) {
+            return dashboardCounterService.getSnapshot(null, null).total(DashboardMetric.HEALTH_CHECK_CAMPAIGN);
+        }
+        return healthCheckCampaignRepository.count();
+    }
+
+    private Map<VaccinationCampaign.CampaignStatus, Long> vaccinationStatusCounts() {
+        Map<VaccinationCampaign.CampaignStatus, Long> counts = new EnumMap<>(VaccinationCampaign.CampaignStatus.class);
+        if (dashboardCounterService.isEnabled()) {
+            DashboardCounterSnapshot counters = dashboardCounterService.getSnapshot(null, null);
+            for (VaccinationCampaign.CampaignStatus status : VaccinationCampaign.CampaignStatus.values()) {
+                counts.put(status, counters.count(DashboardMetric.VACCINATION_CAMPAIGN, status.name()));
+            }
+            return counts;
+        }
+        for (Object[] row : vaccinationCampaignRepository.countGroupByStatus()) {
+            counts.put((VaccinationCampaign.CampaignStatus) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private Map<CampaignStatus, Long> healthCheckStatusCounts() {
+        Map<CampaignStatus, Long> counts = new EnumMap<>(CampaignStatus.class);
+        if (dashboardCounterService.isEnabled()) {
+            DashboardCounterSnapshot counters = dashboardCounterService.getSnapshot(null, null);
+            for (CampaignStatus status : CampaignStatus.values()) {
+                counts.put(status, counters.count(DashboardMetric.HEALTH_CHECK_CAMPAIGN, status.name()));
+            }
+            return counts;
+        }
+        for (Object[] row : healthCheckCampaignRepository.countGroupByStatus()) {
+            counts.put((CampaignStatus) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
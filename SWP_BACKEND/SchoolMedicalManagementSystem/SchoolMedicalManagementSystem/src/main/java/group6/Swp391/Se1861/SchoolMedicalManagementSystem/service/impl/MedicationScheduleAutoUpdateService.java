@@ -1,29 +1,46 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
 
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.MedicationStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.MedicationScheduleRepository;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IMedicationScheduleService;
-import lombok.RequiredArgsConstructor;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.ISchedulerLeaseService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service to automatically update overdue medication schedules
  * Runs periodically to check for schedules that are overdue based on configured threshold
  * Default threshold is 30 minutes but can be configured via application.properties
+ * The PENDING schedules are split into id ranges that instances take through their own leases,
+ * and each range commits and checkpoints every ID_WINDOW ids
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @ConditionalOnProperty(name = "medication.schedule.auto-update.enabled", havingValue = "true", matchIfMissing = true)
 public class MedicationScheduleAutoUpdateService {
 
+    // Both checks share the range leases; holding them for 2 minutes keeps each range to one run per 3 minutes
+    private static final String LEASE_NAME = "medication.overdue-schedules";
+    private static final Duration LEASE_HOLD = Duration.ofMinutes(2);
+
+    // Ids handled per transaction inside a range; the range's checkpoint moves after each of them
+    private static final long ID_WINDOW = 10_000;
+
     private final IMedicationScheduleService medicationScheduleService;
+    private final ISchedulerLeaseService schedulerLeaseService;
+    private final MedicationScheduleRepository medicationScheduleRepository;
+    private final TransactionTemplate transaction;
     
     @Value("${medication.schedule.overdue-threshold-minutes:30}")
     private int overdueThresholdMinutes;
@@ -31,6 +48,16 @@ public class MedicationScheduleAutoUpdateService {
     @Value("${app.timezone:Asia/Ho_Chi_Minh}")
     private String configuredTimezone;
 
+    public MedicationScheduleAutoUpdateService(IMedicationScheduleService medicationScheduleService,
+                                               ISchedulerLeaseService schedulerLeaseService,
+                                               MedicationScheduleRepository medicationScheduleRepository,
+                                               PlatformTransactionManager transactionManager) {
+        this.medicationScheduleService = medicationScheduleService;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.medicationScheduleRepository = medicationScheduleRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
     @PostConstruct
     public void init() {
         ZoneId appZoneId = ZoneId.of(configuredTimezone);
@@ -49,9 +76,13 @@ public class MedicationScheduleAutoUpdateService {
      */
     @Scheduled(fixedRate = 600000) // 10 minutes = 600,000 milliseconds
     public void autoMarkOverdueSchedules() {
+        markOverdueSchedules();
+    }
+
+    private void markOverdueSchedules() {
         try {
             log.debug("Starting regular auto-update check for overdue medication schedules");
-            int skippedCount = medicationScheduleService.autoMarkOverdueSchedulesAsSkipped();
+            int skippedCount = markOverdueSchedulesInRanges();
             
             if (skippedCount > 0) {
                 log.info("Regular auto-update completed: {} schedules marked as SKIPPED and nurses notified", skippedCount);
@@ -70,9 +101,13 @@ public class MedicationScheduleAutoUpdateService {
      */
     @Scheduled(cron = "0 */3 7-18 * * *") // Every 3 minutes from 7 AM to 6 PM, every day
     public void autoMarkOverdueSchedulesDuringSchoolHours() {
+        markOverdueSchedulesDuringSchoolHours();
+    }
+
+    private void markOverdueSchedulesDuringSchoolHours() {
         try {
             log.debug("Starting school hours auto-update check for overdue medication schedules");
-            int skippedCount = medicationScheduleService.autoMarkOverdueSchedulesAsSkipped();
+            int skippedCount = markOverdueSchedulesInRanges();
             
             if (skippedCount > 0) {
                 log.info("School hours auto-update completed: {} schedules marked as SKIPPED and nurses notified", skippedCount);
@@ -84,4 +119,31 @@ public class MedicationScheduleAutoUpdateService {
             log.error("Error occurred during school hours auto-update", e);
         }
     }
+
+    /**
+     * Run the ranges of PENDING schedule ids whose leases this instance gets
+     * @return number of schedules marked as skipped here
+     */
+    private int markOverdueSchedulesInRanges() {
+        Long minId = medicationScheduleRepository.findMinIdByStatus(MedicationStatus.PENDING);
+        Long maxId = medicationScheduleRepository.findMaxIdByStatus(MedicationStatus.PENDING);
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+
+        AtomicInteger skipped = new AtomicInteger();
+        schedulerLeaseService.runPartitioned(LEASE_NAME, minId, maxId, LEASE_HOLD, (lease, range) -> {
+            for (long from = range.fromId(); from <= range.toId(); from += ID_WINDOW) {
+                long windowFrom = from;
+                long windowTo = Math.min(from + ID_WINDOW - 1, range.toId());
+                Integer count = transaction.execute(status -> {
+                    int marked = medicationScheduleService.autoMarkOverdueSchedulesAsSkipped(windowFrom, windowTo);
+                    schedulerLeaseService.checkpoint(lease, windowTo);
+                    return marked;
+                });
+                skipped.addAndGet(count != null ? count : 0);
+            }
+        });
+        return skipped.get();
+    }
 } 
\ No newline at end of file
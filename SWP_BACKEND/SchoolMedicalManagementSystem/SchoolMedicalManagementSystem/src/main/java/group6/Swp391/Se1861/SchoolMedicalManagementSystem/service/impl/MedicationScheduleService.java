@@ -6,22 +6,32 @@ import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.MedicationSchedule
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.exception.ResourceNotFoundException;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.exception.UnauthorizedAccessException;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.*;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DashboardMetric;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.MedicationStatus;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.MedicationScheduleRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDashboardCounterService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IMedicationScheduleService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -33,12 +43,20 @@ public class MedicationScheduleService implements IMedicationScheduleService {
 
     private final MedicationScheduleRepository medicationScheduleRepository;
     private final INotificationService notificationService;
+    private final IDashboardCounterService dashboardCounterService;
     
     @Value("${medication.schedule.overdue-threshold-minutes:30}")
     private int overdueThresholdMinutes;
 
     private static final Logger log = LoggerFactory.getLogger(MedicationScheduleService.class);
 
+    // Ids per guarded UPDATE and per fetch, keeps the IN list well below packet and plan limits
+    private static final int OVERDUE_UPDATE_CHUNK_SIZE = 500;
+    private static final int MISSED_DIGEST_MAX_LINES = 30;
+
+    // Single-flight guard shared by the scheduled triggers and the admin endpoint
+    private final AtomicBoolean overdueRunActive = new AtomicBoolean();
+
     // Date formatters for consistent date formatting in notifications
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm, dd/MM/yyyy");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
@@ -460,125 +478,173 @@ public class MedicationScheduleService implements IMedicationScheduleService {
     }
 
     /**
-     * Auto-mark medication schedules as SKIPPED if they are overdue based on configured threshold
-     * This method is called by the scheduled task to automatically mark missed medication times
+     * Auto-mark medication schedules as SKIPPED if they are overdue based on configured threshold.
+     * Overdue ids are selected once and moved to SKIPPED with one guarded UPDATE per chunk,
+     * then each responsible nurse gets a single digest notification for the run.
+     * Runs started while another run is active in this instance return 0 without doing anything.
      * @return number of schedules marked as skipped
      */
     @Override
     @Transactional
     public int autoMarkOverdueSchedulesAsSkipped() {
-        LocalDate currentDate = LocalDate.now();
-        LocalTime currentTime = LocalTime.now();
-        LocalTime overdueTime = currentTime.minusMinutes(overdueThresholdMinutes);
-        
-        log.info("Starting auto-update check at {} - Current time: {}, Overdue threshold: {} minutes", 
-                currentDate, currentTime, overdueThresholdMinutes);
-        log.info("Looking for PENDING schedules before: {} on {} or earlier dates", overdueTime, currentDate);
-        
-        try {
-            // Find all overdue PENDING schedules
-            List<MedicationSchedule> overdueSchedules = medicationScheduleRepository.findOverdueSchedules(
-                MedicationStatus.PENDING, 
-                currentDate, 
-                overdueTime
-            );
-            
-            log.info("Found {} overdue medication schedules", overdueSchedules.size());
-            
-            if (overdueSchedules.isEmpty()) {
-                log.debug("No overdue medication schedules found");
-                return 0;
-            }
-            
-            int skippedCount = 0;
-            
-            for (MedicationSchedule schedule : overdueSchedules) {
-                try {
-                    log.debug("Processing overdue schedule ID: {} - Student: {} {} - Medication: {} - Scheduled: {} {}",
-                            schedule.getId(),
-                            schedule.getItemRequest().getMedicationRequest().getStudent().getLastName(),
-                            schedule.getItemRequest().getMedicationRequest().getStudent().getFirstName(),
-                            schedule.getItemRequest().getItemName(),
-                            schedule.getScheduledDate(),
-                            schedule.getScheduledTime());
-                    
-                    // Update status to SKIPPED
-                    schedule.setStatus(MedicationStatus.SKIPPED);
-                    schedule.setAdministeredTime(currentTime);
-                    schedule.setNurseNote("Tự động đánh dấu bỏ lỡ - Quá " + overdueThresholdMinutes + " phút so với giờ dự định");
-                    
-                    medicationScheduleRepository.save(schedule);
-                    skippedCount++;
-                    
-                    log.info("Marked schedule ID {} as SKIPPED for student {} - medication: {}",
-                            schedule.getId(),
-                            schedule.getItemRequest().getMedicationRequest().getStudent().getFullName(),
-                            schedule.getItemRequest().getItemName());
-                    
-                    // Send notification to nurse who approved the medication request
-                    User responsibleNurse = schedule.getItemRequest().getMedicationRequest().getNurse();
-                    if (responsibleNurse != null) {
-                        sendMissedMedicationNotificationToNurse(schedule, responsibleNurse);
-                        log.debug("Sent notification to nurse: {} {}", 
-                                responsibleNurse.getFirstName(), responsibleNurse.getLastName());
-                    } else {
-                        log.warn("No responsible nurse found for medication request ID: {}", 
-                                schedule.getItemRequest().getMedicationRequest().getId());
-                    }
-                    
-                } catch (Exception e) {
-                    log.error("Error auto-marking schedule ID {} as skipped: {}", schedule.getId(), e.getMessage(), e);
-                    // Continue processing other schedules
-                }
+        if (!overdueRunActive.compareAndSet(false, true)) {
+            log.info("Auto-update of overdue medication schedules already running, skipping this trigger");
+            return 0;
+        }
+        // Released once the transaction has committed or rolled back, so the guard also covers the commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                overdueRunActive.set(false);
             }
-            
-            log.info("Auto-update completed successfully. Marked {} schedules as SKIPPED", skippedCount);
-            return skippedCount;
-            
+        });
+        try {
+            return markOverdueSchedulesAsSkipped(null, null);
         } catch (Exception e) {
             log.error("Error during auto-update of overdue medication schedules: {}", e.getMessage(), e);
             throw e; // Re-throw to allow calling method to handle
         }
     }
-    
+
+    @Override
+    @Transactional
+    public int autoMarkOverdueSchedulesAsSkipped(long fromId, long toId) {
+        return markOverdueSchedulesAsSkipped(fromId, toId);
+    }
+
+    private int markOverdueSchedulesAsSkipped(Long fromId, Long toId) {
+        LocalDateTime now = LocalDateTime.now();
+        // Subtract on the date-time so a threshold crossing midnight still finds yesterday's late doses
+        LocalDateTime overdueAt = now.minusMinutes(overdueThresholdMinutes);
+        // TIME columns keep whole seconds; the stamp must compare equal when read back
+        LocalTime administeredTime = now.toLocalTime().truncatedTo(ChronoUnit.SECONDS);
+        String nurseNote = "Tự động đánh dấu bỏ lỡ - Quá " + overdueThresholdMinutes + " phút so với giờ dự định";
+
+        if (fromId == null) {
+            log.info("Starting auto-update check at {}, overdue threshold: {} minutes, marking PENDING schedules due at or before {}",
+                    now, overdueThresholdMinutes, overdueAt);
+        } else {
+            log.debug("Starting auto-update check of ids {} to {} at {}, marking PENDING schedules due at or before {}",
+                    fromId, toId, now, overdueAt);
+        }
+
+        List<Long> overdueIds = fromId == null
+                ? medicationScheduleRepository.findOverdueScheduleIds(
+                        MedicationStatus.PENDING, overdueAt.toLocalDate(), overdueAt.toLocalTime())
+                : medicationScheduleRepository.findOverdueScheduleIdsBetween(
+                        MedicationStatus.PENDING, overdueAt.toLocalDate(), overdueAt.toLocalTime(), fromId, toId);
+        if (overdueIds.isEmpty()) {
+            log.debug("No overdue medication schedules found");
+            return 0;
+        }
+
+        List<Long> skippedIds = new ArrayList<>(overdueIds.size());
+        for (int from = 0; from < overdueIds.size(); from += OVERDUE_UPDATE_CHUNK_SIZE) {
+            List<Long> chunk = overdueIds.subList(from, Math.min(from + OVERDUE_UPDATE_CHUNK_SIZE, overdueIds.size()));
+            int updated = medicationScheduleRepository.markSkippedIfPending(
+                    chunk, MedicationStatus.PENDING, MedicationStatus.SKIPPED, administeredTime, nurseNote);
+            if (updated == chunk.size()) {
+                skippedIds.addAll(chunk);
+            } else if (updated > 0) {
+                // Some rows were given or skipped by a nurse after the select; keep only the ones we changed
+                skippedIds.addAll(medicationScheduleRepository.findSkippedIds(
+                        chunk, MedicationStatus.SKIPPED, administeredTime, nurseNote));
+            }
+        }
+        log.info("Found {} overdue medication schedules, marked {} as SKIPPED", overdueIds.size(), skippedIds.size());
+        if (skippedIds.isEmpty()) {
+            return 0;
+        }
+
+        List<MedicationSchedule> skipped = new ArrayList<>(skippedIds.size());
+        for (int from = 0; from < skippedIds.size(); from += OVERDUE_UPDATE_CHUNK_SIZE) {
+            skipped.addAll(medicationScheduleRepository.findWithRequestByIdIn(
+                    skippedIds.subList(from, Math.min(from + OVERDUE_UPDATE_CHUNK_SIZE, skippedIds.size()))));
+        }
+        recordSkippedCounters(skipped);
+        notifyNursesOfMissedSchedules(skipped);
+
+        log.info("Auto-update completed successfully. Marked {} schedules as SKIPPED", skippedIds.size());
+        return skippedIds.size();
+    }
+
+    /**
+     * The bulk UPDATE bypasses the dashboard counter listener, so move the counts here
+     */
+    private void recordSkippedCounters(List<MedicationSchedule> skipped) {
+        Map<DashboardCounter.Key, Long> deltas = new HashMap<>();
+        for (MedicationSchedule schedule : skipped) {
+            deltas.merge(new DashboardCounter.Key(DashboardMetric.MEDICATION_SCHEDULE,
+                    MedicationStatus.PENDING.name(), schedule.getScheduledDate()), -1L, Long::sum);
+            deltas.merge(new DashboardCounter.Key(DashboardMetric.MEDICATION_SCHEDULE,
+                    MedicationStatus.SKIPPED.name(), schedule.getScheduledDate()), 1L, Long::sum);
+        }
+        dashboardCounterService.applyDeltas(deltas);
+    }
+
     /**
-     * Send notification to nurse about missed medication
-     * @param schedule The missed medication schedule
+     * Send each responsible nurse one notification listing all of their schedules missed in this run
+     */
+    private void notifyNursesOfMissedSchedules(List<MedicationSchedule> skipped) {
+        Map<Long, List<MedicationSchedule>> byNurse = new LinkedHashMap<>();
+        for (MedicationSchedule schedule : skipped) {
+            User nurse = schedule.getItemRequest().getMedicationRequest().getNurse();
+            if (nurse == null) {
+                log.warn("No responsible nurse found for medication request ID: {}",
+                        schedule.getItemRequest().getMedicationRequest().getId());
+                continue;
+            }
+            byNurse.computeIfAbsent(nurse.getId(), id -> new ArrayList<>()).add(schedule);
+        }
+
+        for (List<MedicationSchedule> schedules : byNurse.values()) {
+            schedules.sort(Comparator.comparing(MedicationSchedule::getScheduledDate)
+                    .thenComparing(MedicationSchedule::getScheduledTime));
+            sendMissedMedicationDigestToNurse(schedules.get(0).getItemRequest().getMedicationRequest().getNurse(), schedules);
+        }
+    }
+
+    /**
+     * Send one notification to a nurse about the missed medication schedules of a run
      * @param nurse The responsible nurse
+     * @param schedules The nurse's missed schedules, in scheduled order
      */
-    private void sendMissedMedicationNotificationToNurse(MedicationSchedule schedule, User nurse) {
+    private void sendMissedMedicationDigestToNurse(User nurse, List<MedicationSchedule> schedules) {
         try {
-            Student student = schedule.getItemRequest().getMedicationRequest().getStudent();
-            String medicationName = schedule.getItemRequest().getItemName();
-            String scheduledTime = formatTime(schedule.getScheduledTime());
-            String scheduledDate = formatDate(LocalDate.now());
-            
-            String title = "Lịch uống thuốc bị bỏ lỡ";
-            String message = String.format(
-                "Học sinh: %s %s (Lớp: %s)\n" +
-                "Thuốc: %s\n" +
-                "Thời gian dự kiến: %s, %s\n" +
-                "Hệ thống đã tự động đánh dấu là 'Bỏ lỡ' do quá %d phút chưa được cập nhật.\n" +
-                "Vui lòng kiểm tra và liên hệ phụ huynh nếu cần thiết.",
-                student.getLastName(),
-                student.getFirstName(),
-                student.getClassName() != null ? student.getClassName() : "N/A",
-                medicationName,
-                scheduledTime,
-                scheduledDate,
-                overdueThresholdMinutes
-            );
-            
+            String title = schedules.size() == 1
+                    ? "Lịch uống thuốc bị bỏ lỡ"
+                    : schedules.size() + " lịch uống thuốc bị bỏ lỡ";
+
+            StringBuilder message = new StringBuilder();
+            message.append(String.format(
+                    "Hệ thống đã tự động đánh dấu %d lịch uống thuốc là 'Bỏ lỡ' do quá %d phút chưa được cập nhật:\n",
+                    schedules.size(), overdueThresholdMinutes));
+            int listed = Math.min(schedules.size(), MISSED_DIGEST_MAX_LINES);
+            for (int i = 0; i < listed; i++) {
+                MedicationSchedule schedule = schedules.get(i);
+                Student student = schedule.getItemRequest().getMedicationRequest().getStudent();
+                message.append(String.format("- %s %s (Lớp: %s) - Thuốc: %s - Dự kiến: %s, %s\n",
+                        student.getLastName(),
+                        student.getFirstName(),
+                        student.getClassName() != null ? student.getClassName() : "N/A",
+                        schedule.getItemRequest().getItemName(),
+                        formatTime(schedule.getScheduledTime()),
+                        formatDate(schedule.getScheduledDate())));
+            }
+            if (schedules.size() > listed) {
+                message.append(String.format("... và %d lịch khác\n", schedules.size() - listed));
+            }
+            message.append("Vui lòng kiểm tra và liên hệ phụ huynh nếu cần thiết.");
+
             notificationService.createGeneralNotification(
                 nurse,
                 title,
-                message,
+                message.toString(),
                 "MEDICATION_MISSED_AUTO"
             );
-            
-            log.info("Sent missed medication notification to nurse {} for student {} - medication: {}",
-                    nurse.getFullName(), student.getFullName(), medicationName);
-            
+
+            log.info("Sent missed medication digest with {} schedules to nurse {}", schedules.size(), nurse.getFullName());
+
         } catch (Exception e) {
             log.error("Error sending missed medication notification to nurse: {}", e.getMessage(), e);
         }
@@ -0,0 +1,47 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers transient WebSocket payloads, such as unread count updates, on the bounded
+ * notification dispatch pool. Notifications themselves go through the outbox
+ * ({@link NotificationOutboxDispatcher}) so that they survive a failed push.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    public static final String NOTIFICATION_DESTINATION = "/queue/notifications";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TaskExecutor dispatchExecutor;
+
+    public NotificationDispatcher(SimpMessagingTemplate messagingTemplate,
+                                  @Qualifier("notificationDispatchExecutor") TaskExecutor dispatchExecutor) {
+        this.messagingTemplate = messagingTemplate;
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    /**
+     * Deliver one payload on the dispatch pool without waiting for a commit.
+     * Use this from code that is already running after commit.
+     */
+    public void dispatchNow(String username, Object payload) {
+        if (username == null) {
+            return;
+        }
+        dispatchExecutor.execute(() -> send(username, payload));
+    }
+
+    private void send(String username, Object payload) {
+        try {
+            messagingTemplate.convertAndSendToUser(username, NOTIFICATION_DESTINATION, payload);
+        } catch (Exception e) {
+            log.warn("Error sending WebSocket notification to {}: {}", username, e.getMessage());
+        }
+    }
+}
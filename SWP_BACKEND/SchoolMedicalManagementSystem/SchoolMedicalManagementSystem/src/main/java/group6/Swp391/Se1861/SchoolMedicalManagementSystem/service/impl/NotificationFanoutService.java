@@ -0,0 +1,158 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationFanoutResultDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Notification;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationFanoutService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationOutboxService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationUnreadCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk notification fan-out for campaign-wide announcements.
+ * Rows are written with JDBC batch inserts (one round trip per batch instead of one per row)
+ * and WebSocket pushes are written to the notification outbox in the same transaction,
+ * to be sent by {@link NotificationOutboxDispatcher} after commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationFanoutService implements INotificationFanoutService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification (title, message, created_at, is_read, notification_type, confirm, " +
+            "recipient_id, vaccination_form_id, medication_request_id, medication_schedule_id, medical_event_id, " +
+            "restock_request_id, health_check_form_id, health_check_campaign_id, campaign_completion_request_id, " +
+            "template_id, template_params, health_check_form_ids) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final INotificationOutboxService notificationOutboxService;
+    private final INotificationUnreadCounterService unreadCounterService;
+
+    @Value("${notification.fanout.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public NotificationFanoutResultDTO fanOut(List<Notification> notifications) {
+        if (notifications == null || notifications.isEmpty()) {
+            return new NotificationFanoutResultDTO(0, 0, batchSize, 0, 0, 0);
+        }
+
+        long start = System.nanoTime();
+        int batchCount = 0;
+        for (int from = 0; from < notifications.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, notifications.size());
+            insertBatch(notifications.subList(from, to));
+            batchCount++;
+        }
+        long insertNanos = System.nanoTime() - start;
+
+        int deliveriesQueued = notificationOutboxService.enqueueAll(notifications);
+        unreadCounterService.onNotificationsCreated(countUnreadPerRecipient(notifications));
+
+        long insertMillis = insertNanos / 1_000_000;
+        double rowsPerSecond = insertNanos > 0 ? notifications.size() * 1_000_000_000.0 / insertNanos : 0;
+
+        log.info("Notification fan-out: {} rows in {} batches, {} ms ({} rows/s), {} deliveries queued",
+                notifications.size(), batchCount, insertMillis, Math.round(rowsPerSecond), deliveriesQueued);
+
+        return new NotificationFanoutResultDTO(
+                notifications.size(), batchCount, batchSize, insertMillis,
+                Math.round(rowsPerSecond * 10) / 10.0, deliveriesQueued);
+    }
+
+    private void insertBatch(List<Notification> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Notification n = batch.get(i);
+                        if (n.getCreatedAt() == null) {
+                            n.setCreatedAt(now);
+                        }
+                        ps.setString(1, n.getTitle());
+                        ps.setString(2, n.getMessage());
+                        ps.setTimestamp(3, Timestamp.valueOf(n.getCreatedAt()));
+                        ps.setBoolean(4, n.isRead());
+                        ps.setString(5, n.getNotificationType());
+                        if (n.getConfirm() != null) {
+                            ps.setBoolean(6, n.getConfirm());
+                        } else {
+                            ps.setNull(6, Types.BOOLEAN);
+                        }
+                        ps.setLong(7, n.getRecipient().getId());
+                        setId(ps, 8, n.getVaccinationForm() != null ? n.getVaccinationForm().getId() : null);
+                        setId(ps, 9, n.getMedicationRequest() != null ? n.getMedicationRequest().getId() : null);
+                        setId(ps, 10, n.getMedicationSchedule() != null ? n.getMedicationSchedule().getId() : null);
+                        setId(ps, 11, n.getMedicalEvent() != null ? n.getMedicalEvent().getId() : null);
+                        setId(ps, 12, n.getRestockRequest() != null ? n.getRestockRequest().getId() : null);
+                        setId(ps, 13, n.getHealthCheckForm() != null ? n.getHealthCheckForm().getId() : null);
+                        setId(ps, 14, n.getHealthCheckCampaign() != null ? n.getHealthCheckCampaign().getId() : null);
+                        setId(ps, 15, n.getCampaignCompletionRequest() != null ? n.getCampaignCompletionRequest().getId() : null);
+                        ps.setString(16, n.getTemplateId());
+                        ps.setString(17, n.getTemplateParams());
+                        ps.setString(18, n.getHealthCheckFormIds());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != batch.size()) {
+            log.warn("Notification batch insert returned {} keys for {} rows; ids not assigned", keys.size(), batch.size());
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Object key = keys.get(i).values().iterator().next();
+            batch.get(i).setId(((Number) key).longValue());
+        }
+    }
+
+    private static Map<User, Integer> countUnreadPerRecipient(List<Notification> notifications) {
+        Map<Long, User> recipients = new HashMap<>();
+        Map<User, Integer> counts = new HashMap<>();
+        for (Notification notification : notifications) {
+            if (notification.isRead() || notification.getRecipient() == null) {
+                continue;
+            }
+            User recipient = recipients.computeIfAbsent(notification.getRecipient().getId(), id -> notification.getRecipient());
+            counts.merge(recipient, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static void setId(PreparedStatement ps, int index, Long id) throws SQLException {
+        if (id != null) {
+            ps.setLong(index, id);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
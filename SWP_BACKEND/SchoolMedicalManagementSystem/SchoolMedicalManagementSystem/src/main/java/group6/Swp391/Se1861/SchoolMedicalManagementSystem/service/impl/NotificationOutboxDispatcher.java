@@ -0,0 +1,273 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Notification;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.NotificationOutbox;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.OutboxStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.NotificationOutboxRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.NotificationRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationOutboxService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationRelayService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.util.NotificationMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the notification outbox on the notification dispatch pool.
+ * A drain is requested after every commit that queued deliveries and on a fixed poll
+ * for retries. Only one drain runs at a time per instance; requests arriving while it runs are
+ * folded into the running drain. Each batch is claimed with FOR UPDATE SKIP LOCKED, so
+ * concurrent instances drain disjoint rows. All due messages for the same user are handed to
+ * the notification relay as a single push in the same transaction that deletes them, and every
+ * instance delivers the push to the user's WebSocket sessions and SSE streams connected to it.
+ * When a batch cannot be handed to the relay, its transaction rolls back and the rows are
+ * relayed again one user at a time; rows that still fail get their attempt count and next
+ * attempt time written in a separate transaction, with exponential backoff, and are marked
+ * FAILED after the configured number of attempts. Retries of the pushes themselves happen in
+ * {@link NotificationRelayService}. The number of pending rows is published
+ * as the notification.outbox.backlog gauge.
+ */
+@Component
+@Slf4j
+public class NotificationOutboxDispatcher {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final INotificationOutboxService outboxService;
+    private final INotificationRelayService notificationRelayService;
+    private final NotificationTemplateRegistry templateRegistry;
+    private final TaskExecutor dispatchExecutor;
+    private final TransactionTemplate writeTransaction;
+
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicBoolean drainRequested = new AtomicBoolean(false);
+    private final AtomicLong backlog = new AtomicLong(0);
+
+    @Value("${notification.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notification.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.retry-base-delay-ms:2000}")
+    private long retryBaseDelayMs;
+
+    @Value("${notification.outbox.retry-max-delay-ms:300000}")
+    private long retryMaxDelayMs;
+
+    public NotificationOutboxDispatcher(NotificationOutboxRepository outboxRepository,
+                                        NotificationRepository notificationRepository,
+                                        INotificationOutboxService outboxService,
+                                        INotificationRelayService notificationRelayService,
+                                        NotificationTemplateRegistry templateRegistry,
+                                        @Qualifier("notificationDispatchExecutor") TaskExecutor dispatchExecutor,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.outboxService = outboxService;
+        this.notificationRelayService = notificationRelayService;
+        this.templateRegistry = templateRegistry;
+        this.dispatchExecutor = dispatchExecutor;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("notification.outbox.backlog", backlog, AtomicLong::get)
+                .description("Notification deliveries waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start draining once the transaction that queued deliveries has committed
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOutboxEnqueued(NotificationOutboxService.OutboxEnqueuedEvent event) {
+        requestDrain();
+    }
+
+    /**
+     * Pick up retries and anything left over from a restart
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:10000}",
+            initialDelayString = "${notification.outbox.poll-interval-ms:10000}")
+    public void pollOutbox() {
+        requestDrain();
+    }
+
+    private void requestDrain() {
+        drainRequested.set(true);
+        if (draining.compareAndSet(false, true)) {
+            dispatchExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            try {
+                while (drainRequested.getAndSet(false)) {
+                    int processed;
+                    do {
+                        processed = drainBatch();
+                    } while (processed >= batchSize);
+                }
+                backlog.set(outboxService.getBacklogDepth());
+            } catch (Exception e) {
+                log.warn("Notification outbox drain failed: {}", e.getMessage());
+            } finally {
+                draining.set(false);
+            }
+            // A request may have arrived between the last check and releasing the flag
+        } while (drainRequested.get() && draining.compareAndSet(false, true));
+    }
+
+    /**
+     * Claim one batch of due outbox rows and hand them to the relay, then deliver to local subscribers
+     * @return Number of outbox rows handled
+     */
+    private int drainBatch() {
+        Map<String, List<Long>> claimed = new LinkedHashMap<>();
+        Integer processed;
+        try {
+            processed = writeTransaction.execute(status -> {
+                List<NotificationOutbox> due = outboxRepository.claimDue(
+                        OutboxStatus.PENDING.name(), LocalDateTime.now(), batchSize);
+                if (due.isEmpty()) {
+                    return 0;
+                }
+
+                Map<String, List<NotificationOutbox>> byUser = groupByUser(due);
+                byUser.forEach((username, entries) -> claimed.put(username, ids(entries)));
+                relay(byUser);
+                outboxRepository.deleteAllByIdInBatch(ids(due));
+                return due.size();
+            });
+        } catch (Exception e) {
+            if (claimed.isEmpty()) {
+                throw e;
+            }
+            // The batch rolled back; relay one user at a time so only the failing users are retried
+            log.warn("Notification outbox batch failed, relaying per user: {}", e.getMessage());
+            processed = 0;
+            for (Map.Entry<String, List<Long>> entry : claimed.entrySet()) {
+                relayUser(entry.getKey(), entry.getValue());
+                processed += entry.getValue().size();
+            }
+        }
+
+        // Users connected here get the push now; other instances pick it up on their relay poll
+        notificationRelayService.deliverPending();
+        return processed != null ? processed : 0;
+    }
+
+    private void relayUser(String username, List<Long> outboxIds) {
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                List<NotificationOutbox> entries = outboxRepository.lockByIds(outboxIds, OutboxStatus.PENDING.name());
+                if (!entries.isEmpty()) {
+                    relay(Map.of(username, entries));
+                    outboxRepository.deleteAllByIdInBatch(ids(entries));
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Error relaying notifications to {}: {}", username, e.getMessage());
+            writeTransaction.executeWithoutResult(status -> {
+                List<NotificationOutbox> entries = outboxRepository.lockByIds(outboxIds, OutboxStatus.PENDING.name());
+                for (NotificationOutbox entry : entries) {
+                    scheduleRetry(entry, e);
+                }
+                outboxRepository.saveAll(entries);
+            });
+        }
+    }
+
+    /**
+     * Write one relay row per user with all of the user's notifications, keeping outbox order
+     */
+    private void relay(Map<String, List<NotificationOutbox>> byUser) {
+        List<NotificationOutbox> all = new ArrayList<>();
+        byUser.values().forEach(all::addAll);
+        Map<Long, NotificationDTO> dtos = loadNotifications(all);
+
+        for (Map.Entry<String, List<NotificationOutbox>> userEntries : byUser.entrySet()) {
+            List<NotificationDTO> payloads = new ArrayList<>(userEntries.getValue().size());
+            for (NotificationOutbox entry : userEntries.getValue()) {
+                // Rows whose notification was deleted meanwhile are simply dropped
+                NotificationDTO dto = dtos.get(entry.getNotificationId());
+                if (dto != null) {
+                    payloads.add(dto);
+                }
+            }
+            if (!payloads.isEmpty()) {
+                notificationRelayService.relay(userEntries.getKey(), payloads);
+            }
+        }
+    }
+
+    private static Map<String, List<NotificationOutbox>> groupByUser(List<NotificationOutbox> entries) {
+        Map<String, List<NotificationOutbox>> byUser = new LinkedHashMap<>();
+        for (NotificationOutbox entry : entries) {
+            byUser.computeIfAbsent(entry.getRecipientUsername(), u -> new ArrayList<>()).add(entry);
+        }
+        return byUser;
+    }
+
+    private static List<Long> ids(List<NotificationOutbox> entries) {
+        List<Long> ids = new ArrayList<>(entries.size());
+        for (NotificationOutbox entry : entries) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+
+    private Map<Long, NotificationDTO> loadNotifications(List<NotificationOutbox> due) {
+        List<Long> ids = new ArrayList<>(due.size());
+        for (NotificationOutbox entry : due) {
+            ids.add(entry.getNotificationId());
+        }
+
+        List<Notification> notifications = notificationRepository.findAllById(ids);
+        Map<Long, String> messages = templateRegistry.resolveMessages(notifications);
+        Map<Long, NotificationDTO> result = new HashMap<>();
+        for (Notification notification : notifications) {
+            NotificationDTO dto = NotificationMapper.toDTO(notification);
+            dto.setMessage(messages.get(notification.getId()));
+            result.put(notification.getId(), dto);
+        }
+        return result;
+    }
+
+    private void scheduleRetry(NotificationOutbox entry, Exception error) {
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        entry.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        if (attempts >= maxAttempts) {
+            entry.setStatus(OutboxStatus.FAILED);
+            log.warn("Giving up on notification {} for {} after {} attempts",
+                    entry.getNotificationId(), entry.getRecipientUsername(), attempts);
+            return;
+        }
+
+        long delay = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempts - 1, 20));
+        entry.setNextAttemptAt(LocalDateTime.now().plusNanos(delay * 1_000_000));
+    }
+}
@@ -0,0 +1,95 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Notification;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.NotificationOutbox;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.OutboxStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.NotificationOutboxRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationOutboxService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes WebSocket deliveries to the notification outbox inside the caller's transaction.
+ * A rolled back transaction therefore never pushes anything, and the business transaction
+ * never waits on the message broker. {@link NotificationOutboxDispatcher} sends the rows
+ * after commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxService implements INotificationOutboxService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification_outbox (notification_id, recipient_username, status, attempts, created_at, next_attempt_at) " +
+            "VALUES (?, ?, ?, 0, ?, ?)";
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Published whenever deliveries are queued; handled after the transaction commits
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class OutboxEnqueuedEvent {
+        private final int count;
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(String recipientUsername, Long notificationId) {
+        if (recipientUsername == null || notificationId == null) {
+            return;
+        }
+
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setNotificationId(notificationId);
+        entry.setRecipientUsername(recipientUsername);
+        outboxRepository.save(entry);
+
+        eventPublisher.publishEvent(new OutboxEnqueuedEvent(1));
+    }
+
+    @Override
+    @Transactional
+    public int enqueueAll(List<Notification> notifications) {
+        List<Object[]> rows = new ArrayList<>(notifications.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Notification notification : notifications) {
+            if (notification.getId() == null || notification.getRecipient() == null
+                    || notification.getRecipient().getUsername() == null) {
+                continue;
+            }
+            rows.add(new Object[]{
+                    notification.getId(),
+                    notification.getRecipient().getUsername(),
+                    OutboxStatus.PENDING.name(),
+                    now,
+                    now
+            });
+        }
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        eventPublisher.publishEvent(new OutboxEnqueuedEvent(rows.size()));
+        return rows.size();
+    }
+
+    @Override
+    public long getBacklogDepth() {
+        return outboxRepository.countByStatus(OutboxStatus.PENDING);
+    }
+}
@@ -0,0 +1,171 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.NotificationRelay;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.NotificationRelayRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationRelayService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cross-instance relay for notification pushes.
+ * STOMP uses an in-memory broker and SSE streams live in the instance that accepted them,
+ * so a push written by one instance is relayed through the notification_relay table.
+ * Each instance polls the rows created within a short window and pushes those it has not
+ * pushed yet; re-reading the window instead of following an id cursor also catches rows
+ * whose transaction committed after a row with a higher id.
+ * A push that throws is not marked as delivered, so the next poll tries it again while the row
+ * is still in the window, up to the configured number of attempts. Attempts are counted per
+ * instance because every instance pushes to its own subscribers.
+ */
+@Service
+@Slf4j
+public class NotificationRelayService implements INotificationRelayService {
+
+    public static final String NOTIFICATION_BATCH_EVENT = "NOTIFICATION_BATCH";
+
+    private static final TypeReference<List<NotificationDTO>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final NotificationRelayRepository relayRepository;
+    private final INotificationStreamService notificationStreamService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+
+    // Relay rows in the current window that this instance has already pushed
+    private final Set<Long> delivered = new HashSet<>();
+    private boolean primed = false;
+
+    // Relay rows whose push failed on this instance, with the number of attempts so far
+    private final Map<Long, Integer> failedAttempts = new HashMap<>();
+
+    @Value("${notification.relay.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${notification.relay.retention-minutes:10}")
+    private long retentionMinutes;
+
+    @Value("${notification.relay.max-attempts:3}")
+    private int maxAttempts;
+
+    public NotificationRelayService(NotificationRelayRepository relayRepository,
+                                    INotificationStreamService notificationStreamService,
+                                    SimpMessagingTemplate messagingTemplate,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.relayRepository = relayRepository;
+        this.notificationStreamService = notificationStreamService;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void relay(String username, List<NotificationDTO> notifications) {
+        NotificationRelay row = new NotificationRelay();
+        row.setRecipientUsername(username);
+        try {
+            row.setPayload(objectMapper.writeValueAsString(notifications));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize notifications for " + username, e);
+        }
+        relayRepository.save(row);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${notification.relay.poll-interval-ms:1000}")
+    public synchronized void deliverPending() {
+        List<Long> window = relayRepository.findIdsCreatedAfter(LocalDateTime.now().minusSeconds(windowSeconds));
+
+        // On startup only remember the window; those rows were meant for sessions opened before this instance
+        Set<Long> retry = new HashSet<>();
+        if (primed) {
+            List<Long> fresh = new ArrayList<>();
+            for (Long id : window) {
+                if (!delivered.contains(id)) {
+                    fresh.add(id);
+                }
+            }
+            if (!fresh.isEmpty()) {
+                for (NotificationRelay row : relayRepository.findByIdInOrderById(fresh)) {
+                    if (deliver(row)) {
+                        continue;
+                    }
+                    int attempts = failedAttempts.merge(row.getId(), 1, Integer::sum);
+                    if (attempts < maxAttempts) {
+                        retry.add(row.getId());
+                    } else {
+                        log.warn("Giving up on relayed notifications {} for {} after {} attempts",
+                                row.getId(), row.getRecipientUsername(), attempts);
+                    }
+                }
+            }
+        }
+
+        delivered.clear();
+        delivered.addAll(window);
+        delivered.removeAll(retry);
+        failedAttempts.keySet().retainAll(retry);
+        primed = true;
+    }
+
+    /**
+     * Drop relay rows every instance has had ample time to pick up
+     */
+    @Scheduled(fixedDelayString = "${notification.relay.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        Integer deleted = transaction.execute(status ->
+                relayRepository.deleteCreatedBefore(LocalDateTime.now().minusMinutes(retentionMinutes)));
+        if (deleted != null && deleted > 0) {
+            log.debug("Purged {} notification relay rows", deleted);
+        }
+    }
+
+    /**
+     * Push one relay row to the local WebSocket sessions and SSE streams of its user
+     * @return false if the push failed and should be tried again
+     */
+    private boolean deliver(NotificationRelay row) {
+        String username = row.getRecipientUsername();
+        try {
+            List<NotificationDTO> payloads = objectMapper.readValue(row.getPayload(), PAYLOAD_TYPE);
+            if (!payloads.isEmpty()) {
+                send(username, payloads);
+                notificationStreamService.publish(username, payloads);
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Error relaying notifications {} to {}: {}", row.getId(), username, e.getMessage());
+            return false;
+        }
+    }
+
+    private void send(String username, List<NotificationDTO> payloads) {
+        if (payloads.size() == 1) {
+            messagingTemplate.convertAndSendToUser(username, NotificationDispatcher.NOTIFICATION_DESTINATION, payloads.get(0));
+            return;
+        }
+
+        Map<String, Object> frame = new HashMap<>();
+        frame.put("eventType", NOTIFICATION_BATCH_EVENT);
+        frame.put("notifications", payloads);
+        messagingTemplate.convertAndSendToUser(username, NotificationDispatcher.NOTIFICATION_DESTINATION, frame);
+    }
+}
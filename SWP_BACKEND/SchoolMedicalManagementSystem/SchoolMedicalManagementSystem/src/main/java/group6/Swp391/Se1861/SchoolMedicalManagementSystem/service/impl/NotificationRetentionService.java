@@ -0,0 +1,107 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.LeaseToken;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationRetentionService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.ISchedulerLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves read notifications past the retention window from the hot notification table
+ * into notification_archive. Each chunk copies and deletes a bounded number of rows
+ * in its own short transaction, and a run stops after a bounded number of chunks,
+ * so compaction never holds long locks on the inbox table. Every chunk is fenced against the
+ * scheduler lease before it commits, so a node that lost the lease stops archiving.
+ */
+@Service
+@Slf4j
+public class NotificationRetentionService implements INotificationRetentionService {
+
+    private static final String COLUMNS =
+            "id, title, message, template_id, template_params, created_at, notification_type, confirm, recipient_id, " +
+            "medication_request_id, medication_schedule_id, medical_event_id, vaccination_form_id, restock_request_id, " +
+            "health_check_form_id, health_check_form_ids, health_check_campaign_id, campaign_completion_request_id";
+
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT id FROM notification WHERE is_read = true AND created_at < :cutoff ORDER BY created_at LIMIT :limit";
+
+    private static final String COPY_SQL =
+            "INSERT INTO notification_archive (" + COLUMNS + ", archived_at) " +
+            "SELECT " + COLUMNS + ", :archivedAt FROM notification WHERE id IN (:ids) AND is_read = true";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM notification WHERE id IN (:ids) AND is_read = true";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ISchedulerLeaseService schedulerLeaseService;
+
+    @Value("${notification.retention.read-days:90}")
+    private int readRetentionDays;
+
+    @Value("${notification.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${notification.retention.max-chunks-per-run:50}")
+    private int maxChunksPerRun;
+
+    public NotificationRetentionService(NamedParameterJdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        ISchedulerLeaseService schedulerLeaseService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLeaseService = schedulerLeaseService;
+    }
+
+    @Override
+    public int archiveReadNotifications(LeaseToken lease) {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(readRetentionDays));
+        long start = System.currentTimeMillis();
+        int archived = 0;
+        int chunks = 0;
+
+        while (chunks < maxChunksPerRun) {
+            Integer moved = transactionTemplate.execute(status -> {
+                int chunk = archiveChunk(cutoff);
+                schedulerLeaseService.verify(lease);
+                return chunk;
+            });
+            chunks++;
+            archived += moved != null ? moved : 0;
+            if (moved == null || moved < chunkSize) {
+                break;
+            }
+        }
+
+        log.info("Notification retention: archived {} read notifications older than {} days in {} chunks, {} ms",
+                archived, readRetentionDays, chunks, System.currentTimeMillis() - start);
+        return archived;
+    }
+
+    private int archiveChunk(Timestamp cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_CHUNK_SQL,
+                new MapSqlParameterSource()
+                        .addValue("cutoff", cutoff)
+                        .addValue("limit", chunkSize),
+                Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(COPY_SQL, params);
+        jdbcTemplate.update(DELETE_SQL, params);
+        return ids.size();
+    }
+}
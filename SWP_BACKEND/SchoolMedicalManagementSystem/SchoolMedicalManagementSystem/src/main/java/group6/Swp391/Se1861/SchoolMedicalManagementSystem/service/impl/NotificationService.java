@@ -1,24 +1,42 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
 
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationInboxPageDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationSummaryDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.exception.BadRequestException;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.exception.ResourceNotFoundException;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.*;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.FormStatus;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.TimeSlot;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.HealthCheckFormRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.NotificationArchiveRepository;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.NotificationRepository;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.UserRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationFanoutService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationOutboxService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationUnreadCounterService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.util.NotificationMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,13 +44,32 @@ import java.util.stream.Collectors;
 public class NotificationService implements INotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationArchiveRepository notificationArchiveRepository;
     private final UserRepository userRepository;
     private final HealthCheckFormRepository healthCheckFormRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final INotificationOutboxService notificationOutboxService;
+    private final INotificationFanoutService notificationFanoutService;
+    private final INotificationUnreadCounterService unreadCounterService;
+    private final NotificationTemplateRegistry templateRegistry;
 
     // Date formatters for consistent date formatting in notifications
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm, dd/MM/yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    // Upper bound for one inbox page
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+
+    // Stop merging into a notification once its message gets this long
+    private static final int MAX_MERGED_MESSAGE_LENGTH = 16000;
+
+    // Repeated notifications of these types for the same recipient are merged within the window
+    @Value("${notification.digest.merge-types:VACCINATION_FORM_REMINDER,VACCINATION_CAMPAIGN_REMINDER,HEALTH_CHECK_CAMPAIGN_COMPLETION_REMINDER,CAMPAIGN_APPROVAL_REMINDER}")
+    private Set<String> digestMergeTypes;
+
+    // 0 disables merging
+    @Value("${notification.digest.merge-window-minutes:0}")
+    private long digestMergeWindowMinutes;
 
     /**
      * Format LocalDate to dd/MM/yyyy
@@ -48,6 +85,81 @@ public class NotificationService implements INotificationService {
         return dateTime != null ? dateTime.format(DATETIME_FORMATTER) : "N/A";
     }
 
+    /**
+     * Persist a new notification and count it towards the recipient's unread badge
+     */
+    private Notification saveNotification(Notification notification) {
+        Notification merged = mergeIntoRecentNotification(notification);
+        if (merged != null) {
+            return merged;
+        }
+
+        Notification saved = notificationRepository.save(notification);
+        if (!saved.isRead()) {
+            unreadCounterService.onNotificationCreated(saved.getRecipient());
+        }
+        return saved;
+    }
+
+    /**
+     * Merge a repeated event into the recipient's latest unread notification of the same type
+     * when it was created within the digest window and points at the same records.
+     * The merged message is saved as a new row, so it gets a new id and moves to the top of the inbox
+     * with the newest message first; clients resuming a stream from Last-Event-ID would skip the old id.
+     * The old row is removed, which leaves the recipient's unread count unchanged; its id is kept in
+     * replacesNotificationId so clients holding it can drop the older copy when the merged one arrives.
+     * @return The merged notification, or null if a new notification should be saved
+     */
+    private Notification mergeIntoRecentNotification(Notification notification) {
+        if (digestMergeWindowMinutes <= 0 || notification.getId() != null || notification.getTemplateId() != null
+                || notification.getRecipient() == null || !digestMergeTypes.contains(notification.getNotificationType())) {
+            return null;
+        }
+
+        Notification recent = notificationRepository
+                .findFirstByRecipientAndNotificationTypeAndIsReadFalseAndCreatedAtAfterOrderByCreatedAtDesc(
+                        notification.getRecipient(), notification.getNotificationType(),
+                        LocalDateTime.now().minusMinutes(digestMergeWindowMinutes))
+                .orElse(null);
+        if (recent == null || recent.getTemplateId() != null || !hasSameLinks(recent, notification)
+                || recent.getMessage().length() + notification.getMessage().length() > MAX_MERGED_MESSAGE_LENGTH) {
+            return null;
+        }
+
+        notification.setMessage(notification.getMessage() + "<hr/>" + recent.getMessage());
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setReplacesNotificationId(recent.getId());
+        notificationRepository.delete(recent);
+        return notificationRepository.save(notification);
+    }
+
+    private static boolean hasSameLinks(Notification a, Notification b) {
+        return sameId(a.getVaccinationForm(), b.getVaccinationForm(), VaccinationForm::getId)
+                && sameId(a.getMedicationRequest(), b.getMedicationRequest(), MedicationRequest::getId)
+                && sameId(a.getMedicationSchedule(), b.getMedicationSchedule(), MedicationSchedule::getId)
+                && sameId(a.getMedicalEvent(), b.getMedicalEvent(), MedicalEvent::getId)
+                && sameId(a.getRestockRequest(), b.getRestockRequest(), RestockRequest::getId)
+                && sameId(a.getHealthCheckForm(), b.getHealthCheckForm(), HealthCheckForm::getId)
+                && Objects.equals(a.getHealthCheckFormIds(), b.getHealthCheckFormIds())
+                && sameId(a.getHealthCheckCampaign(), b.getHealthCheckCampaign(), HealthCheckCampaign::getId)
+                && sameId(a.getCampaignCompletionRequest(), b.getCampaignCompletionRequest(), CampaignCompletionRequest::getId);
+    }
+
+    private static <T> boolean sameId(T a, T b, Function<T, Long> idGetter) {
+        return Objects.equals(a != null ? idGetter.apply(a) : null, b != null ? idGetter.apply(b) : null);
+    }
+
+    /**
+     * Same as saveNotification but flushes immediately
+     */
+    private Notification saveAndFlushNotification(Notification notification) {
+        Notification saved = notificationRepository.saveAndFlush(notification);
+        if (!saved.isRead()) {
+            unreadCounterService.onNotificationCreated(saved.getRecipient());
+        }
+        return saved;
+    }
+
     /**
      * Create a new notification for medication request approval/rejection
      */
@@ -75,23 +187,19 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(parent);
         notification.setMedicationRequest(medicationRequest);
 
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
 
         // Convert to DTO
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
 
         try {
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             if (parent.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        parent.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(parent.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
             // Log the error but don't fail the entire transaction
-            System.err.println("Error sending WebSocket notification: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification: " + e.getMessage());
         }
 
         return notificationDTO;
@@ -125,23 +233,19 @@ public class NotificationService implements INotificationService {
         // Set health profile in notification (assuming there's a field for it)
         // If there's no field for health profile in Notification, you may need to add it
 
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
 
         // Convert to DTO
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
 
         try {
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             if (recipient.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        recipient.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(recipient.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
             // Log the error but don't fail the entire transaction
-            System.err.println("Error sending WebSocket notification: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification: " + e.getMessage());
         }
 
         return notificationDTO;
@@ -180,23 +284,19 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(parent);
         notification.setMedicationSchedule(medicationSchedule);
 
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
 
         // Convert to DTO
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
 
         try {
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             if (parent.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        parent.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(parent.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
             // Log the error but don't fail the entire transaction
-            System.err.println("Error sending WebSocket notification: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification: " + e.getMessage());
         }
 
         return notificationDTO;
@@ -236,35 +336,34 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(parent);
         notification.setMedicalEvent(medicalEvent);
 
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
 
         // Convert to DTO
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
 
         try {
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             if (parent.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        parent.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(parent.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
             // Log the error but don't fail the entire transaction
-            System.err.println("Error sending WebSocket notification: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification: " + e.getMessage());
         }
 
         return notificationDTO;
     }
 
     /**
-     * Get all notifications for a user
+     * Get all notifications for a user that are still in the inbox
+     * Archived notifications are only returned through the cursor-paginated inbox
      */
     @Override
+    @Transactional(readOnly = true)
     public List<NotificationDTO> getAllNotificationsForUser(User user) {
         List<Notification> notifications = notificationRepository.findByRecipientOrderByCreatedAtDesc(user);
-        return notifications.stream()
+        Map<Long, String> messages = templateRegistry.resolveMessages(notifications);
+        List<NotificationDTO> hot = notifications.stream()
                 .map(notification -> {
                     // Debug for specific notification type
                     if ("CAMPAIGN_COMPLETION_REQUEST".equals(notification.getNotificationType())) {
@@ -273,19 +372,22 @@ public class NotificationService implements INotificationService {
                                          (notification.getCampaignCompletionRequest() != null ? 
                                           notification.getCampaignCompletionRequest().getId() : "NULL"));
                     }
-                    return convertToDTO(notification);
+                    return convertToDTO(notification, messages);
                 })
                 .collect(Collectors.toList());
+        return hot;
     }
 
     /**
-     * Get all notifications for a user with limit
+     * Get the newest inbox notifications for a user with limit
      */
     @Override
+    @Transactional(readOnly = true)
     public List<NotificationDTO> getAllNotificationsForUser(User user, int limit) {
         List<Notification> notifications = notificationRepository.findByRecipientOrderByCreatedAtDesc(user,
                 PageRequest.of(0, limit));
-        return notifications.stream()
+        Map<Long, String> messages = templateRegistry.resolveMessages(notifications);
+        List<NotificationDTO> hot = notifications.stream()
                 .map(notification -> {
                     // Debug for specific notification type
                     if ("CAMPAIGN_COMPLETION_REQUEST".equals(notification.getNotificationType())) {
@@ -294,9 +396,10 @@ public class NotificationService implements INotificationService {
                                          (notification.getCampaignCompletionRequest() != null ? 
                                           notification.getCampaignCompletionRequest().getId() : "NULL"));
                     }
-                    return convertToDTO(notification);
+                    return convertToDTO(notification, messages);
                 })
                 .collect(Collectors.toList());
+        return hot;
     }
 
     /**
@@ -304,7 +407,9 @@ public class NotificationService implements INotificationService {
      */
     @Override
     public List<NotificationDTO> getUnreadNotificationsForUser(User user) {
-        return notificationRepository.findByRecipientAndIsReadFalse(user)
+        List<Notification> notifications = notificationRepository.findByRecipientAndIsReadFalse(user);
+        Map<Long, String> messages = templateRegistry.resolveMessages(notifications);
+        return notifications
                 .stream()
                 .map(notification -> {
                     // Debug for specific notification type
@@ -314,7 +419,7 @@ public class NotificationService implements INotificationService {
                                          (notification.getCampaignCompletionRequest() != null ? 
                                           notification.getCampaignCompletionRequest().getId() : "NULL"));
                     }
-                    return convertToDTO(notification);
+                    return convertToDTO(notification, messages);
                 })
                 .collect(Collectors.toList());
     }
@@ -333,21 +438,60 @@ public class NotificationService implements INotificationService {
             throw new RuntimeException("Unauthorized access to notification");
         }
 
-        notification.setRead(true);
-        return convertToDTO(notificationRepository.save(notification));
+        if (!notification.isRead()) {
+            notification.setRead(true);
+            notification = notificationRepository.save(notification);
+            unreadCounterService.onNotificationsRead(user, 1);
+        }
+        return convertToDTO(notification);
     }
 
     /**
-     * Mark all notifications as read for a user
+     * Mark all notifications as read for a user with a single UPDATE
      */
     @Transactional
     @Override
-    public void markAllNotificationsAsRead(User user) {
-        List<Notification> unreadNotifications = notificationRepository
-                .findByRecipientAndIsReadFalse(user);
+    public int markAllNotificationsAsRead(User user) {
+        int updated = notificationRepository.markAllAsRead(user.getId());
+        unreadCounterService.onAllNotificationsRead(user);
+        return updated;
+    }
 
-        unreadNotifications.forEach(notification -> notification.setRead(true));
-        notificationRepository.saveAll(unreadNotifications);
+    /**
+     * Mark all notifications of one type as read with a single UPDATE
+     */
+    @Transactional
+    @Override
+    public int markNotificationsAsReadByType(User user, String notificationType) {
+        int updated = notificationRepository.markAsReadByType(user.getId(), notificationType);
+        unreadCounterService.onNotificationsRead(user, updated);
+        return updated;
+    }
+
+    /**
+     * Mark all notifications of a health check campaign as read with a single UPDATE
+     */
+    @Transactional
+    @Override
+    public int markNotificationsAsReadByCampaign(User user, Long campaignId) {
+        int updated = notificationRepository.markAsReadByHealthCheckCampaign(user.getId(), campaignId);
+        unreadCounterService.onNotificationsRead(user, updated);
+        return updated;
+    }
+
+    /**
+     * Delete notifications created before the given date with a single DELETE per table (inbox and archive)
+     */
+    @Transactional
+    @Override
+    public int deleteNotificationsOlderThan(User user, LocalDate olderThan) {
+        int deleted = notificationRepository.deleteByRecipientOlderThan(user.getId(), olderThan.atStartOfDay())
+                + notificationArchiveRepository.deleteByRecipientOlderThan(user.getId(), olderThan.atStartOfDay());
+        if (deleted > 0) {
+            // Deleted rows may have been unread, rebuild the badge count on next read
+            unreadCounterService.evict(user);
+        }
+        return deleted;
     }
 
     /**
@@ -355,7 +499,83 @@ public class NotificationService implements INotificationService {
      */
     @Override
     public long getUnreadNotificationCount(User user) {
-        return notificationRepository.countByRecipientAndIsReadFalse(user);
+        return unreadCounterService.getUnreadCount(user);
+    }
+
+    /**
+     * Get one page of the inbox ordered by (createdAt, id) descending.
+     * Fetches limit + 1 rows to know whether another page exists.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationInboxPageDTO getInboxPage(User user, String before, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_INBOX_PAGE_SIZE));
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        LocalDateTime beforeCreatedAt = null;
+        Long beforeId = null;
+        if (before != null && !before.isBlank()) {
+            int separator = before.lastIndexOf(',');
+            if (separator <= 0) {
+                throw new BadRequestException("Invalid cursor, expected 'createdAt,id'");
+            }
+            try {
+                beforeCreatedAt = LocalDateTime.parse(before.substring(0, separator).trim());
+                beforeId = Long.parseLong(before.substring(separator + 1).trim());
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor, expected 'createdAt,id'");
+            }
+        }
+
+        List<NotificationSummaryDTO> rows = beforeCreatedAt == null
+                ? notificationRepository.findInboxFirstPage(user.getId(), page)
+                : notificationRepository.findInboxPageBefore(user.getId(), beforeCreatedAt, beforeId, page);
+
+        // Archived rows can be newer than the tail of a full hot page, so read both tables with the same cursor
+        List<NotificationSummaryDTO> archived = beforeCreatedAt == null
+                ? notificationArchiveRepository.findInboxFirstPage(user.getId(), page)
+                : notificationArchiveRepository.findInboxPageBefore(user.getId(), beforeCreatedAt, beforeId, page);
+        if (!archived.isEmpty()) {
+            List<NotificationSummaryDTO> merged = new ArrayList<>(rows.size() + archived.size());
+            merged.addAll(rows);
+            merged.addAll(archived);
+            merged.sort(Comparator.comparing(NotificationSummaryDTO::getCreatedAt)
+                    .thenComparing(NotificationSummaryDTO::getId)
+                    .reversed());
+            rows = merged.size() > pageSize + 1 ? merged.subList(0, pageSize + 1) : merged;
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationSummaryDTO> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            NotificationSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = last.getCreatedAt() + "," + last.getId();
+        }
+        return new NotificationInboxPageDTO(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Load a single notification with its associations when the user opens it
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationDTO getNotificationDetail(Long notificationId, User user) {
+        Notification notification = notificationRepository.findByIdWithAssociations(notificationId).orElse(null);
+        if (notification == null) {
+            // Older read notifications may have been moved to the archive
+            NotificationArchive archived = notificationArchiveRepository.findByIdAndRecipientId(notificationId, user.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
+            NotificationDTO dto = NotificationMapper.toDTO(archived);
+            dto.setMessage(templateRegistry.resolveMessage(archived));
+            return dto;
+        }
+
+        // Do not reveal notifications that belong to other users
+        if (!notification.getRecipient().getId().equals(user.getId())) {
+            throw new ResourceNotFoundException("Notification not found");
+        }
+        return convertToDTO(notification);
     }
 
     /**
@@ -386,23 +606,19 @@ public class NotificationService implements INotificationService {
         // Set health profile in notification (assuming there's a field for it)
         // If there's no field for health profile in Notification, you may need to add it
 
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
 
         // Convert to DTO
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
 
         try {
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             if (recipient.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        recipient.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(recipient.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
             // Log the error but don't fail the entire transaction
-            System.err.println("Error sending WebSocket notification: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification: " + e.getMessage());
         }
 
         return notificationDTO;
@@ -432,20 +648,14 @@ public class NotificationService implements INotificationService {
     }
 
     /**
-     * Helper method to send WebSocket notification
+     * Helper method to queue WebSocket notification
      */
     private void sendWebSocketNotification(Notification notification) {
         try {
-            NotificationDTO notificationDTO = convertToDTO(notification);
-            System.out.println("Sending WebSocket notification to user: " + notification.getRecipient().getUsername());
-            messagingTemplate.convertAndSendToUser(
-                    notification.getRecipient().getUsername(),
-                    "/queue/notifications",
-                    notificationDTO
-            );
-            System.out.println("WebSocket notification sent successfully");
+            System.out.println("Queueing WebSocket notification to user: " + notification.getRecipient().getUsername());
+            notificationOutboxService.enqueue(notification.getRecipient().getUsername(), notification.getId());
         } catch (Exception e) {
-            System.err.println("Failed to send WebSocket notification: " + e.getMessage());
+            System.err.println("Failed to queue WebSocket notification: " + e.getMessage());
             e.printStackTrace();
         }
     }
@@ -455,56 +665,17 @@ public class NotificationService implements INotificationService {
      */
     @Override
     public NotificationDTO convertToDTO(Notification notification) {
-        NotificationDTO dto = new NotificationDTO();
-        dto.setId(notification.getId());
-        dto.setTitle(notification.getTitle());
-        dto.setMessage(notification.getMessage());
-        dto.setCreatedAt(notification.getCreatedAt());
-        dto.setRead(notification.isRead());
-        dto.setNotificationType(notification.getNotificationType());
-        dto.setConfirm(notification.getConfirm());
-
-        if (notification.getRecipient() != null) {
-            dto.setRecipientId(notification.getRecipient().getId());
-        }
-
-        if (notification.getMedicationRequest() != null) {
-            dto.setMedicationRequestId(notification.getMedicationRequest().getId());
-        }
-
-        if (notification.getMedicationSchedule() != null) {
-            dto.setMedicationScheduleId(notification.getMedicationSchedule().getId());
-        }
-
-        if (notification.getMedicalEvent() != null) {
-            dto.setMedicalEventId(notification.getMedicalEvent().getId());
-        }
-        
-        if (notification.getVaccinationForm() != null) {
-            dto.setVaccinationFormId(notification.getVaccinationForm().getId());
-        }
-        
-        if (notification.getRestockRequest() != null) {
-            dto.setRestockRequestId(notification.getRestockRequest().getId());
-        }
-        
-        if (notification.getCampaignCompletionRequest() != null) {
-            System.out.println("DEBUG: convertToDTO - notification.getCampaignCompletionRequest() is NOT null");
-            System.out.println("DEBUG: convertToDTO - notification.getCampaignCompletionRequest().getId() = " + notification.getCampaignCompletionRequest().getId());
-            dto.setCampaignCompletionRequestId(notification.getCampaignCompletionRequest().getId());
-            System.out.println("DEBUG: convertToDTO - dto.getCampaignCompletionRequestId() = " + dto.getCampaignCompletionRequestId());
-        } else {
-            System.out.println("DEBUG: convertToDTO - notification.getCampaignCompletionRequest() is NULL");
-        }
-
-        if (notification.getHealthCheckForm() != null) {
-            dto.setHealthCheckFormId(notification.getHealthCheckForm().getId());
-        }
-
-        if (notification.getHealthCheckCampaign() != null) {
-            dto.setHealthCheckCampaignId(notification.getHealthCheckCampaign().getId());
-        }
+        NotificationDTO dto = NotificationMapper.toDTO(notification);
+        dto.setMessage(templateRegistry.resolveMessage(notification));
+        return dto;
+    }
 
+    /**
+     * Same as convertToDTO(Notification) with the message taken from a batch resolved by the template registry
+     */
+    private NotificationDTO convertToDTO(Notification notification, Map<Long, String> messages) {
+        NotificationDTO dto = NotificationMapper.toDTO(notification);
+        dto.setMessage(messages.get(notification.getId()));
         return dto;
     }
 
@@ -699,19 +870,15 @@ public class NotificationService implements INotificationService {
         notification.setConfirm(null); // Initially null, will be set to true/false when parent responds
         notification.setVaccinationForm(vaccinationForm);
 
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
 
         try {
             if (recipient.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        recipient.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(recipient.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification: " + e.getMessage());
         }
 
         return notificationDTO;
@@ -727,23 +894,19 @@ public class NotificationService implements INotificationService {
         notification.setNotificationType(notificationType);
         notification.setRecipient(recipient);
 
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
 
         // Convert to DTO
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
 
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (recipient.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        recipient.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(recipient.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
             // Log the error but don't fail the entire transaction
-            System.err.println("Error sending WebSocket notification: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification: " + e.getMessage());
         }
 
         return notificationDTO;
@@ -789,26 +952,22 @@ public class NotificationService implements INotificationService {
             notification.setRecipient(manager);
             notification.setRestockRequest(restockRequest);
             
-            Notification savedNotification = notificationRepository.save(notification);
+            Notification savedNotification = saveNotification(notification);
             NotificationDTO notificationDTO = convertToDTO(savedNotification);
             
             System.out.println("NotificationService: Saved notification ID: " + savedNotification.getId() + " for manager ID: " + manager.getId());
             
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             try {
                 if (manager.getUsername() != null) {
-                    System.out.println("NotificationService: Sending WebSocket message to user: " + manager.getUsername());
-                    messagingTemplate.convertAndSendToUser(
-                            manager.getUsername(),
-                            "/queue/notifications",
-                            notificationDTO
-                    );
-                    System.out.println("NotificationService: WebSocket message sent successfully to: " + manager.getUsername());
+                    System.out.println("NotificationService: Queueing WebSocket message to user: " + manager.getUsername());
+                    notificationOutboxService.enqueue(manager.getUsername(), notificationDTO.getId());
+                    System.out.println("NotificationService: WebSocket message queued to: " + manager.getUsername());
                 } else {
                     System.out.println("NotificationService: Cannot send WebSocket message - username is null for manager ID: " + manager.getId());
                 }
             } catch (Exception e) {
-                System.err.println("Error sending WebSocket notification to manager: " + e.getMessage());
+                System.err.println("Error queueing WebSocket notification to manager: " + e.getMessage());
                 e.printStackTrace();
             }
         }
@@ -853,26 +1012,22 @@ public class NotificationService implements INotificationService {
             notification.setRecipient(nurse);
             notification.setMedicationRequest(medicationRequest);
             
-            Notification savedNotification = notificationRepository.save(notification);
+            Notification savedNotification = saveNotification(notification);
             NotificationDTO notificationDTO = convertToDTO(savedNotification);
             
             System.out.println("NotificationService: Saved notification ID: " + savedNotification.getId() + " for nurse ID: " + nurse.getId());
             
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             try {
                 if (nurse.getUsername() != null) {
-                    System.out.println("NotificationService: Sending WebSocket message to nurse: " + nurse.getUsername());
-                    messagingTemplate.convertAndSendToUser(
-                            nurse.getUsername(),
-                            "/queue/notifications",
-                            notificationDTO
-                    );
-                    System.out.println("NotificationService: WebSocket message sent successfully to nurse: " + nurse.getUsername());
+                    System.out.println("NotificationService: Queueing WebSocket message to nurse: " + nurse.getUsername());
+                    notificationOutboxService.enqueue(nurse.getUsername(), notificationDTO.getId());
+                    System.out.println("NotificationService: WebSocket message queued to nurse: " + nurse.getUsername());
                 } else {
                     System.out.println("NotificationService: Cannot send WebSocket message - username is null for nurse ID: " + nurse.getId());
                 }
             } catch (Exception e) {
-                System.err.println("Error sending WebSocket notification to nurse " + nurse.getId() + ": " + e.getMessage());
+                System.err.println("Error queueing WebSocket notification to nurse " + nurse.getId() + ": " + e.getMessage());
             }
         }
     }
@@ -904,20 +1059,16 @@ public class NotificationService implements INotificationService {
             parentNotification.setRecipient(medicationRequest.getParent());
             parentNotification.setMedicationRequest(medicationRequest);
             
-            Notification savedParentNotification = notificationRepository.save(parentNotification);
+            Notification savedParentNotification = saveNotification(parentNotification);
             NotificationDTO parentNotificationDTO = convertToDTO(savedParentNotification);
             
             // Send real-time notification to parent
             try {
                 if (medicationRequest.getParent().getUsername() != null) {
-                    messagingTemplate.convertAndSendToUser(
-                            medicationRequest.getParent().getUsername(),
-                            "/queue/notifications",
-                            parentNotificationDTO
-                    );
+                    notificationOutboxService.enqueue(medicationRequest.getParent().getUsername(), parentNotificationDTO.getId());
                 }
             } catch (Exception e) {
-                System.err.println("Error sending WebSocket notification to parent: " + e.getMessage());
+                System.err.println("Error queueing WebSocket notification to parent: " + e.getMessage());
             }
         }
         
@@ -943,20 +1094,16 @@ public class NotificationService implements INotificationService {
             nurseNotification.setRecipient(nurse);
             nurseNotification.setMedicationRequest(medicationRequest);
             
-            Notification savedNurseNotification = notificationRepository.save(nurseNotification);
+            Notification savedNurseNotification = saveNotification(nurseNotification);
             NotificationDTO nurseNotificationDTO = convertToDTO(savedNurseNotification);
             
             // Send real-time notification to nurse
             try {
                 if (nurse.getUsername() != null) {
-                    messagingTemplate.convertAndSendToUser(
-                            nurse.getUsername(),
-                            "/queue/notifications",
-                            nurseNotificationDTO
-                    );
+                    notificationOutboxService.enqueue(nurse.getUsername(), nurseNotificationDTO.getId());
                 }
             } catch (Exception e) {
-                System.err.println("Error sending WebSocket notification to nurse " + nurse.getId() + ": " + e.getMessage());
+                System.err.println("Error queueing WebSocket notification to nurse " + nurse.getId() + ": " + e.getMessage());
             }
         }
     }
@@ -993,20 +1140,16 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(nurse);
         notification.setRestockRequest(restockRequest);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
         
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (nurse.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        nurse.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(nurse.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to nurse: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to nurse: " + e.getMessage());
         }
     }
     
@@ -1044,20 +1187,16 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(nurse);
         notification.setRestockRequest(restockRequest);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
         
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (nurse.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        nurse.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(nurse.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to nurse: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to nurse: " + e.getMessage());
         }
     }
     
@@ -1105,20 +1244,16 @@ public class NotificationService implements INotificationService {
             notification.setRecipient(manager);
             notification.setHealthCheckCampaign(campaign);
             
-            Notification savedNotification = notificationRepository.save(notification);
+            Notification savedNotification = saveNotification(notification);
             NotificationDTO notificationDTO = convertToDTO(savedNotification);
             
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             try {
                 if (manager.getUsername() != null) {
-                    messagingTemplate.convertAndSendToUser(
-                            manager.getUsername(),
-                            "/queue/notifications",
-                            notificationDTO
-                    );
+                    notificationOutboxService.enqueue(manager.getUsername(), notificationDTO.getId());
                 }
             } catch (Exception e) {
-                System.err.println("Error sending WebSocket notification to manager: " + e.getMessage());
+                System.err.println("Error queueing WebSocket notification to manager: " + e.getMessage());
             }
         }
     }
@@ -1155,7 +1290,7 @@ public class NotificationService implements INotificationService {
                 // Make sure to set the completion request reference properly
                 notification.setCampaignCompletionRequest(request);
                 
-                Notification savedNotification = notificationRepository.saveAndFlush(notification);
+                Notification savedNotification = saveAndFlushNotification(notification);
                 
                 // Send WebSocket notification - directly create DTO with manual fields
                 NotificationDTO notificationDTO = new NotificationDTO();
@@ -1177,11 +1312,7 @@ public class NotificationService implements INotificationService {
                 }
                 
                 if (manager.getUsername() != null) {
-                    messagingTemplate.convertAndSendToUser(
-                            manager.getUsername(),
-                            "/queue/notifications",
-                            notificationDTO
-                    );
+                    notificationOutboxService.enqueue(manager.getUsername(), notificationDTO.getId());
                     System.out.println("DEBUG: NotificationService - Sent WebSocket notification to manager: " + manager.getUsername());
                 }
             } catch (Exception e) {
@@ -1215,20 +1346,16 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(nurse);
         notification.setHealthCheckCampaign(campaign);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
         
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (nurse.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        nurse.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(nurse.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to nurse: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to nurse: " + e.getMessage());
         }
     }
     
@@ -1259,20 +1386,16 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(nurse);
         notification.setHealthCheckCampaign(campaign);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
         
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (nurse.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        nurse.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(nurse.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to nurse: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to nurse: " + e.getMessage());
         }
     }
     
@@ -1308,20 +1431,16 @@ public class NotificationService implements INotificationService {
             notification.setRecipient(manager);
             notification.setHealthCheckCampaign(campaign);
             
-            Notification savedNotification = notificationRepository.save(notification);
+            Notification savedNotification = saveNotification(notification);
             NotificationDTO notificationDTO = convertToDTO(savedNotification);
             
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             try {
                 if (manager.getUsername() != null) {
-                    messagingTemplate.convertAndSendToUser(
-                            manager.getUsername(),
-                            "/queue/notifications",
-                            notificationDTO
-                    );
+                    notificationOutboxService.enqueue(manager.getUsername(), notificationDTO.getId());
                 }
             } catch (Exception e) {
-                System.err.println("Error sending WebSocket notification to manager: " + e.getMessage());
+                System.err.println("Error queueing WebSocket notification to manager: " + e.getMessage());
             }
         }
     }
@@ -1357,20 +1476,16 @@ public class NotificationService implements INotificationService {
             notification.setRecipient(manager);
             notification.setHealthCheckCampaign(campaign);
             
-            Notification savedNotification = notificationRepository.save(notification);
+            Notification savedNotification = saveNotification(notification);
             NotificationDTO notificationDTO = convertToDTO(savedNotification);
             
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             try {
                 if (manager.getUsername() != null) {
-                    messagingTemplate.convertAndSendToUser(
-                            manager.getUsername(),
-                            "/queue/notifications",
-                            notificationDTO
-                    );
+                    notificationOutboxService.enqueue(manager.getUsername(), notificationDTO.getId());
                 }
             } catch (Exception e) {
-                System.err.println("Error sending WebSocket notification to manager: " + e.getMessage());
+                System.err.println("Error queueing WebSocket notification to manager: " + e.getMessage());
             }
         }
     }
@@ -1415,20 +1530,16 @@ public class NotificationService implements INotificationService {
         notification.setHealthCheckCampaign(campaign);
         notification.setHealthCheckForm(healthCheckForm);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
         
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (parent.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        parent.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(parent.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to parent: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to parent: " + e.getMessage());
         }
         
         return notificationDTO;
@@ -1467,20 +1578,16 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(parent);
         notification.setHealthCheckCampaign(campaign);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
         
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (parent.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        parent.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(parent.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to parent: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to parent: " + e.getMessage());
         }
         
         return notificationDTO;
@@ -1520,20 +1627,16 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(parent);
         notification.setHealthCheckCampaign(campaign);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
         
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (parent.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        parent.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(parent.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to parent: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to parent: " + e.getMessage());
         }
         
         return notificationDTO;
@@ -1563,20 +1666,16 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(nurse);
         notification.setHealthCheckCampaign(campaign);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
         
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (nurse.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        nurse.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(nurse.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to nurse: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to nurse: " + e.getMessage());
         }
     }
     
@@ -1603,7 +1702,7 @@ public class NotificationService implements INotificationService {
             notification.setRecipient(nurse);
             notification.setCampaignCompletionRequest(request);
             
-            Notification savedNotification = notificationRepository.saveAndFlush(notification);
+            Notification savedNotification = saveAndFlushNotification(notification);
             System.out.println("DEBUG: Saved approval notification ID: " + savedNotification.getId());
             
             // Send WebSocket notification - directly create DTO
@@ -1619,11 +1718,7 @@ public class NotificationService implements INotificationService {
             notificationDTO.setCampaignCompletionRequestId(request.getId());
             
             if (nurse.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        nurse.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(nurse.getUsername(), notificationDTO.getId());
                 System.out.println("DEBUG: Sent approval WebSocket notification to nurse: " + nurse.getUsername());
             }
         } catch (Exception e) {
@@ -1663,20 +1758,16 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(parent);
         notification.setHealthCheckCampaign(campaign);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
         
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (parent.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        parent.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(parent.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to parent: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to parent: " + e.getMessage());
         }
     }
 
@@ -1702,20 +1793,16 @@ public class NotificationService implements INotificationService {
         parentNotification.setHealthCheckCampaign(campaign);
         parentNotification.setHealthCheckForm(form);
         
-        Notification savedParentNotification = notificationRepository.save(parentNotification);
+        Notification savedParentNotification = saveNotification(parentNotification);
         NotificationDTO parentNotificationDTO = convertToDTO(savedParentNotification);
         
         // Send real-time notification to parent
         try {
             if (parent.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        parent.getUsername(),
-                        "/queue/notifications",
-                        parentNotificationDTO
-                );
+                notificationOutboxService.enqueue(parent.getUsername(), parentNotificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to parent: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to parent: " + e.getMessage());
         }
 
         // 2. Send notification to school nurse about parent's response
@@ -1745,20 +1832,16 @@ public class NotificationService implements INotificationService {
             nurseNotification.setHealthCheckCampaign(campaign);
             nurseNotification.setHealthCheckForm(form);
             
-            Notification savedNurseNotification = notificationRepository.save(nurseNotification);
+            Notification savedNurseNotification = saveNotification(nurseNotification);
             NotificationDTO nurseNotificationDTO = convertToDTO(savedNurseNotification);
             
             // Send real-time notification to nurse
             try {
                 if (nurse.getUsername() != null) {
-                    messagingTemplate.convertAndSendToUser(
-                            nurse.getUsername(),
-                            "/queue/notifications",
-                            nurseNotificationDTO
-                    );
+                    notificationOutboxService.enqueue(nurse.getUsername(), nurseNotificationDTO.getId());
                 }
             } catch (Exception e) {
-                System.err.println("Error sending WebSocket notification to nurse: " + e.getMessage());
+                System.err.println("Error queueing WebSocket notification to nurse: " + e.getMessage());
             }
         }
     }
@@ -1782,20 +1865,16 @@ public class NotificationService implements INotificationService {
         notification.setHealthCheckCampaign(campaign);
         notification.setHealthCheckForm(form);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
         
-        // Send real-time notification via WebSocket
+        // Queue real-time notification for delivery after commit
         try {
             if (parent.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        parent.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(parent.getUsername(), notificationDTO.getId());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification to parent: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification to parent: " + e.getMessage());
         }
     }
     
@@ -1822,7 +1901,7 @@ public class NotificationService implements INotificationService {
             notification.setRecipient(nurse);
             notification.setCampaignCompletionRequest(request);
             
-            Notification savedNotification = notificationRepository.saveAndFlush(notification);
+            Notification savedNotification = saveAndFlushNotification(notification);
             System.out.println("DEBUG: Saved rejection notification ID: " + savedNotification.getId());
             
             // Send WebSocket notification - directly create DTO
@@ -1838,11 +1917,7 @@ public class NotificationService implements INotificationService {
             notificationDTO.setCampaignCompletionRequestId(request.getId());
             
             if (nurse.getUsername() != null) {
-                messagingTemplate.convertAndSendToUser(
-                        nurse.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(nurse.getUsername(), notificationDTO.getId());
                 System.out.println("DEBUG: Sent rejection WebSocket notification to nurse: " + nurse.getUsername());
             }
         } catch (Exception e) {
@@ -1886,7 +1961,7 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(nurse);
         notification.setHealthCheckCampaign(campaign);
         
-        notificationRepository.save(notification);
+        saveNotification(notification);
     }
     
     /**
@@ -1915,22 +1990,18 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(manager);
         notification.setHealthCheckCampaign(campaign);
 
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
 
         try {
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             if (manager.getUsername() != null) {
                 NotificationDTO notificationDTO = convertToDTO(savedNotification);
-                messagingTemplate.convertAndSendToUser(
-                        manager.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(manager.getUsername(), notificationDTO.getId());
                 System.out.println("Manager approval reminder sent to: " + manager.getUsername() + 
                                  " for campaign: " + campaign.getName());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification for manager approval reminder: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification for manager approval reminder: " + e.getMessage());
         }
     }
 
@@ -1960,99 +2031,70 @@ public class NotificationService implements INotificationService {
         notification.setRecipient(creator);
         notification.setHealthCheckCampaign(campaign);
 
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(notification);
 
         try {
-            // Send real-time notification via WebSocket
+            // Queue real-time notification for delivery after commit
             if (creator.getUsername() != null) {
                 NotificationDTO notificationDTO = convertToDTO(savedNotification);
-                messagingTemplate.convertAndSendToUser(
-                        creator.getUsername(),
-                        "/queue/notifications",
-                        notificationDTO
-                );
+                notificationOutboxService.enqueue(creator.getUsername(), notificationDTO.getId());
                 System.out.println("Auto-rejection notification sent to: " + creator.getUsername() + 
                                  " for campaign: " + campaign.getName());
             }
         } catch (Exception e) {
-            System.err.println("Error sending WebSocket notification for auto-rejection: " + e.getMessage());
+            System.err.println("Error queueing WebSocket notification for auto-rejection: " + e.getMessage());
         }
     }
 
     /**
      * Send health check schedule notification to parents
+     * Notifications are built in memory and written through the batched fan-out engine
      */
     @Transactional
+    @Override
     public void notifyParentsAboutHealthCheckSchedule(HealthCheckCampaign campaign) {
         // Get all confirmed health check forms for this campaign
         List<HealthCheckForm> confirmedForms = healthCheckFormRepository
-                .findByCampaignAndStatus(campaign, FormStatus.CONFIRMED);
+                .findForNotificationByCampaignAndStatus(campaign, FormStatus.CONFIRMED);
         
         if (confirmedForms.isEmpty()) {
             System.out.println("No confirmed forms found for campaign: " + campaign.getName());
             return;
         }
         
-        // Get time slot text in Vietnamese
-        String timeSlotText = getTimeSlotText(campaign.getTimeSlot());
-        
-        // Send notification to each parent
+        // Exam order and appointment were planned on the forms when the campaign was scheduled
+        List<Notification> notifications = new ArrayList<>(confirmedForms.size());
         for (HealthCheckForm form : confirmedForms) {
             User parent = form.getParent();
             Student student = form.getStudent();
             
-            // Create detailed schedule message
-            String title = "LỊCH KHÁM SỨC KHỎE - " + student.getFullName().toUpperCase();
-            String message = String.format(
-                "<p><strong>Thân gửi Quý phụ huynh,</strong></p>" +
-                "<p>Nhà trường thông báo lịch khám sức khỏe của đợt khám \"<strong>%s</strong>\".</p>" +
-                "<h4 style='margin-top: 0; color: #007bff;'>Thông tin lịch khám:</h4>" +
-                "<ul style='margin: 10px 0;'>" +
-                "<li><strong>Thời gian:</strong> %s</li>" +
-                "<li><strong>Ngày giờ cụ thể:</strong> %s %s</li>" +
-                "<li><strong>Địa điểm:</strong> %s</li>" +
-                "<li><strong>Thứ tự khám:</strong> %d</li>" +
-                "<li><strong>Học sinh:</strong> %s - Lớp %s</li>" +
-                "</ul>" +
-                "%s" +
-                "<p>Xin vui lòng chuẩn bị đầy đủ thông tin sức khỏe cơ bản và đưa học sinh đến đúng giờ.</p>" +
-                "<p><em>Trân trọng,<br>Ban Giám hiệu</em></p>",
-                campaign.getName(),
-                timeSlotText,
-                formatDate(campaign.getStartDate()),
-                getTimeSlotTimeText(campaign.getTimeSlot()),
-                campaign.getLocation(),
-                getStudentOrder(confirmedForms, student),
-                student.getFullName(),
-                student.getClassName(),
-                campaign.getScheduleNotes() != null ? "<p><strong>Lưu ý:</strong> " + campaign.getScheduleNotes() + "</p>" : ""
-            );
-            
+            // Schedule message is stored as template parameters and rendered on read
+            Map<String, String> params = new LinkedHashMap<>();
+            params.put("campaignName", campaign.getName());
+            LocalDateTime appointment = form.getAppointmentTime();
+            params.put("timeSlot", getTimeSlotText(form.getExamSlot() != null ? form.getExamSlot() : campaign.getTimeSlot()));
+            params.put("date", formatDate(appointment != null ? appointment.toLocalDate() : campaign.getStartDate()));
+            params.put("time", appointment != null ? appointment.toLocalTime().format(TIME_FORMATTER) : "Chưa xác định");
+            params.put("location", form.getAppointmentLocation() != null ? form.getAppointmentLocation() : campaign.getLocation());
+            params.put("order", form.getExamOrder() != null ? String.valueOf(form.getExamOrder()) : "Chưa xác định");
+            params.put("studentName", student.getFullName());
+            params.put("className", student.getClassName());
+            params.put("notesBlock", campaign.getScheduleNotes() != null
+                    ? "<p><strong>Lưu ý:</strong> " + campaign.getScheduleNotes() + "</p>" : "");
+
             // Create notification
             Notification notification = new Notification();
-            notification.setTitle(title);
-            notification.setMessage(message);
+            notification.setTitle("LỊCH KHÁM SỨC KHỎE - " + student.getFullName().toUpperCase());
+            templateRegistry.apply(notification, NotificationTemplateRegistry.HEALTH_CHECK_SCHEDULE, params);
             notification.setNotificationType("HEALTH_CHECK_SCHEDULE");
             notification.setRecipient(parent);
             notification.setHealthCheckCampaign(campaign);
             notification.setHealthCheckForm(form);
-            
-            Notification savedNotification = notificationRepository.save(notification);
-            NotificationDTO notificationDTO = convertToDTO(savedNotification);
-            
-            // Send real-time notification via WebSocket
-            try {
-                if (parent.getUsername() != null) {
-                    messagingTemplate.convertAndSendToUser(
-                            parent.getUsername(),
-                            "/queue/notifications",
-                            notificationDTO
-                    );
-                }
-            } catch (Exception e) {
-                System.err.println("Error sending WebSocket notification to parent: " + e.getMessage());
-            }
+            notifications.add(notification);
         }
+        
+        // Batch insert and queue WebSocket delivery for after commit
+        notificationFanoutService.fanOut(notifications);
     }
     
     private String getTimeSlotText(TimeSlot timeSlot) {
@@ -2064,26 +2106,4 @@ public class NotificationService implements INotificationService {
             default: return "Chưa xác định";
         }
     }
-    
-    private String getTimeSlotTimeText(TimeSlot timeSlot) {
-        if (timeSlot == null) return "00:00";
-        switch (timeSlot) {
-            case MORNING: return "08:00";
-            case AFTERNOON: return "14:00";
-            case BOTH: return "08:00";
-            default: return "08:00";
-        }
-    }
-    
-    private int getStudentOrder(List<HealthCheckForm> forms, Student student) {
-        // Sort forms by student name and find the order
-        forms.sort((f1, f2) -> f1.getStudent().getFullName().compareTo(f2.getStudent().getFullName()));
-        for (int i = 0; i < forms.size(); i++) {
-            if (forms.get(i).getStudent().getStudentID().equals(student.getStudentID())) {
-                return i + 1;
-            }
-        }
-        return 1;
-    }
 }
-
@@ -0,0 +1,211 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Notification;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.NotificationRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationStreamService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.util.NotificationMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-Sent Events notification streams.
+ * Each event carries the notification id as its SSE id, so a reconnecting client that sends
+ * Last-Event-ID only receives the notifications it missed instead of refetching the inbox.
+ * Live events that arrive while a replay is running are held back and sent after it,
+ * keeping events in id order. Replays, pushes and keep-alives run on virtual threads.
+ */
+@Service
+@Slf4j
+public class NotificationStreamService implements INotificationStreamService {
+
+    public static final String NOTIFICATION_EVENT = "notification";
+    public static final String RESYNC_EVENT = "resync";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationTemplateRegistry templateRegistry;
+    private final TaskExecutor streamExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ConcurrentHashMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${notification.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notification.stream.replay-limit:200}")
+    private int replayLimit;
+
+    public NotificationStreamService(NotificationRepository notificationRepository,
+                                     NotificationTemplateRegistry templateRegistry,
+                                     @Qualifier("notificationStreamExecutor") TaskExecutor streamExecutor,
+                                     PlatformTransactionManager transactionManager) {
+        this.notificationRepository = notificationRepository;
+        this.templateRegistry = templateRegistry;
+        this.streamExecutor = streamExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public SseEmitter subscribe(User user, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(user.getUsername(), emitter, lastEventId != null);
+
+        subscribers.computeIfAbsent(user.getUsername(), u -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        if (lastEventId != null) {
+            streamExecutor.execute(() -> replay(user.getId(), lastEventId, subscriber));
+        }
+        return emitter;
+    }
+
+    @Override
+    public void publish(String username, List<NotificationDTO> notifications) {
+        Set<Subscriber> userSubscribers = subscribers.get(username);
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            streamExecutor.execute(() -> subscriber.deliver(notifications));
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies and drop clients that went away
+     */
+    @Scheduled(fixedDelayString = "${notification.stream.keep-alive-ms:25000}")
+    public void sendKeepAlive() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                streamExecutor.execute(subscriber::keepAlive);
+            }
+        }
+    }
+
+    private void replay(Long recipientId, Long lastEventId, Subscriber subscriber) {
+        try {
+            List<NotificationDTO> missed = readOnlyTransaction.execute(status -> {
+                List<Notification> notifications = notificationRepository.findByRecipientAfterId(
+                        recipientId, lastEventId, PageRequest.of(0, replayLimit + 1));
+                Map<Long, String> messages = templateRegistry.resolveMessages(notifications);
+                List<NotificationDTO> dtos = new ArrayList<>(notifications.size());
+                for (Notification notification : notifications) {
+                    NotificationDTO dto = NotificationMapper.toDTO(notification);
+                    dto.setMessage(messages.get(notification.getId()));
+                    dtos.add(dto);
+                }
+                return dtos;
+            });
+
+            boolean truncated = missed.size() > replayLimit;
+            subscriber.finishReplay(truncated ? missed.subList(0, replayLimit) : missed, truncated);
+        } catch (Exception e) {
+            log.warn("Notification stream replay failed for {}: {}", subscriber.username, e.getMessage());
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.username, (u, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * One open stream. Sends are serialized so replayed and live events never interleave.
+     */
+    private final class Subscriber {
+        private final String username;
+        private final SseEmitter emitter;
+        private final List<NotificationDTO> heldBack = new ArrayList<>();
+        private boolean replaying;
+
+        private Subscriber(String username, SseEmitter emitter, boolean replaying) {
+            this.username = username;
+            this.emitter = emitter;
+            this.replaying = replaying;
+        }
+
+        synchronized void deliver(List<NotificationDTO> notifications) {
+            if (replaying) {
+                heldBack.addAll(notifications);
+                return;
+            }
+            send(notifications);
+        }
+
+        synchronized void finishReplay(List<NotificationDTO> missed, boolean truncated) {
+            if (!send(missed)) {
+                return;
+            }
+            if (truncated) {
+                // Too far behind to replay everything, the client should reload its inbox
+                sendEvent(SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON));
+            }
+            replaying = false;
+
+            // Live events received during the replay, minus those the replay already covered
+            Set<Long> replayedIds = new HashSet<>();
+            for (NotificationDTO notification : missed) {
+                replayedIds.add(notification.getId());
+            }
+            List<NotificationDTO> pending = new ArrayList<>(heldBack.size());
+            for (NotificationDTO notification : heldBack) {
+                if (!replayedIds.contains(notification.getId())) {
+                    pending.add(notification);
+                }
+            }
+            heldBack.clear();
+            send(pending);
+        }
+
+        synchronized void keepAlive() {
+            sendEvent(SseEmitter.event().comment("keep-alive"));
+        }
+
+        private boolean send(List<NotificationDTO> notifications) {
+            for (NotificationDTO notification : notifications) {
+                if (!sendEvent(SseEmitter.event()
+                        .id(String.valueOf(notification.getId()))
+                        .name(NOTIFICATION_EVENT)
+                        .data(notification, MediaType.APPLICATION_JSON))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean sendEvent(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Notification;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.NotificationArchive;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.HealthCheckFormRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.util.NotificationMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of pre-parsed notification message templates.
+ * Campaign-wide notifications store only a template id and a small JSON parameter map
+ * instead of the fully rendered HTML. The message is rendered when the notification is
+ * read, and recently rendered bodies are kept in a small LRU cache.
+ * Rows without a template id keep using the stored message as before.
+ * The per-parent campaign digest stores only the ids of the linked forms; its list of
+ * children is looked up and rendered on read instead of being kept in the parameters.
+ * Lists of notifications go through resolveMessages, which looks up the children of every
+ * digest on the page with one query.
+ */
+@Component
+@Slf4j
+public class NotificationTemplateRegistry {
+
+    public static final String HEALTH_CHECK_SCHEDULE = "HEALTH_CHECK_SCHEDULE:v1";
+    public static final String HEALTH_CHECK_CAMPAIGN_INVITATION = "HEALTH_CHECK_CAMPAIGN:v1";
+    public static final String HEALTH_CHECK_CAMPAIGN_DIGEST = "HEALTH_CHECK_CAMPAIGN_DIGEST:v2";
+
+    private static final TypeReference<LinkedHashMap<String, String>> PARAMS_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final HealthCheckFormRepository healthCheckFormRepository;
+    private final Map<String, Template> templates = new HashMap<>();
+    private final Map<String, String> renderedCache;
+
+    public NotificationTemplateRegistry(ObjectMapper objectMapper,
+                                        HealthCheckFormRepository healthCheckFormRepository,
+                                        @Value("${notification.template.render-cache-size:1000}") int renderCacheSize) {
+        this.objectMapper = objectMapper;
+        this.healthCheckFormRepository = healthCheckFormRepository;
+        this.renderedCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > renderCacheSize;
+            }
+        });
+
+        register(HEALTH_CHECK_SCHEDULE,
+                "<p><strong>Thân gửi Quý phụ huynh,</strong></p>" +
+                "<p>Nhà trường thông báo lịch khám sức khỏe của đợt khám \"<strong>{campaignName}</strong>\".</p>" +
+                "<h4 style='margin-top: 0; color: #007bff;'>Thông tin lịch khám:</h4>" +
+                "<ul style='margin: 10px 0;'>" +
+                "<li><strong>Thời gian:</strong> {timeSlot}</li>" +
+                "<li><strong>Ngày giờ cụ thể:</strong> {date} {time}</li>" +
+                "<li><strong>Địa điểm:</strong> {location}</li>" +
+                "<li><strong>Thứ tự khám:</strong> {order}</li>" +
+                "<li><strong>Học sinh:</strong> {studentName} - Lớp {className}</li>" +
+                "</ul>" +
+                "{notesBlock}" +
+                "<p>Xin vui lòng chuẩn bị đầy đủ thông tin sức khỏe cơ bản và đưa học sinh đến đúng giờ.</p>" +
+                "<p><em>Trân trọng,<br>Ban Giám hiệu</em></p>");
+
+        register(HEALTH_CHECK_CAMPAIGN_INVITATION,
+                "Thân gửi Quý phụ huynh,\n" +
+                "Nhà trường thông báo về đợt khám sức khỏe \"{campaignName}\" sắp diễn ra.\n" +
+                "Đợt khám sẽ được tổ chức tại trường. Đây là cơ hội để các em học sinh được kiểm tra sức khỏe định kỳ, phát hiện sớm các vấn đề sức khỏe và nhận tư vấn từ các chuyên gia y tế." +
+                "Kính đề nghị Quý phụ huynh xem xét và cho phép con em {studentName} (lớp {className}) tham gia đợt khám sức khỏe này để đảm bảo sức khỏe tốt nhất cho các em.\n" +
+                "Vui lòng phản hồi qua hệ thống để xác nhận việc tham gia.\n" +
+                "Trân trọng,\nBan Giám hiệu");
+
+        String digest =
+                "<p><strong>Thân gửi Quý phụ huynh,</strong></p>" +
+                "<p>Nhà trường thông báo về đợt khám sức khỏe \"<strong>{campaignName}</strong>\" sắp diễn ra. " +
+                "Đợt khám sẽ được tổ chức tại trường để các em học sinh được kiểm tra sức khỏe định kỳ.</p>" +
+                "<p>Quý phụ huynh có {childCount} con em thuộc diện tham gia:</p>" +
+                "<ul>{children}</ul>" +
+                "<p>Vui lòng phản hồi qua hệ thống để xác nhận việc tham gia cho từng học sinh.</p>" +
+                "<p><em>Trân trọng,<br>Ban Giám hiệu</em></p>";
+        register(HEALTH_CHECK_CAMPAIGN_DIGEST, digest);
+    }
+
+    /**
+     * Store a template reference and its parameters on the notification instead of a rendered message
+     */
+    public void apply(Notification notification, String templateId, Map<String, String> params) {
+        if (!templates.containsKey(templateId)) {
+            throw new IllegalArgumentException("Unknown notification template: " + templateId);
+        }
+        try {
+            notification.setTemplateId(templateId);
+            notification.setTemplateParams(objectMapper.writeValueAsString(params));
+            // Column is NOT NULL on existing schemas, keep it empty instead of null
+            notification.setMessage("");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize template parameters for " + templateId, e);
+        }
+    }
+
+    /**
+     * Get the message to show for a notification, rendering its template if it has one
+     */
+    public String resolveMessage(Notification notification) {
+        return resolveMessage(notification.getTemplateId(), notification.getTemplateParams(),
+                notification.getHealthCheckFormIds(), notification.getMessage(), notification.getId(), null);
+    }
+
+    /**
+     * Messages for a list of notifications, keyed by notification id.
+     * The students of every digest that is not already in the render cache are loaded with one query.
+     */
+    public Map<Long, String> resolveMessages(Collection<Notification> notifications) {
+        Set<Long> formIds = new HashSet<>();
+        for (Notification notification : notifications) {
+            if (HEALTH_CHECK_CAMPAIGN_DIGEST.equals(notification.getTemplateId())
+                    && !renderedCache.containsKey(cacheKey(notification.getTemplateId(),
+                            notification.getTemplateParams(), notification.getHealthCheckFormIds()))) {
+                formIds.addAll(NotificationMapper.parseIds(notification.getHealthCheckFormIds()));
+            }
+        }
+        Map<Long, Object[]> students = findStudents(formIds);
+
+        Map<Long, String> messages = new HashMap<>();
+        for (Notification notification : notifications) {
+            messages.put(notification.getId(), resolveMessage(notification.getTemplateId(),
+                    notification.getTemplateParams(), notification.getHealthCheckFormIds(),
+                    notification.getMessage(), notification.getId(), students));
+        }
+        return messages;
+    }
+
+    /**
+     * Same as resolveMessage(Notification) for an archived notification
+     */
+    public String resolveMessage(NotificationArchive archived) {
+        return resolveMessage(archived.getTemplateId(), archived.getTemplateParams(),
+                archived.getHealthCheckFormIds(), archived.getMessage(), archived.getId(), null);
+    }
+
+    /**
+     * @param students students of the digest forms by form id, or null to look them up for this notification
+     */
+    private String resolveMessage(String templateId, String templateParams, String healthCheckFormIds,
+                                  String storedMessage, Long notificationId, Map<Long, Object[]> students) {
+        if (templateId == null) {
+            return storedMessage;
+        }
+
+        String cacheKey = cacheKey(templateId, templateParams, healthCheckFormIds);
+        String cached = renderedCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        Template template = templates.get(templateId);
+        if (template == null) {
+            log.warn("Unknown notification template {} for notification {}", templateId, notificationId);
+            return storedMessage;
+        }
+
+        try {
+            Map<String, String> params = templateParams != null
+                    ? objectMapper.readValue(templateParams, PARAMS_TYPE)
+                    : new LinkedHashMap<>();
+            if (HEALTH_CHECK_CAMPAIGN_DIGEST.equals(templateId)) {
+                List<Long> formIds = NotificationMapper.parseIds(healthCheckFormIds);
+                params.put("children", renderChildren(formIds, students != null ? students : findStudents(formIds)));
+            }
+            String rendered = template.render(params);
+            renderedCache.put(cacheKey, rendered);
+            return rendered;
+        } catch (JsonProcessingException e) {
+            log.warn("Invalid template parameters for notification {}: {}", notificationId, e.getMessage());
+            return storedMessage;
+        }
+    }
+
+    private static String cacheKey(String templateId, String templateParams, String healthCheckFormIds) {
+        return templateId + '\u0000' + templateParams + '\u0000' + healthCheckFormIds;
+    }
+
+    /**
+     * Student name and class of each form: rows of [formId, firstName, lastName, className] by form id
+     */
+    private Map<Long, Object[]> findStudents(Collection<Long> formIds) {
+        Map<Long, Object[]> students = new HashMap<>();
+        if (formIds.isEmpty()) {
+            return students;
+        }
+        for (Object[] row : healthCheckFormRepository.findStudentNamesByIds(formIds)) {
+            students.put((Long) row[0], row);
+        }
+        return students;
+    }
+
+    /**
+     * List items for the students of the given forms, in form id order
+     */
+    private String renderChildren(List<Long> formIds, Map<Long, Object[]> students) {
+        StringBuilder children = new StringBuilder();
+        for (Long formId : formIds) {
+            Object[] row = students.get(formId);
+            if (row == null) {
+                continue;
+            }
+            children.append("<li>").append(row[1]).append(" ").append(row[2]).append(" - Lớp ")
+                    .append(row[3] != null ? row[3] : "Chưa có thông tin")
+                    .append("</li>");
+        }
+        return children.toString();
+    }
+
+    private void register(String templateId, String source) {
+        templates.put(templateId, Template.parse(source));
+    }
+
+    /**
+     * Template split once into literal text and {placeholder} names
+     */
+    private static final class Template {
+        private final String[] literals;
+        private final String[] names;
+
+        private Template(String[] literals, String[] names) {
+            this.literals = literals;
+            this.names = names;
+        }
+
+        static Template parse(String source) {
+            List<String> literals = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                int open = source.indexOf('{', position);
+                int close = open >= 0 ? source.indexOf('}', open) : -1;
+                if (open < 0 || close < 0) {
+                    break;
+                }
+                literals.add(source.substring(position, open));
+                names.add(source.substring(open + 1, close));
+                position = close + 1;
+            }
+            literals.add(source.substring(position));
+            return new Template(literals.toArray(new String[0]), names.toArray(new String[0]));
+        }
+
+        String render(Map<String, String> params) {
+            StringBuilder sb = new StringBuilder(256);
+            for (int i = 0; i < names.length; i++) {
+                sb.append(literals[i]);
+                String value = params.get(names[i]);
+                sb.append(value != null ? value : "");
+            }
+            sb.append(literals[literals.length - 1]);
+            return sb.toString();
+        }
+    }
+}
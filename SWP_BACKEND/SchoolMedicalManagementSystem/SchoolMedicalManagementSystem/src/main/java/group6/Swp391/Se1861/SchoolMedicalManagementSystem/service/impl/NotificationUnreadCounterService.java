@@ -0,0 +1,213 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.NotificationRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationUnreadCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory unread notification counters used for the notification badge.
+ * Counts are loaded lazily with one COUNT query per user and then kept up to date
+ * on create/read. Changes are applied after commit; a rollback evicts the entry so
+ * the next read rebuilds it from the database. Every change is pushed to the user
+ * over /queue/notifications as an UNREAD_COUNT event.
+ * <p>
+ * A change that commits while a COUNT is running could be missed by both the COUNT and the
+ * delta, or counted by both. Each change therefore marks its user's stripe as in flight from
+ * just before commit until the transaction completes, and bumps the stripe's epoch when it does;
+ * a freshly counted value is only cached if its stripe had no change in flight and the same epoch
+ * before the COUNT and when the value is stored. Entries expire after a short TTL, which bounds
+ * how long changes made on another instance go unnoticed.
+ */
+@Service
+@Slf4j
+public class NotificationUnreadCounterService implements INotificationUnreadCounterService {
+
+    public static final String UNREAD_COUNT_EVENT = "UNREAD_COUNT";
+
+    private static final int STRIPES = 64;
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final AtomicLongArray inFlight = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray epochs = new AtomicLongArray(STRIPES);
+
+    public NotificationUnreadCounterService(NotificationRepository notificationRepository,
+                                            NotificationDispatcher notificationDispatcher,
+                                            @Value("${notification.unread.cache-ttl-ms:30000}") long ttlMs) {
+        this.notificationRepository = notificationRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    @Override
+    public long getUnreadCount(User user) {
+        Long userId = user.getId();
+        Counter counter = counters.get(userId);
+        if (counter != null && !counter.isExpired()) {
+            return counter.value.get();
+        }
+
+        int stripe = stripe(userId);
+        boolean quiet = inFlight.get(stripe) == 0;
+        long epoch = epochs.get(stripe);
+        long fromDatabase = notificationRepository.countByRecipientAndIsReadFalse(user);
+
+        Counter cached = counters.compute(userId, (id, current) -> {
+            if (current != null && !current.isExpired()) {
+                return current;
+            }
+            if (!quiet || inFlight.get(stripe) != 0 || epochs.get(stripe) != epoch) {
+                // A change committed around the COUNT; serve the value but count again next time
+                return null;
+            }
+            return new Counter(fromDatabase, System.nanoTime() + ttlNanos);
+        });
+        return cached != null ? cached.value.get() : fromDatabase;
+    }
+
+    @Override
+    public void onNotificationCreated(User recipient) {
+        if (recipient == null) {
+            return;
+        }
+        afterCommit(recipient, () -> adjust(recipient, 1));
+    }
+
+    @Override
+    public void onNotificationsCreated(Map<User, Integer> createdPerRecipient) {
+        if (createdPerRecipient == null || createdPerRecipient.isEmpty()) {
+            return;
+        }
+        Map<User, Integer> snapshot = new HashMap<>(createdPerRecipient);
+        runAfterCommit(snapshot.keySet(),
+                () -> snapshot.forEach((recipient, created) -> adjust(recipient, created)));
+    }
+
+    @Override
+    public void onNotificationsRead(User recipient, long count) {
+        if (recipient == null || count <= 0) {
+            return;
+        }
+        afterCommit(recipient, () -> adjust(recipient, -count));
+    }
+
+    @Override
+    public void onAllNotificationsRead(User recipient) {
+        if (recipient == null) {
+            return;
+        }
+        afterCommit(recipient, () -> {
+            counters.put(recipient.getId(), new Counter(0, System.nanoTime() + ttlNanos));
+            push(recipient, 0);
+        });
+    }
+
+    @Override
+    public void evict(User recipient) {
+        if (recipient != null) {
+            counters.remove(recipient.getId());
+        }
+    }
+
+    /**
+     * Apply a delta to a cached counter. Users without a live cached counter are skipped;
+     * their count is loaded from the database on the next badge read.
+     */
+    private void adjust(User recipient, long delta) {
+        Counter counter = counters.computeIfPresent(recipient.getId(), (id, current) -> {
+            if (current.isExpired()) {
+                return null;
+            }
+            current.value.updateAndGet(value -> Math.max(0, value + delta));
+            return current;
+        });
+        if (counter != null) {
+            push(recipient, counter.value.get());
+        }
+    }
+
+    private void push(User recipient, long count) {
+        if (recipient.getUsername() == null) {
+            return;
+        }
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", UNREAD_COUNT_EVENT);
+        event.put("count", count);
+        // Already running after commit, so deliver without registering another synchronization
+        notificationDispatcher.dispatchNow(recipient.getUsername(), event);
+    }
+
+    private void afterCommit(User recipient, Runnable onCommit) {
+        runAfterCommit(Set.of(recipient), onCommit);
+    }
+
+    private void runAfterCommit(Set<User> recipients, Runnable onCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            recipients.forEach(recipient -> epochs.incrementAndGet(stripe(recipient.getId())));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean marked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                recipients.forEach(recipient -> inFlight.incrementAndGet(stripe(recipient.getId())));
+                marked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                onCommit.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    recipients.forEach(NotificationUnreadCounterService.this::evict);
+                }
+                for (User recipient : recipients) {
+                    int stripe = stripe(recipient.getId());
+                    epochs.incrementAndGet(stripe);
+                    if (marked) {
+                        inFlight.decrementAndGet(stripe);
+                    }
+                }
+            }
+        });
+    }
+
+    private static int stripe(Long userId) {
+        return userId == null ? 0 : (int) Math.floorMod(userId, (long) STRIPES);
+    }
+
+    private static final class Counter {
+        private final AtomicLong value;
+        private final long expiresAtNanos;
+
+        Counter(long value, long expiresAtNanos) {
+            this.value = new AtomicLong(value);
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
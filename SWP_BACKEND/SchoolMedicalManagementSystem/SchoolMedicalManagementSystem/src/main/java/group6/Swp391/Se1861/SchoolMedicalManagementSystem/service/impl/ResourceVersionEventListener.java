@@ -0,0 +1,151 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.HealthCheckCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.MedicalEvent;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.MedicalSupply;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.RestockRequest;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Student;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.UnitConversion;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationRule;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IResourceVersionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bumps the version of every cached resource whose tables a transaction writes to.
+ * The shared version row is incremented just before commit and the new value is read back in the
+ * same transaction, while the row is still locked; the local version takes that value only after a
+ * successful commit, so an ETag never names data that was rolled back or a version another instance used.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceVersionEventListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String BUMP_SQL =
+            "INSERT INTO resource_version (resource, current_version) VALUES (?, 1) " +
+            "ON DUPLICATE KEY UPDATE current_version = current_version + 1";
+    private static final String READ_SQL =
+            "SELECT current_version FROM resource_version WHERE resource = ?";
+
+    private static final Map<Class<?>, Set<CachedResource>> RESOURCES_BY_ENTITY = Map.of(
+            VaccinationCampaign.class, EnumSet.of(CachedResource.MANAGER_DASHBOARD, CachedResource.VACCINATION_RULES),
+            HealthCheckCampaign.class, EnumSet.of(CachedResource.MANAGER_DASHBOARD),
+            MedicalEvent.class, EnumSet.of(CachedResource.MANAGER_DASHBOARD),
+            MedicalSupply.class, EnumSet.of(CachedResource.MANAGER_DASHBOARD),
+            RestockRequest.class, EnumSet.of(CachedResource.MANAGER_DASHBOARD),
+            Student.class, EnumSet.of(CachedResource.MANAGER_DASHBOARD, CachedResource.STUDENT_CLASSES),
+            VaccinationRule.class, EnumSet.of(CachedResource.VACCINATION_RULES),
+            UnitConversion.class, EnumSet.of(CachedResource.UNIT_CONVERSIONS));
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final IResourceVersionService resourceVersionService;
+
+    private final Map<EventSource, Set<CachedResource>> pending = new ConcurrentHashMap<>();
+    private final Map<EventSource, Map<CachedResource, Long>> bumped = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, Object entity) {
+        Set<CachedResource> resources = RESOURCES_BY_ENTITY.get(entity.getClass());
+        if (resources == null) {
+            return;
+        }
+        Set<CachedResource> touched = pending.get(session);
+        if (touched == null) {
+            touched = EnumSet.noneOf(CachedResource.class);
+            pending.put(session, touched);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s -> bumpShared(session));
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) -> {
+                pending.remove(session);
+                Map<CachedResource, Long> committed = bumped.remove(session);
+                if (success && committed != null) {
+                    resourceVersionService.onCommitted(committed);
+                }
+            });
+        }
+        touched.addAll(resources);
+    }
+
+    private void bumpShared(EventSource session) {
+        Set<CachedResource> touched = pending.get(session);
+        if (touched == null || touched.isEmpty()) {
+            return;
+        }
+        Map<CachedResource, Long> versions = new EnumMap<>(CachedResource.class);
+        // EnumSet iterates in declaration order, so every transaction locks version rows in the same order
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(BUMP_SQL)) {
+                for (CachedResource resource : touched) {
+                    ps.setString(1, resource.name());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            // The rows stay locked by this transaction, so these are exactly the values it wrote
+            try (PreparedStatement ps = connection.prepareStatement(READ_SQL)) {
+                for (CachedResource resource : touched) {
+                    ps.setString(1, resource.name());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            versions.put(resource, rs.getLong(1));
+                        }
+                    }
+                }
+            }
+        });
+        bumped.put(session, versions);
+    }
+}
@@ -0,0 +1,69 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.ResourceVersion;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.ResourceVersionRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IResourceVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory resource versions used for ETags.
+ * Local commits apply the version the database produced for them; versions bumped by other instances are picked up
+ * by a periodic refresh, so a poll is never answered from data more than one refresh interval old.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResourceVersionService implements IResourceVersionService {
+
+    private final ResourceVersionRepository resourceVersionRepository;
+
+    private final Map<CachedResource, Long> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public String currentETag(CachedResource resource) {
+        StringBuilder tag = new StringBuilder("\"")
+                .append(resource.name().toLowerCase())
+                .append('-')
+                .append(currentVersion(resource));
+        if (resource.isDateSensitive()) {
+            tag.append('-').append(LocalDate.now());
+        }
+        return tag.append('"').toString();
+    }
+
+    @Override
+    public long currentVersion(CachedResource resource) {
+        return versions.getOrDefault(resource, 0L);
+    }
+
+    @Override
+    public void onCommitted(Map<CachedResource, Long> committedVersions) {
+        // The database assigned these values, so every instance names the same data with the same version
+        committedVersions.forEach((resource, version) -> versions.merge(resource, version, Math::max));
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${http.conditional-cache.refresh-ms:5000}",
+               initialDelayString = "${http.conditional-cache.refresh-ms:5000}")
+    public void refresh() {
+        try {
+            for (ResourceVersion row : resourceVersionRepository.findAll()) {
+                // Never move backwards: a local commit may already be ahead of what this read saw
+                versions.merge(row.getResource(), row.getCurrentVersion(), Math::max);
+            }
+        } catch (Exception e) {
+            log.warn("Could not refresh resource versions: {}", e.getMessage());
+        }
+    }
+}
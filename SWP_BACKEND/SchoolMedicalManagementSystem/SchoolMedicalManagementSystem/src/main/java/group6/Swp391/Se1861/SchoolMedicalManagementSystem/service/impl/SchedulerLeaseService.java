@@ -0,0 +1,328 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.IdRange;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.LeaseToken;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.SchedulerLease;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.SchedulerLeaseRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.ISchedulerLeaseService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Coordinates scheduled tasks between application instances through the scheduler_lease table.
+ * A lease is taken with a conditional UPDATE that only succeeds once the previous lease has expired,
+ * and each acquisition increments the row's fencing token. Lease times use the database clock.
+ * While a task runs, a heartbeat extends the lease; if the node stalls for longer than the lease
+ * duration another node may take over, and work the stalled node later tries to commit fails the
+ * fencing check in {@link #verify(LeaseToken)}, which runExclusive calls before its transaction commits.
+ * runPartitioned splits a large job into contiguous id ranges, each with its own lease row, whose
+ * checkpoint column lets a node that takes over a range continue where the previous holder stopped.
+ * With scheduler.lease.enabled=false every task simply runs locally, as on a single instance.
+ */
+@Service
+@Slf4j
+public class SchedulerLeaseService implements ISchedulerLeaseService {
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate transaction;
+    private final ScheduledExecutorService heartbeatExecutor;
+    private final String nodeId;
+
+    // Lease rows known to exist, so the insert is only tried once per name
+    private final Set<String> knownLeases = ConcurrentHashMap.newKeySet();
+
+    @Value("${scheduler.lease.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scheduler.lease.duration-ms:60000}")
+    private long leaseDurationMs;
+
+    @Value("${scheduler.lease.partitions:4}")
+    private int partitions;
+
+    public SchedulerLeaseService(SchedulerLeaseRepository leaseRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${scheduler.lease.node-id:}") String configuredNodeId) {
+        this.leaseRepository = leaseRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scheduler-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.nodeId = configuredNodeId.isBlank() ? defaultNodeId() : configuredNodeId;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+    }
+
+    @Override
+    public boolean runExclusive(String taskName, Duration minHold, Consumer<LeaseToken> task) {
+        return runLeased(taskName, minHold, lease -> transaction.executeWithoutResult(status -> {
+            task.accept(lease);
+            verify(lease);
+        }));
+    }
+
+    @Override
+    public boolean runExclusiveChunked(String taskName, Duration minHold, Consumer<LeaseToken> task) {
+        return runLeased(taskName, minHold, task);
+    }
+
+    @Override
+    public int runPartitioned(String taskName, long minId, long maxId, Duration minHold,
+                              BiConsumer<LeaseToken, IdRange> task) {
+        if (maxId < minId) {
+            return 0;
+        }
+        // No more ranges than ids, so none of them is empty
+        int count = (int) Math.min(Math.max(partitions, 1), maxId - minId + 1);
+        long span = (maxId - minId) / count + 1;
+        // Nodes start at different ranges, so they rarely compete for the same lease
+        int offset = Math.floorMod(nodeId.hashCode(), count);
+
+        int ran = 0;
+        for (int i = 0; i < count; i++) {
+            int index = (offset + i) % count;
+            long from = minId + index * span;
+            if (from > maxId) {
+                continue;
+            }
+            IdRange range = new IdRange(index, count, from, Math.min(maxId, from + span - 1));
+            if (runRange(taskName + "#" + index, minHold, range, task)) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    private boolean runRange(String name, Duration minHold, IdRange range, BiConsumer<LeaseToken, IdRange> task) {
+        if (!enabled) {
+            return runTask(name, lease -> task.accept(lease, range), new LeaseToken(name, nodeId, 0, LocalDateTime.now()));
+        }
+
+        SchedulerLease row = acquire(name);
+        if (row == null) {
+            log.debug("Skipping range {} of scheduled task: lease held by another node", name);
+            return false;
+        }
+
+        LeaseToken lease = new LeaseToken(name, nodeId, row.getFencingToken(), row.getAcquiredAt());
+        IdRange remaining = resumeAfter(range, row.getCheckpointId());
+        ScheduledFuture<?> heartbeat = startHeartbeat(lease);
+        try {
+            if (remaining != null) {
+                if (remaining.fromId() > range.fromId()) {
+                    log.info("Resuming range {} after checkpoint {}", name, row.getCheckpointId());
+                }
+                if (!runTask(name, held -> task.accept(held, remaining), lease)) {
+                    // The checkpoint stays, so the next holder continues after the last committed id
+                    return false;
+                }
+            }
+            clearCheckpoint(lease);
+            return true;
+        } finally {
+            heartbeat.cancel(false);
+            releaseAfterCompletion(lease, minHold);
+        }
+    }
+
+    /**
+     * Part of the range after the checkpoint, or null if the checkpoint is its last id.
+     * A checkpoint outside the range was written while the ids had other bounds and is ignored.
+     */
+    private static IdRange resumeAfter(IdRange range, Long checkpoint) {
+        if (checkpoint == null || checkpoint < range.fromId() || checkpoint > range.toId()) {
+            return range;
+        }
+        if (checkpoint == range.toId()) {
+            return null;
+        }
+        return new IdRange(range.partition(), range.partitions(), checkpoint + 1, range.toId());
+    }
+
+    private void clearCheckpoint(LeaseToken lease) {
+        try {
+            newTransaction.executeWithoutResult(status -> leaseRepository.clearCheckpoint(
+                    lease.name(), lease.owner(), lease.fencingToken()));
+        } catch (Exception e) {
+            log.warn("Could not clear checkpoint of scheduler lease {}: {}", lease.name(), e.getMessage());
+        }
+    }
+
+    private boolean runLeased(String taskName, Duration minHold, Consumer<LeaseToken> task) {
+        if (!enabled) {
+            return runTask(taskName, task, new LeaseToken(taskName, nodeId, 0, LocalDateTime.now()));
+        }
+
+        LeaseToken lease = tryAcquire(taskName);
+        if (lease == null) {
+            log.debug("Skipping scheduled task {}: lease held by another node", taskName);
+            return false;
+        }
+
+        ScheduledFuture<?> heartbeat = startHeartbeat(lease);
+        try {
+            return runTask(taskName, task, lease);
+        } finally {
+            heartbeat.cancel(false);
+            releaseAfterCompletion(lease, minHold);
+        }
+    }
+
+    private boolean runTask(String taskName, Consumer<LeaseToken> task, LeaseToken lease) {
+        try {
+            task.accept(lease);
+            return true;
+        } catch (Exception e) {
+            log.warn("Scheduled task {} failed or was fenced off: {}", taskName, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void verify(LeaseToken lease) {
+        if (!enabled) {
+            return;
+        }
+        Integer held = transaction.execute(status ->
+                leaseRepository.fence(lease.name(), lease.owner(), lease.fencingToken()));
+        if (held == null || held == 0) {
+            fencedOff(lease);
+        }
+    }
+
+    @Override
+    public void checkpoint(LeaseToken lease, long lastId) {
+        if (!enabled) {
+            return;
+        }
+        Integer held = transaction.execute(status ->
+                leaseRepository.checkpoint(lease.name(), lease.owner(), lease.fencingToken(), lastId));
+        if (held == null || held == 0) {
+            fencedOff(lease);
+        }
+    }
+
+    private void fencedOff(LeaseToken lease) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            } catch (NoTransactionException e) {
+                // Programmatic transaction (runExclusive); it rolls back on the exception below
+            }
+        }
+        throw new IllegalStateException("Lease " + lease.name() + " (token " + lease.fencingToken()
+                + ") was taken over by another node");
+    }
+
+    private LeaseToken tryAcquire(String name) {
+        SchedulerLease row = acquire(name);
+        return row == null ? null : new LeaseToken(name, nodeId, row.getFencingToken(), row.getAcquiredAt());
+    }
+
+    /**
+     * Take the lease if it has expired
+     * @return the lease row as held by this node, or null if another node holds it
+     */
+    private SchedulerLease acquire(String name) {
+        try {
+            return newTransaction.execute(status -> {
+                if (!knownLeases.contains(name)) {
+                    leaseRepository.insertIfAbsent(name);
+                    knownLeases.add(name);
+                }
+                if (leaseRepository.acquire(name, nodeId, leaseDurationMs) == 0) {
+                    return null;
+                }
+                return leaseRepository.findById(name).orElseThrow();
+            });
+        } catch (Exception e) {
+            log.warn("Could not acquire scheduler lease {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private ScheduledFuture<?> startHeartbeat(LeaseToken lease) {
+        long interval = Math.max(leaseDurationMs / 3, 1000);
+        return heartbeatExecutor.scheduleAtFixedRate(() -> {
+            try {
+                Integer held = newTransaction.execute(status -> leaseRepository.heartbeat(lease.name(), lease.owner(),
+                        lease.fencingToken(), leaseDurationMs));
+                if (held == null || held == 0) {
+                    log.warn("Scheduler lease {} (token {}) lost; its work will fail the fencing check",
+                            lease.name(), lease.fencingToken());
+                    throw new IllegalStateException("lease lost");
+                }
+            } catch (IllegalStateException e) {
+                // Stops further heartbeats for this lease
+                throw e;
+            } catch (Exception e) {
+                log.warn("Scheduler lease {} heartbeat failed: {}", lease.name(), e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Release once the caller's transaction, if any, has finished, so that no other node can
+     * take the lease while the work is still uncommitted
+     */
+    private void releaseAfterCompletion(LeaseToken lease, Duration minHold) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(lease, minHold);
+                }
+            });
+        } else {
+            release(lease, minHold);
+        }
+    }
+
+    private void release(LeaseToken lease, Duration minHold) {
+        try {
+            newTransaction.executeWithoutResult(status -> leaseRepository.release(
+                    lease.name(), lease.owner(), lease.fencingToken(), minHold.toMillis()));
+        } catch (Exception e) {
+            log.warn("Could not release scheduler lease {}: {}", lease.name(), e.getMessage());
+        }
+    }
+
+    static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown-host";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,111 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.JobState;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.ParentDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentWithParentsCreationDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.StudentWithParentsCreationResponseDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.BackgroundJob;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobHandler;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IExcelService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IStudentService;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+/**
+ * Imports students and parents from an uploaded Excel file, one chunk of family groups at a time.
+ * The file is kept on the job row until the job finishes; parsed groups of running jobs are cached
+ * so that the workbook is not read again for every chunk.
+ */
+@Component
+public class StudentExcelImportJobHandler implements IBackgroundJobHandler {
+
+    private static final int PARSED_CACHE_SIZE = 4;
+
+    private final IExcelService excelService;
+    private final IStudentService studentService;
+    private final Map<Long, List<StudentWithParentsCreationDTO>> parsedGroups =
+            Collections.synchronizedMap(new LinkedHashMap<>(8, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, List<StudentWithParentsCreationDTO>> eldest) {
+                    return size() > PARSED_CACHE_SIZE;
+                }
+            });
+
+    public StudentExcelImportJobHandler(IExcelService excelService, IStudentService studentService) {
+        this.excelService = excelService;
+        this.studentService = studentService;
+    }
+
+    @Override
+    public JobType getType() {
+        return JobType.STUDENT_EXCEL_IMPORT;
+    }
+
+    @Override
+    public void validate(BackgroundJob job) {
+        if (job.getInputData() == null) {
+            throw new IllegalArgumentException("File không được để trống");
+        }
+        // Row errors are reported to the uploader right away instead of failing the job later
+        excelService.parseStudentImport(job.getInputData());
+    }
+
+    @Override
+    public List<Long> listItems(BackgroundJob job) {
+        return LongStream.range(0, groups(job).size()).boxed().toList();
+    }
+
+    @Override
+    public void processChunk(BackgroundJob job, List<Long> items, JobState state) {
+        List<StudentWithParentsCreationDTO> groups = groups(job);
+        for (Long index : items) {
+            StudentWithParentsCreationResponseDTO response =
+                    studentService.createStudentWithParents(groups.get(index.intValue()));
+
+            for (StudentDTO student : response.getStudents()) {
+                state.append("studentIds", student.getStudentID());
+            }
+            state.increment("studentsCreated", response.getStudents().size());
+            countParent(state, response.getFather());
+            countParent(state, response.getMother());
+            state.increment("familyGroups", 1);
+        }
+    }
+
+    @Override
+    public Object buildResult(BackgroundJob job, JobState state) {
+        parsedGroups.remove(job.getId());
+
+        int studentsCreated = state.getInt("studentsCreated");
+        int parentsCreated = state.map("parentPhones").size();
+        int familyGroups = state.getInt("familyGroups");
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", String.format("Import thành công từ Excel: %d học sinh, %d phụ huynh (%d nhóm gia đình)",
+                studentsCreated, parentsCreated, familyGroups));
+        result.put("studentsCreated", studentsCreated);
+        result.put("parentsCreated", parentsCreated);
+        result.put("familyGroups", familyGroups);
+        result.put("studentIds", state.list("studentIds"));
+        return result;
+    }
+
+    private List<StudentWithParentsCreationDTO> groups(BackgroundJob job) {
+        return parsedGroups.computeIfAbsent(job.getId(), id -> excelService.parseStudentImport(job.getInputData()));
+    }
+
+    // Parents shared by several groups are counted once, by phone
+    private static void countParent(JobState state, ParentDTO parent) {
+        if (parent != null && parent.getPhone() != null) {
+            state.incrementEntry("parentPhones", parent.getPhone(), 1);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CachedResource;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.StudentRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IResourceVersionService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IStudentRosterIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-optimised index of active students for campaign eligibility.
+ * Per class, students are kept as a birth-day array (epoch days, sorted) with a parallel id array,
+ * so a class-and-age query is two binary searches per class instead of loading every student.
+ * The index is rebuilt from one projection query whenever the student resource version has moved,
+ * which happens after any committed student insert, update or delete on any instance.
+ * Class names are matched ignoring case and surrounding spaces, like the database collation.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentRosterIndex implements IStudentRosterIndex {
+
+    // Students without a date of birth sort first and never match an age filter
+    private static final int NO_BIRTH_DATE = Integer.MIN_VALUE;
+
+    private final StudentRepository studentRepository;
+    private final IResourceVersionService resourceVersionService;
+
+    private volatile Roster roster;
+
+    @Override
+    public int countEligible(Set<String> classNames, LocalDate bornFrom, LocalDate bornTo) {
+        Roster current = current();
+        int count = 0;
+        for (ClassRoster classRoster : current.select(classNames)) {
+            int[] range = classRoster.range(bornFrom, bornTo);
+            count += range[1] - range[0];
+        }
+        return count;
+    }
+
+    @Override
+    public long[] eligibleIds(Set<String> classNames, LocalDate bornFrom, LocalDate bornTo) {
+        Roster current = current();
+        List<long[]> parts = new ArrayList<>();
+        int total = 0;
+        for (ClassRoster classRoster : current.select(classNames)) {
+            int[] range = classRoster.range(bornFrom, bornTo);
+            parts.add(Arrays.copyOfRange(classRoster.studentIds, range[0], range[1]));
+            total += range[1] - range[0];
+        }
+
+        long[] ids = new long[total];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, ids, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private Roster current() {
+        long version = resourceVersionService.currentVersion(CachedResource.STUDENT_CLASSES);
+        Roster current = roster;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = roster;
+            if (current == null || current.version != version) {
+                current = build(version);
+                roster = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Load every active student once and group them by class.
+     * The version is read before the query, so a write committed during the build triggers another rebuild.
+     */
+    private Roster build(long version) {
+        long start = System.nanoTime();
+        Map<String, List<long[]>> entriesByClass = new HashMap<>();
+        for (Object[] row : studentRepository.findActiveRosterEntries()) {
+            long id = ((Number) row[0]).longValue();
+            String className = (String) row[1];
+            LocalDate dob = (LocalDate) row[2];
+            long birthDay = dob != null ? dob.toEpochDay() : NO_BIRTH_DATE;
+            entriesByClass.computeIfAbsent(normalize(className), key -> new ArrayList<>())
+                    .add(new long[]{birthDay, id});
+        }
+
+        Map<String, ClassRoster> byClass = new HashMap<>();
+        List<long[]> everyone = new ArrayList<>();
+        entriesByClass.forEach((className, entries) -> {
+            byClass.put(className, ClassRoster.of(entries));
+            everyone.addAll(entries);
+        });
+        Roster built = new Roster(version, byClass, ClassRoster.of(everyone));
+
+        log.info("Built student roster index: {} students in {} classes in {} ms",
+                everyone.size(), byClass.size(), (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    private static String normalize(String className) {
+        return className == null ? "" : className.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Roster(long version, Map<String, ClassRoster> byClass, ClassRoster everyone) {
+
+        Collection<ClassRoster> select(Set<String> classNames) {
+            if (classNames == null) {
+                return List.of(everyone);
+            }
+            Set<String> normalized = new LinkedHashSet<>();
+            for (String className : classNames) {
+                normalized.add(normalize(className));
+            }
+            List<ClassRoster> selected = new ArrayList<>(normalized.size());
+            for (String className : normalized) {
+                ClassRoster classRoster = byClass.get(className);
+                if (classRoster != null) {
+                    selected.add(classRoster);
+                }
+            }
+            return selected;
+        }
+    }
+
+    /**
+     * Students of one class sorted by birth day, as parallel primitive arrays
+     */
+    private static final class ClassRoster {
+        final int[] birthDays;
+        final long[] studentIds;
+
+        private ClassRoster(int[] birthDays, long[] studentIds) {
+            this.birthDays = birthDays;
+            this.studentIds = studentIds;
+        }
+
+        static ClassRoster of(List<long[]> entries) {
+            long[][] sorted = entries.toArray(new long[0][]);
+            Arrays.sort(sorted, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            int[] birthDays = new int[sorted.length];
+            long[] studentIds = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                birthDays[i] = (int) sorted[i][0];
+                studentIds[i] = sorted[i][1];
+            }
+            return new ClassRoster(birthDays, studentIds);
+        }
+
+        /**
+         * Half-open index range [from, to) of students born between the two dates inclusive
+         */
+        int[] range(LocalDate bornFrom, LocalDate bornTo) {
+            if (bornFrom == null || bornTo == null) {
+                return new int[]{0, birthDays.length};
+            }
+            int from = lowerBound((int) bornFrom.toEpochDay());
+            int to = lowerBound((int) bornTo.toEpochDay() + 1);
+            return new int[]{from, Math.max(from, to)};
+        }
+
+        // First position whose birth day is >= day
+        private int lowerBound(int day) {
+            int low = 0;
+            int high = birthDays.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (birthDays[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
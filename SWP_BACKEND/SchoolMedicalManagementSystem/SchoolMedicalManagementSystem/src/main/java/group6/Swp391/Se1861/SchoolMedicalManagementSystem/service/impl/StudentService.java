@@ -7,13 +7,16 @@ import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.RoleRepository;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.StudentRepository;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.UserRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IStudentRosterIndex;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IStudentService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.util.StudentMapper;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.util.PhoneValidator;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -23,6 +26,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class StudentService implements IStudentService {
 
     @Autowired
@@ -32,7 +36,14 @@ public class StudentService implements IStudentService {
     private UserRepository userRepository;
 
     @Autowired
-    private RoleRepository roleRepository;    /**
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private IStudentRosterIndex studentRosterIndex;
+
+    private static final int ROSTER_LOAD_BATCH_SIZE = 1000;
+
+    /**
      * Get all students associated with a parent
      * @param parent the authenticated parent user
      * @return list of students associated with the parent
@@ -608,38 +619,9 @@ public class StudentService implements IStudentService {
 
     @Override
     public List<StudentDTO> getStudentsByAgeRange(int minAge, int maxAge) {
-        System.out.println("=== getStudentsByAgeRange DEBUG ===");
-        System.out.println("Input minAge: " + minAge + ", maxAge: " + maxAge);
-
-        int currentYear = java.time.LocalDate.now().getYear();
-        int minBirthYear = currentYear - maxAge;  // Older students
-        int maxBirthYear = currentYear - minAge;  // Younger students
-
-        System.out.println("Current year: " + currentYear);
-        System.out.println("Min birth year: " + minBirthYear + " (for age " + maxAge + ")");
-        System.out.println("Max birth year: " + maxBirthYear + " (for age " + minAge + ")");
-
-        // Get all active students
-        List<Student> allStudents = studentRepository.findByIsDisabledFalse();
-        System.out.println("Total active students: " + allStudents.size());
-
-        // Filter by birth year
-        List<Student> filteredStudents = allStudents.stream()
-                .filter(student -> {
-                    int birthYear = student.getDob().getYear();
-                    boolean isEligible = birthYear >= minBirthYear && birthYear <= maxBirthYear;
-                    System.out.println("Student: " + student.getFullName() + 
-                                     ", Birth year: " + birthYear + ", Age: " + (currentYear - birthYear) + 
-                                     ", Eligible: " + isEligible);
-                    return isEligible;
-                })
-                .collect(Collectors.toList());
-
-        System.out.println("Filtered students count: " + filteredStudents.size());
-
-        return filteredStudents.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<StudentDTO> students = loadRosterStudents(null, minAge, maxAge);
+        log.debug("Students aged {}-{}: {}", minAge, maxAge, students.size());
+        return students;
     }
 
     @Override
@@ -652,128 +634,92 @@ public class StudentService implements IStudentService {
 
     @Override
     public List<StudentDTO> getStudentsByAgeRangeAndClass(int minAge, int maxAge, String className) {
-        System.out.println("=== getStudentsByAgeRangeAndClass DEBUG ===");
-        System.out.println("Input minAge: " + minAge + ", maxAge: " + maxAge + ", className: " + className);
-
-        int currentYear = java.time.LocalDate.now().getYear();
-        int minBirthYear = currentYear - maxAge;  // Older students
-        int maxBirthYear = currentYear - minAge;  // Younger students
-
-        System.out.println("Current year: " + currentYear);
-        System.out.println("Min birth year: " + minBirthYear + " (for age " + maxAge + ")");
-        System.out.println("Max birth year: " + maxBirthYear + " (for age " + minAge + ")");
-
-        // Get students by class name first
-        List<Student> studentsInClass = studentRepository.findByClassNameAndIsDisabledFalse(className);
-        System.out.println("Students in class " + className + ": " + studentsInClass.size());
-
-        // Filter by birth year
-        List<Student> filteredStudents = studentsInClass.stream()
-                .filter(student -> {
-                    int birthYear = student.getDob().getYear();
-                    boolean isEligible = birthYear >= minBirthYear && birthYear <= maxBirthYear;
-                    System.out.println("Student: " + student.getFullName() + 
-                                     ", Birth year: " + birthYear + ", Age: " + (currentYear - birthYear) + 
-                                     ", Eligible: " + isEligible);
-                    return isEligible;
-                })
-                .collect(Collectors.toList());
-
-        System.out.println("Filtered students count: " + filteredStudents.size());
-
-        return filteredStudents.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<StudentDTO> students = loadRosterStudents(Set.of(className), minAge, maxAge);
+        log.debug("Students aged {}-{} in class {}: {}", minAge, maxAge, className, students.size());
+        return students;
     }
 
     @Override
     public List<StudentDTO> getEligibleStudentsForClasses(Set<String> classNames, Integer minAge, Integer maxAge) {
-        System.out.println("=== DEBUG STUDENT SERVICE ===");
-        System.out.println("Input classNames: " + classNames);
-        System.out.println("Input minAge: " + minAge + ", maxAge: " + maxAge);
-
         // Handle null or empty classNames
         if (classNames == null || classNames.isEmpty()) {
-            System.out.println("Class names is null or empty, returning empty list");
             return new ArrayList<>();
         }
 
-        // Check if "toàn trường" is in the class names
-        boolean isAllSchool = classNames.stream()
-                .anyMatch(className -> "toàn trường".equalsIgnoreCase(className) || 
-                                     "toan truong".equalsIgnoreCase(className) ||
-                                     "all".equalsIgnoreCase(className));
-
+        boolean isAllSchool = isAllSchool(classNames);
         boolean hasAgeRange = minAge != null && maxAge != null;
 
-        System.out.println("isAllSchool: " + isAllSchool + ", hasAgeRange: " + hasAgeRange);
-
-        // Logic 1: Toàn trường + có độ tuổi → lọc theo độ tuổi
-        if (isAllSchool && hasAgeRange) {
-            System.out.println("Using Logic 1: All school + age range");
-            return getStudentsByAgeRange(minAge, maxAge);
-        }
-
         // Logic 2: Toàn trường + không có độ tuổi → lấy tất cả
         if (isAllSchool && !hasAgeRange) {
-            System.out.println("Using Logic 2: All school + no age range");
             return getAllStudents();
         }
 
-        // Logic 3: Lớp cụ thể + có độ tuổi → lọc theo các lớp và độ tuổi
-        if (!isAllSchool && hasAgeRange) {
-            System.out.println("Using Logic 3: Specific classes + age range");
-            int currentYear = java.time.LocalDate.now().getYear();
-            int minBirthYear = currentYear - maxAge;
-            int maxBirthYear = currentYear - minAge;
-
-            System.out.println("Current year: " + currentYear);
-            System.out.println("Min birth year: " + minBirthYear + " (for age " + maxAge + ")");
-            System.out.println("Max birth year: " + maxBirthYear + " (for age " + minAge + ")");
-
-            // Get all students in the specified classes first
-            List<Student> allStudentsInClasses = studentRepository.findByClassNameInAndIsDisabledFalse(classNames);
-            System.out.println("Found " + allStudentsInClasses.size() + " students in classes: " + classNames);
+        // Logic 1, 3, 4: toàn trường hoặc các lớp cụ thể, lọc theo độ tuổi nếu có
+        List<StudentDTO> students = hasAgeRange
+                ? loadRosterStudents(isAllSchool ? null : classNames, minAge, maxAge)
+                : loadRosterStudents(classNames, null, null);
+        log.debug("Eligible students for classes {} (age {}-{}): {}", classNames, minAge, maxAge, students.size());
+        return students;
+    }
 
-            // Filter by birth year
-            List<Student> students = allStudentsInClasses.stream()
-                    .filter(student -> {
-                        int birthYear = student.getDob().getYear();
-                        boolean eligible = birthYear >= minBirthYear && birthYear <= maxBirthYear;
-                        System.out.println("Student: " + student.getFullName() + 
-                                         ", Birth year: " + birthYear + 
-                                         ", Class: " + student.getClassName() + 
-                                         ", Eligible: " + eligible);
-                        return eligible;
-                    })
-                    .collect(Collectors.toList());
+    @Override
+    public int countEligibleStudentsForClasses(Set<String> classNames, Integer minAge, Integer maxAge) {
+        if (classNames == null || classNames.isEmpty()) {
+            return 0;
+        }
 
-            System.out.println("Final filtered students: " + students.size());
+        boolean isAllSchool = isAllSchool(classNames);
+        boolean hasAgeRange = minAge != null && maxAge != null;
 
-            return students.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+        if (isAllSchool && !hasAgeRange) {
+            // Same population as getAllStudents()
+            return (int) studentRepository.count();
+        }
+        if (!hasAgeRange) {
+            return studentRosterIndex.countEligible(classNames, null, null);
         }
+        return studentRosterIndex.countEligible(isAllSchool ? null : classNames,
+                bornFrom(maxAge), bornTo(minAge));
+    }
 
-        // Logic 4: Lớp cụ thể + không có độ tuổi → lọc theo các lớp
-        if (!isAllSchool && !hasAgeRange) {
-            System.out.println("Using Logic 4: Specific classes + no age range");
-            System.out.println("Calling studentRepository.findByClassNameInAndIsDisabledFalse with: " + classNames);
-            List<Student> students = studentRepository.findByClassNameInAndIsDisabledFalse(classNames);
-            System.out.println("Repository returned " + students.size() + " students");
-            for (Student student : students) {
-                System.out.println("- Found student: " + student.getFullName() + " (Class: " + student.getClassName() + ", Disabled: " + student.isDisabled() + ")");
+    private static boolean isAllSchool(Set<String> classNames) {
+        return classNames.stream()
+                .anyMatch(className -> "toàn trường".equalsIgnoreCase(className) ||
+                                     "toan truong".equalsIgnoreCase(className) ||
+                                     "all".equalsIgnoreCase(className));
+    }
+
+    /**
+     * Resolve eligible ids from the roster index, then load just those students with their parents.
+     * Age is counted by birth year: a student is {@code age} during the whole calendar year.
+     */
+    private List<StudentDTO> loadRosterStudents(Set<String> classNames, Integer minAge, Integer maxAge) {
+        long[] ids = minAge != null && maxAge != null
+                ? studentRosterIndex.eligibleIds(classNames, bornFrom(maxAge), bornTo(minAge))
+                : studentRosterIndex.eligibleIds(classNames, null, null);
+
+        List<StudentDTO> result = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += ROSTER_LOAD_BATCH_SIZE) {
+            int to = Math.min(from + ROSTER_LOAD_BATCH_SIZE, ids.length);
+            List<Long> batch = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                batch.add(ids[i]);
+            }
+            for (Student student : studentRepository.findWithParentsByStudentIDIn(batch)) {
+                result.add(convertToDTO(student));
             }
-            List<StudentDTO> result = students.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
-            System.out.println("Converted to " + result.size() + " DTOs");
-            return result;
         }
+        return result;
+    }
+
+    // Oldest accepted birth date for a maximum age
+    private static LocalDate bornFrom(int maxAge) {
+        return LocalDate.of(LocalDate.now().getYear() - maxAge, 1, 1);
+    }
 
-        // Fallback - trả về danh sách rỗng
-        System.out.println("No logic matched, returning empty list");
-        return new ArrayList<>();
+    // Youngest accepted birth date for a minimum age
+    private static LocalDate bornTo(int minAge) {
+        return LocalDate.of(LocalDate.now().getYear() - minAge, 12, 31);
     }
 
     @Override
@@ -0,0 +1,109 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.TrendBucketDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.TimeBucket;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.HealthCheckCampaignRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.MedicalEventRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.VaccinationCampaignRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.ITimeBucketAggregationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Dashboard trend series computed with one GROUP BY YEAR/MONTH (or day) query per entity type.
+ * Week buckets are rolled up in memory from day rows, since week numbering differs between databases.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TimeBucketAggregationService implements ITimeBucketAggregationService {
+
+    private final VaccinationCampaignRepository vaccinationCampaignRepository;
+    private final HealthCheckCampaignRepository healthCheckCampaignRepository;
+    private final MedicalEventRepository medicalEventRepository;
+
+    @Override
+    public List<TrendBucketDTO> getTrends(LocalDate from, LocalDate to, TimeBucket bucket) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Trend range must have from before to");
+        }
+        if (bucket == null) {
+            bucket = TimeBucket.MONTH;
+        }
+
+        // Widen the range to whole buckets so the first and last bucket are not partially counted
+        LocalDate start = bucketStart(from, bucket);
+        LocalDate end = bucketStart(to.minusDays(1), bucket);
+        end = nextBucket(end, bucket);
+
+        Map<LocalDate, TrendBucketDTO> buckets = new LinkedHashMap<>();
+        for (LocalDate d = start; d.isBefore(end); d = nextBucket(d, bucket)) {
+            buckets.put(d, new TrendBucketDTO(d, 0, 0, 0));
+        }
+
+        LocalDateTime fromTime = start.atStartOfDay();
+        LocalDateTime toTime = end.atStartOfDay();
+        boolean monthly = bucket == TimeBucket.MONTH;
+
+        accumulate(monthly ? vaccinationCampaignRepository.countGroupByMonth(fromTime, toTime)
+                        : vaccinationCampaignRepository.countGroupByDay(fromTime, toTime),
+                monthly, bucket, buckets,
+                (dto, count) -> dto.setVaccinationCampaigns(dto.getVaccinationCampaigns() + count));
+        accumulate(monthly ? healthCheckCampaignRepository.countGroupByMonth(fromTime, toTime)
+                        : healthCheckCampaignRepository.countGroupByDay(fromTime, toTime),
+                monthly, bucket, buckets,
+                (dto, count) -> dto.setHealthCheckCampaigns(dto.getHealthCheckCampaigns() + count));
+        accumulate(monthly ? medicalEventRepository.countGroupByMonth(fromTime, toTime)
+                        : medicalEventRepository.countGroupByDay(fromTime, toTime),
+                monthly, bucket, buckets,
+                (dto, count) -> dto.setMedicalEvents(dto.getMedicalEvents() + count));
+
+        return new ArrayList<>(buckets.values());
+    }
+
+    /**
+     * Add grouped rows into their buckets. Month rows are [year, month, count],
+     * day rows are [year, month, day, count] and are folded into weeks when needed.
+     */
+    private void accumulate(List<Object[]> rows, boolean monthly, TimeBucket bucket,
+                            Map<LocalDate, TrendBucketDTO> buckets, ObjLongConsumer<TrendBucketDTO> adder) {
+        for (Object[] row : rows) {
+            int year = ((Number) row[0]).intValue();
+            int month = ((Number) row[1]).intValue();
+            int day = monthly ? 1 : ((Number) row[2]).intValue();
+            long count = ((Number) row[monthly ? 2 : 3]).longValue();
+
+            TrendBucketDTO dto = buckets.get(bucketStart(LocalDate.of(year, month, day), bucket));
+            if (dto != null) {
+                adder.accept(dto, count);
+            }
+        }
+    }
+
+    private static LocalDate bucketStart(LocalDate date, TimeBucket bucket) {
+        return switch (bucket) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextBucket(LocalDate bucketStart, TimeBucket bucket) {
+        return switch (bucket) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+}
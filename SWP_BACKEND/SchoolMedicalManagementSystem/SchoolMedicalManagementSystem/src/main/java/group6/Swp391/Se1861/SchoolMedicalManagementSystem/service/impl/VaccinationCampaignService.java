@@ -4,7 +4,9 @@ import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.*;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.*;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.*;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationCampaignService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationDeadlineService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationEligibilityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,8 +15,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.Period;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,6 +32,9 @@ public class VaccinationCampaignService implements IVaccinationCampaignService {
     private final StudentRepository studentRepository;
     private final UserRepository userRepository;
     private final INotificationService notificationService;
+    private final IVaccinationEligibilityService eligibilityService;
+    private final VaccinationFormBatchWriter formBatchWriter;
+    private final IVaccinationDeadlineService vaccinationDeadlineService;
 
     // Date formatter for consistent date formatting in notifications
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
@@ -84,6 +89,9 @@ public class VaccinationCampaignService implements IVaccinationCampaignService {
 
         campaign = campaignRepository.save(campaign);
 
+        // Manager reminder after 12 hours, auto-reject after 24 hours without approval
+        vaccinationDeadlineService.scheduleCampaignDeadlines(campaign);
+
         // Send notification to managers for approval
         sendApprovalNotificationToManagers(campaign);
 
@@ -245,21 +253,15 @@ public class VaccinationCampaignService implements IVaccinationCampaignService {
                 ". Campaign must be APPROVED, IN_PROGRESS, or COMPLETED to check eligible students. Current status: " + campaign.getStatus());
         }
 
-        VaccinationRule rule = campaign.getVaccinationRule();
-        List<Student> allStudents = studentRepository.findAllActiveWithParents();
-
-        List<EligibleStudentsResponse.StudentVaccinationInfoDTO> eligibleStudents = new ArrayList<>();
-        List<EligibleStudentsResponse.StudentVaccinationInfoDTO> ineligibleStudents = new ArrayList<>();
+        VaccinationEligibilityResult evaluation = eligibilityService.evaluate(
+                campaign.getVaccinationRule(), studentRepository.findAllActiveWithParents());
 
-        for (Student student : allStudents) {
-            EligibleStudentsResponse.StudentVaccinationInfoDTO studentInfo = createStudentVaccinationInfo(student, rule);
-            
-            if (isStudentEligible(student, rule)) {
-                eligibleStudents.add(studentInfo);
-            } else {
-                ineligibleStudents.add(studentInfo);
-            }
-        }
+        List<EligibleStudentsResponse.StudentVaccinationInfoDTO> eligibleStudents = evaluation.getEligible().stream()
+                .map(this::createStudentVaccinationInfo)
+                .collect(Collectors.toList());
+        List<EligibleStudentsResponse.StudentVaccinationInfoDTO> ineligibleStudents = evaluation.getIneligible().stream()
+                .map(this::createStudentVaccinationInfo)
+                .collect(Collectors.toList());
 
         EligibleStudentsResponse response = new EligibleStudentsResponse();
         response.setEligibleStudents(eligibleStudents);
@@ -276,21 +278,12 @@ public class VaccinationCampaignService implements IVaccinationCampaignService {
         VaccinationRule rule = ruleRepository.findById(ruleId)
                 .orElseThrow(() -> new IllegalArgumentException("Vaccination rule not found with ID: " + ruleId));
 
-        List<Student> allStudents = studentRepository.findAllWithParents();
-        int eligibleCount = 0;
-
-        for (Student student : allStudents) {
-            if (isStudentEligible(student, rule)) {
-                eligibleCount++;
-            }
-        }
-
-        return eligibleCount;
+        return eligibilityService.evaluate(rule, studentRepository.findAll()).getEligible().size();
     }
 
     @Override
-    @Transactional
-    public List<VaccinationFormDTO> generateVaccinationForms(Long campaignId, User nurse) {
+    @Transactional(readOnly = true)
+    public void validateFormGeneration(Long campaignId, User nurse) {
         VaccinationCampaign campaign = campaignRepository.findById(campaignId)
                 .orElseThrow(() -> new IllegalArgumentException("Campaign not found"));
 
@@ -301,51 +294,91 @@ public class VaccinationCampaignService implements IVaccinationCampaignService {
         if (!"SCHOOLNURSE".equals(nurse.getRole().getRoleName())) {
             throw new IllegalArgumentException("Only school nurses can generate vaccination forms");
         }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getStudentIdsForFormGeneration(Long campaignId) {
+        VaccinationCampaign campaign = campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new IllegalArgumentException("Campaign not found"));
+
+        // Active students that have no form yet; a resumed job only continues past its checkpoint,
+        // so students whose forms were written before the interruption dropping out of the list is harmless
+        return eligibilityService.evaluate(campaign.getVaccinationRule(),
+                        studentRepository.findWithParentsWithoutVaccinationForm(campaign))
+                .getEligible().stream()
+                .map(evaluation -> evaluation.getStudent().getStudentID())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void generateVaccinationFormsForStudents(Long campaignId, List<Long> studentIds, String nurseUsername,
+                                                    JobState state) {
+        VaccinationCampaign campaign = campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new IllegalArgumentException("Campaign not found"));
+        User nurse = userRepository.findByUsername(nurseUsername)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + nurseUsername));
 
         VaccinationRule rule = campaign.getVaccinationRule();
-        List<Student> allStudents = studentRepository.findAllWithParents();
+        List<Student> students = studentRepository.findWithParentsByStudentIDIn(studentIds);
+        // One timestamp for the whole chunk identifies the rows it inserted
+        LocalDateTime generatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         List<VaccinationForm> forms = new ArrayList<>();
 
-        for (Student student : allStudents) {
-            if (isStudentEligible(student, rule) && !formRepository.existsByCampaignAndStudent(campaign, student)) {
-                // Determine parent (prefer enabled parent)
-                User parent = null;
-                User mother = student.getMother();
-                User father = student.getFather();
-                
-                // Priority: enabled parent > mother > father
-                if (mother != null && mother.isEnabled()) {
-                    parent = mother;
-                } else if (father != null && father.isEnabled()) {
-                    parent = father;
-                } else if (mother != null) {
-                    parent = mother; // Fallback to mother even if disabled
-                } else {
-                    parent = father; // Fallback to father even if disabled
-                }
+        for (Student student : students) {
+            // Determine parent (prefer enabled parent)
+            User parent = null;
+            User mother = student.getMother();
+            User father = student.getFather();
+            
+            // Priority: enabled parent > mother > father
+            if (mother != null && mother.isEnabled()) {
+                parent = mother;
+            } else if (father != null && father.isEnabled()) {
+                parent = father;
+            } else if (mother != null) {
+                parent = mother; // Fallback to mother even if disabled
+            } else {
+                parent = father; // Fallback to father even if disabled
+            }
+            
+            if (parent != null) {
+                VaccinationForm form = new VaccinationForm();
+                form.setVaccineName(campaign.getVaccineName());
+                form.setVaccineBrand(campaign.getVaccineBrand());
+                form.setDoseNumber(rule.getDoesNumber());
+                form.setScheduledDate(campaign.getScheduledDate());
+                form.setLocation(campaign.getLocation());
+                form.setPrePostCareInstructions(campaign.getPrePostCareInstructions());
+                form.setConfirmationStatus(VaccinationForm.ConfirmationStatus.PENDING);
+                form.setCampaign(campaign);
+                form.setStudent(student);
+                form.setParent(parent);
+                form.setCreatedBy(nurse);
+                form.setCreatedDate(generatedAt);
+                form.setIsActive(true);
+                form.setReminderSent(false);
                 
-                if (parent != null) {
-                    VaccinationForm form = new VaccinationForm();
-                    form.setVaccineName(campaign.getVaccineName());
-                    form.setVaccineBrand(campaign.getVaccineBrand());
-                    form.setDoseNumber(rule.getDoesNumber());
-                    form.setScheduledDate(campaign.getScheduledDate());
-                    form.setLocation(campaign.getLocation());
-                    form.setPrePostCareInstructions(campaign.getPrePostCareInstructions());
-                    form.setConfirmationStatus(VaccinationForm.ConfirmationStatus.PENDING);
-                    form.setCampaign(campaign);
-                    form.setStudent(student);
-                    form.setParent(parent);
-                    form.setCreatedBy(nurse);
-                    
-                    forms.add(form);
-                }
+                forms.add(form);
+            } else {
+                state.increment("studentsWithoutParents", 1);
             }
         }
 
         if (!forms.isEmpty()) {
-            forms = formRepository.saveAll(forms);
-            
+            formBatchWriter.insertAll(forms);
+            // Students that already had a form were skipped; count only the rows this chunk wrote
+            forms = formRepository.findGeneratedForms(campaign, generatedAt, nurse);
+        }
+
+        for (VaccinationForm form : forms) {
+            state.append("formIds", form.getId());
+        }
+        state.increment("formsGenerated", forms.size());
+
+        if (!forms.isEmpty()) {
             // Auto-update campaign status from APPROVED to IN_PROGRESS when forms are generated
             if (campaign.getStatus() == VaccinationCampaign.CampaignStatus.APPROVED) {
                 campaign.setStatus(VaccinationCampaign.CampaignStatus.IN_PROGRESS);
@@ -355,84 +388,24 @@ public class VaccinationCampaignService implements IVaccinationCampaignService {
                 notifyManagersAboutStatusChange(campaign, "đã chuyển sang trạng thái Đang tiến hành");
             }
         }
-
-        return forms.stream().map(this::convertFormToDTO).collect(Collectors.toList());
     }
 
     // Private helper methods
-    private boolean isStudentEligible(Student student, VaccinationRule rule) {
-        // Calculate age in months
-        int ageInMonths = calculateAgeInMonths(student.getDob());
-        
-        // Check age range
-        if (ageInMonths < rule.getMinAge() || ageInMonths > rule.getMaxAge()) {
-            return false;
-        }        // Check vaccination history for dose sequence
-        List<VaccinationHistory> histories = historyRepository.findByStudent(student)
-                .stream()
-                .filter(h -> h.getVaccineName().equals(rule.getName()))
-                .collect(Collectors.toList());
-        
-        // Check if student needs this dose
-        if (rule.getDoesNumber() > 1) {
-            // For doses > 1, check if previous dose exists
-            boolean hasPreviousDose = histories.stream()
-                    .anyMatch(h -> h.getDoseNumber() == rule.getDoesNumber() - 1);
-            
-            if (!hasPreviousDose) {
-                return false;
-            }
-            
-            // Check interval between doses
-            if (rule.getIntervalDays() > 0) {
-                Optional<VaccinationHistory> lastDose = histories.stream()
-                        .filter(h -> h.getDoseNumber() == rule.getDoesNumber() - 1)
-                        .findFirst();
-                
-                if (lastDose.isPresent()) {
-                    LocalDate lastVaccineDate = lastDose.get().getDateOfVaccination();
-                    LocalDate earliestNextDate = lastVaccineDate.plusDays(rule.getIntervalDays());
-                    
-                    if (LocalDate.now().isBefore(earliestNextDate)) {
-                        return false;
-                    }
-                }
-            }
-        }
-
-        // Check if student already has this dose
-        boolean alreadyHasDose = histories.stream()
-                .anyMatch(h -> h.getDoseNumber() == rule.getDoesNumber());
-        
-        return !alreadyHasDose;
-    }
-
-    private int calculateAgeInMonths(LocalDate birthDate) {
-        Period period = Period.between(birthDate, LocalDate.now());
-        return period.getYears() * 12 + period.getMonths();
-    }
-
-    private EligibleStudentsResponse.StudentVaccinationInfoDTO createStudentVaccinationInfo(Student student, VaccinationRule rule) {
+    private EligibleStudentsResponse.StudentVaccinationInfoDTO createStudentVaccinationInfo(
+            VaccinationEligibilityResult.StudentEligibility evaluation) {
+        Student student = evaluation.getStudent();
         EligibleStudentsResponse.StudentVaccinationInfoDTO dto = new EligibleStudentsResponse.StudentVaccinationInfoDTO();
         dto.setStudentId(student.getStudentID());
         dto.setStudentFullName(student.getFullName());
         dto.setStudentCode(student.getStudentID().toString()); // Assuming studentID is used as code
-        dto.setAgeInMonths(calculateAgeInMonths(student.getDob()));
+        dto.setAgeInMonths(evaluation.getAgeInMonths());
         dto.setClassName(student.getClassName());
         dto.setSchoolYear(student.getSchoolYear());
-        
-        // Set ineligibility reason if applicable
-        if (!isStudentEligible(student, rule)) {
-            dto.setIneligibilityReason(getIneligibilityReason(student, rule));
-        }
-          // Get previous vaccinations
-        List<VaccinationHistory> histories = historyRepository.findByStudent(student)
-                .stream()
-                .filter(h -> h.getVaccineName().equals(rule.getName()))
-                .collect(Collectors.toList());
-        
+        dto.setIneligibilityReason(evaluation.getIneligibilityReason());
+
+        // Get previous vaccinations
         List<EligibleStudentsResponse.StudentVaccinationInfoDTO.VaccinationHistoryInfo> historyInfos = 
-                histories.stream().map(h -> {
+                evaluation.getHistories().stream().map(h -> {
                     EligibleStudentsResponse.StudentVaccinationInfoDTO.VaccinationHistoryInfo info = 
                             new EligibleStudentsResponse.StudentVaccinationInfoDTO.VaccinationHistoryInfo();
                     info.setVaccineName(h.getVaccineName());
@@ -447,40 +420,6 @@ public class VaccinationCampaignService implements IVaccinationCampaignService {
         return dto;
     }
 
-    private String getIneligibilityReason(Student student, VaccinationRule rule) {
-        int ageInMonths = calculateAgeInMonths(student.getDob());
-        
-        if (ageInMonths < rule.getMinAge()) {
-            return "Tuổi chưa đủ (cần tối thiểu " + rule.getMinAge() + " tháng)";
-        }
-        
-        if (ageInMonths > rule.getMaxAge()) {
-            return "Đã quá tuổi (tối đa " + rule.getMaxAge() + " tháng)";
-        }
-          List<VaccinationHistory> histories = historyRepository.findByStudent(student)
-                .stream()
-                .filter(h -> h.getVaccineName().equals(rule.getName()))
-                .collect(Collectors.toList());
-        
-        if (rule.getDoesNumber() > 1) {
-            boolean hasPreviousDose = histories.stream()
-                    .anyMatch(h -> h.getDoseNumber() == rule.getDoesNumber() - 1);
-            
-            if (!hasPreviousDose) {
-                return "Chưa tiêm mũi " + (rule.getDoesNumber() - 1);
-            }
-        }
-        
-        boolean alreadyHasDose = histories.stream()
-                .anyMatch(h -> h.getDoseNumber() == rule.getDoesNumber());
-        
-        if (alreadyHasDose) {
-            return "Đã tiêm mũi " + rule.getDoesNumber();
-        }
-        
-        return "Không đủ điều kiện";
-    }
-
     private void sendApprovalNotificationToManagers(VaccinationCampaign campaign) {
         // Find all users with MANAGER role
         List<User> managers = userRepository.findByRole_RoleName("MANAGER");
@@ -495,13 +434,18 @@ public class VaccinationCampaignService implements IVaccinationCampaignService {
     }
 
     @Override
-    @Transactional
-    public List<VaccinationFormDTO> sendFormsToParents(Long campaignId, User nurse, String customMessage) {
+    @Transactional(readOnly = true)
+    public List<Long> getPendingFormIds(Long campaignId) {
         VaccinationCampaign campaign = campaignRepository.findById(campaignId)
                 .orElseThrow(() -> new IllegalArgumentException("Campaign not found"));
 
-        List<VaccinationForm> forms = formRepository.findByCampaignAndConfirmationStatus(
-                campaign, VaccinationForm.ConfirmationStatus.PENDING);
+        return formRepository.findIdsByCampaignAndConfirmationStatus(campaign, VaccinationForm.ConfirmationStatus.PENDING);
+    }
+
+    @Override
+    @Transactional
+    public void sendFormsToParents(List<Long> formIds, String customMessage, JobState state) {
+        List<VaccinationForm> forms = formRepository.findWithStudentAndParentByIdIn(formIds);
 
         List<VaccinationForm> sentForms = new ArrayList<>();
         for (VaccinationForm form : forms) {
@@ -526,9 +470,10 @@ public class VaccinationCampaignService implements IVaccinationCampaignService {
 
         if (!sentForms.isEmpty()) {
             formRepository.saveAll(sentForms);
+            // Parent reminder after 24 hours, expiry after 48 hours without an answer
+            vaccinationDeadlineService.scheduleFormDeadlines(sentForms);
         }
-
-        return sentForms.stream().map(this::convertFormToDTO).collect(Collectors.toList());
+        state.increment("sentCount", sentForms.size());
     }
 
     @Override
@@ -0,0 +1,51 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationForm;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDeadlineService;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationDeadlineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schedules the deadlines of vaccination campaigns and consent forms.
+ * They are fired by {@link VaccinationScheduledTasks}.
+ */
+@Service
+@RequiredArgsConstructor
+public class VaccinationDeadlineService implements IVaccinationDeadlineService {
+
+    public static final Duration CAMPAIGN_REMINDER_AFTER = Duration.ofHours(12);
+    public static final Duration CAMPAIGN_AUTO_REJECT_AFTER = Duration.ofHours(24);
+    public static final Duration FORM_REMINDER_AFTER = Duration.ofHours(24);
+    public static final Duration FORM_EXPIRY_AFTER = Duration.ofHours(48);
+
+    private final IDeadlineService deadlineService;
+
+    @Override
+    public void scheduleFormDeadlines(List<VaccinationForm> sentForms) {
+        Map<Long, LocalDateTime> reminders = new HashMap<>();
+        Map<Long, LocalDateTime> expiries = new HashMap<>();
+        for (VaccinationForm form : sentForms) {
+            reminders.put(form.getId(), form.getSentDate().plus(FORM_REMINDER_AFTER));
+            expiries.put(form.getId(), form.getSentDate().plus(FORM_EXPIRY_AFTER));
+        }
+        deadlineService.scheduleAll(DeadlineType.VACCINATION_FORM_REMINDER, reminders);
+        deadlineService.scheduleAll(DeadlineType.VACCINATION_FORM_EXPIRY, expiries);
+    }
+
+    @Override
+    public void scheduleCampaignDeadlines(VaccinationCampaign campaign) {
+        deadlineService.schedule(DeadlineType.VACCINATION_CAMPAIGN_REMINDER, campaign.getId(),
+                campaign.getCreatedDate().plus(CAMPAIGN_REMINDER_AFTER));
+        deadlineService.schedule(DeadlineType.VACCINATION_CAMPAIGN_AUTO_REJECT, campaign.getId(),
+                campaign.getCreatedDate().plus(CAMPAIGN_AUTO_REJECT_AFTER));
+    }
+}
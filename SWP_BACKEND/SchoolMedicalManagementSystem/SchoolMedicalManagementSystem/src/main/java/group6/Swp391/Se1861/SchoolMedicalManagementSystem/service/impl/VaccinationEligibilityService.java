@@ -0,0 +1,129 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.VaccinationEligibilityResult;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.VaccinationEligibilityResult.StudentEligibility;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Student;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationHistory;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationRule;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.VaccinationHistoryRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationEligibilityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Batch vaccination eligibility.
+ * All history rows for the rule's vaccine are read in one query and grouped by student id,
+ * then each student is evaluated in a single pass without touching the database.
+ * Large rosters are evaluated on a parallel stream.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VaccinationEligibilityService implements IVaccinationEligibilityService {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final VaccinationHistoryRepository historyRepository;
+
+    @Value("${vaccination.eligibility.parallel-threshold:2000}")
+    private int parallelThreshold;
+
+    @Override
+    @Transactional(readOnly = true)
+    public VaccinationEligibilityResult evaluate(VaccinationRule rule, List<Student> students) {
+        long start = System.nanoTime();
+        Map<Long, List<VaccinationHistory>> historiesByStudent = loadHistories(rule.getName());
+        LocalDate today = LocalDate.now();
+
+        Stream<Student> stream = students.size() >= parallelThreshold
+                ? students.parallelStream()
+                : students.stream();
+        Map<Boolean, List<StudentEligibility>> partitions = stream
+                .map(student -> evaluate(rule, student,
+                        historiesByStudent.getOrDefault(student.getStudentID(), Collections.emptyList()), today))
+                .collect(Collectors.partitioningBy(StudentEligibility::isEligible));
+
+        VaccinationEligibilityResult result = new VaccinationEligibilityResult(partitions.get(true), partitions.get(false));
+        log.debug("Evaluated {} students for rule {} in {} ms: {} eligible",
+                students.size(), rule.getId(), (System.nanoTime() - start) / 1_000_000, result.getEligible().size());
+        return result;
+    }
+
+    /**
+     * Histories of one vaccine grouped by student, most recent dose first
+     */
+    private Map<Long, List<VaccinationHistory>> loadHistories(String vaccineName) {
+        Map<Long, List<VaccinationHistory>> historiesByStudent = new HashMap<>();
+        for (Object[] row : historyRepository.findWithStudentIdByVaccineName(vaccineName)) {
+            VaccinationHistory history = (VaccinationHistory) row[1];
+            // Database collation ignores case, the rule name match is exact
+            if (!history.getVaccineName().equals(vaccineName)) {
+                continue;
+            }
+            historiesByStudent.computeIfAbsent((Long) row[0], id -> new ArrayList<>(2)).add(history);
+        }
+        return historiesByStudent;
+    }
+
+    private StudentEligibility evaluate(VaccinationRule rule, Student student,
+                                        List<VaccinationHistory> histories, LocalDate today) {
+        if (student.getDob() == null) {
+            return new StudentEligibility(student, null, "Thiếu ngày sinh", histories);
+        }
+
+        Period period = Period.between(student.getDob(), today);
+        int ageInMonths = period.getYears() * 12 + period.getMonths();
+        return new StudentEligibility(student, ageInMonths,
+                ineligibilityReason(rule, ageInMonths, histories, today), histories);
+    }
+
+    private String ineligibilityReason(VaccinationRule rule, int ageInMonths,
+                                       List<VaccinationHistory> histories, LocalDate today) {
+        if (ageInMonths < rule.getMinAge()) {
+            return "Tuổi chưa đủ (cần tối thiểu " + rule.getMinAge() + " tháng)";
+        }
+        if (ageInMonths > rule.getMaxAge()) {
+            return "Đã quá tuổi (tối đa " + rule.getMaxAge() + " tháng)";
+        }
+
+        int dose = rule.getDoesNumber();
+        VaccinationHistory latestPreviousDose = null;
+        boolean alreadyHasDose = false;
+        for (VaccinationHistory history : histories) {
+            if (history.getDoseNumber() == dose) {
+                alreadyHasDose = true;
+            } else if (history.getDoseNumber() == dose - 1 && latestPreviousDose == null) {
+                latestPreviousDose = history;
+            }
+        }
+
+        if (dose > 1 && latestPreviousDose == null) {
+            return "Chưa tiêm mũi " + (dose - 1);
+        }
+        if (alreadyHasDose) {
+            return "Đã tiêm mũi " + dose;
+        }
+        if (dose > 1 && rule.getIntervalDays() > 0) {
+            LocalDate earliestNextDate = latestPreviousDose.getDateOfVaccination().plusDays(rule.getIntervalDays());
+            if (today.isBefore(earliestNextDate)) {
+                return "Chưa đủ " + rule.getIntervalDays() + " ngày kể từ mũi " + (dose - 1) +
+                        " (có thể tiêm từ " + earliestNextDate.format(DATE_FORMATTER) + ")";
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationForm;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserts generated vaccination forms with JDBC batches.
+ * IDENTITY ids stop Hibernate from batching saveAll, so rows are written here directly.
+ * ON DUPLICATE KEY UPDATE with a no-op assignment, together with the unique (campaign_id, student_id) key,
+ * makes a second, concurrent generation for the same campaign skip the students that already got a form.
+ * Unlike INSERT IGNORE it only tolerates that conflict: NOT NULL, foreign key and truncation errors still fail.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VaccinationFormBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO vaccination_form (vaccine_name, vaccine_brand, dose_number, scheduled_date, location, " +
+            "pre_post_care_instructions, confirmation_status, created_date, is_active, reminder_sent, " +
+            "campaign_id, student_id, parent_id, created_by_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${vaccination.forms.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Insert the forms, skipping students that already have a form for the campaign.
+     * Forms must have createdDate set; it is written as given.
+     */
+    public void insertAll(List<VaccinationForm> forms) {
+        if (forms.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, forms, batchSize, (ps, form) -> {
+            ps.setString(1, form.getVaccineName());
+            ps.setString(2, form.getVaccineBrand());
+            ps.setInt(3, form.getDoseNumber());
+            ps.setTimestamp(4, Timestamp.valueOf(form.getScheduledDate()));
+            ps.setString(5, form.getLocation());
+            ps.setString(6, form.getPrePostCareInstructions());
+            ps.setString(7, form.getConfirmationStatus().name());
+            ps.setTimestamp(8, Timestamp.valueOf(form.getCreatedDate()));
+            ps.setBoolean(9, form.getIsActive());
+            ps.setBoolean(10, form.getReminderSent());
+            ps.setLong(11, form.getCampaign().getId());
+            ps.setLong(12, form.getStudent().getStudentID());
+            ps.setLong(13, form.getParent().getId());
+            ps.setLong(14, form.getCreatedBy().getId());
+        });
+        long insertNanos = System.nanoTime() - start;
+
+        double rowsPerSecond = insertNanos > 0 ? forms.size() * 1_000_000_000.0 / insertNanos : 0;
+        log.info("Vaccination form batch insert for campaign {}: {} rows in {} batches, {} ms ({} rows/s)",
+                forms.get(0).getCampaign().getId(), forms.size(), counts.length,
+                insertNanos / 1_000_000, Math.round(rowsPerSecond));
+    }
+}
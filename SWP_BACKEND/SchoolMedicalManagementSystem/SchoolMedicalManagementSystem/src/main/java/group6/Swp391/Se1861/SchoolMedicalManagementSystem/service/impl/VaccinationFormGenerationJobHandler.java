@@ -0,0 +1,60 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.JobState;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.BackgroundJob;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.UserRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobHandler;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationCampaignService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates vaccination forms for the eligible students of a campaign, one chunk of students at a time.
+ * Forms are created on behalf of the nurse who started the job.
+ */
+@Component
+@RequiredArgsConstructor
+public class VaccinationFormGenerationJobHandler implements IBackgroundJobHandler {
+
+    private final IVaccinationCampaignService campaignService;
+    private final UserRepository userRepository;
+
+    @Override
+    public JobType getType() {
+        return JobType.VACCINATION_FORM_GENERATION;
+    }
+
+    @Override
+    public void validate(BackgroundJob job) {
+        User nurse = userRepository.findByUsername(job.getRequestedBy())
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + job.getRequestedBy()));
+        campaignService.validateFormGeneration(job.getTargetId(), nurse);
+    }
+
+    @Override
+    public List<Long> listItems(BackgroundJob job) {
+        return campaignService.getStudentIdsForFormGeneration(job.getTargetId());
+    }
+
+    @Override
+    public void processChunk(BackgroundJob job, List<Long> items, JobState state) {
+        campaignService.generateVaccinationFormsForStudents(job.getTargetId(), items, job.getRequestedBy(), state);
+    }
+
+    @Override
+    public Object buildResult(BackgroundJob job, JobState state) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("campaignId", job.getTargetId());
+        result.put("eligibleStudents", job.getTotalItems());
+        result.put("formsGenerated", state.getInt("formsGenerated"));
+        result.put("studentsWithoutParents", state.getInt("studentsWithoutParents"));
+        result.put("formIds", state.list("formIds"));
+        return result;
+    }
+}
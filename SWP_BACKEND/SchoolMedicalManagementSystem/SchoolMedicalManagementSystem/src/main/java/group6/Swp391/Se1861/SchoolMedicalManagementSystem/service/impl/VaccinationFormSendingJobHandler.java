@@ -0,0 +1,60 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.JobState;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.BackgroundJob;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.JobType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IBackgroundJobHandler;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationCampaignService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the pending, not yet sent consent forms of a campaign to parents, one chunk of forms at a time.
+ * Parameter: "customMessage" (optional).
+ */
+@Component
+@RequiredArgsConstructor
+public class VaccinationFormSendingJobHandler implements IBackgroundJobHandler {
+
+    private final IVaccinationCampaignService campaignService;
+
+    @Override
+    public JobType getType() {
+        return JobType.VACCINATION_FORM_SENDING;
+    }
+
+    @Override
+    public void validate(BackgroundJob job) {
+        // Throws when the campaign does not exist
+        campaignService.getCampaignById(job.getTargetId());
+    }
+
+    @Override
+    public List<Long> listItems(BackgroundJob job) {
+        return campaignService.getPendingFormIds(job.getTargetId());
+    }
+
+    @Override
+    public void processChunk(BackgroundJob job, List<Long> items, JobState state) {
+        campaignService.sendFormsToParents(items, customMessage(job), state);
+    }
+
+    @Override
+    public Object buildResult(BackgroundJob job, JobState state) {
+        String customMessage = customMessage(job);
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", "Forms sent successfully to parents" +
+                (customMessage != null && !customMessage.trim().isEmpty() ? " with custom message" : " with default template"));
+        result.put("sentCount", state.getInt("sentCount"));
+        return result;
+    }
+
+    private static String customMessage(BackgroundJob job) {
+        Object message = BackgroundJobRunner.readParameters(job).get("customMessage");
+        return message != null ? message.toString() : null;
+    }
+}
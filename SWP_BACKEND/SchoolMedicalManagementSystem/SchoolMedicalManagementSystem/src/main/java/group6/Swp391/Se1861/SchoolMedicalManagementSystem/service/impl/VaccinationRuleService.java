@@ -2,7 +2,9 @@ package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
 
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.VaccinationRuleDTO;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.User;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationRule;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.VaccinationCampaignRepository;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.VaccinationRuleRepository;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IVaccinationRuleService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,15 +12,29 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class VaccinationRuleService implements IVaccinationRuleService {
 
+    // Campaign statuses counted as active usage of a rule
+    private static final Set<VaccinationCampaign.CampaignStatus> ACTIVE_CAMPAIGN_STATUSES = EnumSet.of(
+            VaccinationCampaign.CampaignStatus.PENDING,
+            VaccinationCampaign.CampaignStatus.APPROVED,
+            VaccinationCampaign.CampaignStatus.IN_PROGRESS);
+
     @Autowired
     private VaccinationRuleRepository vaccinationRuleRepository;
 
+    @Autowired
+    private VaccinationCampaignRepository vaccinationCampaignRepository;
+
     /**
      * Creates a new vaccination rule. Only SCHOOLNURSE users can create vaccination rules.
      *
@@ -56,8 +72,11 @@ public class VaccinationRuleService implements IVaccinationRuleService {
     @Override
     public List<VaccinationRuleDTO> getAllVaccinationRules() {
         List<VaccinationRule> rules = vaccinationRuleRepository.findAll();
+        Map<Long, Long> activeCampaignCounts = countActiveCampaigns(rules.stream()
+                .map(VaccinationRule::getId)
+                .collect(Collectors.toList()));
         return rules.stream()
-                .map(this::convertToDTO)
+                .map(rule -> convertToDTO(rule, activeCampaignCounts.getOrDefault(rule.getId(), 0L)))
                 .collect(Collectors.toList());
     }
 
@@ -125,7 +144,7 @@ public class VaccinationRuleService implements IVaccinationRuleService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Vaccination rule not found"));
         
         // Check if the rule is being used in any campaigns
-        if (!existingRule.getVaccinationCampaigns().isEmpty()) {
+        if (vaccinationCampaignRepository.existsByVaccinationRule(existingRule)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, 
                 "Cannot delete vaccination rule that is associated with existing campaigns");
         }
@@ -139,8 +158,28 @@ public class VaccinationRuleService implements IVaccinationRuleService {
      *
      * @param rule The entity to convert
      * @return The converted DTO
-     */    @Override
+     */
+    @Override
     public VaccinationRuleDTO convertToDTO(VaccinationRule rule) {
+        long activeCampaigns = countActiveCampaigns(List.of(rule.getId())).getOrDefault(rule.getId(), 0L);
+        return convertToDTO(rule, activeCampaigns);
+    }
+
+    /**
+     * Count active campaigns per rule with one grouped query instead of loading each rule's campaigns
+     */
+    private Map<Long, Long> countActiveCampaigns(Collection<Long> ruleIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (ruleIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : vaccinationCampaignRepository.countByRuleIdsAndStatusIn(ruleIds, ACTIVE_CAMPAIGN_STATUSES)) {
+            counts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private VaccinationRuleDTO convertToDTO(VaccinationRule rule, long activeCampaigns) {
         VaccinationRuleDTO dto = new VaccinationRuleDTO();
         dto.setId(rule.getId());
         dto.setName(rule.getName());
@@ -151,18 +190,7 @@ public class VaccinationRuleService implements IVaccinationRuleService {
         dto.setIntervalDays(rule.getIntervalDays());
         dto.setMandatory(rule.isMandatory());
         
-        // Count active campaigns using this rule
-        if (rule.getVaccinationCampaigns() != null) {
-            long activeCampaigns = rule.getVaccinationCampaigns().stream()
-                    .filter(campaign -> 
-                        campaign.getStatus() == group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign.CampaignStatus.PENDING ||
-                        campaign.getStatus() == group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign.CampaignStatus.APPROVED ||
-                        campaign.getStatus() == group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign.CampaignStatus.IN_PROGRESS
-                    ).count();
-            dto.setActiveCampaignsCount((int) activeCampaigns);
-        } else {
-            dto.setActiveCampaignsCount(0);
-        }
+        dto.setActiveCampaignsCount((int) activeCampaigns);
         
         return dto;
     }
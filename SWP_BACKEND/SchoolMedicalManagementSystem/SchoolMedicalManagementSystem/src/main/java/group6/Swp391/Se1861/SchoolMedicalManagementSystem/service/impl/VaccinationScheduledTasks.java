@@ -1,5 +1,8 @@
 package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
 
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.DeadlineType;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDeadlineHandler;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.IDeadlineService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationService;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.VaccinationCampaignRepository;
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.VaccinationFormRepository;
@@ -7,152 +10,129 @@ import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.UserReposit
 import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Deadline-driven transitions of vaccination campaigns and consent forms.
+ * Deadlines are scheduled by {@link VaccinationDeadlineService} when a campaign is created and
+ * when a form is sent to the parent, and fired by {@link DeadlineDispatcher} when they fall due.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class VaccinationScheduledTasks {
+public class VaccinationScheduledTasks implements IDeadlineHandler {
 
     private final INotificationService notificationService;
     private final VaccinationCampaignRepository campaignRepository;
     private final VaccinationFormRepository formRepository;
     private final UserRepository userRepository;
+    private final IDeadlineService deadlineService;
 
-    /**
-     * Scheduled task to mark expired vaccination forms
-     * Runs every hour
-     */
-    @Scheduled(fixedRate = 3600000) // 1 hour = 3600000 milliseconds
-    @Transactional
-    public void markExpiredVaccinationForms() {
-        try {
-            log.info("Starting scheduled task: markExpiredVaccinationForms");
-            
-            LocalDateTime expiredDate = LocalDateTime.now().minusHours(48);
-            
-            List<VaccinationForm> expiredForms = formRepository.findByConfirmationStatusAndSentDateIsNotNull(VaccinationForm.ConfirmationStatus.PENDING)
-                    .stream()
-                    .filter(form -> form.getSentDate() != null && form.getSentDate().isBefore(expiredDate))
-                    .collect(Collectors.toList());
+    @Override
+    public Set<DeadlineType> getTypes() {
+        return EnumSet.of(DeadlineType.VACCINATION_FORM_REMINDER, DeadlineType.VACCINATION_FORM_EXPIRY,
+                DeadlineType.VACCINATION_CAMPAIGN_REMINDER, DeadlineType.VACCINATION_CAMPAIGN_AUTO_REJECT);
+    }
 
-            for (VaccinationForm form : expiredForms) {
-                form.setConfirmationStatus(VaccinationForm.ConfirmationStatus.EXPIRED);
-                
-                // Notify nurse about expired form
-                String studentName = form.getStudent().getFullName();
-                notificationService.createVaccinationFormExpiryNotification(
-                        form.getCreatedBy(),
-                        studentName
-                );
+    @Override
+    public void onDeadline(DeadlineType type, Long targetId) {
+        switch (type) {
+            case VACCINATION_FORM_REMINDER -> formRepository.findById(targetId).ifPresent(this::remindPendingForm);
+            case VACCINATION_FORM_EXPIRY -> formRepository.findById(targetId).ifPresent(this::expirePendingForm);
+            case VACCINATION_CAMPAIGN_REMINDER -> campaignRepository.findById(targetId).ifPresent(this::remindPendingCampaign);
+            case VACCINATION_CAMPAIGN_AUTO_REJECT -> campaignRepository.findById(targetId).ifPresent(campaign -> {
+                if (campaign.getStatus() == VaccinationCampaign.CampaignStatus.PENDING) {
+                    log.info("Auto-rejecting campaign {} after 24 hours", campaign.getId());
+                    autoRejectCampaign(campaign);
+                }
+            });
+            default -> throw new IllegalArgumentException("Unsupported deadline type " + type);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void registerPendingDeadlines() {
+        Map<Long, LocalDateTime> campaignReminders = new HashMap<>();
+        Map<Long, LocalDateTime> campaignRejections = new HashMap<>();
+        for (VaccinationCampaign campaign : campaignRepository.findByStatus(VaccinationCampaign.CampaignStatus.PENDING)) {
+            if (campaign.getCreatedDate() == null) {
+                continue;
+            }
+            if (!campaign.getReminderSent()) {
+                campaignReminders.put(campaign.getId(), campaign.getCreatedDate().plus(VaccinationDeadlineService.CAMPAIGN_REMINDER_AFTER));
             }
+            campaignRejections.put(campaign.getId(), campaign.getCreatedDate().plus(VaccinationDeadlineService.CAMPAIGN_AUTO_REJECT_AFTER));
+        }
+        deadlineService.scheduleAll(DeadlineType.VACCINATION_CAMPAIGN_REMINDER, campaignReminders);
+        deadlineService.scheduleAll(DeadlineType.VACCINATION_CAMPAIGN_AUTO_REJECT, campaignRejections);
 
-            if (!expiredForms.isEmpty()) {
-                formRepository.saveAll(expiredForms);
-                log.info("Marked {} forms as expired", expiredForms.size());
+        Map<Long, LocalDateTime> formReminders = new HashMap<>();
+        Map<Long, LocalDateTime> formExpiries = new HashMap<>();
+        for (Object[] row : formRepository.findSentDeadlineRowsByConfirmationStatus(VaccinationForm.ConfirmationStatus.PENDING)) {
+            Long formId = (Long) row[0];
+            LocalDateTime sentDate = (LocalDateTime) row[1];
+            if (!Boolean.TRUE.equals(row[2])) {
+                formReminders.put(formId, sentDate.plus(VaccinationDeadlineService.FORM_REMINDER_AFTER));
             }
-            
-            log.info("Completed scheduled task: markExpiredVaccinationForms");
-        } catch (Exception e) {
-            log.error("Error in scheduled task markExpiredVaccinationForms: ", e);
+            formExpiries.put(formId, sentDate.plus(VaccinationDeadlineService.FORM_EXPIRY_AFTER));
         }
+        deadlineService.scheduleAll(DeadlineType.VACCINATION_FORM_REMINDER, formReminders);
+        deadlineService.scheduleAll(DeadlineType.VACCINATION_FORM_EXPIRY, formExpiries);
+
+        log.info("Registered deadlines for {} pending vaccination campaigns and {} pending forms",
+                campaignRejections.size(), formExpiries.size());
     }
 
     /**
-     * Scheduled task to check vaccination campaigns for reminders and auto-rejection
-     * Runs every hour
+     * Mark a form the parent has not answered within 48 hours as expired and tell the nurse
      */
-    @Scheduled(fixedRate = 3600000) // 1 hour = 3600000 milliseconds
-    @Transactional
-    public void checkVaccinationCampaignDeadlines() {
-        try {
-            log.info("Starting scheduled task: checkVaccinationCampaignDeadlines");
-            
-            LocalDateTime now = LocalDateTime.now();
-            
-            // Get all pending campaigns
-            List<VaccinationCampaign> pendingCampaigns = campaignRepository.findByStatus(VaccinationCampaign.CampaignStatus.PENDING);
-            
-            for (VaccinationCampaign campaign : pendingCampaigns) {
-                LocalDateTime createdAt = campaign.getCreatedDate();
-                long hoursElapsed = ChronoUnit.HOURS.between(createdAt, now);
-                
-                // Debug logging for campaign timing
-                System.out.println("DEBUG - Campaign ID: " + campaign.getId());
-                System.out.println("DEBUG - Campaign Name: " + campaign.getName());
-                System.out.println("DEBUG - Created At: " + createdAt);
-                System.out.println("DEBUG - Current Time: " + now);
-                System.out.println("DEBUG - Hours Elapsed: " + hoursElapsed);
-                System.out.println("DEBUG - Status: " + campaign.getStatus());
-                System.out.println("DEBUG - Should auto-reject? " + (hoursElapsed >= 24));
-                System.out.println("DEBUG - Should send reminder? " + (hoursElapsed >= 12 && !campaign.getReminderSent()));
-                System.out.println("------------------");
-                
-                if (hoursElapsed >= 24) {
-                    // Auto-reject after 24 hours
-                    log.info("Auto-rejecting campaign {} after 24 hours", campaign.getId());
-                    autoRejectCampaign(campaign);
-                } else if (hoursElapsed >= 12 && !campaign.getReminderSent()) {
-                    // Send reminder after 12 hours
-                    log.info("Sending reminder for campaign {} after 12 hours", campaign.getId());
-                    sendCampaignReminderToManagers(campaign);
-                    campaign.setReminderSent(true);
-                    campaignRepository.save(campaign);
-                }
-            }
-            
-            log.info("Completed scheduled task: checkVaccinationCampaignDeadlines");
-        } catch (Exception e) {
-            log.error("Error in scheduled task checkVaccinationCampaignDeadlines: ", e);
+    private void expirePendingForm(VaccinationForm form) {
+        if (form.getConfirmationStatus() != VaccinationForm.ConfirmationStatus.PENDING || form.getSentDate() == null) {
+            return;
         }
+        form.setConfirmationStatus(VaccinationForm.ConfirmationStatus.EXPIRED);
+        formRepository.save(form);
+
+        notificationService.createVaccinationFormExpiryNotification(
+                form.getCreatedBy(),
+                form.getStudent().getFullName()
+        );
+        log.info("Marked form {} as expired after 48 hours", form.getId());
     }
 
     /**
-     * Scheduled task to check vaccination forms for reminders and auto-rejection
-     * Runs every hour
+     * Remind the parent about a form still unanswered 24 hours after it was sent
      */
-    @Scheduled(fixedRate = 3600000) // 1 hour = 3600000 milliseconds
-    @Transactional
-    public void checkVaccinationFormDeadlines() {
-        try {
-            log.info("Starting scheduled task: checkVaccinationFormDeadlines");
-            
-            LocalDateTime now = LocalDateTime.now();
-            
-            // Get all pending forms that have been sent to parents
-            List<VaccinationForm> pendingForms = formRepository.findByConfirmationStatusAndSentDateIsNotNull(
-                VaccinationForm.ConfirmationStatus.PENDING);
-            
-            for (VaccinationForm form : pendingForms) {
-                LocalDateTime sentDate = form.getSentDate();
-                if (sentDate != null) {
-                    long hoursElapsed = ChronoUnit.HOURS.between(sentDate, now);
-                    
-                    if (hoursElapsed >= 48) {
-                        // Auto-reject after 48 hours
-                        log.info("Auto-rejecting form {} after 48 hours", form.getId());
-                        autoRejectVaccinationForm(form);
-                    } else if (hoursElapsed >= 24 && !form.getReminderSent()) {
-                        // Send reminder after 24 hours
-                        log.info("Sending reminder for form {} after 24 hours", form.getId());
-                        sendFormReminderToParent(form);
-                        form.setReminderSent(true);
-                        formRepository.save(form);
-                    }
-                }
-            }
-            
-            log.info("Completed scheduled task: checkVaccinationFormDeadlines");
-        } catch (Exception e) {
-            log.error("Error in scheduled task checkVaccinationFormDeadlines: ", e);
+    private void remindPendingForm(VaccinationForm form) {
+        if (form.getConfirmationStatus() != VaccinationForm.ConfirmationStatus.PENDING || form.getReminderSent()) {
+            return;
+        }
+        log.info("Sending reminder for form {} after 24 hours", form.getId());
+        sendFormReminderToParent(form);
+        form.setReminderSent(true);
+        formRepository.save(form);
+    }
+
+    /**
+     * Remind managers about a campaign still waiting for approval 12 hours after creation
+     */
+    private void remindPendingCampaign(VaccinationCampaign campaign) {
+        if (campaign.getStatus() != VaccinationCampaign.CampaignStatus.PENDING || campaign.getReminderSent()) {
+            return;
         }
+        log.info("Sending reminder for campaign {} after 12 hours", campaign.getId());
+        sendCampaignReminderToManagers(campaign);
+        campaign.setReminderSent(true);
+        campaignRepository.save(campaign);
     }
 
     /**
@@ -229,36 +209,6 @@ public class VaccinationScheduledTasks {
         }
     }
 
-    /**
-     * Auto-reject vaccination form after 48 hours
-     */
-    @Transactional
-    public void autoRejectVaccinationForm(VaccinationForm form) {
-        try {
-            String autoRejectReason = "Phiếu đồng ý tiêm chủng bị từ chối tự động do quá thời hạn phản hồi (48 giờ).";
-            
-            form.setConfirmationStatus(VaccinationForm.ConfirmationStatus.DECLINED);
-            form.setParentNotes(autoRejectReason);
-            form.setResponseDate(LocalDateTime.now());
-            formRepository.save(form);
-            
-            // Notify the school nurse
-            User schoolNurse = form.getCampaign().getCreatedBy();
-            if (schoolNurse != null) {
-                notificationService.createVaccinationFormDeclineNotification(
-                    schoolNurse,
-                    form.getStudent().getFullName(),
-                    form.getCampaign().getVaccineName(),
-                    autoRejectReason
-                );
-            }
-            
-            log.info("Auto-rejected form {} due to 48-hour deadline", form.getId());
-        } catch (Exception e) {
-            log.error("Error auto-rejecting form {}: ", form.getId(), e);
-        }
-    }
-
     /**
      * Send reminder to parent about pending vaccination form
      */
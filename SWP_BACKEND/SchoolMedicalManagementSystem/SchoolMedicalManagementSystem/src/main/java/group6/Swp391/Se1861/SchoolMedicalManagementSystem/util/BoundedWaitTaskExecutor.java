@@ -0,0 +1,52 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.util;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each task on its own virtual thread, with at most maxConcurrency tasks running at once.
+ * A task submitted while all permits are taken waits up to acquireTimeoutMs for one to free up
+ * and is rejected with a TaskRejectedException after that, so a burst of requests is smoothed
+ * out instead of failing, but a saturated executor never parks the caller indefinitely.
+ */
+public class BoundedWaitTaskExecutor implements AsyncTaskExecutor {
+
+    private final SimpleAsyncTaskExecutor delegate;
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    public BoundedWaitTaskExecutor(String threadNamePrefix, int maxConcurrency, long acquireTimeoutMs) {
+        this.delegate = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        this.delegate.setVirtualThreads(true);
+        this.permits = new Semaphore(maxConcurrency);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new TaskRejectedException("No slot freed up within " + acquireTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException("Interrupted while waiting for a slot", e);
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: each level has 64 slots, and a slot on level n spans 64^n ticks.
+ * An item goes into the lowest level whose range covers its due tick. When the clock reaches
+ * the start of a higher-level slot, that slot's items are moved down. Adding and expiring an
+ * item is O(1), however many items are waiting. Methods are synchronized, so one thread can
+ * add items while another advances the clock.
+ */
+public class HierarchicalTimerWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final List<List<Entry<T>>> slots;
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimerWheel(long tickMillis, int levels, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.slots = new ArrayList<>(levels * SLOTS);
+        for (int i = 0; i < levels * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Add an item due at the given time. Items already due expire on the next tick.
+     * @return false if the time is beyond the wheel's range
+     */
+    public synchronized boolean add(long dueMillis, T item) {
+        long dueTick = Math.max(Math.floorDiv(dueMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        if (!place(new Entry<>(dueTick, item))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Move the clock forward to the given time and return every item that became due
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels - 1; level >= 1; level--) {
+                int shift = SLOT_BITS * level;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    for (Entry<T> entry : takeSlot(level, (int) ((currentTick >>> shift) & SLOT_MASK))) {
+                        if (entry.dueTick <= currentTick) {
+                            expired.add(entry.item);
+                            size--;
+                        } else {
+                            place(entry);
+                        }
+                    }
+                }
+            }
+            for (Entry<T> entry : takeSlot(0, (int) (currentTick & SLOT_MASK))) {
+                expired.add(entry.item);
+                size--;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Latest time the wheel can hold an item for, from its current position
+     */
+    public synchronized long rangeEndMillis() {
+        return (currentTick + (1L << (SLOT_BITS * levels)) - 1) * tickMillis;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private boolean place(Entry<T> entry) {
+        long delta = entry.dueTick - currentTick;
+        for (int level = 0; level < levels; level++) {
+            int shift = SLOT_BITS * level;
+            if (delta < (1L << (shift + SLOT_BITS))) {
+                slots.get(level * SLOTS + (int) ((entry.dueTick >>> shift) & SLOT_MASK)).add(entry);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Entry<T>> takeSlot(int level, int slot) {
+        int index = level * SLOTS + slot;
+        List<Entry<T>> entries = slots.get(index);
+        if (entries.isEmpty()) {
+            return entries;
+        }
+        slots.set(index, new ArrayList<>());
+        return entries;
+    }
+
+    private record Entry<T>(long dueTick, T item) {
+    }
+}
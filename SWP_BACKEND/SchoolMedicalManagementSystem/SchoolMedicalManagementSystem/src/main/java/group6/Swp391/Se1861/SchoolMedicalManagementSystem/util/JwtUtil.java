@@ -160,6 +160,7 @@ public class JwtUtil {
     /**
      * Clean up expired tokens from the blacklist
      * This method should be scheduled to run periodically
+     * The blacklist is held in memory, so every instance cleans its own copy (no scheduler lease)
      */
     @Scheduled(fixedRate = 3600000) // Run every hour
     public void cleanupExpiredTokens() {
@@ -0,0 +1,108 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.util;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.Notification;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.NotificationArchive;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Utility class for mapping Notification entity to NotificationDTO
+ */
+public class NotificationMapper {
+
+    /**
+     * Map Notification entity to DTO, exposing only the ids of linked entities
+     */
+    public static NotificationDTO toDTO(Notification notification) {
+        NotificationDTO dto = new NotificationDTO();
+        dto.setId(notification.getId());
+        dto.setTitle(notification.getTitle());
+        dto.setMessage(notification.getMessage());
+        dto.setCreatedAt(notification.getCreatedAt());
+        dto.setRead(notification.isRead());
+        dto.setNotificationType(notification.getNotificationType());
+        dto.setConfirm(notification.getConfirm());
+
+        if (notification.getRecipient() != null) {
+            dto.setRecipientId(notification.getRecipient().getId());
+        }
+        if (notification.getMedicationRequest() != null) {
+            dto.setMedicationRequestId(notification.getMedicationRequest().getId());
+        }
+        if (notification.getMedicationSchedule() != null) {
+            dto.setMedicationScheduleId(notification.getMedicationSchedule().getId());
+        }
+        if (notification.getMedicalEvent() != null) {
+            dto.setMedicalEventId(notification.getMedicalEvent().getId());
+        }
+        if (notification.getVaccinationForm() != null) {
+            dto.setVaccinationFormId(notification.getVaccinationForm().getId());
+        }
+        if (notification.getRestockRequest() != null) {
+            dto.setRestockRequestId(notification.getRestockRequest().getId());
+        }
+        if (notification.getCampaignCompletionRequest() != null) {
+            dto.setCampaignCompletionRequestId(notification.getCampaignCompletionRequest().getId());
+        }
+        if (notification.getHealthCheckForm() != null) {
+            dto.setHealthCheckFormId(notification.getHealthCheckForm().getId());
+        }
+        dto.setHealthCheckFormIds(parseIds(notification.getHealthCheckFormIds()));
+        dto.setReplacesNotificationId(notification.getReplacesNotificationId());
+        if (notification.getHealthCheckCampaign() != null) {
+            dto.setHealthCheckCampaignId(notification.getHealthCheckCampaign().getId());
+        }
+
+        return dto;
+    }
+
+    /**
+     * Map an archived notification to DTO; archived notifications are always read
+     */
+    public static NotificationDTO toDTO(NotificationArchive archived) {
+        NotificationDTO dto = new NotificationDTO();
+        dto.setId(archived.getId());
+        dto.setTitle(archived.getTitle());
+        dto.setMessage(archived.getMessage());
+        dto.setCreatedAt(archived.getCreatedAt());
+        dto.setRead(true);
+        dto.setNotificationType(archived.getNotificationType());
+        dto.setConfirm(archived.getConfirm());
+        dto.setRecipientId(archived.getRecipientId());
+        dto.setMedicationRequestId(archived.getMedicationRequestId());
+        dto.setMedicationScheduleId(archived.getMedicationScheduleId());
+        dto.setMedicalEventId(archived.getMedicalEventId());
+        dto.setVaccinationFormId(archived.getVaccinationFormId());
+        dto.setRestockRequestId(archived.getRestockRequestId());
+        dto.setCampaignCompletionRequestId(archived.getCampaignCompletionRequestId());
+        dto.setHealthCheckFormId(archived.getHealthCheckFormId());
+        dto.setHealthCheckFormIds(parseIds(archived.getHealthCheckFormIds()));
+        dto.setHealthCheckCampaignId(archived.getHealthCheckCampaignId());
+        return dto;
+    }
+
+    /**
+     * Store a list of linked ids in a comma-separated column
+     */
+    public static String formatIds(Collection<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Read a comma-separated id column; empty when the column is null
+     */
+    public static List<Long> parseIds(String ids) {
+        List<Long> result = new ArrayList<>();
+        if (ids == null || ids.isBlank()) {
+            return result;
+        }
+        for (String id : ids.split(",")) {
+            result.add(Long.parseLong(id.trim()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,171 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service;
+
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.DashboardFilterDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.SchoolNurseStatsDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.RestockRequest.RestockStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.VaccinationCampaign;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.CampaignStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.MedicationStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.enums.ProfileStatus;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.HealthCheckCampaignRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.HealthProfileRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.MedicalEventRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.MedicalSupplyRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.MedicationRequestRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.MedicationScheduleRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.RestockRequestRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.VaccinationCampaignRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The conditional-aggregation panels (used when the counter table is off) must report the same
+ * numbers as the per-status COUNT queries they replaced, for all-time and for a date range.
+ */
+@SpringBootTest(properties = "dashboard.counters.enabled=false")
+class SchoolNurseDashboardServiceTest {
+
+	@Autowired
+	private SchoolNurseDashboardService dashboardService;
+
+	@Autowired
+	private MedicationRequestRepository medicationRequestRepository;
+
+	@Autowired
+	private MedicationScheduleRepository medicationScheduleRepository;
+
+	@Autowired
+	private MedicalEventRepository medicalEventRepository;
+
+	@Autowired
+	private MedicalSupplyRepository medicalSupplyRepository;
+
+	@Autowired
+	private RestockRequestRepository restockRequestRepository;
+
+	@Autowired
+	private VaccinationCampaignRepository vaccinationCampaignRepository;
+
+	@Autowired
+	private HealthCheckCampaignRepository healthCheckCampaignRepository;
+
+	@Autowired
+	private HealthProfileRepository healthProfileRepository;
+
+	@Test
+	void allTimeStatisticsMatchPerStatusCounts() {
+		SchoolNurseStatsDTO stats = dashboardService.getDashboardStatistics(new DashboardFilterDTO());
+
+		SchoolNurseStatsDTO.MedicationRequestStats requests = stats.getMedicationRequests();
+		assertEquals(medicationRequestRepository.count(), requests.getTotalRequests());
+		assertEquals(medicationRequestRepository.countByStatus("APPROVED"), requests.getApprovedRequests());
+		assertEquals(medicationRequestRepository.countByStatus("REJECTED"), requests.getRejectedRequests());
+		assertEquals(medicationRequestRepository.countByStatus("PENDING"), requests.getPendingRequests());
+
+		SchoolNurseStatsDTO.MedicationIntakeStats intake = stats.getMedicationIntake();
+		assertEquals(medicationScheduleRepository.countByStatus(MedicationStatus.SKIPPED), intake.getMissedDoses());
+		assertEquals(medicationScheduleRepository.countByStatus(MedicationStatus.TAKEN), intake.getTakenDoses());
+		assertEquals(medicationScheduleRepository.countByStatus(MedicationStatus.PENDING), intake.getPendingDoses());
+
+		SchoolNurseStatsDTO.MedicalEventStats events = stats.getMedicalEvents();
+		assertEquals(medicalEventRepository.count(), events.getTotalEvents());
+		assertEquals(medicalEventRepository.countByProcessed(true), events.getResolvedEvents());
+
+		SchoolNurseStatsDTO.SupplyRequestStats supplyRequests = stats.getSupplyRequests();
+		assertEquals(restockRequestRepository.count(), supplyRequests.getTotalRequests());
+		assertEquals(restockRequestRepository.countByStatus(RestockStatus.PENDING), supplyRequests.getPendingRequests());
+		assertEquals(restockRequestRepository.countByStatus(RestockStatus.APPROVED), supplyRequests.getApprovedRequests());
+		assertEquals(restockRequestRepository.countByStatus(RestockStatus.REJECTED), supplyRequests.getRejectedRequests());
+		assertEquals(restockRequestRepository.countByStatus(RestockStatus.COMPLETED), supplyRequests.getCompletedRequests());
+
+		SchoolNurseStatsDTO.VaccinationCampaignStats vaccination = stats.getVaccinationCampaigns();
+		assertEquals(vaccinationCampaignRepository.count(), vaccination.getTotalCampaigns());
+		assertEquals(vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.REJECTED), vaccination.getRejectedCampaigns());
+		assertEquals(vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.APPROVED), vaccination.getApprovedCampaigns());
+		assertEquals(vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.IN_PROGRESS), vaccination.getInProgressCampaigns());
+		assertEquals(vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.COMPLETED), vaccination.getCompletedCampaigns());
+		assertEquals(vaccinationCampaignRepository.countByStatus(VaccinationCampaign.CampaignStatus.PENDING), vaccination.getPendingCampaigns());
+
+		SchoolNurseStatsDTO.HealthCheckCampaignStats healthCheck = stats.getHealthCheckCampaigns();
+		assertEquals(healthCheckCampaignRepository.count(), healthCheck.getTotalCampaigns());
+		assertEquals(healthCheckCampaignRepository.countByStatus(CampaignStatus.CANCELED), healthCheck.getRejectedCampaigns());
+		assertEquals(healthCheckCampaignRepository.countByStatus(CampaignStatus.APPROVED), healthCheck.getApprovedCampaigns());
+		assertEquals(healthCheckCampaignRepository.countByStatus(CampaignStatus.IN_PROGRESS), healthCheck.getInProgressCampaigns());
+		assertEquals(healthCheckCampaignRepository.countByStatus(CampaignStatus.COMPLETED), healthCheck.getCompletedCampaigns());
+		assertEquals(healthCheckCampaignRepository.countByStatus(CampaignStatus.PENDING), healthCheck.getPendingCampaigns());
+
+		SchoolNurseStatsDTO.HealthProfileStats profiles = stats.getHealthProfiles();
+		assertEquals(healthProfileRepository.countByStatus(ProfileStatus.PENDING), profiles.getPendingProfiles());
+		assertEquals(healthProfileRepository.countByStatus(ProfileStatus.APPROVED), profiles.getApprovedProfiles());
+		assertEquals(healthProfileRepository.countByStatus(ProfileStatus.REJECTED), profiles.getRejectedProfiles());
+
+		SchoolNurseStatsDTO.MedicalInventoryStats inventory = stats.getMedicalInventory();
+		assertEquals(medicalSupplyRepository.count(), inventory.getTotalSupplies());
+		assertEquals(medicalSupplyRepository.countLowStockItems(), inventory.getLowStockSupplies());
+		assertEquals(medicalSupplyRepository.countExpiringSoon(LocalDate.now().plusDays(30)), inventory.getExpiringSoonSupplies());
+		assertEquals(medicalSupplyRepository.countExpired(), inventory.getExpiredSupplies());
+	}
+
+	@Test
+	void rangeStatisticsMatchPerStatusCounts() {
+		LocalDate startDate = LocalDate.now().withDayOfYear(1).minusYears(1);
+		LocalDate endDate = LocalDate.now();
+		LocalDateTime start = startDate.atStartOfDay();
+		LocalDateTime end = endDate.atTime(23, 59, 59);
+
+		DashboardFilterDTO filter = new DashboardFilterDTO();
+		filter.setFilterType("range");
+		filter.setStartDate(startDate.toString());
+		filter.setEndDate(endDate.toString());
+		SchoolNurseStatsDTO stats = dashboardService.getDashboardStatistics(filter);
+
+		SchoolNurseStatsDTO.MedicationRequestStats requests = stats.getMedicationRequests();
+		assertEquals(medicationRequestRepository.countByRequestDateBetween(startDate, endDate), requests.getTotalRequests());
+		assertEquals(medicationRequestRepository.countByStatusAndRequestDateBetween("APPROVED", startDate, endDate), requests.getApprovedRequests());
+		assertEquals(medicationRequestRepository.countByStatusAndRequestDateBetween("REJECTED", startDate, endDate), requests.getRejectedRequests());
+		assertEquals(medicationRequestRepository.countByStatusAndRequestDateBetween("PENDING", startDate, endDate), requests.getPendingRequests());
+
+		SchoolNurseStatsDTO.MedicationIntakeStats intake = stats.getMedicationIntake();
+		assertEquals(medicationScheduleRepository.countByStatusAndScheduledDateBetween(MedicationStatus.SKIPPED, startDate, endDate), intake.getMissedDoses());
+		assertEquals(medicationScheduleRepository.countByStatusAndScheduledDateBetween(MedicationStatus.TAKEN, startDate, endDate), intake.getTakenDoses());
+		assertEquals(medicationScheduleRepository.countByStatusAndScheduledDateBetween(MedicationStatus.PENDING, startDate, endDate), intake.getPendingDoses());
+
+		SchoolNurseStatsDTO.MedicalEventStats events = stats.getMedicalEvents();
+		assertEquals(medicalEventRepository.countByCreatedAtBetween(start, end), events.getTotalEvents());
+		assertEquals(medicalEventRepository.countByProcessedAndCreatedAtBetween(true, start, end), events.getResolvedEvents());
+
+		SchoolNurseStatsDTO.SupplyRequestStats supplyRequests = stats.getSupplyRequests();
+		assertEquals(restockRequestRepository.countByRequestDateBetween(start, end), supplyRequests.getTotalRequests());
+		assertEquals(restockRequestRepository.countByStatusAndRequestDateBetween(RestockStatus.PENDING, start, end), supplyRequests.getPendingRequests());
+		assertEquals(restockRequestRepository.countByStatusAndRequestDateBetween(RestockStatus.APPROVED, start, end), supplyRequests.getApprovedRequests());
+		assertEquals(restockRequestRepository.countByStatusAndRequestDateBetween(RestockStatus.REJECTED, start, end), supplyRequests.getRejectedRequests());
+		assertEquals(restockRequestRepository.countByStatusAndRequestDateBetween(RestockStatus.COMPLETED, start, end), supplyRequests.getCompletedRequests());
+
+		SchoolNurseStatsDTO.VaccinationCampaignStats vaccination = stats.getVaccinationCampaigns();
+		assertEquals(vaccinationCampaignRepository.countByCreatedDateBetween(start, end), vaccination.getTotalCampaigns());
+		assertEquals(vaccinationCampaignRepository.countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus.REJECTED, start, end), vaccination.getRejectedCampaigns());
+		assertEquals(vaccinationCampaignRepository.countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus.APPROVED, start, end), vaccination.getApprovedCampaigns());
+		assertEquals(vaccinationCampaignRepository.countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus.IN_PROGRESS, start, end), vaccination.getInProgressCampaigns());
+		assertEquals(vaccinationCampaignRepository.countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus.COMPLETED, start, end), vaccination.getCompletedCampaigns());
+		assertEquals(vaccinationCampaignRepository.countByStatusAndCreatedDateBetween(VaccinationCampaign.CampaignStatus.PENDING, start, end), vaccination.getPendingCampaigns());
+
+		SchoolNurseStatsDTO.HealthCheckCampaignStats healthCheck = stats.getHealthCheckCampaigns();
+		assertEquals(healthCheckCampaignRepository.countByCreatedAtBetween(start, end), healthCheck.getTotalCampaigns());
+		assertEquals(healthCheckCampaignRepository.countByStatusAndCreatedAtBetween(CampaignStatus.CANCELED, start, end), healthCheck.getRejectedCampaigns());
+		assertEquals(healthCheckCampaignRepository.countByStatusAndCreatedAtBetween(CampaignStatus.APPROVED, start, end), healthCheck.getApprovedCampaigns());
+		assertEquals(healthCheckCampaignRepository.countByStatusAndCreatedAtBetween(CampaignStatus.IN_PROGRESS, start, end), healthCheck.getInProgressCampaigns());
+		assertEquals(healthCheckCampaignRepository.countByStatusAndCreatedAtBetween(CampaignStatus.COMPLETED, start, end), healthCheck.getCompletedCampaigns());
+		assertEquals(healthCheckCampaignRepository.countByStatusAndCreatedAtBetween(CampaignStatus.PENDING, start, end), healthCheck.getPendingCampaigns());
+
+		SchoolNurseStatsDTO.HealthProfileStats profiles = stats.getHealthProfiles();
+		assertEquals(healthProfileRepository.countByStatusAndCreatedAtBetween(ProfileStatus.PENDING, startDate, endDate), profiles.getPendingProfiles());
+		assertEquals(healthProfileRepository.countByStatusAndCreatedAtBetween(ProfileStatus.APPROVED, startDate, endDate), profiles.getApprovedProfiles());
+		assertEquals(healthProfileRepository.countByStatusAndCreatedAtBetween(ProfileStatus.REJECTED, startDate, endDate), profiles.getRejectedProfiles());
+	}
+}
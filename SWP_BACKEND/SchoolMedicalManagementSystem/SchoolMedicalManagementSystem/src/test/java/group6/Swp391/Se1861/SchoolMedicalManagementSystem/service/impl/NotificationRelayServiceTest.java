@@ -0,0 +1,107 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.dto.NotificationDTO;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.model.NotificationRelay;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.repository.NotificationRelayRepository;
+import group6.Swp391.Se1861.SchoolMedicalManagementSystem.service.INotificationStreamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationRelayServiceTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final NotificationRelayRepository relayRepository = mock(NotificationRelayRepository.class);
+	private final INotificationStreamService streamService = mock(INotificationStreamService.class);
+	private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+
+	private NotificationRelayService relayService;
+	private Map<Long, NotificationRelay> rows;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		relayService = new NotificationRelayService(relayRepository, streamService, messagingTemplate,
+				objectMapper, mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(relayService, "windowSeconds", 60L);
+		ReflectionTestUtils.setField(relayService, "maxAttempts", 3);
+
+		rows = Map.of(1L, row(1L, "alice"), 2L, row(2L, "bob"));
+		when(relayRepository.findByIdInOrderById(any())).thenAnswer(invocation -> {
+			List<NotificationRelay> found = new ArrayList<>();
+			for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+				found.add(rows.get(id));
+			}
+			found.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+			return found;
+		});
+
+		// First poll only primes the window
+		when(relayRepository.findIdsCreatedAfter(any())).thenReturn(List.of());
+		relayService.deliverPending();
+		when(relayRepository.findIdsCreatedAfter(any())).thenReturn(List.of(1L, 2L));
+	}
+
+	@Test
+	void failedPushIsRetriedOnTheNextPoll() {
+		doThrow(new MessagingException("broker down"))
+				.doNothing()
+				.when(messagingTemplate).convertAndSendToUser(eq("alice"), anyString(), any(Object.class));
+
+		relayService.deliverPending();
+		verify(messagingTemplate).convertAndSendToUser(eq("alice"), anyString(), any(Object.class));
+		verify(messagingTemplate).convertAndSendToUser(eq("bob"), anyString(), any(Object.class));
+		verify(streamService, times(0)).publish(eq("alice"), anyList());
+
+		relayService.deliverPending();
+		verify(messagingTemplate, times(2)).convertAndSendToUser(eq("alice"), anyString(), any(Object.class));
+		verify(streamService).publish(eq("alice"), anyList());
+		// Delivered rows are not pushed again
+		verify(messagingTemplate).convertAndSendToUser(eq("bob"), anyString(), any(Object.class));
+
+		relayService.deliverPending();
+		verify(messagingTemplate, times(2)).convertAndSendToUser(eq("alice"), anyString(), any(Object.class));
+	}
+
+	@Test
+	void pushThatKeepsFailingIsDroppedAfterMaxAttempts() {
+		doThrow(new MessagingException("broker down"))
+				.when(messagingTemplate).convertAndSendToUser(eq("alice"), anyString(), any(Object.class));
+		doNothing().when(messagingTemplate).convertAndSendToUser(eq("bob"), anyString(), any(Object.class));
+
+		for (int poll = 0; poll < 5; poll++) {
+			relayService.deliverPending();
+		}
+
+		verify(messagingTemplate, times(3)).convertAndSendToUser(eq("alice"), anyString(), any(Object.class));
+		verify(messagingTemplate).convertAndSendToUser(eq("bob"), anyString(), any(Object.class));
+		verify(streamService, times(0)).publish(eq("alice"), anyList());
+	}
+
+	private NotificationRelay row(Long id, String username) throws Exception {
+		NotificationDTO dto = new NotificationDTO();
+		dto.setId(id);
+		dto.setTitle("Notification " + id);
+		return new NotificationRelay(id, username, objectMapper.writeValueAsString(List.of(dto)), LocalDateTime.now());
+	}
+}
@@ -0,0 +1,81 @@
+package group6.Swp391.Se1861.SchoolMedicalManagementSystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimerWheelTest {
+
+	private static final long TICK = 1000;
+
+	@Test
+	void itemBeyondFirstLevelCascadesDownAndFiresOnItsTick() {
+		HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 2, 0);
+		assertTrue(wheel.add(100 * TICK, "level1"));
+
+		assertTrue(wheel.advance(99 * TICK).isEmpty());
+		assertEquals(1, wheel.size());
+		assertEquals(List.of("level1"), wheel.advance(100 * TICK));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void itemInTheSameSlotOneRotationLaterWaitsForTheNextRotation() {
+		// Start in level-1 slot 1; due 65 level-1 slots later, which maps to slot 1 again
+		HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 2, 100 * TICK);
+		long due = (64 * 65 + 10) * TICK;
+		assertTrue(wheel.add(due, "wrapped"));
+
+		assertTrue(wheel.advance(due - TICK).isEmpty());
+		assertEquals(List.of("wrapped"), wheel.advance(due));
+	}
+
+	@Test
+	void levelZeroSlotsWrapAround() {
+		HierarchicalTimerWheel<Integer> wheel = new HierarchicalTimerWheel<>(TICK, 2, 60 * TICK);
+		wheel.add(62 * TICK, 62);
+		wheel.add(66 * TICK, 66);
+
+		assertEquals(List.of(62), wheel.advance(62 * TICK));
+		assertTrue(wheel.advance(65 * TICK).isEmpty());
+		assertEquals(List.of(66), wheel.advance(66 * TICK));
+	}
+
+	@Test
+	void catchesUpEveryItemAfterALongPause() {
+		HierarchicalTimerWheel<Integer> wheel = new HierarchicalTimerWheel<>(TICK, 2, 0);
+		for (int i = 1; i < 4000; i += 7) {
+			assertTrue(wheel.add(i * TICK, i));
+		}
+		int added = wheel.size();
+
+		List<Integer> fired = wheel.advance(4000 * TICK);
+
+		assertEquals(added, fired.size());
+		List<Integer> sorted = new ArrayList<>(fired);
+		sorted.sort(null);
+		assertEquals(sorted, fired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void overdueItemFiresOnTheNextTick() {
+		HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 2, 50 * TICK);
+		wheel.add(10 * TICK, "late");
+
+		assertEquals(List.of("late"), wheel.advance(51 * TICK));
+	}
+
+	@Test
+	void rejectsItemsBeyondItsRange() {
+		HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 2, 0);
+
+		assertFalse(wheel.add(wheel.rangeEndMillis() + TICK, "too far"));
+		assertTrue(wheel.add(wheel.rangeEndMillis(), "last"));
+	}
+}
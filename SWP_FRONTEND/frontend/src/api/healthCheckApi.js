@@ -1,4 +1,5 @@
 import axios from "axios";
+import { waitForJob } from "./jobApi";
 
 const API_BASE_URL = "http://localhost:8080/api";
 
@@ -508,6 +509,10 @@ export const healthCheckApi = {
       const response = await healthCheckApiClient.post(
         `/nurse/health-check-campaigns/${campaignId}/generate-forms`
       );
+      // Generation runs as a background job; wait for its result
+      if (response.status === 202) {
+        return await waitForJob(response.data.jobId);
+      }
       return response.data;
     } catch (error) {
       console.error("Error generating health check forms:", error);
@@ -533,6 +538,10 @@ export const healthCheckApi = {
         `/nurse/health-check-campaigns/${campaignId}/send-notifications`,
         payload
       );
+      // Notifications are sent by a background job; wait for its result
+      if (response.status === 202) {
+        return await waitForJob(response.data.jobId);
+      }
       return response.data;
     } catch (error) {
       console.error("Error sending notifications to parents:", error);
@@ -34,6 +34,9 @@ export * from "./studentApi";
 // Health Profile Event APIs
 export * from "./healthProfileEventApi";
 
+// Background Job APIs
+export * from "./jobApi";
+
 // ==================== LEGACY SUPPORT ====================
 // Provide legacy imports to ensure backward compatibility
 
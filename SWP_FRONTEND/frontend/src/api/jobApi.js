@@ -0,0 +1,55 @@
+// ==================== BACKGROUND JOB API ====================
+// Long operations (form generation, notifications, Excel import) run as background jobs.
+// The starting request returns 202 with a jobId; these helpers poll the job until it finishes.
+
+import { API_CONFIG, apiRequest } from "./index";
+
+const JOB_API_BASE = `${API_CONFIG.BASE_URL}/jobs`;
+
+const FINISHED_STATUSES = ["COMPLETED", "FAILED", "CANCELLED"];
+
+/**
+ * Lấy trạng thái của một job
+ * @param {number} jobId - Job ID
+ * @returns {Promise<Object>} Job status, progress and result
+ */
+export const getJob = async (jobId) => {
+  return apiRequest(`${JOB_API_BASE}/${jobId}`);
+};
+
+/**
+ * Yêu cầu dừng một job
+ * @param {number} jobId - Job ID
+ * @returns {Promise<Object>} Job status
+ */
+export const cancelJob = async (jobId) => {
+  return apiRequest(`${JOB_API_BASE}/${jobId}/cancel`, { method: "POST" });
+};
+
+/**
+ * Chờ job kết thúc và trả về kết quả của job
+ * @param {number} jobId - Job ID
+ * @param {Object} options - onProgress(job) callback and polling interval in ms
+ * @returns {Promise<Object>} Result of the completed job
+ */
+export const waitForJob = async (jobId, { onProgress, intervalMs = 1500 } = {}) => {
+  for (;;) {
+    const job = await getJob(jobId);
+    if (onProgress) {
+      onProgress(job);
+    }
+
+    if (FINISHED_STATUSES.includes(job.status)) {
+      if (job.status === "COMPLETED") {
+        return job.result;
+      }
+      const error = new Error(
+        job.errorMessage || (job.status === "CANCELLED" ? "Tác vụ đã bị hủy" : "Tác vụ thất bại")
+      );
+      error.job = job;
+      throw error;
+    }
+
+    await new Promise((resolve) => setTimeout(resolve, intervalMs));
+  }
+};
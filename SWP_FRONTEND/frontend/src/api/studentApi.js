@@ -2,6 +2,7 @@
 // API functions for student management
 
 import { API_CONFIG, getAuthHeaders, handleApiError } from "./index";
+import { waitForJob } from "./jobApi";
 
 const STUDENT_API_BASE = `${API_CONFIG.BASE_URL}/manager/students`;
 
@@ -229,7 +230,12 @@ export const importStudentsFromExcel = async (file) => {
       );
     }
 
-    return await response.json();
+    const data = await response.json();
+    // Import runs as a background job; wait for its result
+    if (response.status === 202) {
+      return await waitForJob(data.jobId);
+    }
+    return data;
   } catch (error) {
     throw new Error(handleApiError(error, "Không thể import file Excel"));
   }
@@ -1,4 +1,5 @@
 import axios from "axios";
+import { waitForJob } from "./jobApi";
 
 const API_BASE_URL = "http://localhost:8080/api";
 
@@ -142,6 +143,10 @@ export const vaccinationCampaignApi = {
       const response = await vaccinationApiClient.post(
         `/nurse/vaccination-campaigns/${campaignId}/generate-forms`
       );
+      // Generation runs as a background job; wait for its result
+      if (response.status === 202) {
+        return await waitForJob(response.data.jobId);
+      }
       return response.data;
     } catch (error) {
       console.error(
@@ -160,6 +165,10 @@ export const vaccinationCampaignApi = {
         `/nurse/vaccination-campaigns/${campaignId}/send-forms`,
         requestBody
       );
+      // Forms are sent by a background job; wait for its result
+      if (response.status === 202) {
+        return await waitForJob(response.data.jobId);
+      }
       return response.data;
     } catch (error) {
       console.error(`Error sending forms for campaign ${campaignId}:`, error);
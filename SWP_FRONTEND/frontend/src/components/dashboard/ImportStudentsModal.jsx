@@ -80,7 +80,7 @@ const ImportStudentsModal = ({ visible, onCancel, onSuccess }) => {
       const response = await importStudentsFromExcel(file);
       
       // Extract counts from response
-      const studentsCount = response.students?.length || 0;
+      const studentsCount = response.studentsCreated ?? response.students?.length ?? 0;
       
       // Try to extract parent count from the message or fallback to simple calculation
       let parentsCount = 0;
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from "react";
-import { Spin, Row, Col, Typography, Progress } from "antd";
+import { Spin, Row, Col, Typography, Progress, Alert } from "antd";
 import managerApi from "../../api/managerApi";
 import {
   Chart as ChartJS,
@@ -60,34 +60,10 @@ const ManagerOverview = () => {
       setSystemOverview(overviewData);
     } catch (error) {
       console.error("Error fetching dashboard data:", error);
-      // Set fallback data if APIs fail
-      setDashboardStats({
-        vaccination: { pending: 1, total: 3, approved: 2, completed: 1, rejected: 0, inProgress: 0 },
-        healthCheck: { pending: 2, total: 3, approved: 2, completed: 1, cancelled: 0, inProgress: 0 },
-        medicalEvents: { total: 1, emergency: 0, resolved: 1, pending: 0 },
-        inventory: { totalSupplies: 156, lowStockItems: 23, outOfStockItems: 5, pendingRestockRequests: 4 },
-        systemHealth: { 
-          overallScore: 100,  // (2+1+0)+(2+1+0) = 6/6 = 100% (all non-pending/non-cancelled)
-          vaccinationHealth: 100,
-          healthCheckHealth: 100,
-          medicalEventHealth: 100
-        }
-      });
+      // Show empty panels instead of made-up numbers when the APIs fail
+      setDashboardStats({ degraded: true });
       setMonthlyTrends({ monthlyData: [] });
-      setSystemOverview({
-        totalVaccinationCampaigns: 30,
-        totalHealthCheckCampaigns: 19,
-        recentActivity: {
-          vaccinationCampaigns: 3,
-          healthCheckCampaigns: 2,
-          medicalEvents: 12
-        },
-        urgentItems: {
-          pendingVaccinationApprovals: 3,
-          pendingHealthCheckApprovals: 2,
-          pendingRestockRequests: 4
-        }
-      });
+      setSystemOverview({ degraded: true });
     } finally {
       setLoading(false);
     }
@@ -245,6 +221,15 @@ const ManagerOverview = () => {
       <h2>Tổng quan Y tế Học đường</h2>
 
       <Spin spinning={loading}>
+        {(dashboardStats?.degraded || systemOverview?.degraded) && (
+          <Alert
+            type="warning"
+            showIcon
+            style={{ marginBottom: 16 }}
+            message="Một số số liệu hiện không tải được, các mục tương ứng có thể đang hiển thị 0."
+          />
+        )}
+
         {/* Main Statistics Grid */}
         <div className="stats-grid">
           <div className="stat-card">
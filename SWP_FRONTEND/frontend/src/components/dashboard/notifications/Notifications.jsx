@@ -411,7 +411,15 @@ const Notifications = ({ role = "parent" }) => {
           };
 
           // Add new notification to the beginning of the list
-          setNotifications((prev) => [transformedNotification, ...prev]);
+          // (a merged digest replaces an older notification, so drop that copy)
+          const replacedId = newNotification.replacesNotificationId;
+          setNotifications((prev) => [
+            transformedNotification,
+            ...prev.filter(
+              (item) =>
+                item.id !== transformedNotification.id && item.id !== replacedId
+            ),
+          ]);
         }
       );
     } catch (error) {
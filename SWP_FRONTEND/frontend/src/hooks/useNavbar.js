@@ -70,11 +70,23 @@ export const useNavbar = () => {
           // Transform the new notification
           const transformedNotification = notificationService.transformRealtimeNotification(newNotification);
 
-          // Add new notification to the beginning of the list (keep max 5)
-          setNotifications((prev) => [transformedNotification, ...prev].slice(0, 5));
+          // Add new notification to the beginning of the list (keep max 5),
+          // dropping the older copy a merged digest replaces
+          const replacedId = newNotification.replacesNotificationId;
+          setNotifications((prev) =>
+            [
+              transformedNotification,
+              ...prev.filter((item) => item.id !== replacedId),
+            ].slice(0, 5)
+          );
           setNotificationCount((prev) => prev + 1);
         }
       );
+
+      // Server pushes the authoritative unread count whenever it changes
+      webSocketService.addUnreadCountHandler("navbar-unread-count", (count) => {
+        setNotificationCount(count);
+      });
     } catch (error) {
       console.error("Error setting up WebSocket connection in navbar:", error);
     }
@@ -178,6 +190,7 @@ export const useNavbar = () => {
       // Cleanup WebSocket when component unmounts
       if (webSocketService.isConnected()) {
         webSocketService.removeMessageHandler("navbar-notifications");
+        webSocketService.removeUnreadCountHandler("navbar-unread-count");
       }
     };
   }, [isParent, isSchoolNurse, isManager, user, canSeeNotifications, loadNotifications, setupWebSocketConnection]);
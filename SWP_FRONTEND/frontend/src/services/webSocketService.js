@@ -8,6 +8,7 @@ class WebSocketService {
     this.connected = false;
     this.subscriptions = new Map();
     this.messageHandlers = new Map();
+    this.unreadCountHandlers = new Map();
     this.reconnectAttempts = 0;
     this.maxReconnectAttempts = 5;
     this.reconnectDelay = 3000;
@@ -197,18 +198,33 @@ class WebSocketService {
         (message) => {
           try {
             const notification = JSON.parse(message.body);
-            console.log("Received notification:", notification);
-
-            // Call all registered message handlers
-            this.messageHandlers.forEach((handler, handlerName) => {
-              try {
-                handler(notification);
-              } catch (error) {
-                console.error(
-                  `Error in message handler ${handlerName}:`,
-                  error
-                );
-              }
+
+            // Unread badge updates share the queue but are not notifications
+            if (notification.eventType === "UNREAD_COUNT") {
+              this.unreadCountHandlers.forEach((handler) => handler(notification.count));
+              return;
+            }
+
+            // Several notifications for the same user may arrive coalesced in one frame
+            const notifications =
+              notification.eventType === "NOTIFICATION_BATCH"
+                ? notification.notifications || []
+                : [notification];
+
+            notifications.forEach((item) => {
+              console.log("Received notification:", item);
+
+              // Call all registered message handlers
+              this.messageHandlers.forEach((handler, handlerName) => {
+                try {
+                  handler(item);
+                } catch (error) {
+                  console.error(
+                    `Error in message handler ${handlerName}:`,
+                    error
+                  );
+                }
+              });
             });
           } catch (error) {
             console.error("Error processing notification message:", error);
@@ -231,6 +247,14 @@ class WebSocketService {
     this.messageHandlers.delete(name);
   }
 
+  addUnreadCountHandler(name, handler) {
+    this.unreadCountHandlers.set(name, handler);
+  }
+
+  removeUnreadCountHandler(name) {
+    this.unreadCountHandlers.delete(name);
+  }
+
   handleReconnect(token) {
     if (this.reconnectAttempts < this.maxReconnectAttempts) {
       this.reconnectAttempts++;